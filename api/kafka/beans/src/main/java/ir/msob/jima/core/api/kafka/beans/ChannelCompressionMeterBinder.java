@@ -0,0 +1,86 @@
+package ir.msob.jima.core.api.kafka.beans;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import ir.msob.jima.core.api.kafka.commons.ChannelCompressionMetrics;
+import ir.msob.jima.core.api.kafka.commons.ChannelPayloadCompression;
+import org.jspecify.annotations.NonNull;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * This class publishes the counters of {@link ChannelPayloadCompression} as Micrometer meters, tagged with the
+ * `channel`, in the registries it is bound to (the application registries, when Spring Boot Actuator is present):
+ * <ul>
+ *     <li>`jima.kafka.compression.payloads`, the payloads sent, by `result` (compressed, below_threshold,
+ *     incompressible);</li>
+ *     <li>`jima.kafka.compression.bytes`, the sizes of the compressed payloads, by `stage` (uncompressed,
+ *     compressed);</li>
+ *     <li>`jima.kafka.compression.ratio`, the ratio of the compressed size to the uncompressed size;</li>
+ *     <li>`jima.kafka.compression.time`, the time spent compressing and decompressing, by `operation`.</li>
+ * </ul>
+ * The meters of a channel are registered when its first payload is compressed or decompressed.
+ */
+@Component
+public class ChannelCompressionMeterBinder implements MeterBinder, DisposableBean {
+
+    private final List<Consumer<ChannelCompressionMetrics>> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        Consumer<ChannelCompressionMetrics> listener = metrics -> register(registry, metrics);
+        listeners.add(listener);
+        ChannelPayloadCompression.addMetricsListener(listener);
+    }
+
+    /**
+     * Stops registering the meters of the new channels.
+     */
+    @Override
+    public void destroy() {
+        listeners.forEach(ChannelPayloadCompression::removeMetricsListener);
+        listeners.clear();
+    }
+
+    private static void register(MeterRegistry registry, ChannelCompressionMetrics metrics) {
+        String channel = metrics.getChannel();
+        FunctionCounter.builder("jima.kafka.compression.payloads", metrics, ChannelCompressionMetrics::getCompressed)
+                .tags("channel", channel, "result", "compressed")
+                .register(registry);
+        FunctionCounter.builder("jima.kafka.compression.payloads", metrics, ChannelCompressionMetrics::getBelowThreshold)
+                .tags("channel", channel, "result", "below_threshold")
+                .register(registry);
+        FunctionCounter.builder("jima.kafka.compression.payloads", metrics, ChannelCompressionMetrics::getIncompressible)
+                .tags("channel", channel, "result", "incompressible")
+                .register(registry);
+        FunctionCounter.builder("jima.kafka.compression.bytes", metrics, ChannelCompressionMetrics::getUncompressedBytes)
+                .tags("channel", channel, "stage", "uncompressed")
+                .baseUnit("bytes")
+                .register(registry);
+        FunctionCounter.builder("jima.kafka.compression.bytes", metrics, ChannelCompressionMetrics::getCompressedBytes)
+                .tags("channel", channel, "stage", "compressed")
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("jima.kafka.compression.ratio", metrics, ChannelCompressionMetrics::getRatio)
+                .tags("channel", channel)
+                .register(registry);
+        FunctionTimer.builder("jima.kafka.compression.time", metrics,
+                        m -> m.getCompressed() + m.getIncompressible(),
+                        ChannelCompressionMetrics::getCompressionNanos, TimeUnit.NANOSECONDS)
+                .tags("channel", channel, "operation", "compress")
+                .register(registry);
+        FunctionTimer.builder("jima.kafka.compression.time", metrics,
+                        ChannelCompressionMetrics::getDecompressed,
+                        ChannelCompressionMetrics::getDecompressionNanos, TimeUnit.NANOSECONDS)
+                .tags("channel", channel, "operation", "decompress")
+                .register(registry);
+    }
+}
@@ -2,30 +2,82 @@ package ir.msob.jima.core.api.kafka.beans;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import ir.msob.jima.core.api.kafka.commons.ChannelPayloadCompression;
+import ir.msob.jima.core.beans.properties.JimaProperties;
 import ir.msob.jima.core.commons.channel.ChannelMessage;
+import ir.msob.jima.core.commons.channel.codec.ChannelMessageCodec;
+import ir.msob.jima.core.commons.channel.codec.ChannelMessageCodecs;
 import ir.msob.jima.core.commons.client.BaseAsyncClient;
 import ir.msob.jima.core.commons.methodstats.MethodStats;
+import ir.msob.jima.core.commons.properties.KafkaProperties;
 import ir.msob.jima.core.commons.security.BaseUser;
 import ir.msob.jima.core.commons.shared.ModelType;
 import ir.msob.jima.core.commons.util.Strings;
 import lombok.RequiredArgsConstructor;
-import lombok.SneakyThrows;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.record.CompressionType;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
 import org.jspecify.annotations.NonNull;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.kafka.core.KafkaOperations;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
 
 /**
  * This service class, KafkaAsyncClient, implements the BaseAsyncClient interface and is responsible for sending messages asynchronously to Kafka.
+ * <p>
+ * The messages are serialized and sent on subscription, and the returned Mono completes when the broker
+ * acknowledges the record, or fails with the delivery error. {@link #sendAll} pipelines a stream of messages,
+ * keeping up to `jima.kafka.producer.max-in-flight` of them waiting for their acknowledgement, in the order of the
+ * stream. The channels configured under `jima.kafka.producer.channels` with a linger or a batch size are sent by a
+ * producer created from the application producer factory with these settings, shared by the channels with the
+ * same settings.
+ * <p>
+ * The messages are JSON strings, unless `jima.kafka.producer.codec` (or the codec of the channel) names another
+ * {@link ChannelMessageCodec}: the messages are then encoded to bytes, sent by a producer with a byte array value
+ * serializer created from the application producer factory (which therefore configures its serializers by
+ * properties, as Spring Boot does), one per distinct linger and batch size, with the name of the codec in the {@link ChannelMessageCodec#HEADER} header.
+ * The codecs are the built-in ones of {@link ChannelMessageCodecs} and the ChannelMessageCodec beans.
+ * <p>
+ * When `jima.kafka.producer.compression` (or the compression of the channel) is set, the messages are sent as
+ * bytes too, and the encoded messages reaching the compression threshold are compressed by
+ * {@link ChannelPayloadCompression}, which flags them with a header and counts their compression.
+ * <p>
+ * With a transactional producer, a message sent outside a transaction is sent in a transaction of its own, on the
+ * bounded elastic scheduler as committing blocks, and the messages of {@link #sendAll} are sent one at a time.
  */
 @Service
 @RequiredArgsConstructor
-public class KafkaAsyncClient implements BaseAsyncClient {
+public class KafkaAsyncClient implements BaseAsyncClient, DisposableBean {
     private final KafkaTemplate<@NonNull String, @NonNull String> kafkaTemplate;
     private final ObjectMapper objectMapper;
+    private final JimaProperties jimaProperties;
+    private final ObjectProvider<ChannelMessageCodec> channelMessageCodecProvider;
+
+    // The templates of the channels with a producer configuration of their own, by producer overrides, created on first use
+    private final Map<Map<String, Object>, KafkaTemplate<@NonNull String, @NonNull String>> overrideTemplates = new ConcurrentHashMap<>();
+    // The templates sending the encoded messages, by producer overrides, created on first use
+    private final Map<Map<String, Object>, KafkaTemplate<@NonNull String, byte[]>> binaryOverrideTemplates = new ConcurrentHashMap<>();
+    // The templates of the channels, resolved on first use
+    private final Map<String, KafkaTemplate<@NonNull String, @NonNull String>> channelTemplates = new ConcurrentHashMap<>();
+    private final Map<String, KafkaTemplate<@NonNull String, byte[]>> binaryTemplates = new ConcurrentHashMap<>();
+    private volatile ChannelMessageCodecs channelMessageCodecs;
 
     /**
      * Send a ChannelMessage to a Kafka channel.
@@ -35,8 +87,6 @@ public class KafkaAsyncClient implements BaseAsyncClient {
      * @param user           An optional user associated with the message.
      */
     @MethodStats
-    @SneakyThrows
-    @Transactional
     @Override
     public <USER extends BaseUser, DATA extends ModelType> Mono<@NonNull Void> send(String channel, ChannelMessage<USER, DATA> channelMessage, USER user) {
         // Set the user information in the ChannelMessage.
@@ -46,7 +96,6 @@ public class KafkaAsyncClient implements BaseAsyncClient {
         return sendMessage(channel, channelMessage.getKey(), channelMessage);
     }
 
-    @Transactional
     @Override
     public <USER extends BaseUser, DATA extends ModelType> Mono<@NonNull Void> send(String channel, ChannelMessage<USER, DATA> channelMessage) throws JsonProcessingException {
         return sendMessage(channel, channelMessage.getKey(), channelMessage);
@@ -60,8 +109,6 @@ public class KafkaAsyncClient implements BaseAsyncClient {
      * @param user           An optional user associated with the message.
      */
     @MethodStats
-    @SneakyThrows
-    @Transactional
     @Override
     public <USER extends BaseUser> Mono<@NonNull Void> send(String channel, Map<String, Object> channelMessage, USER user) {
         // Set the user information in the ChannelMessage.
@@ -70,20 +117,171 @@ public class KafkaAsyncClient implements BaseAsyncClient {
         return sendMessage(channel, key, channelMessage);
     }
 
-    private Mono<@NonNull Void> sendMessage(String channel, String key, Object message) throws JsonProcessingException {
-        // Serialize the Map to JSON and send it to the Kafka channel.
-        String msg = objectMapper.writeValueAsString(message);
-        if (Strings.isNotBlank(key)) {
-            return Mono.defer(() -> {
-                kafkaTemplate.send(channel, key, msg);
-                return Mono.empty();
-            });
-        } else {
-            return Mono.defer(() -> {
-                kafkaTemplate.send(channel, msg);
-                return Mono.empty();
+    /**
+     * Send a stream of ChannelMessages to a Kafka channel, pipelined: the records are handed to the producer in the
+     * order of the stream, which batches them, without waiting for the acknowledgement of the previous ones.
+     *
+     * @param channel         The Kafka channel to which the messages should be sent.
+     * @param channelMessages The ChannelMessages to be sent.
+     * @return A Mono completing when all the records are acknowledged, or failing with the first delivery error.
+     */
+    @MethodStats
+    @Override
+    public <USER extends BaseUser, DATA extends ModelType> Mono<@NonNull Void> sendAll(String channel, Flux<ChannelMessage<USER, DATA>> channelMessages) {
+        boolean binary = codec(channel) != null || compression(channel) != CompressionType.NONE;
+        int maxInFlight = isTransactional(binary ? binaryTemplate(channel) : template(channel)) ? 1 : maxInFlight(channel);
+        return channelMessages
+                .flatMap(channelMessage -> sendMessage(channel, channelMessage.getKey(), channelMessage), maxInFlight)
+                .then();
+    }
+
+    /**
+     * Closes the producers of the channels with a producer configuration of their own, and the producers of the
+     * encoded messages.
+     */
+    @Override
+    public void destroy() throws Exception {
+        for (KafkaTemplate<?, ?> template : overrideTemplates.values()) {
+            destroy(template);
+        }
+        for (KafkaTemplate<?, ?> template : binaryOverrideTemplates.values()) {
+            destroy(template);
+        }
+        channelTemplates.clear();
+        binaryTemplates.clear();
+        overrideTemplates.clear();
+        binaryOverrideTemplates.clear();
+    }
+
+    private static void destroy(KafkaTemplate<?, ?> template) throws Exception {
+        if (template.getProducerFactory() instanceof DisposableBean producerFactory) {
+            producerFactory.destroy();
+        }
+    }
+
+    private Mono<@NonNull Void> sendMessage(String channel, String key, Object message) {
+        return Mono.defer(() -> {
+            ChannelMessageCodec codec = codec(channel);
+            CompressionType compression = compression(channel);
+            if (codec == null && compression == CompressionType.NONE) {
+                return sendMessage(template(channel), () -> objectMapper.writeValueAsString(message),
+                        (operations, msg) -> send(operations, channel, key, msg));
+            }
+            ChannelMessageCodec binaryCodec = codec != null ? codec : channelMessageCodecs().get(ChannelMessageCodecs.JSON);
+            return sendMessage(binaryTemplate(channel), () -> binaryRecord(channel, key, message, binaryCodec, compression),
+                    (operations, producerRecord) -> operations.send(producerRecord));
+        });
+    }
+
+    private static <V, R> Mono<@NonNull Void> sendMessage(KafkaTemplate<@NonNull String, V> template,
+                                                           Callable<R> serializer,
+                                                           BiFunction<KafkaOperations<@NonNull String, V>, R, CompletableFuture<SendResult<@NonNull String, V>>> sender) {
+        // Serialize the message on subscription, so a serialization error fails the returned Mono.
+        return Mono.fromCallable(serializer)
+                .flatMap(msg -> {
+                    if (isTransactional(template)) {
+                        return Mono.fromCallable(() -> template.executeInTransaction(operations -> sender.apply(operations, msg)))
+                                .subscribeOn(Schedulers.boundedElastic())
+                                .flatMap(future -> Mono.fromFuture(future));
+                    }
+                    // Complete when the broker acknowledges the record.
+                    return Mono.fromFuture(() -> sender.apply(template, msg));
+                })
+                .then();
+    }
+
+    private static CompletableFuture<SendResult<@NonNull String, @NonNull String>> send(KafkaOperations<@NonNull String, @NonNull String> operations, String channel, String key, String msg) {
+        return Strings.isNotBlank(key) ? operations.send(channel, key, msg) : operations.send(channel, msg);
+    }
+
+    private ProducerRecord<@NonNull String, byte[]> binaryRecord(String channel, String key, Object message, ChannelMessageCodec codec, CompressionType compression) throws IOException {
+        byte[] payload = codec.encode(message);
+        byte[] compressed = ChannelPayloadCompression.compress(channel, compression, compressionThreshold(channel), payload);
+        ProducerRecord<@NonNull String, byte[]> producerRecord = new ProducerRecord<>(channel, Strings.isNotBlank(key) ? key : null, compressed != null ? compressed : payload);
+        producerRecord.headers().add(ChannelMessageCodec.HEADER, codec.getName().getBytes(StandardCharsets.UTF_8));
+        if (compressed != null) {
+            producerRecord.headers().add(ChannelPayloadCompression.HEADER, compression.name.getBytes(StandardCharsets.UTF_8));
+        }
+        return producerRecord;
+    }
+
+    private static boolean isTransactional(KafkaTemplate<?, ?> template) {
+        return template.isTransactional() && !template.inTransaction();
+    }
+
+    // The codec of the messages of a channel, or null for the JSON strings
+    private ChannelMessageCodec codec(String channel) {
+        KafkaProperties.Producer producer = jimaProperties.getKafka().getProducer();
+        KafkaProperties.ProducerChannel config = producer.getChannels().get(channel);
+        String name = config != null && config.getCodec() != null ? config.getCodec() : producer.getCodec();
+        if (Strings.isBlank(name) || ChannelMessageCodecs.JSON.equalsIgnoreCase(name)) {
+            return null;
+        }
+        return channelMessageCodecs().get(name);
+    }
+
+    private CompressionType compression(String channel) {
+        KafkaProperties.Producer producer = jimaProperties.getKafka().getProducer();
+        KafkaProperties.ProducerChannel config = producer.getChannels().get(channel);
+        String name = config != null && config.getCompression() != null ? config.getCompression() : producer.getCompression();
+        return Strings.isBlank(name) ? CompressionType.NONE : CompressionType.forName(name.toLowerCase());
+    }
+
+    private int compressionThreshold(String channel) {
+        KafkaProperties.Producer producer = jimaProperties.getKafka().getProducer();
+        KafkaProperties.ProducerChannel config = producer.getChannels().get(channel);
+        return config != null && config.getCompressionThreshold() != null ? config.getCompressionThreshold() : producer.getCompressionThreshold();
+    }
+
+    private ChannelMessageCodecs channelMessageCodecs() {
+        ChannelMessageCodecs codecs = channelMessageCodecs;
+        if (codecs == null) {
+            codecs = new ChannelMessageCodecs(objectMapper, channelMessageCodecProvider.orderedStream().toList());
+            channelMessageCodecs = codecs;
+        }
+        return codecs;
+    }
+
+    private int maxInFlight(String channel) {
+        KafkaProperties.Producer producer = jimaProperties.getKafka().getProducer();
+        KafkaProperties.ProducerChannel config = producer.getChannels().get(channel);
+        int maxInFlight = config != null && config.getMaxInFlight() != null ? config.getMaxInFlight() : producer.getMaxInFlight();
+        return Math.max(1, maxInFlight);
+    }
+
+    KafkaTemplate<@NonNull String, @NonNull String> template(String channel) {
+        KafkaProperties.ProducerChannel config = jimaProperties.getKafka().getProducer().getChannels().get(channel);
+        if (config == null || (config.getLinger() == null && config.getBatchSize() == null)) {
+            return kafkaTemplate;
+        }
+        return channelTemplates.computeIfAbsent(channel, key -> overrideTemplates.computeIfAbsent(producerOverrides(config),
+                overrides -> new KafkaTemplate<>(kafkaTemplate.getProducerFactory(), overrides)));
+    }
+
+    @SuppressWarnings("unchecked")
+    KafkaTemplate<@NonNull String, byte[]> binaryTemplate(String channel) {
+        return binaryTemplates.computeIfAbsent(channel, key -> {
+            Map<String, Object> overrides = producerOverrides(jimaProperties.getKafka().getProducer().getChannels().get(channel));
+            overrides.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
+            return binaryOverrideTemplates.computeIfAbsent(overrides, k -> {
+                ProducerFactory<?, ?> producerFactory = kafkaTemplate.getProducerFactory();
+                return new KafkaTemplate<>((ProducerFactory<@NonNull String, byte[]>) producerFactory, k);
             });
+        });
+    }
+
+    private static Map<String, Object> producerOverrides(KafkaProperties.ProducerChannel config) {
+        Map<String, Object> overrides = new HashMap<>();
+        if (config == null) {
+            return overrides;
+        }
+        if (config.getLinger() != null) {
+            overrides.put(ProducerConfig.LINGER_MS_CONFIG, config.getLinger().toMillis());
+        }
+        if (config.getBatchSize() != null) {
+            overrides.put(ProducerConfig.BATCH_SIZE_CONFIG, config.getBatchSize());
         }
+        return overrides;
     }
 
 }
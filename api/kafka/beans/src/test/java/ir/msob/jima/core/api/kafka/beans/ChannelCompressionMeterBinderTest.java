@@ -0,0 +1,47 @@
+package ir.msob.jima.core.api.kafka.beans;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import ir.msob.jima.core.api.kafka.commons.ChannelPayloadCompression;
+import org.apache.kafka.common.record.CompressionType;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link ChannelCompressionMeterBinder}.
+ */
+class ChannelCompressionMeterBinderTest {
+
+    /**
+     * Tests that the counters of the known and the new channels are published, and no more once destroyed.
+     */
+    @Test
+    void testBindToPublishesTheCountersOfTheChannels() throws Exception {
+        byte[] payload = "value".repeat(1000).getBytes(StandardCharsets.UTF_8);
+        ChannelPayloadCompression.compress("binder.known", CompressionType.GZIP, 0, payload);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ChannelCompressionMeterBinder binder = new ChannelCompressionMeterBinder();
+
+        binder.bindTo(registry);
+        ChannelPayloadCompression.compress("binder.new", CompressionType.GZIP, 0, payload);
+        ChannelPayloadCompression.compress("binder.new", CompressionType.GZIP, Integer.MAX_VALUE, payload);
+
+        FunctionCounter known = registry.get("jima.kafka.compression.payloads")
+                .tags("channel", "binder.known", "result", "compressed").functionCounter();
+        assertEquals(1, known.count());
+        assertEquals(1, registry.get("jima.kafka.compression.payloads")
+                .tags("channel", "binder.new", "result", "below_threshold").functionCounter().count());
+        FunctionTimer compress = registry.get("jima.kafka.compression.time")
+                .tags("channel", "binder.new", "operation", "compress").functionTimer();
+        assertEquals(1, compress.count());
+        assertTrue(registry.get("jima.kafka.compression.ratio").tags("channel", "binder.new").gauge().value() < 1);
+
+        binder.destroy();
+        ChannelPayloadCompression.compress("binder.later", CompressionType.GZIP, 0, payload);
+        assertNull(registry.find("jima.kafka.compression.payloads").tags("channel", "binder.later").meter());
+    }
+}
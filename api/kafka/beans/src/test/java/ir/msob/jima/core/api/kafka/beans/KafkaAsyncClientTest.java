@@ -1,19 +1,33 @@
 package ir.msob.jima.core.api.kafka.beans;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import ir.msob.jima.core.beans.properties.JimaProperties;
 import ir.msob.jima.core.commons.channel.ChannelMessage;
+import ir.msob.jima.core.commons.channel.codec.ChannelMessageCodec;
+import ir.msob.jima.core.commons.properties.KafkaProperties;
 import ir.msob.jima.core.commons.security.BaseUser;
 import ir.msob.jima.core.commons.shared.ModelType;
 import org.jspecify.annotations.NonNull;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 /**
  * Test class for {@link KafkaAsyncClient}.
@@ -27,6 +41,9 @@ class KafkaAsyncClientTest {
     @Mock
     private ObjectMapper objectMapper;
 
+    @Mock
+    private ObjectProvider<ChannelMessageCodec> channelMessageCodecProvider;
+
     private KafkaAsyncClient kafkaAsyncClient;
 
     /**
@@ -36,7 +53,11 @@ class KafkaAsyncClientTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
-        kafkaAsyncClient = new KafkaAsyncClient(kafkaTemplate, objectMapper);
+        kafkaAsyncClient = new KafkaAsyncClient(kafkaTemplate, objectMapper, new JimaProperties(), channelMessageCodecProvider);
+        Mockito.when(kafkaTemplate.send(Mockito.anyString(), Mockito.anyString()))
+                .thenReturn(CompletableFuture.completedFuture(null));
+        Mockito.when(kafkaTemplate.send(Mockito.anyString(), Mockito.anyString(), Mockito.anyString()))
+                .thenReturn(CompletableFuture.completedFuture(null));
     }
 
     /**
@@ -54,7 +75,7 @@ class KafkaAsyncClientTest {
         Mockito.when(objectMapper.writeValueAsString(Mockito.any())).thenReturn("serializedMessage");
 
         // Call the method under test
-        kafkaAsyncClient.send(channel, channelMessage, new BaseUser());
+        kafkaAsyncClient.send(channel, channelMessage, new BaseUser()).block();
 
         // Verify that the KafkaTemplate's send method is called with the expected arguments
         Mockito.verify(kafkaTemplate).send(Mockito.any(), Mockito.any());
@@ -77,9 +98,92 @@ class KafkaAsyncClientTest {
         Mockito.when(objectMapper.writeValueAsString(Mockito.any())).thenReturn("serializedMessage");
 
         // Call the method under test
-        kafkaAsyncClient.send(channel, channelMessage, new BaseUser());
+        kafkaAsyncClient.send(channel, channelMessage, new BaseUser()).block();
 
         // Verify that the KafkaTemplate's send method is called with the expected arguments
         Mockito.verify(kafkaTemplate).send(Mockito.any(), Mockito.any(), Mockito.any());
     }
+
+    /**
+     * Tests that nothing is serialized or sent before the subscription.
+     *
+     * @throws Exception if an error occurs during the test execution.
+     */
+    @Test
+    void testSendIsLazy() throws Exception {
+        ChannelMessage<BaseUser, ModelType> channelMessage = ChannelMessage.builder().build();
+        Mono<Void> send = kafkaAsyncClient.send("testChannel", channelMessage, new BaseUser());
+
+        Mockito.verifyNoInteractions(objectMapper);
+        Mockito.verify(kafkaTemplate, Mockito.never()).send(Mockito.anyString(), Mockito.anyString());
+
+        Mockito.when(objectMapper.writeValueAsString(Mockito.any())).thenReturn("serializedMessage");
+        send.block();
+        Mockito.verify(kafkaTemplate).send("testChannel", "serializedMessage");
+    }
+
+    /**
+     * Tests that the delivery error of the broker fails the returned Mono.
+     *
+     * @throws Exception if an error occurs during the test execution.
+     */
+    @Test
+    void testSendFailsWithTheDeliveryError() throws Exception {
+        IllegalStateException deliveryError = new IllegalStateException("not acknowledged");
+        Mockito.when(objectMapper.writeValueAsString(Mockito.any())).thenReturn("serializedMessage");
+        Mockito.when(kafkaTemplate.send(Mockito.anyString(), Mockito.anyString()))
+                .thenReturn(CompletableFuture.failedFuture(deliveryError));
+
+        ChannelMessage<BaseUser, ModelType> channelMessage = ChannelMessage.builder().build();
+        Mono<Void> send = kafkaAsyncClient.send("testChannel", channelMessage);
+
+        assertSame(deliveryError, assertThrows(IllegalStateException.class, send::block));
+    }
+
+    /**
+     * Tests that sendAll hands every record to the producer, in the order of the stream.
+     *
+     * @throws Exception if an error occurs during the test execution.
+     */
+    @Test
+    void testSendAllSendsEveryMessageInOrder() throws Exception {
+        Mockito.when(objectMapper.writeValueAsString(Mockito.any()))
+                .thenAnswer(invocation -> ((ChannelMessage<?, ?>) invocation.getArgument(0)).getKey());
+        Flux<ChannelMessage<BaseUser, ModelType>> channelMessages = Flux.range(0, 3)
+                .map(i -> ChannelMessage.<BaseUser, ModelType>builder().key("k" + i).build());
+
+        kafkaAsyncClient.sendAll("testChannel", channelMessages).block();
+
+        InOrder inOrder = Mockito.inOrder(kafkaTemplate);
+        for (int i = 0; i < 3; i++) {
+            inOrder.verify(kafkaTemplate).send("testChannel", "k" + i, "k" + i);
+        }
+    }
+
+    /**
+     * Tests that the channels with the same producer settings share a template, and so a producer.
+     */
+    @Test
+    void testTemplatesAreSharedByTheChannelsWithTheSameSettings() {
+        Mockito.when(kafkaTemplate.getProducerFactory()).thenReturn(new DefaultKafkaProducerFactory<>(new HashMap<>()));
+        JimaProperties jimaProperties = new JimaProperties();
+        Map<String, KafkaProperties.ProducerChannel> channels = jimaProperties.getKafka().getProducer().getChannels();
+        channels.put("a", channel(Duration.ofMillis(20)));
+        channels.put("b", channel(Duration.ofMillis(20)));
+        channels.put("c", channel(Duration.ofMillis(50)));
+        KafkaAsyncClient client = new KafkaAsyncClient(kafkaTemplate, objectMapper, jimaProperties, channelMessageCodecProvider);
+
+        assertSame(kafkaTemplate, client.template("other"));
+        assertSame(client.template("a"), client.template("b"));
+        assertNotSame(client.template("a"), client.template("c"));
+        assertSame(client.binaryTemplate("other"), client.binaryTemplate("another"));
+        assertSame(client.binaryTemplate("a"), client.binaryTemplate("b"));
+        assertNotSame(client.binaryTemplate("a"), client.binaryTemplate("other"));
+    }
+
+    private static KafkaProperties.ProducerChannel channel(Duration linger) {
+        KafkaProperties.ProducerChannel channel = new KafkaProperties.ProducerChannel();
+        channel.setLinger(linger);
+        return channel;
+    }
 }
@@ -1,13 +1,24 @@
 package ir.msob.jima.core.api.kafka.commons;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import ir.msob.jima.core.commons.channel.ChannelMessage;
+import ir.msob.jima.core.commons.channel.codec.ChannelMessageCodecs;
 import ir.msob.jima.core.commons.domain.BaseCriteria;
 import ir.msob.jima.core.commons.domain.BaseDto;
+import ir.msob.jima.core.commons.properties.KafkaProperties;
 import ir.msob.jima.core.commons.resource.listener.BaseListener;
 import ir.msob.jima.core.commons.security.BaseUser;
+import ir.msob.jima.core.commons.shared.ModelType;
 import org.jspecify.annotations.NonNull;
 import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import reactor.core.publisher.Mono;
 
 import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.function.Function;
 
 /**
  * This interface defines methods for creating and managing Kafka message listener containers.
@@ -34,4 +45,87 @@ public interface BaseKafkaListener<ID extends Comparable<ID> & Serializable, USE
      */
     ConsumerFactory<@NonNull String, @NonNull String> getKafkaConsumerFactory();
 
+    /**
+     * Gets the configuration of the concurrent listeners of this listener.
+     * The default configuration has one consumer per channel; implementations usually return
+     * `jima.kafka.listener` from their Jima properties.
+     *
+     * @return The configuration of the concurrent listeners.
+     */
+    default KafkaProperties.Listener getKafkaListenerProperties() {
+        return new KafkaProperties.Listener();
+    }
+
+    /**
+     * Gets the codecs decoding the ChannelMessages of the batch and key-ordered listeners, by the codec header of
+     * their records. The default codecs are the built-in ones, configured as the ObjectMapper of this listener.
+     *
+     * @return The codecs of the ChannelMessages.
+     */
+    default ChannelMessageCodecs getChannelMessageCodecs() {
+        return new ChannelMessageCodecs(getObjectMapper());
+    }
+
+    /**
+     * Starts a concurrent listener on a channel, handing each ChannelMessage to the handler. The ChannelMessages
+     * are read as JSON with the ObjectMapper of this listener, and the handling of each one is traced by
+     * {@link #tracedHandler}.
+     *
+     * @param channel The Kafka channel to listen to.
+     * @param type    The type of the ChannelMessages.
+     * @param handler The callback to handle a ChannelMessage, completing when it is processed.
+     * @param <DATA>  The type of the data of the ChannelMessages.
+     * @return The started container.
+     */
+    default <DATA extends ModelType> ConcurrentMessageListenerContainer<@NonNull String, @NonNull String> startListener(String channel,
+                                                                                                                       TypeReference<ChannelMessage<USER, DATA>> type,
+                                                                                                                       Function<ChannelMessage<USER, DATA>, Mono<?>> handler) {
+        Function<ChannelMessage<USER, DATA>, Mono<?>> tracedHandler = tracedHandler(channel, handler);
+        return KafkaListenerUtil.startListener(getKafkaConsumerFactory(), channel, getGroupId(), getKafkaListenerProperties(), message -> {
+            ChannelMessage<USER, DATA> channelMessage;
+            try {
+                channelMessage = getObjectMapper().readValue(message, type);
+            } catch (JsonProcessingException e) {
+                throw new UncheckedIOException(e);
+            }
+            tracedHandler.apply(channelMessage).block();
+        });
+    }
+
+    /**
+     * Starts a concurrent batch listener on a channel, handing the ChannelMessages of each poll to the handler
+     * together. The offsets of a poll are committed once the returned Mono completes. The ChannelMessages are
+     * decoded with the codec of their records, and their handling is traced by {@link #tracedBatchHandler}.
+     *
+     * @param channel The Kafka channel to listen to.
+     * @param type    The type of the ChannelMessages.
+     * @param handler The callback to handle the ChannelMessages of a poll, completing when they are processed.
+     * @param <DATA>  The type of the data of the ChannelMessages.
+     * @return The started container.
+     */
+    default <DATA extends ModelType> ConcurrentMessageListenerContainer<@NonNull String, byte[]> startBatchListener(String channel,
+                                                                                                                   TypeReference<ChannelMessage<USER, DATA>> type,
+                                                                                                                   Function<List<ChannelMessage<USER, DATA>>, Mono<?>> handler) {
+        return KafkaListenerUtil.startBatchListener(getKafkaConsumerFactory(), channel, getGroupId(), getKafkaListenerProperties(),
+                getChannelMessageCodecs(), type, tracedBatchHandler(channel, handler));
+    }
+
+    /**
+     * Starts a concurrent key-ordered listener on a channel: the ChannelMessages of a poll are handled in parallel
+     * across keys, and in order for a key. The offsets of a poll are committed once all its ChannelMessages are
+     * handled. The ChannelMessages are decoded with the codec of their records, and the handling of each one is
+     * traced by {@link #tracedHandler}.
+     *
+     * @param channel The Kafka channel to listen to.
+     * @param type    The type of the ChannelMessages.
+     * @param handler The callback to handle a ChannelMessage, completing when it is processed.
+     * @param <DATA>  The type of the data of the ChannelMessages.
+     * @return The started container.
+     */
+    default <DATA extends ModelType> ConcurrentMessageListenerContainer<@NonNull String, byte[]> startKeyOrderedListener(String channel,
+                                                                                                                        TypeReference<ChannelMessage<USER, DATA>> type,
+                                                                                                                        Function<ChannelMessage<USER, DATA>, Mono<?>> handler) {
+        return KafkaListenerUtil.startKeyOrderedListener(getKafkaConsumerFactory(), channel, getGroupId(), getKafkaListenerProperties(),
+                getChannelMessageCodecs(), type, tracedHandler(channel, handler));
+    }
 }
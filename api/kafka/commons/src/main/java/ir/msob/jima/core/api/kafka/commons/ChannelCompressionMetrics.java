@@ -0,0 +1,152 @@
+package ir.msob.jima.core.api.kafka.commons;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters of the payload compression of a channel, by {@link ChannelPayloadCompression}.
+ * <p>
+ * Counters are cumulative since the application started and are updated without locking. They cover the
+ * payloads this application sent (compressed, below the threshold, or not smaller once compressed) and received,
+ * so the ratio and the CPU time of a channel show whether its threshold and its compression type pay off.
+ */
+public final class ChannelCompressionMetrics {
+
+    private final String channel;
+    private final LongAdder compressed = new LongAdder();
+    private final LongAdder belowThreshold = new LongAdder();
+    private final LongAdder incompressible = new LongAdder();
+    private final LongAdder uncompressedBytes = new LongAdder();
+    private final LongAdder compressedBytes = new LongAdder();
+    private final LongAdder compressionNanos = new LongAdder();
+    private final LongAdder decompressed = new LongAdder();
+    private final LongAdder decompressionNanos = new LongAdder();
+
+    ChannelCompressionMetrics(String channel) {
+        this.channel = channel;
+    }
+
+    void compressed(int uncompressedSize, int compressedSize, long nanos) {
+        compressed.increment();
+        uncompressedBytes.add(uncompressedSize);
+        compressedBytes.add(compressedSize);
+        compressionNanos.add(nanos);
+    }
+
+    void belowThreshold() {
+        belowThreshold.increment();
+    }
+
+    void incompressible(long nanos) {
+        incompressible.increment();
+        compressionNanos.add(nanos);
+    }
+
+    void decompressed(long nanos) {
+        decompressed.increment();
+        decompressionNanos.add(nanos);
+    }
+
+    /**
+     * Returns the name of the channel.
+     *
+     * @return the channel
+     */
+    public String getChannel() {
+        return channel;
+    }
+
+    /**
+     * Returns the number of payloads sent compressed.
+     *
+     * @return the number of compressed payloads
+     */
+    public long getCompressed() {
+        return compressed.sum();
+    }
+
+    /**
+     * Returns the number of payloads sent uncompressed as they were smaller than the threshold.
+     *
+     * @return the number of payloads below the threshold
+     */
+    public long getBelowThreshold() {
+        return belowThreshold.sum();
+    }
+
+    /**
+     * Returns the number of payloads sent uncompressed as they were not smaller once compressed.
+     *
+     * @return the number of incompressible payloads
+     */
+    public long getIncompressible() {
+        return incompressible.sum();
+    }
+
+    /**
+     * Returns the size of the compressed payloads before compression.
+     *
+     * @return the number of bytes
+     */
+    public long getUncompressedBytes() {
+        return uncompressedBytes.sum();
+    }
+
+    /**
+     * Returns the size of the compressed payloads after compression.
+     *
+     * @return the number of bytes
+     */
+    public long getCompressedBytes() {
+        return compressedBytes.sum();
+    }
+
+    /**
+     * Returns the compressed size over the uncompressed size of the compressed payloads, 1 when none was.
+     *
+     * @return the compression ratio
+     */
+    public double getRatio() {
+        long uncompressed = getUncompressedBytes();
+        return uncompressed == 0 ? 1 : (double) getCompressedBytes() / uncompressed;
+    }
+
+    /**
+     * Returns the time spent compressing, including the payloads that turned out incompressible.
+     *
+     * @return the time in nanoseconds
+     */
+    public long getCompressionNanos() {
+        return compressionNanos.sum();
+    }
+
+    /**
+     * Returns the number of payloads received compressed.
+     *
+     * @return the number of decompressed payloads
+     */
+    public long getDecompressed() {
+        return decompressed.sum();
+    }
+
+    /**
+     * Returns the time spent decompressing.
+     *
+     * @return the time in nanoseconds
+     */
+    public long getDecompressionNanos() {
+        return decompressionNanos.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "ChannelCompressionMetrics{channel=" + channel
+                + ", compressed=" + getCompressed()
+                + ", belowThreshold=" + getBelowThreshold()
+                + ", incompressible=" + getIncompressible()
+                + ", ratio=" + getRatio()
+                + ", compressionNanos=" + getCompressionNanos()
+                + ", decompressed=" + getDecompressed()
+                + ", decompressionNanos=" + getDecompressionNanos()
+                + "}";
+    }
+}
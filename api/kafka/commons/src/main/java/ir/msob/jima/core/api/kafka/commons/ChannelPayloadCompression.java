@@ -0,0 +1,147 @@
+package ir.msob.jima.core.api.kafka.commons;
+
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.record.CompressionType;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Compression of the payloads of the channel records, on top of the batch compression of the producer.
+ * <p>
+ * A payload is compressed on its own when it reaches the threshold of its channel, so a large message fits the
+ * broker message limit and takes less bandwidth whatever the batching of the producer, while the small ones are
+ * not slowed down. A compressed payload carries the compression type in the {@link #HEADER} record header, and
+ * is sent uncompressed when it is not smaller once compressed. The compression types are the ones of Kafka
+ * (gzip, snappy, lz4 and zstd), with the implementations shipped with the Kafka client.
+ * <p>
+ * The compressed payloads are decompressed by all the listeners of {@link KafkaListenerUtil}, the record
+ * listeners handing Strings included.
+ * <p>
+ * The counters of each channel are kept in {@link ChannelCompressionMetrics}, see {@link #getMetrics()}; they are
+ * handed to the metrics listeners as the channels appear, which publish them, e.g. as Micrometer meters.
+ */
+public final class ChannelPayloadCompression {
+
+    /**
+     * The name of the record header holding the compression type of a compressed payload.
+     */
+    public static final String HEADER = "jima-compression";
+
+    private static final Map<String, ChannelCompressionMetrics> METRICS = new ConcurrentHashMap<>();
+    private static final List<Consumer<ChannelCompressionMetrics>> METRICS_LISTENERS = new CopyOnWriteArrayList<>();
+
+    private ChannelPayloadCompression() {
+        // Prevent instantiation
+    }
+
+    /**
+     * Compresses a payload of a channel when it reaches the threshold.
+     *
+     * @param channel   The channel of the payload.
+     * @param type      The compression type.
+     * @param threshold The minimum size of a compressed payload, in bytes.
+     * @param payload   The payload.
+     * @return The compressed payload, or null when the payload is sent uncompressed: below the threshold, or not
+     * smaller once compressed.
+     * @throws IOException If the payload cannot be compressed.
+     */
+    public static byte[] compress(String channel, CompressionType type, int threshold, byte[] payload) throws IOException {
+        if (type == CompressionType.NONE) {
+            return null;
+        }
+        ChannelCompressionMetrics metrics = metrics(channel);
+        if (payload.length < threshold) {
+            metrics.belowThreshold();
+            return null;
+        }
+        long start = System.nanoTime();
+        byte[] compressed = KafkaCompressionCodec.compress(type, payload);
+        long nanos = System.nanoTime() - start;
+        if (compressed.length >= payload.length) {
+            metrics.incompressible(nanos);
+            return null;
+        }
+        metrics.compressed(payload.length, compressed.length, nanos);
+        return compressed;
+    }
+
+    /**
+     * Decompresses a payload of a channel.
+     *
+     * @param channel The channel of the payload.
+     * @param type    The compression type of the payload.
+     * @param payload The compressed payload.
+     * @return The payload.
+     * @throws IOException If the payload cannot be decompressed.
+     */
+    public static byte[] decompress(String channel, CompressionType type, byte[] payload) throws IOException {
+        long start = System.nanoTime();
+        byte[] bytes = KafkaCompressionCodec.decompress(type, payload);
+        metrics(channel).decompressed(System.nanoTime() - start);
+        return bytes;
+    }
+
+    /**
+     * Gets the compression type of a record from its {@link #HEADER} header.
+     *
+     * @param headers The headers of the record.
+     * @return The compression type, or {@link CompressionType#NONE} when the payload is not compressed.
+     * @throws IllegalArgumentException If the compression type is unknown.
+     */
+    public static CompressionType compressionType(Headers headers) {
+        Header header = headers.lastHeader(HEADER);
+        return header == null ? CompressionType.NONE : CompressionType.forName(new String(header.value(), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Returns the counters of the channels whose payloads were compressed or decompressed by this application.
+     *
+     * @return the counters, in no particular order
+     */
+    public static Collection<ChannelCompressionMetrics> getMetrics() {
+        return Collections.unmodifiableCollection(METRICS.values());
+    }
+
+    /**
+     * Adds a listener of the counters, handed the counters of the known channels, then those of each new channel.
+     * A channel appearing while the listener is added may be handed twice.
+     *
+     * @param listener the listener
+     */
+    public static void addMetricsListener(Consumer<ChannelCompressionMetrics> listener) {
+        METRICS_LISTENERS.add(listener);
+        METRICS.values().forEach(listener);
+    }
+
+    /**
+     * Removes a listener of the counters.
+     *
+     * @param listener the listener
+     */
+    public static void removeMetricsListener(Consumer<ChannelCompressionMetrics> listener) {
+        METRICS_LISTENERS.remove(listener);
+    }
+
+    private static ChannelCompressionMetrics metrics(String channel) {
+        ChannelCompressionMetrics metrics = METRICS.get(channel);
+        if (metrics != null) {
+            return metrics;
+        }
+        ChannelCompressionMetrics created = new ChannelCompressionMetrics(channel);
+        metrics = METRICS.putIfAbsent(channel, created);
+        if (metrics != null) {
+            return metrics;
+        }
+        METRICS_LISTENERS.forEach(listener -> listener.accept(created));
+        return created;
+    }
+}
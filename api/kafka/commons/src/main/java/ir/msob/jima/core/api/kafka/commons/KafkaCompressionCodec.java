@@ -0,0 +1,43 @@
+package ir.msob.jima.core.api.kafka.commons;
+
+import org.apache.kafka.common.compress.Compression;
+import org.apache.kafka.common.record.CompressionType;
+import org.apache.kafka.common.record.RecordBatch;
+import org.apache.kafka.common.utils.BufferSupplier;
+import org.apache.kafka.common.utils.ByteBufferOutputStream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * The compression codecs of the Kafka client, used by {@link ChannelPayloadCompression}.
+ * <p>
+ * This is the only class using the compression classes of the Kafka client ({@code Compression},
+ * {@code ByteBufferOutputStream}, {@code BufferSupplier}), which are not part of its public API: they give the
+ * gzip, snappy, lz4 and zstd implementations the client already ships, in the framing the client uses for the
+ * record batches, without another dependency. A change of these classes in a Kafka upgrade is confined here.
+ */
+final class KafkaCompressionCodec {
+
+    private KafkaCompressionCodec() {
+    }
+
+    static byte[] compress(CompressionType type, byte[] payload) throws IOException {
+        ByteBufferOutputStream buffer = new ByteBufferOutputStream(Math.max(64, payload.length / 2));
+        try (OutputStream out = Compression.of(type).build().wrapForOutput(buffer, RecordBatch.CURRENT_MAGIC_VALUE)) {
+            out.write(payload);
+        }
+        ByteBuffer compressed = buffer.buffer().flip();
+        byte[] bytes = new byte[compressed.remaining()];
+        compressed.get(bytes);
+        return bytes;
+    }
+
+    static byte[] decompress(CompressionType type, byte[] payload) throws IOException {
+        try (InputStream in = Compression.of(type).build().wrapForInput(ByteBuffer.wrap(payload), RecordBatch.CURRENT_MAGIC_VALUE, BufferSupplier.NO_CACHING)) {
+            return in.readAllBytes();
+        }
+    }
+}
@@ -1,20 +1,66 @@
 package ir.msob.jima.core.api.kafka.commons;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ir.msob.jima.core.commons.channel.codec.ChannelMessageCodec;
+import ir.msob.jima.core.commons.channel.codec.ChannelMessageCodecs;
+import ir.msob.jima.core.commons.exception.runtime.CommonRuntimeException;
 import ir.msob.jima.core.commons.logger.Logger;
 import ir.msob.jima.core.commons.logger.LoggerFactory;
+import ir.msob.jima.core.commons.properties.KafkaProperties;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.record.CompressionType;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
 import org.jspecify.annotations.NonNull;
 import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.listener.BatchMessageListener;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
 import org.springframework.kafka.listener.ContainerProperties;
 import org.springframework.kafka.listener.KafkaMessageListenerContainer;
 import org.springframework.kafka.listener.MessageListener;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
 import java.util.function.Consumer;
+import java.util.function.Function;
 
 /**
  * Utility class for creating and managing Kafka listeners in a reusable and standardized way.
  * <p>
  * Provides methods to create container properties, attach message listeners, and start Kafka containers.
  * All Kafka listeners in domain services should use this utility to keep business logic clean.
+ * <p>
+ * Besides the single-consumer record listener, it starts concurrent containers, with the number of consumers of
+ * {@link KafkaProperties.Listener}, running:
+ * <ul>
+ *     <li>record listeners, handling the records one at a time per consumer;</li>
+ *     <li>batch listeners, handling the records of a poll together;</li>
+ *     <li>key-ordered listeners, handling the records of a poll in parallel across keys and in order for a key.</li>
+ * </ul>
+ * The batch and key-ordered handlers return a {@link Mono}; the consumer waits for it before committing the
+ * offsets of the poll, so the offsets are committed only after processing. When it fails, the records are
+ * redelivered according to the error handler of the container: the processing is at-least-once.
+ * <p>
+ * The batch and key-ordered listeners also come in a codec-aware flavour, reading the record values as bytes and
+ * decoding them with the {@link ChannelMessageCodec} named in their {@link ChannelMessageCodec#HEADER} header,
+ * JSON when it is missing, and decompressing the payloads compressed by {@link ChannelPayloadCompression}.
+ * <p>
+ * All the listeners ask their consumers for the record values as bytes, overriding the value deserializer
+ * configured by properties, as Spring Boot does, so the listeners handing Strings get the compressed payloads
+ * decompressed and the payloads of another codec than JSON as JSON. A consumer factory built with a value
+ * deserializer instance keeps it, and its values arrive as Strings: they are handed as is, and a record flagged
+ * as compressed or encoded with another codec than JSON, which a String cannot hold, fails with a
+ * {@link CommonRuntimeException}.
  */
 public final class KafkaListenerUtil {
 
@@ -45,11 +91,11 @@ public final class KafkaListenerUtil {
      * @param containerProperties  The container properties to configure the listener.
      * @param channel              The Kafka channel to listen to.
      */
-    private static void startContainer(ConsumerFactory<@NonNull String, @NonNull String> kafkaConsumerFactory,
-                                       ContainerProperties containerProperties,
-                                       String channel) {
+    private static <V> void startContainer(ConsumerFactory<@NonNull String, V> kafkaConsumerFactory,
+                                           ContainerProperties containerProperties,
+                                           String channel) {
         logger.info("Starting Kafka listener container for channel '{}'", channel);
-        KafkaMessageListenerContainer<@NonNull String, @NonNull String> container =
+        KafkaMessageListenerContainer<@NonNull String, V> container =
                 new KafkaMessageListenerContainer<>(kafkaConsumerFactory, containerProperties);
         container.setBeanName(channel);
         container.start();
@@ -71,14 +117,329 @@ public final class KafkaListenerUtil {
 
         logger.info("Initializing Kafka listener for channel '{}', groupId '{}'", channel, groupId);
 
-        ContainerProperties containerProperties = createContainerProperties(channel, groupId);
+        ContainerProperties containerProperties = createBinaryContainerProperties(channel, groupId);
 
         // Attach message listener
-        containerProperties.setMessageListener((MessageListener<@NonNull String, @NonNull String>) consumerRecord -> {
-            logger.debug("Received message from channel '{}': {}", channel, consumerRecord.value());
-            messageHandler.accept(consumerRecord.value());
-        });
+        containerProperties.setMessageListener(textListener(channel, messageHandler));
 
         startContainer(kafkaConsumerFactory, containerProperties, channel);
     }
+
+    /**
+     * Starts a concurrent Kafka listener with a message handler, each consumer handling its records one at a time.
+     *
+     * @param kafkaConsumerFactory The Kafka consumer factory.
+     * @param channel              The Kafka topic or channel to listen to.
+     * @param groupId              The consumer group ID for this listener.
+     * @param listenerProperties   The configuration of the concurrent listeners.
+     * @param messageHandler       The callback to handle incoming messages.
+     * @return The started container.
+     */
+    public static ConcurrentMessageListenerContainer<@NonNull String, @NonNull String> startListener(ConsumerFactory<@NonNull String, @NonNull String> kafkaConsumerFactory,
+                                                                                                 String channel,
+                                                                                                 String groupId,
+                                                                                                 KafkaProperties.Listener listenerProperties,
+                                                                                                 Consumer<String> messageHandler) {
+        ContainerProperties containerProperties = createBinaryContainerProperties(channel, groupId);
+        containerProperties.setMessageListener(textListener(channel, messageHandler));
+        return startConcurrentContainer(kafkaConsumerFactory, containerProperties, channel, concurrency(listenerProperties, channel));
+    }
+
+    /**
+     * Starts a concurrent Kafka listener handing the messages of each poll to the handler together.
+     *
+     * @param kafkaConsumerFactory The Kafka consumer factory.
+     * @param channel              The Kafka topic or channel to listen to.
+     * @param groupId              The consumer group ID for this listener.
+     * @param listenerProperties   The configuration of the concurrent listeners.
+     * @param batchHandler         The callback to handle the messages of a poll, completing when they are processed.
+     * @return The started container.
+     */
+    public static ConcurrentMessageListenerContainer<@NonNull String, @NonNull String> startBatchListener(ConsumerFactory<@NonNull String, @NonNull String> kafkaConsumerFactory,
+                                                                                                      String channel,
+                                                                                                      String groupId,
+                                                                                                      KafkaProperties.Listener listenerProperties,
+                                                                                                      Function<List<String>, Mono<?>> batchHandler) {
+        ContainerProperties containerProperties = createBinaryContainerProperties(channel, groupId);
+        containerProperties.setAckMode(ContainerProperties.AckMode.BATCH);
+        containerProperties.setMessageListener((BatchMessageListener<@NonNull String, @NonNull String>) consumerRecords -> {
+            logger.debug("Received {} messages from channel '{}'", consumerRecords.size(), channel);
+            Mono.fromCallable(() -> {
+                List<String> messages = new ArrayList<>(consumerRecords.size());
+                for (ConsumerRecord<?, ?> consumerRecord : consumerRecords) {
+                    messages.add(text(consumerRecord));
+                }
+                return messages;
+            }).flatMap(batchHandler).block();
+        });
+        return startConcurrentContainer(kafkaConsumerFactory, containerProperties, channel, concurrency(listenerProperties, channel));
+    }
+
+    /**
+     * Starts a concurrent Kafka listener processing the messages of each poll in parallel across keys, and in order
+     * for a key: the messages of a key, always in the same partition, are handled one after the other.
+     *
+     * @param kafkaConsumerFactory The Kafka consumer factory.
+     * @param channel              The Kafka topic or channel to listen to.
+     * @param groupId              The consumer group ID for this listener.
+     * @param listenerProperties   The configuration of the concurrent listeners.
+     * @param messageHandler       The callback to handle a message, completing when it is processed.
+     * @return The started container.
+     */
+    public static ConcurrentMessageListenerContainer<@NonNull String, @NonNull String> startKeyOrderedListener(ConsumerFactory<@NonNull String, @NonNull String> kafkaConsumerFactory,
+                                                                                                           String channel,
+                                                                                                           String groupId,
+                                                                                                           KafkaProperties.Listener listenerProperties,
+                                                                                                           Function<String, Mono<?>> messageHandler) {
+        int parallelism = parallelism(listenerProperties, channel);
+        ContainerProperties containerProperties = createBinaryContainerProperties(channel, groupId);
+        containerProperties.setAckMode(ContainerProperties.AckMode.BATCH);
+        containerProperties.setMessageListener((BatchMessageListener<@NonNull String, @NonNull String>) consumerRecords -> {
+            logger.debug("Received {} messages from channel '{}'", consumerRecords.size(), channel);
+            processKeyOrdered(consumerRecords, parallelism,
+                    consumerRecord -> Mono.fromCallable(() -> text(consumerRecord)).flatMap(messageHandler)).block();
+        });
+        return startConcurrentContainer(kafkaConsumerFactory, containerProperties, channel, concurrency(listenerProperties, channel));
+    }
+
+    /**
+     * Starts a concurrent Kafka listener handing the messages of each poll to the handler together, decoded with
+     * the codec of their records.
+     *
+     * @param kafkaConsumerFactory The Kafka consumer factory.
+     * @param channel              The Kafka topic or channel to listen to.
+     * @param groupId              The consumer group ID for this listener.
+     * @param listenerProperties   The configuration of the concurrent listeners.
+     * @param codecs               The codecs of the messages.
+     * @param type                 The type of the messages.
+     * @param batchHandler         The callback to handle the messages of a poll, completing when they are processed.
+     * @param <T>                  The type of the messages.
+     * @return The started container.
+     */
+    public static <T> ConcurrentMessageListenerContainer<@NonNull String, byte[]> startBatchListener(ConsumerFactory<@NonNull String, @NonNull String> kafkaConsumerFactory,
+                                                                                                  String channel,
+                                                                                                  String groupId,
+                                                                                                  KafkaProperties.Listener listenerProperties,
+                                                                                                  ChannelMessageCodecs codecs,
+                                                                                                  TypeReference<T> type,
+                                                                                                  Function<List<T>, Mono<?>> batchHandler) {
+        ContainerProperties containerProperties = createBinaryContainerProperties(channel, groupId);
+        containerProperties.setAckMode(ContainerProperties.AckMode.BATCH);
+        containerProperties.setMessageListener((BatchMessageListener<@NonNull String, byte[]>) consumerRecords -> {
+            logger.debug("Received {} messages from channel '{}'", consumerRecords.size(), channel);
+            Mono.fromCallable(() -> {
+                List<T> messages = new ArrayList<>(consumerRecords.size());
+                for (ConsumerRecord<?, ?> consumerRecord : consumerRecords) {
+                    messages.add(decode(consumerRecord, codecs, type));
+                }
+                return messages;
+            }).flatMap(batchHandler).block();
+        });
+        return startConcurrentContainer(binaryConsumerFactory(kafkaConsumerFactory), containerProperties, channel, concurrency(listenerProperties, channel));
+    }
+
+    /**
+     * Starts a concurrent Kafka listener processing the messages of each poll in parallel across keys, and in order
+     * for a key, decoded with the codec of their records on the worker of their key.
+     *
+     * @param kafkaConsumerFactory The Kafka consumer factory.
+     * @param channel              The Kafka topic or channel to listen to.
+     * @param groupId              The consumer group ID for this listener.
+     * @param listenerProperties   The configuration of the concurrent listeners.
+     * @param codecs               The codecs of the messages.
+     * @param type                 The type of the messages.
+     * @param messageHandler       The callback to handle a message, completing when it is processed.
+     * @param <T>                  The type of the messages.
+     * @return The started container.
+     */
+    public static <T> ConcurrentMessageListenerContainer<@NonNull String, byte[]> startKeyOrderedListener(ConsumerFactory<@NonNull String, @NonNull String> kafkaConsumerFactory,
+                                                                                                       String channel,
+                                                                                                       String groupId,
+                                                                                                       KafkaProperties.Listener listenerProperties,
+                                                                                                       ChannelMessageCodecs codecs,
+                                                                                                       TypeReference<T> type,
+                                                                                                       Function<T, Mono<?>> messageHandler) {
+        int parallelism = parallelism(listenerProperties, channel);
+        ContainerProperties containerProperties = createBinaryContainerProperties(channel, groupId);
+        containerProperties.setAckMode(ContainerProperties.AckMode.BATCH);
+        containerProperties.setMessageListener((BatchMessageListener<@NonNull String, byte[]>) consumerRecords -> {
+            logger.debug("Received {} messages from channel '{}'", consumerRecords.size(), channel);
+            processKeyOrdered(consumerRecords, parallelism,
+                    consumerRecord -> Mono.fromCallable(() -> decode(consumerRecord, codecs, type)).flatMap(messageHandler)).block();
+        });
+        return startConcurrentContainer(binaryConsumerFactory(kafkaConsumerFactory), containerProperties, channel, concurrency(listenerProperties, channel));
+    }
+
+    /**
+     * Decodes the value of a record with the codec named in its {@link ChannelMessageCodec#HEADER} header, JSON when
+     * the record has none, after decompressing it when it has a {@link ChannelPayloadCompression#HEADER} header.
+     * The value is bytes, or a JSON String when the consumer factory has a String value deserializer instance.
+     *
+     * @param consumerRecord The record.
+     * @param codecs         The codecs of the messages.
+     * @param type           The type of the message.
+     * @param <T>            The type of the message.
+     * @return The decoded message.
+     * @throws IOException If the value cannot be decoded.
+     */
+    static <T> T decode(ConsumerRecord<?, ?> consumerRecord, ChannelMessageCodecs codecs, TypeReference<T> type) throws IOException {
+        String name = codecName(consumerRecord);
+        if (consumerRecord.value() instanceof String value) {
+            requireText(consumerRecord, name);
+            return codecs.get(ChannelMessageCodecs.JSON).decode(value.getBytes(StandardCharsets.UTF_8), type);
+        }
+        return codecs.get(name).decode(payload(consumerRecord), type);
+    }
+
+    /**
+     * Reads the value of a record as a String, after decompressing it when it has a
+     * {@link ChannelPayloadCompression#HEADER} header. A value of another codec than JSON is converted to JSON. A
+     * String value, from a String value deserializer instance of the consumer factory, is returned as is.
+     *
+     * @param consumerRecord The record.
+     * @return The value of the record.
+     * @throws IOException If the value cannot be decompressed or converted.
+     */
+    static String text(ConsumerRecord<?, ?> consumerRecord) throws IOException {
+        String name = codecName(consumerRecord);
+        if (consumerRecord.value() instanceof String value) {
+            requireText(consumerRecord, name);
+            return value;
+        }
+        byte[] payload = payload(consumerRecord);
+        if (isJson(name)) {
+            return new String(payload, StandardCharsets.UTF_8);
+        }
+        JsonNode message = TextCodecs.CODECS.get(name).decode(payload, new TypeReference<>() {
+        });
+        return TextCodecs.OBJECT_MAPPER.writeValueAsString(message);
+    }
+
+    // A String value is a JSON message: a compressed or binary payload does not survive the String deserializer
+    private static void requireText(ConsumerRecord<?, ?> consumerRecord, String codecName) {
+        CompressionType compression = ChannelPayloadCompression.compressionType(consumerRecord.headers());
+        if (compression != CompressionType.NONE || !isJson(codecName)) {
+            throw new CommonRuntimeException("The record {} of channel '{}' is {} but its value was deserialized as a String: "
+                            + "the consumer factory must configure its value deserializer by properties, not by instance",
+                    consumerRecord.offset(), consumerRecord.topic(),
+                    compression != CompressionType.NONE ? "compressed with " + compression.name : "encoded with " + codecName);
+        }
+    }
+
+    private static boolean isJson(String codecName) {
+        return codecName == null || codecName.isBlank() || ChannelMessageCodecs.JSON.equals(codecName);
+    }
+
+    private static String codecName(ConsumerRecord<?, ?> consumerRecord) {
+        Header header = consumerRecord.headers().lastHeader(ChannelMessageCodec.HEADER);
+        return header == null ? null : new String(header.value(), StandardCharsets.UTF_8);
+    }
+
+    private static byte[] payload(ConsumerRecord<?, ?> consumerRecord) throws IOException {
+        byte[] value = (byte[]) consumerRecord.value();
+        CompressionType compression = ChannelPayloadCompression.compressionType(consumerRecord.headers());
+        return compression == CompressionType.NONE
+                ? value
+                : ChannelPayloadCompression.decompress(consumerRecord.topic(), compression, value);
+    }
+
+    static MessageListener<@NonNull String, @NonNull String> textListener(String channel, Consumer<String> messageHandler) {
+        return consumerRecord -> {
+            String message;
+            try {
+                message = text(consumerRecord);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            logger.debug("Received message from channel '{}': {}", channel, message);
+            messageHandler.accept(message);
+        };
+    }
+
+    /**
+     * Processes records in parallel across keys, and in order for a key. The records are spread over lanes by the
+     * hash of their key, the records without key round-robin; each lane is processed in order on its own worker.
+     *
+     * @param consumerRecords The records, in the order of their partitions.
+     * @param parallelism     The maximum number of lanes.
+     * @param recordHandler   The callback to handle a record, completing when it is processed.
+     * @return A Mono completing when all the records are processed, or failing with the first failed processing.
+     */
+    static <K, V> Mono<Void> processKeyOrdered(List<ConsumerRecord<K, V>> consumerRecords,
+                                               int parallelism,
+                                               Function<ConsumerRecord<K, V>, Mono<?>> recordHandler) {
+        List<List<ConsumerRecord<K, V>>> lanes = lanes(consumerRecords, parallelism);
+        return Flux.fromIterable(lanes)
+                .flatMap(lane -> Flux.fromIterable(lane)
+                        .concatMap(consumerRecord -> Mono.defer(() -> recordHandler.apply(consumerRecord)))
+                        .subscribeOn(Schedulers.boundedElastic()), Math.max(1, lanes.size()))
+                .then();
+    }
+
+    static <K, V> List<List<ConsumerRecord<K, V>>> lanes(List<ConsumerRecord<K, V>> consumerRecords, int parallelism) {
+        int count = Math.max(1, Math.min(parallelism, consumerRecords.size()));
+        List<List<ConsumerRecord<K, V>>> lanes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            lanes.add(new ArrayList<>());
+        }
+        int next = 0;
+        for (ConsumerRecord<K, V> consumerRecord : consumerRecords) {
+            int lane = consumerRecord.key() != null
+                    ? Math.floorMod(consumerRecord.key().hashCode(), count)
+                    : next++ % count;
+            lanes.get(lane).add(consumerRecord);
+        }
+        lanes.removeIf(List::isEmpty);
+        return lanes;
+    }
+
+    private static ContainerProperties createBinaryContainerProperties(String channel, String groupId) {
+        ContainerProperties containerProperties = createContainerProperties(channel, groupId);
+        Properties consumerProperties = new Properties();
+        consumerProperties.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class.getName());
+        containerProperties.setKafkaConsumerProperties(consumerProperties);
+        return containerProperties;
+    }
+
+    // The value deserializer is overridden by the consumer properties of the container, unless the factory has a
+    // value deserializer instance: the values may then be Strings, which decode handles
+    @SuppressWarnings("unchecked")
+    private static ConsumerFactory<@NonNull String, byte[]> binaryConsumerFactory(ConsumerFactory<@NonNull String, @NonNull String> kafkaConsumerFactory) {
+        ConsumerFactory<?, ?> consumerFactory = kafkaConsumerFactory;
+        return (ConsumerFactory<@NonNull String, byte[]>) consumerFactory;
+    }
+
+    private static <V> ConcurrentMessageListenerContainer<@NonNull String, V> startConcurrentContainer(ConsumerFactory<@NonNull String, V> kafkaConsumerFactory,
+                                                                                                   ContainerProperties containerProperties,
+                                                                                                   String channel,
+                                                                                                   int concurrency) {
+        logger.info("Starting concurrent Kafka listener container for channel '{}' with {} consumers", channel, concurrency);
+        ConcurrentMessageListenerContainer<@NonNull String, V> container =
+                new ConcurrentMessageListenerContainer<>(kafkaConsumerFactory, containerProperties);
+        container.setConcurrency(concurrency);
+        container.setBeanName(channel);
+        container.start();
+        logger.info("Concurrent Kafka listener container for channel '{}' started successfully", channel);
+        return container;
+    }
+
+    private static int concurrency(KafkaProperties.Listener listenerProperties, String channel) {
+        KafkaProperties.ListenerChannel config = listenerProperties.getChannels().get(channel);
+        int concurrency = config != null && config.getConcurrency() != null ? config.getConcurrency() : listenerProperties.getConcurrency();
+        return Math.max(1, concurrency);
+    }
+
+    private static int parallelism(KafkaProperties.Listener listenerProperties, String channel) {
+        KafkaProperties.ListenerChannel config = listenerProperties.getChannels().get(channel);
+        int parallelism = config != null && config.getParallelism() != null ? config.getParallelism() : listenerProperties.getParallelism();
+        return Math.max(1, parallelism);
+    }
+
+    /**
+     * The codecs converting the values of the listeners handing Strings to JSON, built on first use.
+     */
+    private static final class TextCodecs {
+        static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+        static final ChannelMessageCodecs CODECS = new ChannelMessageCodecs(OBJECT_MAPPER);
+    }
 }
@@ -0,0 +1,120 @@
+package ir.msob.jima.core.api.kafka.commons;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ir.msob.jima.core.commons.channel.ChannelMessage;
+import ir.msob.jima.core.commons.client.BaseAsyncClient;
+import ir.msob.jima.core.commons.security.BaseUser;
+import ir.msob.jima.core.commons.security.BaseUserService;
+import ir.msob.jima.core.commons.shared.ModelType;
+import ir.msob.jima.core.commons.tracing.InMemorySpanCollector;
+import ir.msob.jima.core.commons.tracing.Span;
+import ir.msob.jima.core.commons.tracing.SpanKind;
+import ir.msob.jima.core.commons.tracing.TraceContext;
+import ir.msob.jima.core.commons.tracing.Tracer;
+import org.jspecify.annotations.NonNull;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.ConsumerFactory;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the tracing of the handlers of {@link BaseKafkaListener}.
+ */
+class BaseKafkaListenerTest {
+
+    private final InMemorySpanCollector collector = new InMemorySpanCollector(100);
+    private Tracer tracer;
+
+    @BeforeEach
+    void setUp() {
+        tracer = Tracer.start(List.of(collector));
+    }
+
+    @AfterEach
+    void tearDown() {
+        tracer.close();
+    }
+
+    private static BaseKafkaListener<String, BaseUser, ?, ?> listener() {
+        return new BaseKafkaListener<>() {
+            @Override
+            public String getGroupId() {
+                return "group";
+            }
+
+            @Override
+            public ConsumerFactory<@NonNull String, @NonNull String> getKafkaConsumerFactory() {
+                return null;
+            }
+
+            @Override
+            public ObjectMapper getObjectMapper() {
+                return null;
+            }
+
+            @Override
+            public BaseUserService getUserService() {
+                return null;
+            }
+
+            @Override
+            public BaseAsyncClient getAsyncClient() {
+                return null;
+            }
+        };
+    }
+
+    private static ChannelMessage<BaseUser, ModelType> message(TraceContext sender) {
+        ChannelMessage<BaseUser, ModelType> message = ChannelMessage.<BaseUser, ModelType>builder().build();
+        message.getMetadata().put(TraceContext.TRACEPARENT, sender.toTraceparent());
+        return message;
+    }
+
+    /**
+     * Tests that the handling of a received ChannelMessage is a CONSUMER span, a child of the span that sent it.
+     */
+    @Test
+    void testTracedHandlerContinuesTheTraceOfTheSender() {
+        TraceContext sender = TraceContext.child(null);
+
+        listener().<ModelType>tracedHandler("channel",
+                message -> tracer.trace("repository", SpanKind.CLIENT, Mono.just(1))).apply(message(sender)).block();
+
+        Span receive = span("receive channel");
+        assertEquals(SpanKind.CONSUMER, receive.getKind());
+        assertEquals(sender.traceId(), receive.getTraceId());
+        assertEquals(sender.spanId(), receive.getParentSpanId());
+        assertEquals(receive.getSpanId(), span("repository").getParentSpanId());
+    }
+
+    /**
+     * Tests that the handling of a poll is one CONSUMER span, a child of the span that sent its first message and
+     * linked to the span that sent the other.
+     */
+    @Test
+    void testTracedBatchHandlerContinuesTheTraceOfTheFirstSender() {
+        TraceContext first = TraceContext.child(null);
+        TraceContext second = TraceContext.child(null);
+
+        listener().<ModelType>tracedBatchHandler("channel", messages -> Mono.just(messages.size()))
+                .apply(List.of(message(first), message(second))).block();
+
+        Span receive = span("receive channel");
+        assertEquals(SpanKind.CONSUMER, receive.getKind());
+        assertEquals(first.spanId(), receive.getParentSpanId());
+        assertEquals(List.of(second), receive.getLinks());
+        assertEquals(1, collector.getSpans().size());
+    }
+
+    private Span span(String name) {
+        return collector.getSpans().stream()
+                .filter(span -> span.getName().equals(name))
+                .findFirst()
+                .orElseThrow();
+    }
+}
@@ -0,0 +1,86 @@
+package ir.msob.jima.core.api.kafka.commons;
+
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.CompressionType;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link ChannelPayloadCompression}.
+ */
+class ChannelPayloadCompressionTest {
+
+    private static byte[] payload(int size) {
+        StringBuilder sb = new StringBuilder(size);
+        for (int i = 0; sb.length() < size; i++) {
+            sb.append("{\"id\":").append(i).append(",\"name\":\"name").append(i).append("\"},");
+        }
+        return sb.substring(0, size).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static ChannelCompressionMetrics metrics(String channel) {
+        return ChannelPayloadCompression.getMetrics().stream()
+                .filter(metrics -> metrics.getChannel().equals(channel))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    /**
+     * Tests that the payloads reaching the threshold are compressed and decompressed back, with every type.
+     */
+    @Test
+    void testCompressAndDecompress() throws Exception {
+        byte[] payload = payload(64 * 1024);
+
+        for (CompressionType type : new CompressionType[]{CompressionType.GZIP, CompressionType.LZ4, CompressionType.ZSTD}) {
+            String channel = "compress." + type.name;
+            byte[] compressed = ChannelPayloadCompression.compress(channel, type, 1024, payload);
+
+            assertNotNull(compressed);
+            assertTrue(compressed.length < payload.length);
+            assertArrayEquals(payload, ChannelPayloadCompression.decompress(channel, type, compressed));
+
+            ChannelCompressionMetrics metrics = metrics(channel);
+            assertEquals(1, metrics.getCompressed());
+            assertEquals(payload.length, metrics.getUncompressedBytes());
+            assertEquals(compressed.length, metrics.getCompressedBytes());
+            assertTrue(metrics.getRatio() < 1);
+            assertEquals(1, metrics.getDecompressed());
+        }
+    }
+
+    /**
+     * Tests that the payloads below the threshold, or not smaller once compressed, are sent uncompressed.
+     */
+    @Test
+    void testSmallAndIncompressiblePayloadsAreNotCompressed() throws Exception {
+        byte[] random = new byte[4096];
+        new Random(42).nextBytes(random);
+
+        assertNull(ChannelPayloadCompression.compress("uncompressed", CompressionType.ZSTD, 1024, payload(512)));
+        assertNull(ChannelPayloadCompression.compress("uncompressed", CompressionType.ZSTD, 1024, random));
+        assertNull(ChannelPayloadCompression.compress("uncompressed", CompressionType.NONE, 0, payload(4096)));
+
+        ChannelCompressionMetrics metrics = metrics("uncompressed");
+        assertEquals(1, metrics.getBelowThreshold());
+        assertEquals(1, metrics.getIncompressible());
+        assertEquals(0, metrics.getCompressed());
+        assertEquals(1.0, metrics.getRatio());
+    }
+
+    /**
+     * Tests that the compression type is read from the header, none when it is missing.
+     */
+    @Test
+    void testCompressionType() {
+        RecordHeaders headers = new RecordHeaders();
+        assertEquals(CompressionType.NONE, ChannelPayloadCompression.compressionType(headers));
+
+        headers.add(ChannelPayloadCompression.HEADER, "lz4".getBytes(StandardCharsets.UTF_8));
+        assertEquals(CompressionType.LZ4, ChannelPayloadCompression.compressionType(headers));
+    }
+}
@@ -0,0 +1,163 @@
+package ir.msob.jima.core.api.kafka.commons;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ir.msob.jima.core.commons.channel.codec.ChannelMessageCodec;
+import ir.msob.jima.core.commons.channel.codec.ChannelMessageCodecs;
+import ir.msob.jima.core.commons.exception.runtime.CommonRuntimeException;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.record.CompressionType;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the key-ordered processing and the decoding of {@link KafkaListenerUtil}.
+ */
+class KafkaListenerUtilTest {
+
+    private static List<ConsumerRecord<String, String>> records(String... keys) {
+        List<ConsumerRecord<String, String>> records = new ArrayList<>();
+        for (int i = 0; i < keys.length; i++) {
+            records.add(new ConsumerRecord<>("channel", 0, i, keys[i], keys[i] + ":" + i));
+        }
+        return records;
+    }
+
+    /**
+     * Tests that the records of a key share a lane, in order, and that the records without key are spread.
+     */
+    @Test
+    void testLanesKeepTheRecordsOfAKeyTogether() {
+        List<List<ConsumerRecord<String, String>>> lanes = KafkaListenerUtil.lanes(records("a", "b", "a", null, null, "b"), 4);
+
+        for (List<ConsumerRecord<String, String>> lane : lanes) {
+            assertFalse(lane.isEmpty());
+            for (int i = 1; i < lane.size(); i++) {
+                assertTrue(lane.get(i - 1).offset() < lane.get(i).offset());
+            }
+        }
+        assertEquals(6, lanes.stream().mapToInt(List::size).sum());
+        assertEquals(1, lanes.stream().filter(lane -> lane.stream().anyMatch(r -> "a".equals(r.key()))).count());
+        assertEquals(1, lanes.stream().filter(lane -> lane.stream().anyMatch(r -> "b".equals(r.key()))).count());
+        assertEquals(1, KafkaListenerUtil.lanes(records("a", "b", "c"), 1).size());
+    }
+
+    /**
+     * Tests that every record is processed, in order for its key, and that the lanes run in parallel.
+     */
+    @Test
+    void testProcessKeyOrderedKeepsTheOrderOfAKey() {
+        Map<String, List<String>> processed = new ConcurrentHashMap<>();
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+
+        KafkaListenerUtil.processKeyOrdered(records("a", "b", "a", "c", "b", "a", "c", "d"), 4, consumerRecord -> {
+            threads.add(Thread.currentThread().getName());
+            String message = consumerRecord.value();
+            String key = message.substring(0, message.indexOf(':'));
+            // the first messages take longer, so any reordering within a key would show
+            return Mono.delay(Duration.ofMillis(message.endsWith(":0") ? 50 : 1))
+                    .doOnNext(tick -> processed.computeIfAbsent(key, k -> Collections.synchronizedList(new ArrayList<>())).add(message));
+        }).block(Duration.ofSeconds(10));
+
+        assertEquals(List.of("a:0", "a:2", "a:5"), processed.get("a"));
+        assertEquals(List.of("b:1", "b:4"), processed.get("b"));
+        assertEquals(List.of("c:3", "c:6"), processed.get("c"));
+        assertEquals(List.of("d:7"), processed.get("d"));
+        assertTrue(threads.size() > 1);
+    }
+
+    /**
+     * Tests that a failed processing fails the poll, so its offsets are not committed.
+     */
+    @Test
+    void testProcessKeyOrderedFailsWithTheFirstError() {
+        IllegalStateException error = new IllegalStateException("failed");
+
+        Mono<Void> processing = KafkaListenerUtil.processKeyOrdered(records("a", "b"), 2,
+                consumerRecord -> consumerRecord.value().startsWith("b") ? Mono.error(error) : Mono.empty());
+
+        assertSame(error, assertThrows(IllegalStateException.class, processing::block));
+    }
+
+    /**
+     * Tests that a record is decoded with the codec of its header, and with JSON when it has none.
+     */
+    @Test
+    void testDecodeUsesTheCodecOfTheRecord() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        ChannelMessageCodecs codecs = new ChannelMessageCodecs(objectMapper);
+        TypeReference<Map<String, String>> type = new TypeReference<>() {
+        };
+        byte[] json = objectMapper.writeValueAsBytes(Map.of("key", "value"));
+
+        ConsumerRecord<String, byte[]> plain = new ConsumerRecord<>("channel", 0, 0, "key", json);
+        assertEquals(Map.of("key", "value"), KafkaListenerUtil.decode(plain, codecs, type));
+
+        ConsumerRecord<String, byte[]> unknown = new ConsumerRecord<>("channel", 0, 1, "key", json);
+        unknown.headers().add(ChannelMessageCodec.HEADER, "unknown".getBytes(StandardCharsets.UTF_8));
+        assertThrows(CommonRuntimeException.class, () -> KafkaListenerUtil.decode(unknown, codecs, type));
+    }
+
+    /**
+     * Tests that the listeners handing Strings get the compressed payloads decompressed.
+     */
+    @Test
+    void testTextDecompressesThePayload() throws Exception {
+        String message = "{\"key\":\"" + "value".repeat(100) + "\"}";
+        byte[] compressed = ChannelPayloadCompression.compress("channel", CompressionType.GZIP, 0, message.getBytes(StandardCharsets.UTF_8));
+        assertNotNull(compressed);
+
+        ConsumerRecord<String, byte[]> consumerRecord = new ConsumerRecord<>("channel", 0, 0, "key", compressed);
+        consumerRecord.headers().add(ChannelPayloadCompression.HEADER, CompressionType.GZIP.name.getBytes(StandardCharsets.UTF_8));
+        assertEquals(message, KafkaListenerUtil.text(consumerRecord));
+
+        ConsumerRecord<String, byte[]> plain = new ConsumerRecord<>("channel", 0, 1, "key", message.getBytes(StandardCharsets.UTF_8));
+        plain.headers().add(ChannelMessageCodec.HEADER, ChannelMessageCodecs.JSON.getBytes(StandardCharsets.UTF_8));
+        assertEquals(message, KafkaListenerUtil.text(plain));
+    }
+
+    /**
+     * Tests that the listeners keep working with a consumer factory built with String deserializer instances, which
+     * take precedence over the byte[] deserializer of the container: the JSON values arrive as Strings.
+     */
+    @Test
+    void testStringDeserializerInstancesKeepTheStringValues() throws Exception {
+        DefaultKafkaConsumerFactory<String, String> factory =
+                new DefaultKafkaConsumerFactory<>(new HashMap<>(), new StringDeserializer(), new StringDeserializer());
+        Deserializer<String> deserializer = factory.getValueDeserializer();
+        assertNotNull(deserializer);
+        String message = "{\"key\":\"value\"}";
+        ConsumerRecord<String, String> consumerRecord = new ConsumerRecord<>("channel", 0, 0, "key",
+                deserializer.deserialize("channel", message.getBytes(StandardCharsets.UTF_8)));
+
+        List<String> received = new ArrayList<>();
+        KafkaListenerUtil.textListener("channel", received::add).onMessage(consumerRecord);
+        assertEquals(List.of(message), received);
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        TypeReference<Map<String, String>> type = new TypeReference<>() {
+        };
+        assertEquals(Map.of("key", "value"), KafkaListenerUtil.decode(consumerRecord, new ChannelMessageCodecs(objectMapper), type));
+    }
+
+    /**
+     * Tests that a compressed record deserialized as a String fails clearly, its payload being lost.
+     */
+    @Test
+    void testStringValueOfACompressedRecordFails() {
+        ConsumerRecord<String, String> consumerRecord = new ConsumerRecord<>("channel", 0, 0, "key", "compressed");
+        consumerRecord.headers().add(ChannelPayloadCompression.HEADER, CompressionType.GZIP.name.getBytes(StandardCharsets.UTF_8));
+
+        assertThrows(CommonRuntimeException.class, () -> KafkaListenerUtil.text(consumerRecord));
+    }
+}
@@ -0,0 +1,40 @@
+package ir.msob.jima.core.beans.annotation.methodstats;
+
+import ir.msob.jima.core.commons.properties.MethodStatsProperties;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+
+/**
+ * This class is the AspectJ aspect of the `MethodStats` annotation, for build-time (or load-time) weaving.
+ * <p>
+ * Woven by the AspectJ compiler, the measuring code is called directly from the `@MethodStats` methods, without
+ * the Spring AOP proxy and its interceptor chain. It is not a Spring component: AspectJ instantiates it, and it
+ * delegates to the {@link MethodStatsRecorder} of the running application context. It only measures when the
+ * property 'jima.method-stats.weaving' is set to 'build-time', which also disables the proxy-based
+ * {@link MethodStatsLogger}.
+ * <p>
+ * `META-INF/jima-method-stats-aop.xml` declares this aspect alone, so that the other aspects of this module are
+ * not woven: pass it to the AspectJ compiler with `-xmlConfigured`, or to the load-time weaver with
+ * `-Dorg.aspectj.weaver.loadtime.configuration`.
+ */
+@Aspect
+public class MethodStatsAspect {
+
+    /**
+     * This method intercepts the executions of the methods annotated with `@MethodStats` and records their
+     * execution time.
+     *
+     * @param point The method execution join point.
+     * @return The result of the method execution, instrumented when it is a {@code Mono} or a {@code Flux}.
+     * @throws java.lang.Throwable If an exception occurs during method execution.
+     */
+    @Around("execution(@ir.msob.jima.core.commons.methodstats.MethodStats * *(..))")
+    public Object measure(ProceedingJoinPoint point) throws Throwable {
+        MethodStatsRecorder recorder = MethodStatsRecorder.current();
+        if (recorder == null || recorder.getWeaving() != MethodStatsProperties.Weaving.BUILD_TIME) {
+            return point.proceed();
+        }
+        return recorder.measure(point);
+    }
+}
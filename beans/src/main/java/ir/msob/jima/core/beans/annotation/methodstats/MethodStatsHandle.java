@@ -0,0 +1,75 @@
+package ir.msob.jima.core.beans.annotation.methodstats;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import ir.msob.jima.core.commons.properties.MethodStatsProperties;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The cached statistics of one `@MethodStats` method: its names, the label of its log lines and its timers.
+ * <p>
+ * A handle is created by {@link MethodStatsRecorder} on the first call of the method, so the following calls
+ * neither read the join point signature nor look the timers up in the meter registry.
+ */
+final class MethodStatsHandle {
+
+    private final String className;
+    private final String methodName;
+    private final String label;
+    private final AtomicReferenceArray<Timer> timers = new AtomicReferenceArray<>(Outcome.values().length);
+
+    MethodStatsHandle(Method method) {
+        this.className = method.getDeclaringClass().getName();
+        this.methodName = method.getName();
+        this.label = "ClassName=" + className + ", MethodName=" + methodName;
+    }
+
+    String getClassName() {
+        return className;
+    }
+
+    String getMethodName() {
+        return methodName;
+    }
+
+    /**
+     * Returns the label of the log lines of this method.
+     *
+     * @return the class and method names, as `ClassName=..., MethodName=...`
+     */
+    String getLabel() {
+        return label;
+    }
+
+    /**
+     * Returns the timer of this method and the given outcome, registering it on first use.
+     *
+     * @param outcome  the outcome of the execution
+     * @param metrics  the timer configuration
+     * @param registry the meter registry
+     * @return the timer
+     */
+    Timer timer(Outcome outcome, MethodStatsProperties.Metrics metrics, MeterRegistry registry) {
+        Timer timer = timers.get(outcome.ordinal());
+        if (timer == null) {
+            timer = Timer.builder(metrics.getName())
+                    .description("Execution time of the @MethodStats methods")
+                    .tags("class", className, "method", methodName, "outcome", outcome.name())
+                    .publishPercentiles(metrics.getPercentiles())
+                    .publishPercentileHistogram(metrics.isPercentileHistogram())
+                    .register(registry);
+            // the registry returns the same timer to concurrent first calls
+            timers.lazySet(outcome.ordinal(), timer);
+        }
+        return timer;
+    }
+
+    /**
+     * The outcome of a method execution, used as the `outcome` tag of the timers.
+     */
+    enum Outcome {
+        SUCCESS, ERROR, CANCELLED
+    }
+}
@@ -1,72 +1,38 @@
 package ir.msob.jima.core.beans.annotation.methodstats;
 
-import ir.msob.jima.core.beans.properties.JimaProperties;
-import ir.msob.jima.core.commons.logger.Logger;
-import ir.msob.jima.core.commons.logger.LoggerFactory;
-import ir.msob.jima.core.commons.properties.MethodStatsProperties;
 import lombok.RequiredArgsConstructor;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
-import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 
 /**
- * This class is an Aspect for logging method execution time statistics based on the `MethodStats` annotation.
- * It is marked as a Spring component to be detected during classpath scanning.
+ * This class is an Aspect for recording method execution time statistics based on the `MethodStats` annotation.
+ * It is marked as a Spring component to be detected during classpath scanning, and applied through Spring AOP
+ * proxies; the measuring itself is done by the {@link MethodStatsRecorder}.
+ * <p>
+ * It is disabled when the property 'jima.method-stats.weaving' is set to 'build-time', in which case the
+ * methods are instrumented by {@link MethodStatsAspect} instead.
  */
 @Aspect
 @Component
 @RequiredArgsConstructor
+@ConditionalOnProperty(name = "jima.method-stats.weaving", havingValue = "proxy", matchIfMissing = true)
 public class MethodStatsLogger {
-    /**
-     * Logger instance for logging method execution statistics.
-     */
-    private static final Logger logger = LoggerFactory.getLogger(MethodStatsLogger.class);
 
-    // Core configuration properties instance
-    private final JimaProperties properties;
+    private final MethodStatsRecorder recorder;
 
     /**
-     * This method intercepts methods annotated with `@MethodStats` and logs their execution time.
+     * This method intercepts methods annotated with `@MethodStats` and records their execution time.
      * It is marked with the `@Around` annotation to run both before and after the method execution.
      *
      * @param point The method execution join point.
-     * @return The result of the method execution.
+     * @return The result of the method execution, instrumented when it is a {@code Mono} or a {@code Flux}.
      * @throws java.lang.Throwable If an exception occurs during method execution.
      */
     @Around("@annotation(ir.msob.jima.core.commons.methodstats.MethodStats)")
     public Object log(ProceedingJoinPoint point) throws Throwable {
-        // If either warning or info logging is enabled
-        if (properties.getMethodStats().isEnabled()) {
-            // Record the start time
-            long start = System.currentTimeMillis();
-
-            // Proceed with the method execution and capture the result
-            Object result = point.proceed();
-
-            // Calculate the time difference
-            long dif = System.currentTimeMillis() - start;
-
-            // Prepare the log message
-            String msg = String.format("ClassName=%s, MethodName=%s, TimeMS=%d, ThreadName=%s"
-                    , point.getSignature().getDeclaringTypeName()
-                    , ((MethodSignature) point.getSignature()).getMethod().getName()
-                    , dif
-                    , Thread.currentThread().getName());
-
-            // If warning logging is enabled and the execution time exceeds the threshold, log a warning
-            if (dif > properties.getMethodStats().getWarnTime())
-                logger.warn(msg);
-                // If info logging is enabled, log an info message
-            else if (properties.getMethodStats().getLogLevel() == MethodStatsProperties.LogLevel.INFO)
-                logger.info(msg);
-
-            // Return the result of the method execution
-            return result;
-        } else {
-            // If neither warning nor info logging is enabled, proceed with the method execution without logging
-            return point.proceed();
-        }
+        return recorder.measure(point);
     }
-}
\ No newline at end of file
+}
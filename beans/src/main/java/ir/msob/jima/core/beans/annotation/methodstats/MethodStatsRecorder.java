@@ -0,0 +1,220 @@
+package ir.msob.jima.core.beans.annotation.methodstats;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import ir.msob.jima.core.beans.annotation.methodstats.MethodStatsHandle.Outcome;
+import ir.msob.jima.core.beans.properties.JimaProperties;
+import ir.msob.jima.core.commons.logger.Logger;
+import ir.msob.jima.core.commons.logger.LoggerFactory;
+import ir.msob.jima.core.commons.properties.MethodStatsProperties;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * This class measures the executions of the `@MethodStats` methods, for both the Spring AOP aspect
+ * ({@link MethodStatsLogger}) and the build-time woven one ({@link MethodStatsAspect}).
+ * <p>
+ * The execution time is measured with {@link System#nanoTime()} and recorded into a Micrometer {@link Timer} per
+ * method and outcome, tagged with `class`, `method` and `outcome`. The timers are registered in the application
+ * {@link MeterRegistry}, or in the global registry when there is none. For methods returning a {@link Mono} or a
+ * {@link Flux}, the time is measured from the subscription to the terminal signal of every subscriber, rather
+ * than the time to assemble the pipeline. The execution time can still be logged, according to the configured
+ * {@link MethodStatsProperties.LogLevel}.
+ * <p>
+ * The names and timers of a method are cached in a {@link MethodStatsHandle} on its first call.
+ */
+@Component
+@RequiredArgsConstructor
+public class MethodStatsRecorder {
+    /**
+     * Logger instance for logging method execution statistics.
+     */
+    private static final Logger logger = LoggerFactory.getLogger(MethodStatsRecorder.class);
+
+    // The recorder of the application context, used by the build-time woven aspect
+    private static volatile MethodStatsRecorder current;
+
+    // Core configuration properties instance
+    private final JimaProperties properties;
+
+    // The application meter registry, if any
+    private final ObjectProvider<MeterRegistry> meterRegistryProvider;
+
+    private final Map<Method, MethodStatsHandle> handles = new ConcurrentHashMap<>();
+
+    private volatile MeterRegistry meterRegistry;
+
+    /**
+     * Returns the recorder of the running application context.
+     *
+     * @return the recorder, or null when no application context is running
+     */
+    static MethodStatsRecorder current() {
+        return current;
+    }
+
+    /**
+     * Makes this recorder available to the build-time woven aspect.
+     */
+    @PostConstruct
+    public void install() {
+        synchronized (MethodStatsRecorder.class) {
+            current = this;
+        }
+    }
+
+    /**
+     * Stops the build-time woven aspect from using this recorder.
+     */
+    @PreDestroy
+    public void uninstall() {
+        synchronized (MethodStatsRecorder.class) {
+            if (current == this) {
+                current = null;
+            }
+        }
+    }
+
+    /**
+     * Returns whether the methods are measured at all.
+     *
+     * @return true if the method statistics and either the timers or the logs are enabled
+     */
+    boolean isEnabled() {
+        MethodStatsProperties methodStats = properties.getMethodStats();
+        return methodStats.isEnabled()
+                && (methodStats.getMetrics().isEnabled() || methodStats.getLogLevel() != MethodStatsProperties.LogLevel.NONE);
+    }
+
+    /**
+     * Returns the configured weaving mode.
+     *
+     * @return the weaving mode
+     */
+    MethodStatsProperties.Weaving getWeaving() {
+        return properties.getMethodStats().getWeaving();
+    }
+
+    /**
+     * This method proceeds with the method execution and records its execution time.
+     *
+     * @param point The method execution join point.
+     * @return The result of the method execution, instrumented when it is a {@link Mono} or a {@link Flux}.
+     * @throws java.lang.Throwable If an exception occurs during method execution.
+     */
+    public Object measure(ProceedingJoinPoint point) throws Throwable {
+        if (!isEnabled()) {
+            return point.proceed();
+        }
+        MethodStatsHandle handle = handle(point);
+
+        // Record the start time
+        long start = System.nanoTime();
+        Object result;
+        try {
+            // Proceed with the method execution and capture the result
+            result = point.proceed();
+        } catch (Throwable e) {
+            record(handle, System.nanoTime() - start, Outcome.ERROR);
+            throw e;
+        }
+
+        // Measure reactive results from the subscription to the terminal signal
+        if (result instanceof Mono<?> mono) {
+            return Mono.defer(() -> {
+                Measurement measurement = new Measurement(handle);
+                return mono.doOnSuccess(value -> measurement.stop(Outcome.SUCCESS))
+                        .doOnError(e -> measurement.stop(Outcome.ERROR))
+                        .doOnCancel(() -> measurement.stop(Outcome.CANCELLED));
+            });
+        } else if (result instanceof Flux<?> flux) {
+            return Flux.defer(() -> {
+                Measurement measurement = new Measurement(handle);
+                return flux.doOnComplete(() -> measurement.stop(Outcome.SUCCESS))
+                        .doOnError(e -> measurement.stop(Outcome.ERROR))
+                        .doOnCancel(() -> measurement.stop(Outcome.CANCELLED));
+            });
+        }
+
+        record(handle, System.nanoTime() - start, Outcome.SUCCESS);
+        // Return the result of the method execution
+        return result;
+    }
+
+    private MethodStatsHandle handle(ProceedingJoinPoint point) {
+        Method method = ((MethodSignature) point.getSignature()).getMethod();
+        MethodStatsHandle handle = handles.get(method);
+        return handle != null ? handle : handles.computeIfAbsent(method, MethodStatsHandle::new);
+    }
+
+    /**
+     * This method records an execution time into the timer of the method and outcome, and logs it if needed.
+     *
+     * @param handle  The cached statistics of the method.
+     * @param nanos   The execution time in nanoseconds.
+     * @param outcome The outcome of the execution.
+     */
+    void record(MethodStatsHandle handle, long nanos, Outcome outcome) {
+        MethodStatsProperties methodStats = properties.getMethodStats();
+        MethodStatsProperties.Metrics metrics = methodStats.getMetrics();
+        if (metrics.isEnabled()) {
+            handle.timer(outcome, metrics, getMeterRegistry()).record(nanos, TimeUnit.NANOSECONDS);
+        }
+
+        MethodStatsProperties.LogLevel logLevel = methodStats.getLogLevel();
+        if (logLevel == MethodStatsProperties.LogLevel.NONE) {
+            return;
+        }
+        long millis = TimeUnit.NANOSECONDS.toMillis(nanos);
+        // If the execution time exceeds the threshold, log a warning
+        if (millis > methodStats.getWarnTime())
+            logger.warn("{}, TimeMS={}, Outcome={}, ThreadName={}"
+                    , handle.getLabel(), millis, outcome, Thread.currentThread().getName());
+            // If info logging is enabled, log an info message
+        else if (logLevel == MethodStatsProperties.LogLevel.INFO)
+            logger.info("{}, TimeMS={}, Outcome={}, ThreadName={}"
+                    , handle.getLabel(), millis, outcome, Thread.currentThread().getName());
+    }
+
+    private MeterRegistry getMeterRegistry() {
+        MeterRegistry registry = meterRegistry;
+        if (registry == null) {
+            registry = meterRegistryProvider.getIfAvailable(() -> Metrics.globalRegistry);
+            meterRegistry = registry;
+        }
+        return registry;
+    }
+
+    /**
+     * The measurement of one subscription to a reactive result, started on subscription and recorded on the
+     * first terminal or cancel signal only.
+     */
+    private final class Measurement extends AtomicBoolean {
+        private final MethodStatsHandle handle;
+        private final long start = System.nanoTime();
+
+        private Measurement(MethodStatsHandle handle) {
+            this.handle = handle;
+        }
+
+        void stop(Outcome outcome) {
+            if (compareAndSet(false, true)) {
+                record(handle, System.nanoTime() - start, outcome);
+            }
+        }
+    }
+}
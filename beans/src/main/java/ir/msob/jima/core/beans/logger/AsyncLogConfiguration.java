@@ -0,0 +1,40 @@
+package ir.msob.jima.core.beans.logger;
+
+import ir.msob.jima.core.beans.properties.JimaProperties;
+import ir.msob.jima.core.commons.logger.AsyncLogPipeline;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * This configuration class starts the asynchronous log pipeline of the commons {@code Logger}.
+ * It is activated when the property 'jima.log.async.enabled' is set to true; the pipeline is closed, and its
+ * pending events written, when the application context is closed. Its counters are published as Micrometer
+ * meters by an {@link AsyncLogMeterBinder}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "jima.log.async.enabled", havingValue = "true")
+public class AsyncLogConfiguration {
+
+    /**
+     * This method starts the asynchronous log pipeline and exposes it, mainly for its metrics.
+     *
+     * @param jimaProperties The Jima properties holding the pipeline configuration.
+     * @return The started pipeline.
+     */
+    @Bean(destroyMethod = "close")
+    public AsyncLogPipeline asyncLogPipeline(JimaProperties jimaProperties) {
+        return AsyncLogPipeline.start(jimaProperties.getLog().getAsync());
+    }
+
+    /**
+     * This method publishes the counters of the asynchronous log pipeline as Micrometer meters.
+     *
+     * @param asyncLogPipeline The started pipeline.
+     * @return The meter binder of the pipeline.
+     */
+    @Bean
+    public AsyncLogMeterBinder asyncLogMeterBinder(AsyncLogPipeline asyncLogPipeline) {
+        return new AsyncLogMeterBinder(asyncLogPipeline.getMetrics());
+    }
+}
@@ -0,0 +1,71 @@
+package ir.msob.jima.core.beans.logger;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import ir.msob.jima.core.commons.logger.AsyncLogMetrics;
+import ir.msob.jima.core.commons.logger.AsyncLogPipeline;
+import org.jspecify.annotations.NonNull;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class publishes the counters of an {@link AsyncLogPipeline} as Micrometer meters, in the registries it is
+ * bound to (the application registries, when Spring Boot Actuator is present):
+ * <ul>
+ *     <li>`jima.log.async.events`, the events by `result` (published, written, failed);</li>
+ *     <li>`jima.log.async.dropped`, the events dropped by the overflow policy, by `level` (debug for trace and
+ *     debug, other);</li>
+ *     <li>`jima.log.async.blocked`, the statements whose thread waited for free space;</li>
+ *     <li>`jima.log.async.queue`, the events waiting in the buffer, by `state` (current, max), and
+ *     `jima.log.async.capacity`, the size of the buffer;</li>
+ *     <li>`jima.log.async.latency`, the time the written events waited between their statement and their write.</li>
+ * </ul>
+ */
+public class AsyncLogMeterBinder implements MeterBinder {
+
+    private final AsyncLogMetrics metrics;
+
+    /**
+     * Constructor of the class.
+     *
+     * @param metrics The metrics of the pipeline.
+     */
+    public AsyncLogMeterBinder(AsyncLogMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        FunctionCounter.builder("jima.log.async.events", metrics, AsyncLogMetrics::getPublished)
+                .tags("result", "published")
+                .register(registry);
+        FunctionCounter.builder("jima.log.async.events", metrics, AsyncLogMetrics::getWritten)
+                .tags("result", "written")
+                .register(registry);
+        FunctionCounter.builder("jima.log.async.events", metrics, AsyncLogMetrics::getFailed)
+                .tags("result", "failed")
+                .register(registry);
+        FunctionCounter.builder("jima.log.async.dropped", metrics, AsyncLogMetrics::getDroppedDebug)
+                .tags("level", "debug")
+                .register(registry);
+        FunctionCounter.builder("jima.log.async.dropped", metrics, m -> m.getDropped() - m.getDroppedDebug())
+                .tags("level", "other")
+                .register(registry);
+        FunctionCounter.builder("jima.log.async.blocked", metrics, AsyncLogMetrics::getBlocked)
+                .register(registry);
+        Gauge.builder("jima.log.async.queue", metrics, AsyncLogMetrics::getQueueDepth)
+                .tags("state", "current")
+                .register(registry);
+        Gauge.builder("jima.log.async.queue", metrics, AsyncLogMetrics::getMaxQueueDepth)
+                .tags("state", "max")
+                .register(registry);
+        Gauge.builder("jima.log.async.capacity", metrics, AsyncLogMetrics::getCapacity)
+                .register(registry);
+        FunctionTimer.builder("jima.log.async.latency", metrics, AsyncLogMetrics::getWritten,
+                        AsyncLogMetrics::getLatencyNanos, TimeUnit.NANOSECONDS)
+                .register(registry);
+    }
+}
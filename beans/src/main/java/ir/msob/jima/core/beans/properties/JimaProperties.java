@@ -114,4 +114,19 @@ public class JimaProperties {
      * Configuration properties for AuditLog.
      */
     private AuditLogProperties auditLog = new AuditLogProperties();
-}
\ No newline at end of file
+
+    /**
+     * Configuration properties for the commons logger.
+     */
+    private LogProperties log = new LogProperties();
+
+    /**
+     * Configuration properties for request tracing.
+     */
+    private TracingProperties tracing = new TracingProperties();
+
+    /**
+     * Configuration properties for the Kafka channels.
+     */
+    private KafkaProperties kafka = new KafkaProperties();
+}
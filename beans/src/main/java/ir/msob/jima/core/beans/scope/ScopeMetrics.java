@@ -0,0 +1,196 @@
+package ir.msob.jima.core.beans.scope;
+
+import ir.msob.jima.core.commons.shared.ResourceType;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * The rolling window of the calls of one `@Scope` operation of a resource.
+ * <p>
+ * The window is made of a fixed number of slots, each holding the call count, the error count, the payload size
+ * and a latency histogram of the calls finished during its time slot. All the slots live in a single
+ * {@link AtomicLongArray}, so recording a call is lock-free and the memory used by a scope never grows. A slot is
+ * reset by the first call of a new time slot that reaches it, through a compare-and-set of its epoch.
+ * <p>
+ * The latency histogram is log-linear: {@value #SUB_BUCKETS} buckets per power of two of microseconds, which
+ * bounds the error of the reported percentiles to about 12% of their value.
+ */
+final class ScopeMetrics {
+
+    static final int SUB_BUCKETS = 4;
+    static final int HISTOGRAM_BUCKETS = SUB_BUCKETS * 36;
+
+    private static final int SUB_BUCKET_BITS = Integer.numberOfTrailingZeros(SUB_BUCKETS);
+    private static final int EPOCH = 0;
+    private static final int COUNT = 1;
+    private static final int ERRORS = 2;
+    private static final int PAYLOAD = 3;
+    private static final int HISTOGRAM = 4;
+    private static final int STRIDE = HISTOGRAM + HISTOGRAM_BUCKETS;
+
+    private final String resource;
+    private final ResourceType type;
+    private final String operation;
+    private final int slots;
+    private final long slotNanos;
+    private final LongSupplier clock;
+    private final AtomicLongArray data;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    ScopeMetrics(String resource, ResourceType type, String operation, int slots, Duration slotDuration, LongSupplier clock) {
+        if (slots < 1 || slotDuration.toNanos() < 1) {
+            throw new IllegalArgumentException("The window needs at least one slot of a positive duration");
+        }
+        this.resource = resource;
+        this.type = type;
+        this.operation = operation;
+        this.slots = slots;
+        this.slotNanos = slotDuration.toNanos();
+        this.clock = clock;
+        this.data = new AtomicLongArray(slots * STRIDE);
+        for (int slot = 0; slot < slots; slot++) {
+            data.set(slot * STRIDE + EPOCH, Long.MIN_VALUE);
+        }
+    }
+
+    /**
+     * Returns the histogram bucket of a latency.
+     *
+     * @param nanos the latency in nanoseconds
+     * @return the index of the bucket
+     */
+    static int bucket(long nanos) {
+        long micros = nanos / 1000;
+        if (micros < SUB_BUCKETS) {
+            return (int) Math.max(micros, 0);
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        int shift = exponent - SUB_BUCKET_BITS;
+        int index = SUB_BUCKETS * (shift + 1) + (int) ((micros >>> shift) & (SUB_BUCKETS - 1));
+        return Math.min(index, HISTOGRAM_BUCKETS - 1);
+    }
+
+    /**
+     * Returns the middle of the latencies of a histogram bucket.
+     *
+     * @param bucket the index of the bucket
+     * @return the latency in nanoseconds
+     */
+    static long bucketMidpoint(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket * 1000L + 500L;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        long lower = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+        return (lower * 1000L) + (1000L << shift) / 2;
+    }
+
+    /**
+     * Records the start of a call.
+     */
+    void started() {
+        inFlight.incrementAndGet();
+    }
+
+    /**
+     * Ends a call started with {@link #started()} without recording it.
+     */
+    void discarded() {
+        inFlight.decrementAndGet();
+    }
+
+    /**
+     * Records the end of a call started with {@link #started()}.
+     *
+     * @param nanos   the latency of the call in nanoseconds
+     * @param error   whether the call failed
+     * @param payload the number of items returned by the call
+     */
+    void finished(long nanos, boolean error, long payload) {
+        inFlight.decrementAndGet();
+        int base = slot(Math.floorDiv(clock.getAsLong(), slotNanos));
+        data.incrementAndGet(base + COUNT);
+        if (error) {
+            data.incrementAndGet(base + ERRORS);
+        }
+        if (payload > 0) {
+            data.addAndGet(base + PAYLOAD, payload);
+        }
+        data.incrementAndGet(base + HISTOGRAM + bucket(nanos));
+    }
+
+    private int slot(long epoch) {
+        int base = (int) Math.floorMod(epoch, slots) * STRIDE;
+        long slotEpoch = data.get(base + EPOCH);
+        // the first call of a new time slot resets it; a late call of an older time slot counts in the newer one
+        if (slotEpoch < epoch && data.compareAndSet(base + EPOCH, slotEpoch, epoch)) {
+            for (int i = EPOCH + 1; i < STRIDE; i++) {
+                data.set(base + i, 0);
+            }
+        }
+        return base;
+    }
+
+    /**
+     * Returns the statistics of the calls finished during the window.
+     *
+     * @return the snapshot of the window
+     */
+    ScopeMetricsSnapshot snapshot() {
+        long epoch = Math.floorDiv(clock.getAsLong(), slotNanos);
+        long count = 0;
+        long errors = 0;
+        long payload = 0;
+        long[] histogram = new long[HISTOGRAM_BUCKETS];
+        for (int slot = 0; slot < slots; slot++) {
+            int base = slot * STRIDE;
+            long slotEpoch = data.get(base + EPOCH);
+            if (slotEpoch <= epoch - slots || slotEpoch > epoch) {
+                continue;
+            }
+            count += data.get(base + COUNT);
+            errors += data.get(base + ERRORS);
+            payload += data.get(base + PAYLOAD);
+            for (int bucket = 0; bucket < HISTOGRAM_BUCKETS; bucket++) {
+                histogram[bucket] += data.get(base + HISTOGRAM + bucket);
+            }
+        }
+        double windowSeconds = slots * (slotNanos / 1e9);
+        return new ScopeMetricsSnapshot(resource, type, operation,
+                count / windowSeconds,
+                percentile(histogram, 0.5),
+                percentile(histogram, 0.95),
+                percentile(histogram, 0.99),
+                count == 0 ? 0 : (double) errors / count,
+                inFlight.get(),
+                count == 0 ? 0 : (double) payload / count,
+                count,
+                errors);
+    }
+
+    /**
+     * Returns a percentile of the histogram, in milliseconds.
+     * The total is recomputed from the buckets, as they may be updated while they are read.
+     */
+    private static double percentile(long[] histogram, double quantile) {
+        long total = 0;
+        for (long value : histogram) {
+            total += value;
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(quantile * total));
+        long cumulative = 0;
+        for (int bucket = 0; bucket < histogram.length; bucket++) {
+            cumulative += histogram[bucket];
+            if (cumulative >= rank) {
+                return bucketMidpoint(bucket) / 1e6;
+            }
+        }
+        return bucketMidpoint(histogram.length - 1) / 1e6;
+    }
+}
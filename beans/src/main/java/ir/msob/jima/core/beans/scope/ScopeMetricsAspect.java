@@ -0,0 +1,137 @@
+package ir.msob.jima.core.beans.scope;
+
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.lang.reflect.Array;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class is an Aspect recording the calls of the methods annotated with @Scope into the rolling window of
+ * their resource and operation.
+ * It is activated when the property 'jima.scope.metrics.enabled' is set to true.
+ * <p>
+ * For methods returning a {@link Mono} or a {@link Flux}, every subscription is a call, measured from the
+ * subscription to the terminal or cancel signal. The payload size of a call is the number of items it returns:
+ * the elements of a {@link Flux}, of a {@link Collection}, a {@link Map}, an array or a {@link Slice} (such as a
+ * page), and one for any other value.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "jima.scope.metrics.enabled", havingValue = "true")
+public class ScopeMetricsAspect {
+
+    private final ScopeMetricsRegistry registry;
+
+    /**
+     * Returns the number of items of a returned value.
+     *
+     * @param value The returned value.
+     * @return the number of items
+     */
+    static long payloadSize(Object value) {
+        if (value == null) {
+            return 0;
+        } else if (value instanceof Collection<?> collection) {
+            return collection.size();
+        } else if (value instanceof Map<?, ?> map) {
+            return map.size();
+        } else if (value instanceof Slice<?> slice) {
+            return slice.getNumberOfElements();
+        } else if (value.getClass().isArray()) {
+            return Array.getLength(value);
+        }
+        return 1;
+    }
+
+    /**
+     * This method records the call of a method annotated with @Scope.
+     *
+     * @param point The method execution join point.
+     * @return The result of the method, instrumented when it is a {@link Mono} or a {@link Flux}.
+     * @throws java.lang.Throwable If an exception occurs during method execution.
+     */
+    @Around("@annotation(ir.msob.jima.core.commons.scope.Scope)")
+    public Object aroundScope(ProceedingJoinPoint point) throws Throwable {
+        ScopeMetrics metrics = registry.get(point.getTarget(), ((MethodSignature) point.getSignature()).getMethod());
+        if (metrics == null) {
+            return point.proceed();
+        }
+
+        Call call = new Call(metrics);
+        Object result;
+        try {
+            result = point.proceed();
+        } catch (Throwable e) {
+            call.stop(true);
+            throw e;
+        }
+
+        if (result instanceof Mono<?> mono) {
+            call.discard();
+            return Mono.defer(() -> {
+                Call subscription = new Call(metrics);
+                return mono.doOnSuccess(value -> subscription.stop(false, payloadSize(value)))
+                        .doOnError(e -> subscription.stop(true))
+                        .doOnCancel(() -> subscription.stop(false));
+            });
+        } else if (result instanceof Flux<?> flux) {
+            call.discard();
+            return Flux.defer(() -> {
+                Call subscription = new Call(metrics);
+                return flux.doOnNext(value -> subscription.items.incrementAndGet())
+                        .doOnComplete(() -> subscription.stop(false))
+                        .doOnError(e -> subscription.stop(true))
+                        .doOnCancel(() -> subscription.stop(false));
+            });
+        }
+
+        call.stop(false, payloadSize(result));
+        return result;
+    }
+
+    /**
+     * One call of an operation, counted as in flight from its creation and recorded on the first stop only.
+     */
+    private static final class Call extends AtomicBoolean {
+        private final ScopeMetrics metrics;
+        private final AtomicLong items = new AtomicLong();
+        private final long start = System.nanoTime();
+
+        private Call(ScopeMetrics metrics) {
+            this.metrics = metrics;
+            metrics.started();
+        }
+
+        void stop(boolean error) {
+            stop(error, items.get());
+        }
+
+        void stop(boolean error, long payload) {
+            if (compareAndSet(false, true)) {
+                metrics.finished(System.nanoTime() - start, error, payload);
+            }
+        }
+
+        /**
+         * Ends the call without recording it, when it only assembled a reactive pipeline.
+         */
+        void discard() {
+            if (compareAndSet(false, true)) {
+                metrics.discarded();
+            }
+        }
+    }
+}
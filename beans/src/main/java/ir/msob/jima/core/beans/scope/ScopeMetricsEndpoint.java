@@ -0,0 +1,64 @@
+package ir.msob.jima.core.beans.scope;
+
+import ir.msob.jima.core.commons.scope.ResourceDto;
+import ir.msob.jima.core.commons.scope.ScopeDto;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class is the actuator endpoint `jimascopes`, listing the live statistics of every `@Scope` operation of
+ * the resources: request rate, latency percentiles, error rate, in-flight count and payload size.
+ * It is activated when the property 'jima.scope.metrics.enabled' is set to true and actuator is on the classpath;
+ * like any actuator endpoint, it must also be exposed, e.g. with
+ * `management.endpoints.web.exposure.include=jimascopes`.
+ * <p>
+ * The operations found by the {@link ScopeScannerService} are listed even when they have not been called yet.
+ */
+@Component
+@ConditionalOnClass(name = "org.springframework.boot.actuate.endpoint.annotation.Endpoint")
+@ConditionalOnProperty(name = "jima.scope.metrics.enabled", havingValue = "true")
+@Endpoint(id = "jimascopes")
+public class ScopeMetricsEndpoint {
+
+    private final ScopeMetricsRegistry registry;
+    private final ScopeScannerService scopeScannerService;
+
+    public ScopeMetricsEndpoint(ScopeMetricsRegistry registry, ApplicationContext applicationContext) {
+        this.registry = registry;
+        this.scopeScannerService = new ScopeScannerService(applicationContext);
+    }
+
+    /**
+     * Returns the statistics of the operations over the rolling window.
+     *
+     * @return the statistics, sorted by resource, resource type and operation
+     */
+    @ReadOperation
+    public List<ScopeMetricsSnapshot> scopes() {
+        Map<String, ScopeMetricsSnapshot> snapshots = new LinkedHashMap<>();
+        for (ScopeMetricsSnapshot snapshot : registry.getSnapshots()) {
+            snapshots.put(ScopeMetricsRegistry.key(snapshot.resource(), snapshot.type(), snapshot.operation()), snapshot);
+        }
+        for (ResourceDto resource : scopeScannerService.getResources()) {
+            for (ScopeDto scope : resource.getScopes()) {
+                snapshots.computeIfAbsent(ScopeMetricsRegistry.key(resource.getValue(), resource.getType(), scope.getOperation()),
+                        key -> ScopeMetricsSnapshot.idle(resource.getValue(), resource.getType(), scope.getOperation()));
+            }
+        }
+        List<ScopeMetricsSnapshot> result = new ArrayList<>(snapshots.values());
+        result.sort(Comparator.comparing(ScopeMetricsSnapshot::resource, Comparator.nullsFirst(Comparator.naturalOrder()))
+                .thenComparing(ScopeMetricsSnapshot::type, Comparator.nullsFirst(Comparator.naturalOrder()))
+                .thenComparing(ScopeMetricsSnapshot::operation, Comparator.nullsFirst(Comparator.naturalOrder())));
+        return result;
+    }
+}
@@ -0,0 +1,86 @@
+package ir.msob.jima.core.beans.scope;
+
+import ir.msob.jima.core.beans.properties.JimaProperties;
+import ir.msob.jima.core.commons.properties.ScopeProperties;
+import ir.msob.jima.core.commons.resource.Resource;
+import ir.msob.jima.core.commons.scope.Scope;
+import ir.msob.jima.core.commons.shared.ResourceType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * This class holds the rolling windows of the `@Scope` operations, one per resource, resource type and operation.
+ * It is activated when the property 'jima.scope.metrics.enabled' is set to true.
+ * <p>
+ * The window of a method is looked up once per resource class and cached, so recording a call does not read
+ * any annotation.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "jima.scope.metrics.enabled", havingValue = "true")
+public class ScopeMetricsRegistry {
+
+    // The windows of the methods, by resource class
+    private final Map<Class<?>, Map<Method, Optional<ScopeMetrics>>> byClass = new ConcurrentHashMap<>();
+
+    // The windows, by resource, resource type and operation
+    private final Map<String, ScopeMetrics> byScope = new ConcurrentHashMap<>();
+
+    private final JimaProperties jimaProperties;
+
+    static String key(String resource, ResourceType type, String operation) {
+        return resource + "/" + type + "/" + operation;
+    }
+
+    /**
+     * Returns the window of a `@Scope` method called on a resource.
+     *
+     * @param target The resource bean.
+     * @param method The called method.
+     * @return the window, or null when the bean is not a `@Resource` or the method has no `@Scope`
+     */
+    ScopeMetrics get(Object target, Method method) {
+        Class<?> resourceClass = target.getClass();
+        Map<Method, Optional<ScopeMetrics>> methods = byClass.get(resourceClass);
+        if (methods == null) {
+            methods = byClass.computeIfAbsent(resourceClass, key -> new ConcurrentHashMap<>());
+        }
+        Optional<ScopeMetrics> metrics = methods.get(method);
+        if (metrics == null) {
+            metrics = methods.computeIfAbsent(method, key -> Optional.ofNullable(create(resourceClass, method)));
+        }
+        return metrics.orElse(null);
+    }
+
+    private ScopeMetrics create(Class<?> resourceClass, Method method) {
+        Resource resource = AnnotationUtils.findAnnotation(ClassUtils.getUserClass(resourceClass), Resource.class);
+        Scope scope = AnnotationUtils.findAnnotation(method, Scope.class);
+        if (resource == null || scope == null) {
+            return null;
+        }
+        ScopeProperties.Metrics properties = jimaProperties.getScope().getMetrics();
+        return byScope.computeIfAbsent(key(resource.value(), resource.type(), scope.operation()),
+                key -> new ScopeMetrics(resource.value(), resource.type(), scope.operation(),
+                        properties.getSlots(), properties.getSlotDuration(), System::nanoTime));
+    }
+
+    /**
+     * Returns the statistics of every operation that has been called.
+     *
+     * @return the statistics, in no particular order
+     */
+    public List<ScopeMetricsSnapshot> getSnapshots() {
+        return byScope.values().stream()
+                .map(ScopeMetrics::snapshot)
+                .toList();
+    }
+}
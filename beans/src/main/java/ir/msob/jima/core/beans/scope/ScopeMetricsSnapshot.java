@@ -0,0 +1,45 @@
+package ir.msob.jima.core.beans.scope;
+
+import ir.msob.jima.core.commons.shared.ResourceType;
+
+/**
+ * The statistics of one `@Scope` operation of a resource over the rolling window of the scope metrics.
+ *
+ * @param resource       The value of the `@Resource` of the operation.
+ * @param type           The type of the resource.
+ * @param operation      The operation of the `@Scope`.
+ * @param requestRate    The number of calls per second.
+ * @param p50            The median latency in milliseconds.
+ * @param p95            The 95th percentile of the latency in milliseconds.
+ * @param p99            The 99th percentile of the latency in milliseconds.
+ * @param errorRate      The ratio of the failed calls, between 0 and 1.
+ * @param inFlight       The number of calls in progress.
+ * @param meanPayload    The mean number of items returned by a call.
+ * @param count          The number of calls.
+ * @param errors         The number of failed calls.
+ */
+public record ScopeMetricsSnapshot(String resource,
+                                   ResourceType type,
+                                   String operation,
+                                   double requestRate,
+                                   double p50,
+                                   double p95,
+                                   double p99,
+                                   double errorRate,
+                                   int inFlight,
+                                   double meanPayload,
+                                   long count,
+                                   long errors) {
+
+    /**
+     * Returns the snapshot of an operation without any call.
+     *
+     * @param resource  The value of the `@Resource` of the operation.
+     * @param type      The type of the resource.
+     * @param operation The operation of the `@Scope`.
+     * @return the snapshot
+     */
+    public static ScopeMetricsSnapshot idle(String resource, ResourceType type, String operation) {
+        return new ScopeMetricsSnapshot(resource, type, operation, 0, 0, 0, 0, 0, 0, 0, 0, 0);
+    }
+}
@@ -0,0 +1,227 @@
+package ir.msob.jima.core.beans.tracing;
+
+import ir.msob.jima.core.commons.channel.ChannelMessage;
+import ir.msob.jima.core.commons.shared.ModelType;
+import ir.msob.jima.core.commons.tracing.Span;
+import ir.msob.jima.core.commons.tracing.SpanKind;
+import ir.msob.jima.core.commons.tracing.TraceContext;
+import ir.msob.jima.core.commons.tracing.Tracer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class is an Aspect creating the tracing spans of the service hooks, the repository operations and the
+ * channel sends.
+ * It is activated when the property 'jima.tracing.enabled' is set to true.
+ *
+ * <p>Key functionalities include:</p>
+ * <ul>
+ *     <li>Tracing the reactive `pre*` and `post*` hooks of the `BaseService` beans ({@link SpanKind#INTERNAL}).</li>
+ *     <li>Tracing the reactive operations of the `BaseRepository` beans ({@link SpanKind#CLIENT}).</li>
+ *     <li>Tracing `BaseAsyncClient.send` ({@link SpanKind#PRODUCER}) and writing the context of its span into
+ *     the metadata of the sent message and of its callbacks, so the receiver and its callbacks join the trace.</li>
+ *     <li>Tracing `BaseAsyncClient.sendAll` as one {@link SpanKind#PRODUCER} span for the batch, written into the
+ *     metadata of every sent message and linked to the spans the messages were already carrying.</li>
+ * </ul>
+ * <p>
+ * The spans measure every subscription to the returned publishers and take the current span of the subscriber,
+ * from the Reactor context, as their parent. The sending itself is deferred to the subscription, where the span
+ * context is known. As with any Spring AOP aspect, calls from a bean to itself are not traced.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "jima.tracing.enabled", havingValue = "true")
+public class TracingAspect {
+
+    /**
+     * The span attribute holding the traced layer: `service`, `repository` or `channel`.
+     */
+    public static final String STAGE_ATTRIBUTE = "jima.stage";
+
+    /**
+     * The span attribute holding the channel of a sent message, named after the OpenTelemetry convention.
+     */
+    public static final String DESTINATION_ATTRIBUTE = "messaging.destination.name";
+
+    private final Tracer tracer;
+
+    /**
+     * This method traces the reactive pre and post hooks of the services.
+     *
+     * @param point The method execution join point.
+     * @return The traced result of the hook.
+     * @throws java.lang.Throwable If an exception occurs during method execution.
+     */
+    @Around("execution(reactor.core.publisher.Mono ir.msob.jima.core.commons.service.BaseService+.pre*(..))"
+            + " || execution(reactor.core.publisher.Mono ir.msob.jima.core.commons.service.BaseService+.post*(..))")
+    public Object traceService(ProceedingJoinPoint point) throws Throwable {
+        return trace(point, SpanKind.INTERNAL, "service");
+    }
+
+    /**
+     * This method traces the reactive operations of the repositories.
+     *
+     * @param point The method execution join point.
+     * @return The traced result of the operation.
+     * @throws java.lang.Throwable If an exception occurs during method execution.
+     */
+    @Around("execution(public reactor.core.publisher.Mono ir.msob.jima.core.commons.repository.BaseRepository+.*(..))"
+            + " || execution(public reactor.core.publisher.Flux ir.msob.jima.core.commons.repository.BaseRepository+.*(..))")
+    public Object traceRepository(ProceedingJoinPoint point) throws Throwable {
+        return trace(point, SpanKind.CLIENT, "repository");
+    }
+
+    /**
+     * This method traces the sending of a message and propagates the context of its span in the message metadata.
+     *
+     * @param point The method execution join point.
+     * @return The traced sending, performed on subscription.
+     */
+    @Around("execution(reactor.core.publisher.Mono ir.msob.jima.core.commons.client.BaseAsyncClient+.send(..))")
+    public Object traceSend(ProceedingJoinPoint point) {
+        Object[] args = point.getArgs();
+        String channel = args.length > 0 ? String.valueOf(args[0]) : null;
+        Object message = args.length > 1 ? args[1] : null;
+        // a message already carrying a context (a callback) continues its trace when the sender has no span
+        TraceContext fallback = TraceContext.parse(traceparentOf(message));
+        return tracer.traceMono("send " + channel, SpanKind.PRODUCER, fallback, span -> {
+            span.setAttribute(STAGE_ATTRIBUTE, "channel").setAttribute(DESTINATION_ATTRIBUTE, channel);
+            inject(message, span.getContext());
+            return proceed(point);
+        });
+    }
+
+    /**
+     * This method traces the sending of a batch of messages as one span, propagates the context of the span in the
+     * metadata of every message, and links the span to the contexts the messages were carrying.
+     *
+     * @param point The method execution join point.
+     * @return The traced sending, performed on subscription.
+     */
+    @Around("execution(reactor.core.publisher.Mono ir.msob.jima.core.commons.client.BaseAsyncClient+.sendAll(..))")
+    public Object traceSendAll(ProceedingJoinPoint point) {
+        Object[] args = point.getArgs();
+        if (args.length < 2 || !(args[1] instanceof Flux<?> messages)) {
+            return proceed(point, args);
+        }
+        String channel = String.valueOf(args[0]);
+        return tracer.traceMono("send " + channel, SpanKind.PRODUCER, null, span -> {
+            span.setAttribute(STAGE_ATTRIBUTE, "channel").setAttribute(DESTINATION_ATTRIBUTE, channel);
+            AtomicLong count = new AtomicLong();
+            Set<TraceContext> linked = new HashSet<>();
+            Object[] tracedArgs = args.clone();
+            tracedArgs[1] = messages
+                    .doOnNext(message -> {
+                        count.incrementAndGet();
+                        TraceContext carried = TraceContext.parse(traceparentOf(message));
+                        if (carried != null && linked.add(carried)) {
+                            span.addLink(carried);
+                        }
+                        inject(message, span.getContext());
+                    })
+                    .doOnComplete(() -> span.setAttribute(Tracer.BATCH_SIZE_ATTRIBUTE, count.get()));
+            return proceed(point, tracedArgs);
+        });
+    }
+
+    private Object trace(ProceedingJoinPoint point, SpanKind kind, String stage) throws Throwable {
+        Object result = point.proceed();
+        if (result instanceof Mono<?> mono) {
+            return tracer.traceMono(spanName(point), kind, null, span -> {
+                span.setAttribute(STAGE_ATTRIBUTE, stage);
+                return mono;
+            });
+        } else if (result instanceof Flux<?> flux) {
+            return tracer.traceFlux(spanName(point), kind, null, span -> {
+                span.setAttribute(STAGE_ATTRIBUTE, stage);
+                return flux;
+            });
+        }
+        return result;
+    }
+
+    private static String spanName(ProceedingJoinPoint point) {
+        return ClassUtils.getUserClass(point.getTarget()).getSimpleName() + "." + point.getSignature().getName();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Mono<Object> proceed(ProceedingJoinPoint point) {
+        try {
+            return (Mono<Object>) point.proceed();
+        } catch (Throwable e) {
+            return Mono.error(e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Mono<Object> proceed(ProceedingJoinPoint point, Object[] args) {
+        try {
+            return (Mono<Object>) point.proceed(args);
+        } catch (Throwable e) {
+            return Mono.error(e);
+        }
+    }
+
+    private static Object traceparentOf(Object message) {
+        if (message instanceof ChannelMessage<?, ?> channelMessage) {
+            return channelMessage.getMetadata() != null ? channelMessage.getMetadata().get(TraceContext.TRACEPARENT) : null;
+        } else if (message instanceof Map<?, ?> map && map.get(ChannelMessage.FN.metadata.name()) instanceof Map<?, ?> metadata) {
+            return metadata.get(TraceContext.TRACEPARENT);
+        }
+        return null;
+    }
+
+    /**
+     * Writes the context of the send span into the metadata of the message, and into the metadata of its callbacks
+     * that do not carry a context yet.
+     */
+    @SuppressWarnings("unchecked")
+    private static void inject(Object message, TraceContext context) {
+        String traceparent = context.toTraceparent();
+        if (message instanceof ChannelMessage<?, ?> channelMessage) {
+            if (channelMessage.getMetadata() == null) {
+                channelMessage.setMetadata(new HashMap<>());
+            }
+            channelMessage.getMetadata().put(TraceContext.TRACEPARENT, traceparent);
+            injectCallbacks(channelMessage.getCallbacks(), traceparent);
+            injectCallbacks(channelMessage.getErrorCallbacks(), traceparent);
+        } else if (message instanceof Map<?, ?> map) {
+            try {
+                Map<String, Object> metadata = (Map<String, Object>) ((Map<String, Object>) map)
+                        .computeIfAbsent(ChannelMessage.FN.metadata.name(), key -> new HashMap<String, Object>());
+                metadata.put(TraceContext.TRACEPARENT, traceparent);
+            } catch (UnsupportedOperationException | ClassCastException e) {
+                // an immutable message or metadata cannot carry the context
+            }
+        }
+    }
+
+    private static void injectCallbacks(List<? extends ChannelMessage<?, ? extends ModelType>> callbacks, String traceparent) {
+        if (callbacks == null) {
+            return;
+        }
+        for (ChannelMessage<?, ? extends ModelType> callback : callbacks) {
+            Map<String, Serializable> metadata = callback.getMetadata();
+            if (metadata == null) {
+                callback.setMetadata(metadata = new HashMap<>());
+            }
+            metadata.putIfAbsent(TraceContext.TRACEPARENT, traceparent);
+        }
+    }
+}
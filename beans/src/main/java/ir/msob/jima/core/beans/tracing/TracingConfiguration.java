@@ -0,0 +1,42 @@
+package ir.msob.jima.core.beans.tracing;
+
+import ir.msob.jima.core.beans.properties.JimaProperties;
+import ir.msob.jima.core.commons.tracing.InMemorySpanCollector;
+import ir.msob.jima.core.commons.tracing.SpanCollector;
+import ir.msob.jima.core.commons.tracing.Tracer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * This configuration class starts the request {@link Tracer}.
+ * It is activated when the property 'jima.tracing.enabled' is set to true; the finished spans are handed to the
+ * in-process {@link InMemorySpanCollector} and to every other {@link SpanCollector} bean of the application.
+ */
+@Configuration
+@ConditionalOnProperty(name = "jima.tracing.enabled", havingValue = "true")
+public class TracingConfiguration {
+
+    /**
+     * This method creates the in-process span collector, exposing the recent spans and the per-stage latencies.
+     *
+     * @param jimaProperties The Jima properties holding the tracing configuration.
+     * @return The span collector.
+     */
+    @Bean
+    public InMemorySpanCollector inMemorySpanCollector(JimaProperties jimaProperties) {
+        return new InMemorySpanCollector(jimaProperties.getTracing().getCapacity());
+    }
+
+    /**
+     * This method starts the tracer.
+     *
+     * @param collectors The span collectors of the application.
+     * @return The started tracer.
+     */
+    @Bean(destroyMethod = "close")
+    public Tracer tracer(ObjectProvider<SpanCollector> collectors) {
+        return Tracer.start(collectors.orderedStream().toList());
+    }
+}
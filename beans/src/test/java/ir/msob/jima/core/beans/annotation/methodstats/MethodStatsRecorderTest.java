@@ -0,0 +1,169 @@
+package ir.msob.jima.core.beans.annotation.methodstats;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import ir.msob.jima.core.beans.properties.JimaProperties;
+import ir.msob.jima.core.commons.properties.MethodStatsProperties;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MethodStatsRecorderTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private JimaProperties properties;
+    private ProceedingJoinPoint point;
+    private MethodStatsRecorder recorder;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() throws NoSuchMethodException {
+        properties = new JimaProperties();
+        properties.getMethodStats().setEnabled(true);
+
+        MethodSignature signature = mock(MethodSignature.class);
+        when(signature.getDeclaringTypeName()).thenReturn(Sample.class.getName());
+        when(signature.getMethod()).thenReturn(Sample.class.getDeclaredMethod("find"));
+        point = mock(ProceedingJoinPoint.class);
+        when(point.getSignature()).thenReturn(signature);
+
+        ObjectProvider<MeterRegistry> provider = mock(ObjectProvider.class);
+        when(provider.getIfAvailable(any())).thenReturn(registry);
+        recorder = new MethodStatsRecorder(properties, provider);
+    }
+
+    @AfterEach
+    void tearDown() {
+        recorder.uninstall();
+    }
+
+    @Test
+    void synchronousMethod_isRecordedAsSuccess() throws Throwable {
+        when(point.proceed()).thenReturn("result");
+
+        assertEquals("result", recorder.measure(point));
+
+        assertEquals(1, timer("SUCCESS").count());
+    }
+
+    @Test
+    void throwingMethod_isRecordedAsError() throws Throwable {
+        IllegalStateException exception = new IllegalStateException("failed");
+        when(point.proceed()).thenThrow(exception);
+
+        assertSame(exception, assertThrows(IllegalStateException.class, () -> recorder.measure(point)));
+
+        assertEquals(1, timer("ERROR").count());
+    }
+
+    @Test
+    void mono_isMeasuredFromSubscriptionToTerminalSignal() throws Throwable {
+        when(point.proceed()).thenReturn(Mono.just("result").delayElement(Duration.ofMillis(50)));
+
+        Mono<?> mono = (Mono<?>) recorder.measure(point);
+        assertNull(registry.find("jima.method.stats").timer());
+
+        assertEquals("result", mono.block());
+        Timer timer = timer("SUCCESS");
+        assertEquals(1, timer.count());
+        assertTrue(timer.totalTime(TimeUnit.MILLISECONDS) >= 50);
+    }
+
+    @Test
+    void failingMono_isRecordedAsError() throws Throwable {
+        when(point.proceed()).thenReturn(Mono.error(new IllegalStateException("failed")));
+
+        Mono<?> mono = (Mono<?>) recorder.measure(point);
+
+        assertThrows(IllegalStateException.class, mono::block);
+        assertEquals(1, timer("ERROR").count());
+    }
+
+    @Test
+    void cancelledFlux_isRecordedAsCancelled() throws Throwable {
+        when(point.proceed()).thenReturn(Flux.range(0, 10));
+
+        Flux<?> flux = (Flux<?>) recorder.measure(point);
+
+        assertEquals(List.of(0), flux.take(1).collectList().block());
+        assertEquals(1, timer("CANCELLED").count());
+    }
+
+    @Test
+    void everySubscription_isRecorded() throws Throwable {
+        when(point.proceed()).thenReturn(Flux.range(0, 3));
+
+        Flux<?> flux = (Flux<?>) recorder.measure(point);
+        flux.blockLast();
+        flux.blockLast();
+
+        assertEquals(2, timer("SUCCESS").count());
+    }
+
+    @Test
+    void disabledMetrics_registerNoTimer() throws Throwable {
+        properties.getMethodStats().getMetrics().setEnabled(false);
+        when(point.proceed()).thenReturn("result");
+
+        recorder.measure(point);
+
+        assertTrue(registry.getMeters().isEmpty());
+    }
+
+    @Test
+    void repeatedCalls_reuseTheCachedTimer() throws Throwable {
+        when(point.proceed()).thenReturn("result");
+
+        recorder.measure(point);
+        Timer first = timer("SUCCESS");
+        recorder.measure(point);
+
+        assertSame(first, timer("SUCCESS"));
+        assertEquals(2, first.count());
+        assertEquals(1, registry.getMeters().size());
+    }
+
+    @Test
+    void wovenAspect_measuresOnlyInBuildTimeMode() throws Throwable {
+        when(point.proceed()).thenReturn("result");
+        MethodStatsAspect aspect = new MethodStatsAspect();
+
+        assertEquals("result", aspect.measure(point));
+        recorder.install();
+        assertEquals("result", aspect.measure(point));
+        assertTrue(registry.getMeters().isEmpty());
+
+        properties.getMethodStats().setWeaving(MethodStatsProperties.Weaving.BUILD_TIME);
+        assertEquals("result", aspect.measure(point));
+        assertEquals(1, timer("SUCCESS").count());
+    }
+
+    private Timer timer(String outcome) {
+        Timer timer = registry.find("jima.method.stats")
+                .tags("class", Sample.class.getName(), "method", "find", "outcome", outcome)
+                .timer();
+        assertNotNull(timer);
+        return timer;
+    }
+
+    static class Sample {
+        Object find() {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package ir.msob.jima.core.beans.logger;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import ir.msob.jima.core.commons.logger.AsyncLogPipeline;
+import ir.msob.jima.core.commons.logger.Logger;
+import ir.msob.jima.core.commons.properties.LogProperties;
+import org.apache.commons.logging.Log;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Test class for {@link AsyncLogMeterBinder}.
+ */
+class AsyncLogMeterBinderTest {
+
+    /**
+     * Tests that the counters of the pipeline are published as meters.
+     */
+    @Test
+    void testBindToPublishesTheCountersOfThePipeline() {
+        LogProperties.Async properties = new LogProperties.Async();
+        properties.setBufferSize(64);
+        AsyncLogPipeline pipeline = AsyncLogPipeline.start(properties);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        new AsyncLogMeterBinder(pipeline.getMetrics()).bindTo(registry);
+        Log log = Mockito.mock(Log.class);
+        Mockito.when(log.isInfoEnabled()).thenReturn(true);
+        Logger logger = new Logger(log);
+
+        logger.info("first {}", 1);
+        logger.info("second {}", 2);
+        pipeline.close();
+
+        assertEquals(2, registry.get("jima.log.async.events").tags("result", "published").functionCounter().count());
+        assertEquals(2, registry.get("jima.log.async.events").tags("result", "written").functionCounter().count());
+        assertEquals(0, registry.get("jima.log.async.dropped").tags("level", "other").functionCounter().count());
+        assertEquals(2, registry.get("jima.log.async.latency").functionTimer().count());
+        assertEquals(64, registry.get("jima.log.async.capacity").gauge().value());
+    }
+}
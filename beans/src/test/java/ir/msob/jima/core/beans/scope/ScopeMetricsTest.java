@@ -0,0 +1,77 @@
+package ir.msob.jima.core.beans.scope;
+
+import ir.msob.jima.core.commons.shared.ResourceType;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScopeMetricsTest {
+
+    private final AtomicLong clock = new AtomicLong(TimeUnit.HOURS.toNanos(1));
+    private final ScopeMetrics metrics = new ScopeMetrics("user", ResourceType.RESTFUL, "get-page", 4,
+            Duration.ofSeconds(1), clock::get);
+
+    @Test
+    void snapshot_reportsRateErrorsPayloadAndPercentiles() {
+        for (int i = 1; i <= 100; i++) {
+            metrics.started();
+            metrics.finished(TimeUnit.MILLISECONDS.toNanos(i), i % 10 == 0, 3);
+        }
+        metrics.started();
+
+        ScopeMetricsSnapshot snapshot = metrics.snapshot();
+        assertEquals(100, snapshot.count());
+        assertEquals(10, snapshot.errors());
+        assertEquals(25, snapshot.requestRate(), 1e-9);
+        assertEquals(0.1, snapshot.errorRate(), 1e-9);
+        assertEquals(3, snapshot.meanPayload(), 1e-9);
+        assertEquals(1, snapshot.inFlight());
+        assertEquals(50, snapshot.p50(), 50 * 0.13);
+        assertEquals(95, snapshot.p95(), 95 * 0.13);
+        assertEquals(99, snapshot.p99(), 99 * 0.13);
+    }
+
+    @Test
+    void window_forgetsTheSlotsOlderThanTheWindow() {
+        record(1);
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        record(2);
+        assertEquals(3, metrics.snapshot().count());
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        assertEquals(2, metrics.snapshot().count());
+
+        // the slot of the first calls is reused, and reset, by the new calls
+        record(4);
+        assertEquals(6, metrics.snapshot().count());
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(10));
+        assertEquals(ScopeMetricsSnapshot.idle("user", ResourceType.RESTFUL, "get-page"), metrics.snapshot());
+    }
+
+    @Test
+    void buckets_areContiguousAndBoundTheRelativeError() {
+        int previous = 0;
+        for (long micros : List.of(1L, 3L, 4L, 7L, 8L, 100L, 1_000L, 123_456L, 10_000_000L)) {
+            long nanos = TimeUnit.MICROSECONDS.toNanos(micros);
+            int bucket = ScopeMetrics.bucket(nanos);
+            assertTrue(bucket >= previous);
+            assertEquals(nanos, ScopeMetrics.bucketMidpoint(bucket), nanos * 0.13 + 500);
+            previous = bucket;
+        }
+        assertEquals(ScopeMetrics.HISTOGRAM_BUCKETS - 1, ScopeMetrics.bucket(Long.MAX_VALUE));
+        assertEquals(0, ScopeMetrics.bucket(-1));
+    }
+
+    private void record(int calls) {
+        for (int i = 0; i < calls; i++) {
+            metrics.started();
+            metrics.finished(TimeUnit.MILLISECONDS.toNanos(5), false, 1);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package ir.msob.jima.core.beans.tracing;
+
+import ir.msob.jima.core.commons.channel.ChannelMessage;
+import ir.msob.jima.core.commons.security.BaseUser;
+import ir.msob.jima.core.commons.shared.ModelType;
+import ir.msob.jima.core.commons.tracing.InMemorySpanCollector;
+import ir.msob.jima.core.commons.tracing.Span;
+import ir.msob.jima.core.commons.tracing.SpanKind;
+import ir.msob.jima.core.commons.tracing.TraceContext;
+import ir.msob.jima.core.commons.tracing.Tracer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the tracing of the batch sends of {@link TracingAspect}.
+ */
+class TracingAspectTest {
+
+    private final InMemorySpanCollector collector = new InMemorySpanCollector(100);
+    private Tracer tracer;
+
+    @BeforeEach
+    void setUp() {
+        tracer = Tracer.start(List.of(collector));
+    }
+
+    @AfterEach
+    void tearDown() {
+        tracer.close();
+    }
+
+    private static ChannelMessage<BaseUser, ModelType> message(TraceContext carried) {
+        ChannelMessage<BaseUser, ModelType> message = ChannelMessage.<BaseUser, ModelType>builder().build();
+        if (carried != null) {
+            message.getMetadata().put(TraceContext.TRACEPARENT, carried.toTraceparent());
+        }
+        return message;
+    }
+
+    /**
+     * Tests that a batch send is one PRODUCER span, written into every sent message and linked to the contexts
+     * the messages were carrying.
+     */
+    @Test
+    void testSendAllIsOneSpanPropagatedToEveryMessage() throws Throwable {
+        TraceContext carried = TraceContext.child(null);
+        List<ChannelMessage<BaseUser, ModelType>> messages = List.of(message(carried), message(carried), message(null));
+        ProceedingJoinPoint point = Mockito.mock(ProceedingJoinPoint.class);
+        Mockito.when(point.getArgs()).thenReturn(new Object[]{"channel", Flux.fromIterable(messages)});
+        Mockito.when(point.proceed(Mockito.any(Object[].class))).thenAnswer(invocation -> {
+            Object[] args = invocation.getArgument(0);
+            return ((Flux<?>) args[1]).then();
+        });
+
+        ((Mono<?>) new TracingAspect(tracer).traceSendAll(point)).block();
+
+        assertEquals(1, collector.getSpans().size());
+        Span send = collector.getSpans().getFirst();
+        assertEquals("send channel", send.getName());
+        assertEquals(SpanKind.PRODUCER, send.getKind());
+        assertEquals(3L, send.getAttributes().get(Tracer.BATCH_SIZE_ATTRIBUTE));
+        assertEquals(List.of(carried), send.getLinks());
+        for (ChannelMessage<BaseUser, ModelType> message : messages) {
+            assertEquals(send.getContext().toTraceparent(), message.getMetadata().get(TraceContext.TRACEPARENT));
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package ir.msob.jima.core.benchmarks.beans;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ir.msob.jima.core.beans.util.JsonParser;
+import ir.msob.jima.core.benchmarks.model.BenchmarkFixtures;
+import ir.msob.jima.core.benchmarks.model.ProjectSampleDto;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link JsonParser#diff(Object, Object)} between a DTO and a copy with a few changed fields
+ * (the diff computed for audit logs on update).
+ * <p>
+ * {@code members} is the size of the nested member list of each DTO.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonParserBenchmark {
+
+    private final JsonParser jsonParser = new JsonParser(new ObjectMapper());
+
+    @Param({"1", "10"})
+    private int members;
+
+    private ProjectSampleDto before;
+    private ProjectSampleDto after;
+
+    @Setup
+    public void setup() {
+        before = BenchmarkFixtures.project(members);
+        after = BenchmarkFixtures.modifiedProject(members);
+    }
+
+    @Benchmark
+    public Map<String, ?> diff() throws JsonProcessingException {
+        return jsonParser.diff(before, after);
+    }
+}
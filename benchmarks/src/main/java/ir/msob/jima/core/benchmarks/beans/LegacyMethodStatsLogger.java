@@ -0,0 +1,53 @@
+package ir.msob.jima.core.benchmarks.beans;
+
+import ir.msob.jima.core.beans.properties.JimaProperties;
+import ir.msob.jima.core.commons.logger.Logger;
+import ir.msob.jima.core.commons.logger.LoggerFactory;
+import ir.msob.jima.core.commons.properties.MethodStatsProperties;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+
+/**
+ * The {@code MethodStatsLogger} aspect as it was before the latency timers: it reads the join point signature and
+ * formats the log line with {@link String#format} on every call, and measures with
+ * {@link System#currentTimeMillis()}. It is kept here only as the baseline of {@link MethodStatsBenchmark}.
+ */
+@Aspect
+public class LegacyMethodStatsLogger {
+
+    private static final Logger logger = LoggerFactory.getLogger(LegacyMethodStatsLogger.class);
+
+    private final JimaProperties properties;
+
+    public LegacyMethodStatsLogger(JimaProperties properties) {
+        this.properties = properties;
+    }
+
+    @Around("@annotation(ir.msob.jima.core.commons.methodstats.MethodStats)")
+    public Object log(ProceedingJoinPoint point) throws Throwable {
+        if (properties.getMethodStats().isEnabled()) {
+            long start = System.currentTimeMillis();
+
+            Object result = point.proceed();
+
+            long dif = System.currentTimeMillis() - start;
+
+            String msg = String.format("ClassName=%s, MethodName=%s, TimeMS=%d, ThreadName=%s"
+                    , point.getSignature().getDeclaringTypeName()
+                    , ((MethodSignature) point.getSignature()).getMethod().getName()
+                    , dif
+                    , Thread.currentThread().getName());
+
+            if (dif > properties.getMethodStats().getWarnTime())
+                logger.warn(msg);
+            else if (properties.getMethodStats().getLogLevel() == MethodStatsProperties.LogLevel.INFO)
+                logger.info(msg);
+
+            return result;
+        } else {
+            return point.proceed();
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package ir.msob.jima.core.benchmarks.beans;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import ir.msob.jima.core.beans.annotation.methodstats.MethodStatsLogger;
+import ir.msob.jima.core.beans.annotation.methodstats.MethodStatsRecorder;
+import ir.msob.jima.core.beans.properties.JimaProperties;
+import ir.msob.jima.core.commons.methodstats.MethodStats;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the per-call overhead of {@code @MethodStats} on a trivial method called through a Spring AOP proxy.
+ * <p>
+ * {@code direct} calls the method without a proxy, {@code disabled} goes through the proxy with the method
+ * statistics disabled (the cost of the proxy itself), {@code proxy} records into a Micrometer timer, and
+ * {@code legacy} runs the aspect as it was before the timers ({@link LegacyMethodStatsLogger}) as the baseline.
+ * {@code proxy - disabled} is the overhead that remains when the aspect is woven at build time. The
+ * {@code reactive*} benchmarks subscribe to a {@code Mono} result, measured from subscription to completion.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MethodStatsBenchmark {
+
+    private final SampleService target = new SampleService();
+    private SampleService disabledProxy;
+    private SampleService legacyProxy;
+    private SampleService timerProxy;
+
+    private static JimaProperties properties(boolean enabled) {
+        JimaProperties properties = new JimaProperties();
+        properties.getMethodStats().setEnabled(enabled);
+        properties.getMethodStats().setWarnTime(Long.MAX_VALUE);
+        return properties;
+    }
+
+    private static SampleService proxy(SampleService target, Object aspect) {
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(aspect);
+        return factory.getProxy();
+    }
+
+    private static MethodStatsLogger methodStatsLogger(JimaProperties properties, MeterRegistry registry) {
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory(Map.of("meterRegistry", registry));
+        return new MethodStatsLogger(new MethodStatsRecorder(properties, beanFactory.getBeanProvider(MeterRegistry.class)));
+    }
+
+    @Setup
+    public void setup() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        disabledProxy = proxy(target, methodStatsLogger(properties(false), registry));
+        legacyProxy = proxy(target, new LegacyMethodStatsLogger(properties(true)));
+        timerProxy = proxy(target, methodStatsLogger(properties(true), registry));
+    }
+
+    @Benchmark
+    public Object direct() {
+        return target.find(1L);
+    }
+
+    @Benchmark
+    public Object disabled() {
+        return disabledProxy.find(1L);
+    }
+
+    @Benchmark
+    public Object legacy() {
+        return legacyProxy.find(1L);
+    }
+
+    @Benchmark
+    public Object proxy() {
+        return timerProxy.find(1L);
+    }
+
+    @Benchmark
+    public Object reactiveDirect() {
+        return target.findMono(1L).block();
+    }
+
+    @Benchmark
+    public Object reactive() {
+        return timerProxy.findMono(1L).block();
+    }
+
+    public static class SampleService {
+
+        @MethodStats
+        public Long find(Long id) {
+            return id;
+        }
+
+        @MethodStats
+        public Mono<Long> findMono(Long id) {
+            return Mono.just(id);
+        }
+    }
+}
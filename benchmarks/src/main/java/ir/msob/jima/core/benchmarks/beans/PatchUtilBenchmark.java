@@ -0,0 +1,55 @@
+package ir.msob.jima.core.benchmarks.beans;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.fge.jackson.jsonpointer.JsonPointerException;
+import com.github.fge.jsonpatch.JsonPatchException;
+import ir.msob.jima.core.beans.util.jsonpatch.PatchOperation;
+import ir.msob.jima.core.beans.util.jsonpatch.PatchUtil;
+import ir.msob.jima.core.benchmarks.model.BenchmarkFixtures;
+import ir.msob.jima.core.benchmarks.model.ProjectSampleDto;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link PatchUtil#applyJsonPatch(java.util.Collection, Object)} on a DTO with replace and add
+ * operations on scalar, nested and list fields.
+ * <p>
+ * {@code operations} is the number of patch operations applied at once.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PatchUtilBenchmark {
+
+    private final PatchUtil patchUtil = new PatchUtil(new ObjectMapper());
+
+    @Param({"1", "5"})
+    private int operations;
+
+    private ProjectSampleDto dto;
+    private List<PatchOperation> patch;
+
+    @Setup
+    public void setup() {
+        dto = BenchmarkFixtures.project(10);
+        List<PatchOperation> all = List.of(
+                new PatchOperation(PatchUtil.REPLACE_OPERATION, "/status", "ARCHIVED"),
+                new PatchOperation(PatchUtil.REPLACE_OPERATION, "/priority", 5),
+                new PatchOperation(PatchUtil.ADD_OPERATION, "/tags/-", "archived"),
+                new PatchOperation(PatchUtil.REPLACE_OPERATION, "/owner/role", "OWNER"),
+                new PatchOperation(PatchUtil.REPLACE_OPERATION, "/members/0/role", "MAINTAINER"));
+        patch = new ArrayList<>(all.subList(0, operations));
+    }
+
+    @Benchmark
+    public Object applyJsonPatch() throws JsonPatchException, JsonProcessingException, JsonPointerException {
+        return patchUtil.applyJsonPatch(patch, dto);
+    }
+}
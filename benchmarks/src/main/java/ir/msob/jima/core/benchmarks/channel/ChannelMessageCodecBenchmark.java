@@ -0,0 +1,90 @@
+package ir.msob.jima.core.benchmarks.channel;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ir.msob.jima.core.benchmarks.model.BenchmarkFixtures;
+import ir.msob.jima.core.benchmarks.model.ProjectSampleDto;
+import ir.msob.jima.core.commons.channel.ChannelMessage;
+import ir.msob.jima.core.commons.channel.codec.ChannelMessageCodec;
+import ir.msob.jima.core.commons.channel.codec.ChannelMessageCodecs;
+import ir.msob.jima.core.commons.channel.message.DtosMessage;
+import ir.msob.jima.core.commons.security.BaseUser;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link ChannelMessageCodec#encode(Object)} and {@link ChannelMessageCodec#decode(byte[], TypeReference)}
+ * of a channel message holding a page of DTOs, for each built-in codec (the channel message written by the async
+ * clients and read by the listeners).
+ * <p>
+ * {@code dtos} is the number of DTOs of the message, each with 10 members. The {@code payloadBytes} secondary
+ * result is the size of the encoded message.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChannelMessageCodecBenchmark {
+
+    private static final TypeReference<ChannelMessage<BaseUser, DtosMessage<String, ProjectSampleDto>>> TYPE = new TypeReference<>() {
+    };
+
+    private final ChannelMessageCodecs codecs = new ChannelMessageCodecs(new ObjectMapper());
+
+    @Param({ChannelMessageCodecs.JSON, ChannelMessageCodecs.SMILE, ChannelMessageCodecs.CBOR})
+    private String codecName;
+
+    @Param({"1", "100"})
+    private int dtos;
+
+    private ChannelMessageCodec codec;
+    private ChannelMessage<BaseUser, DtosMessage<String, ProjectSampleDto>> message;
+    private byte[] payload;
+
+    @Setup
+    public void setup() throws IOException {
+        codec = codecs.get(codecName);
+        List<ProjectSampleDto> list = new ArrayList<>(dtos);
+        for (int i = 0; i < dtos; i++) {
+            list.add(BenchmarkFixtures.project(10));
+        }
+        DtosMessage<String, ProjectSampleDto> data = new DtosMessage<>();
+        data.setDtos(list);
+        message = ChannelMessage.<BaseUser, DtosMessage<String, ProjectSampleDto>>builder()
+                .key("65f1c0a7e4b0c1a2b3c4d5e6")
+                .channel("project.save-many")
+                .data(data)
+                .build();
+        payload = codec.encode(message);
+    }
+
+    @Benchmark
+    public byte[] encode(Size size) throws IOException {
+        return codec.encode(message);
+    }
+
+    @Benchmark
+    public ChannelMessage<BaseUser, DtosMessage<String, ProjectSampleDto>> decode() throws IOException {
+        return codec.decode(payload, TYPE);
+    }
+
+    /**
+     * Reports the size of the encoded message next to the encoding time.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Size {
+        public long payloadBytes;
+
+        @Setup(Level.Iteration)
+        public void reset(ChannelMessageCodecBenchmark benchmark) {
+            payloadBytes = benchmark.payload.length;
+        }
+    }
+}
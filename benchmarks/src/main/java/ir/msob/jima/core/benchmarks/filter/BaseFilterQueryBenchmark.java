@@ -0,0 +1,52 @@
+package ir.msob.jima.core.benchmarks.filter;
+
+import ir.msob.jima.core.commons.filter.BaseFilterQuery;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link BaseFilterQuery#isMatching(Comparable)} for the filter shapes of a typical criteria.
+ * <p>
+ * {@code shape=EQ} is an equality filter, {@code RANGE} a gte/lt range, {@code IN} an in/nin filter and
+ * {@code REGEX} a regular expression filter.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BaseFilterQueryBenchmark {
+
+    @Param({"EQ", "RANGE", "IN", "REGEX"})
+    private String shape;
+
+    private BaseFilterQuery<String> filter;
+    private String value;
+
+    @Setup
+    public void setup() {
+        filter = new BaseFilterQuery<>();
+        value = "jima-core";
+        switch (shape) {
+            case "EQ" -> filter.setEq("jima-core");
+            case "RANGE" -> {
+                filter.setGte("jima-a");
+                filter.setLt("jima-z");
+            }
+            case "IN" -> {
+                filter.setIn(Set.of("jima-core", "jima-web", "jima-api", "jima-ral"));
+                filter.setNin(Set.of("jima-legacy"));
+            }
+            case "REGEX" -> filter.setRegex("^jima-.*$");
+            default -> throw new IllegalArgumentException(shape);
+        }
+    }
+
+    @Benchmark
+    public boolean isMatching() {
+        return filter.isMatching(value);
+    }
+}
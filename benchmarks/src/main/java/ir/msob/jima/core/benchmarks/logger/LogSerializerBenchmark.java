@@ -0,0 +1,70 @@
+package ir.msob.jima.core.benchmarks.logger;
+
+import ir.msob.jima.core.benchmarks.model.BenchmarkFixtures;
+import ir.msob.jima.core.benchmarks.model.ProjectSampleDto;
+import ir.msob.jima.core.commons.logger.loggable.LogSerializer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link LogSerializer#serialize(Object)} on a {@code @Loggable} DTO with masked, truncated and
+ * nested fields, and on a list of such DTOs (the shape of a logged page).
+ * <p>
+ * {@code members} is the size of the nested member list of each DTO. The {@code legacy*} benchmarks run
+ * the tree-building serializer ({@link LegacyLogSerializer}) as the baseline of the streaming one, and
+ * {@code appendObject} streams into a reused builder the way a log encoder would.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LogSerializerBenchmark {
+
+    @Param({"1", "10"})
+    private int members;
+
+    private ProjectSampleDto dto;
+    private List<ProjectSampleDto> page;
+    private final StringBuilder builder = new StringBuilder(1024);
+
+    @Setup
+    public void setup() {
+        dto = BenchmarkFixtures.project(members);
+        page = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            page.add(BenchmarkFixtures.project(members));
+        }
+    }
+
+    @Benchmark
+    public Object object() {
+        return LogSerializer.serialize(dto);
+    }
+
+    @Benchmark
+    public Object list() {
+        return LogSerializer.serialize(page);
+    }
+
+    @Benchmark
+    public Object appendObject() {
+        builder.setLength(0);
+        LogSerializer.serializeTo(dto, builder);
+        return builder;
+    }
+
+    @Benchmark
+    public Object legacyObject() {
+        return LegacyLogSerializer.serialize(dto);
+    }
+
+    @Benchmark
+    public Object legacyList() {
+        return LegacyLogSerializer.serialize(page);
+    }
+}
@@ -0,0 +1,62 @@
+package ir.msob.jima.core.benchmarks.logger;
+
+import ir.msob.jima.core.benchmarks.model.BenchmarkFixtures;
+import ir.msob.jima.core.benchmarks.model.ProjectSampleDto;
+import ir.msob.jima.core.commons.logger.Logger;
+import ir.msob.jima.core.commons.logger.loggable.LogSerializer;
+import ir.msob.jima.core.commons.util.MessageUtil;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.impl.NoOpLog;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a {@code debug} statement with a DTO parameter when the debug level is disabled.
+ * <p>
+ * {@code legacy} is what {@link Logger} did before the level checks: serialize the parameter and format
+ * the message, then let the underlying {@link Log} drop it. The other benchmarks should run in a few
+ * nanoseconds and, with {@code -prof gc}, show {@code gc.alloc.rate.norm} of zero bytes per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoggerBenchmark {
+
+    private static final String MESSAGE = "Saved project {} by {}";
+
+    private final Log log = new NoOpLog();
+    private final Logger logger = new Logger(log);
+
+    private ProjectSampleDto dto;
+    private String user;
+
+    @Setup
+    public void setup() {
+        dto = BenchmarkFixtures.project(10);
+        user = "admin";
+    }
+
+    @Benchmark
+    public void legacy() {
+        log.debug(MessageUtil.prepareMessage(MESSAGE, LogSerializer.serialize(dto), user));
+    }
+
+    @Benchmark
+    public void disabledDebug() {
+        logger.debug(MESSAGE, dto, user);
+    }
+
+    @Benchmark
+    public void disabledDebugVarargs() {
+        logger.debug(MESSAGE, dto, user, dto);
+    }
+
+    @Benchmark
+    public void disabledDebugSupplier() {
+        logger.debug(MESSAGE, () -> dto, () -> user);
+    }
+}
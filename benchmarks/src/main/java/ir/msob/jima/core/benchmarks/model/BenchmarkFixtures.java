@@ -0,0 +1,95 @@
+package ir.msob.jima.core.benchmarks.model;
+
+import ir.msob.jima.core.commons.filter.BaseFilterQuery;
+import ir.msob.jima.core.commons.filter.Filter;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Factory methods for the objects shared by the benchmarks.
+ */
+public final class BenchmarkFixtures {
+
+    private BenchmarkFixtures() {
+    }
+
+    /**
+     * Creates a criteria with an id filter only.
+     *
+     * @return the criteria
+     */
+    public static ProjectSearchCriteria idCriteria() {
+        ProjectSearchCriteria criteria = new ProjectSearchCriteria();
+        criteria.setId(Filter.eq("65f1c0a7e4b0c1a2b3c4d5e6"));
+        return criteria;
+    }
+
+    /**
+     * Creates a criteria where every filter field is set, including an OR condition and includes.
+     *
+     * @return the criteria
+     */
+    public static ProjectSearchCriteria fullCriteria() {
+        ProjectSearchCriteria criteria = new ProjectSearchCriteria();
+        criteria.setId(Filter.in(Set.of("65f1c0a7e4b0c1a2b3c4d5e6", "65f1c0a7e4b0c1a2b3c4d5e7")));
+        criteria.setName(Filter.regex("^jima.*"));
+        criteria.setStatus(Filter.ne("DELETED"));
+        criteria.setPriority(Filter.gte(3));
+        criteria.setCreatedDate(Filter.lt(Instant.parse("2026-01-01T00:00:00Z")));
+
+        Filter<String> tag = new Filter<>();
+        BaseFilterQuery<String> or = new BaseFilterQuery<>();
+        or.setEq("core");
+        tag.setOr(or);
+        criteria.setTag(tag);
+
+        criteria.setIncludes(Set.of("id", "name", "status"));
+        return criteria;
+    }
+
+    /**
+     * Creates a project DTO with the given number of members.
+     *
+     * @param members the number of members
+     * @return the DTO
+     */
+    public static ProjectSampleDto project(int members) {
+        ProjectSampleDto dto = new ProjectSampleDto();
+        dto.setId("65f1c0a7e4b0c1a2b3c4d5e6");
+        dto.setName("jima-core");
+        dto.setStatus("ACTIVE");
+        dto.setPriority(3);
+        dto.setCreatedDate(Date.from(Instant.parse("2025-06-01T08:30:00Z")));
+        dto.setDescription("Core modules of the Jima framework: commons, beans, ral, api and web.");
+        dto.setApiKey("sk-4f8a2c9e7b1d4e6fa3c5b8d0e2f4a6c8");
+        dto.setTags(new ArrayList<>(List.of("core", "framework", "spring", "reactive")));
+        dto.setOwner(new ProjectSampleDto.Member("owner", "ADMIN", "owner@example.com"));
+        List<ProjectSampleDto.Member> list = new ArrayList<>(members);
+        for (int i = 0; i < members; i++) {
+            list.add(new ProjectSampleDto.Member("user" + i, i % 3 == 0 ? "MAINTAINER" : "DEVELOPER", "user" + i + "@example.com"));
+        }
+        dto.setMembers(list);
+        return dto;
+    }
+
+    /**
+     * Creates a copy of {@link #project(int)} where a few scalar fields and one member are changed.
+     *
+     * @param members the number of members
+     * @return the modified DTO
+     */
+    public static ProjectSampleDto modifiedProject(int members) {
+        ProjectSampleDto dto = project(members);
+        dto.setStatus("ARCHIVED");
+        dto.setPriority(5);
+        dto.getTags().add("archived");
+        if (!dto.getMembers().isEmpty()) {
+            dto.getMembers().getFirst().setRole("OWNER");
+        }
+        return dto;
+    }
+}
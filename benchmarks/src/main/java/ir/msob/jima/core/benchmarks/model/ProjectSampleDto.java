@@ -0,0 +1,54 @@
+package ir.msob.jima.core.benchmarks.model;
+
+import ir.msob.jima.core.commons.logger.loggable.LogField;
+import ir.msob.jima.core.commons.logger.loggable.Loggable;
+import ir.msob.jima.core.it.dto.ProjectDtoAbstract;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * A DTO with the shape of a typical domain DTO: a few scalar fields, a masked and a truncated field,
+ * a nested object and a list of nested objects.
+ */
+@Setter
+@Getter
+@Loggable
+public class ProjectSampleDto extends ProjectDtoAbstract {
+    private String name;
+    private String status;
+    private int priority;
+    private Date createdDate;
+    @LogField(maxLength = 32)
+    private String description;
+    @LogField(mask = true)
+    private String apiKey;
+    @LogField(logSize = true)
+    private List<String> tags = new ArrayList<>();
+    private Member owner;
+    private List<Member> members = new ArrayList<>();
+
+    public ProjectSampleDto() {
+        super(null);
+    }
+
+    /**
+     * A nested member of the project.
+     */
+    @Setter
+    @Getter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Loggable
+    public static class Member {
+        private String username;
+        private String role;
+        @LogField(mask = true, maskVisibleChars = 2)
+        private String email;
+    }
+}
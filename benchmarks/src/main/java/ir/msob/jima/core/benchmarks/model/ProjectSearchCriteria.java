@@ -0,0 +1,22 @@
+package ir.msob.jima.core.benchmarks.model;
+
+import ir.msob.jima.core.commons.filter.Filter;
+import ir.msob.jima.core.it.criteria.ProjectCriteriaAbstract;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * A search criteria with the shape of a typical domain criteria: an id filter inherited from
+ * {@link ProjectCriteriaAbstract} plus a handful of string, numeric and temporal filters.
+ */
+@Setter
+@Getter
+public class ProjectSearchCriteria extends ProjectCriteriaAbstract {
+    private Filter<String> name;
+    private Filter<String> status;
+    private Filter<Integer> priority;
+    private Filter<Instant> createdDate;
+    private Filter<String> tag;
+}
@@ -0,0 +1,50 @@
+package ir.msob.jima.core.benchmarks.mongo;
+
+import ir.msob.jima.core.benchmarks.model.BenchmarkFixtures;
+import ir.msob.jima.core.benchmarks.model.ProjectSearchCriteria;
+import ir.msob.jima.core.ral.mongo.commons.query.MongoQuery;
+import ir.msob.jima.core.ral.mongo.commons.query.MongoQueryBuilder;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the reflection based {@link LegacyMongoQueryBuilder} with the plan based {@link MongoQueryBuilder}.
+ * <p>
+ * {@code shape=ID} builds a query from a criteria that only filters on the id, {@code shape=FULL} sets
+ * every filter of {@link ProjectSearchCriteria} including an OR condition and includes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MongoQueryBuilderBenchmark {
+
+    private final LegacyMongoQueryBuilder legacyBuilder = new LegacyMongoQueryBuilder();
+    private final MongoQueryBuilder builder = new MongoQueryBuilder();
+    private final Pageable pageable = PageRequest.of(3, 20);
+
+    @Param({"ID", "FULL"})
+    private String shape;
+
+    private ProjectSearchCriteria criteria;
+
+    @Setup
+    public void setup() {
+        criteria = "ID".equals(shape) ? BenchmarkFixtures.idCriteria() : BenchmarkFixtures.fullCriteria();
+    }
+
+    @Benchmark
+    public MongoQuery legacy() {
+        return legacyBuilder.build(criteria, pageable);
+    }
+
+    @Benchmark
+    public MongoQuery plan() {
+        return builder.build(criteria, pageable);
+    }
+}
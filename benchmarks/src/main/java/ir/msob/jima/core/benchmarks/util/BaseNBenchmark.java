@@ -0,0 +1,40 @@
+package ir.msob.jima.core.benchmarks.util;
+
+import ir.msob.jima.core.commons.util.BaseN;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the URL-safe {@link BaseN} encoding and decoding of ids.
+ * <p>
+ * {@code number} is the encoded value: a small sequence id and a large (timestamp sized) id.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BaseNBenchmark {
+
+    @Param({"1234", "1735689600000123"})
+    private long number;
+
+    private String encoded;
+
+    @Setup
+    public void setup() {
+        encoded = BaseN.encodeUrlSafe(number);
+    }
+
+    @Benchmark
+    public String encode() {
+        return BaseN.encodeUrlSafe(number);
+    }
+
+    @Benchmark
+    public Long decode() {
+        return BaseN.decodeUrlSafe(encoded);
+    }
+}
@@ -0,0 +1,32 @@
+package ir.msob.jima.core.benchmarks.util;
+
+import ir.msob.jima.core.commons.util.MessageUtil;
+
+import java.util.regex.Matcher;
+
+/**
+ * The {@code replaceFirst} based {@link MessageUtil#prepareMessage(String, Object...)} as it was before the
+ * single-pass formatter. Every parameter compiles the placeholder regex and copies the whole message.
+ * It is kept here only as the baseline of {@link MessageUtilBenchmark}.
+ */
+public final class LegacyMessageUtil {
+
+    private LegacyMessageUtil() {
+    }
+
+    public static String prepareMessage(String message, Object... params) {
+        if (message == null || params == null) {
+            return message;
+        }
+
+        for (Object param : params) {
+            String value = (param == null) ? "null" : String.valueOf(param);
+            message = message.replaceFirst(
+                    "\\{}",
+                    Matcher.quoteReplacement(value)
+            );
+        }
+
+        return message;
+    }
+}
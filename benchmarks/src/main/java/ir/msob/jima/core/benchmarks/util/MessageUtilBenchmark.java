@@ -0,0 +1,49 @@
+package ir.msob.jima.core.benchmarks.util;
+
+import ir.msob.jima.core.commons.util.MessageUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the {@code replaceFirst} based {@link LegacyMessageUtil} with the single-pass
+ * {@link MessageUtil#prepareMessage(String, Object...)}, with the message shapes used by the
+ * exceptions and logs of the framework.
+ * <p>
+ * {@code placeholders} is the number of {@code {}} placeholders (and parameters) of the template.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MessageUtilBenchmark {
+
+    @Param({"1", "4"})
+    private int placeholders;
+
+    private String template;
+    private Object[] params;
+
+    @Setup
+    public void setup() {
+        if (placeholders == 1) {
+            template = "Domain not found: {}";
+            params = new Object[]{"65f1c0a7e4b0c1a2b3c4d5e6"};
+        } else {
+            template = "User {} cannot {} the {} with id {}";
+            params = new Object[]{"admin", "update", "ProjectDomain", 42L};
+        }
+    }
+
+    @Benchmark
+    public String legacy() {
+        return LegacyMessageUtil.prepareMessage(template, params);
+    }
+
+    @Benchmark
+    public String prepareMessage() {
+        return MessageUtil.prepareMessage(template, params);
+    }
+}
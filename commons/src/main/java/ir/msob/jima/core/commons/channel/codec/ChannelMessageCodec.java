@@ -0,0 +1,48 @@
+package ir.msob.jima.core.commons.channel.codec;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+
+import java.io.IOException;
+
+/**
+ * The {@code ChannelMessageCodec} interface defines how channel messages are written to and read from the bytes
+ * of a channel record.
+ * <p>
+ * A codec is identified by its name, which the producer sends in the {@link #HEADER} record header so the
+ * consumer decodes the record with the same codec. A record without the header is JSON, the format of the
+ * channels before the codecs.
+ */
+public interface ChannelMessageCodec {
+
+    /**
+     * The name of the record header holding the name of the codec of the record.
+     */
+    String HEADER = "jima-codec";
+
+    /**
+     * Gets the name of the codec, sent in the {@link #HEADER} record header.
+     *
+     * @return The name of the codec.
+     */
+    String getName();
+
+    /**
+     * Encodes a message.
+     *
+     * @param message The message to encode.
+     * @return The encoded message.
+     * @throws IOException If the message cannot be encoded.
+     */
+    byte[] encode(Object message) throws IOException;
+
+    /**
+     * Decodes a message.
+     *
+     * @param payload The encoded message.
+     * @param type    The type of the message.
+     * @param <T>     The type of the message.
+     * @return The decoded message.
+     * @throws IOException If the payload cannot be decoded.
+     */
+    <T> T decode(byte[] payload, TypeReference<T> type) throws IOException;
+}
@@ -0,0 +1,119 @@
+package ir.msob.jima.core.commons.channel.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import ir.msob.jima.core.commons.exception.runtime.CommonRuntimeException;
+import ir.msob.jima.core.commons.util.Strings;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The registry of the {@link ChannelMessageCodec}s, by name.
+ * <p>
+ * It holds the JSON codec, and the Smile and CBOR codecs when their Jackson data format is on the classpath, all
+ * configured as the given ObjectMapper. Other codecs, such as schema-based ones, are added by name, and may
+ * replace the built-in ones.
+ */
+public class ChannelMessageCodecs {
+
+    /**
+     * The name of the JSON codec, used for the records without codec header.
+     */
+    public static final String JSON = "json";
+
+    /**
+     * The name of the Smile codec.
+     */
+    public static final String SMILE = "smile";
+
+    /**
+     * The name of the CBOR codec.
+     */
+    public static final String CBOR = "cbor";
+
+    private final Map<String, ChannelMessageCodec> codecs = new LinkedHashMap<>();
+
+    /**
+     * Creates the registry of the built-in codecs.
+     *
+     * @param objectMapper The ObjectMapper configuring the codecs.
+     */
+    public ChannelMessageCodecs(ObjectMapper objectMapper) {
+        this(objectMapper, List.of());
+    }
+
+    /**
+     * Creates the registry of the built-in codecs and of the given codecs.
+     *
+     * @param objectMapper The ObjectMapper configuring the built-in codecs.
+     * @param codecs       The other codecs.
+     */
+    public ChannelMessageCodecs(ObjectMapper objectMapper, Collection<? extends ChannelMessageCodec> codecs) {
+        register(new JacksonChannelMessageCodec(JSON, objectMapper));
+        if (isPresent("com.fasterxml.jackson.dataformat.smile.SmileFactory")) {
+            register(Smile.codec(objectMapper));
+        }
+        if (isPresent("com.fasterxml.jackson.dataformat.cbor.CBORFactory")) {
+            register(Cbor.codec(objectMapper));
+        }
+        codecs.forEach(this::register);
+    }
+
+    /**
+     * Gets the codec of a name.
+     *
+     * @param name The name of the codec, or null for JSON.
+     * @return The codec.
+     * @throws CommonRuntimeException If there is no codec of this name.
+     */
+    public ChannelMessageCodec get(String name) {
+        if (Strings.isBlank(name)) {
+            return codecs.get(JSON);
+        }
+        ChannelMessageCodec codec = codecs.get(name.toLowerCase());
+        if (codec == null) {
+            throw new CommonRuntimeException("Unknown channel message codec '{}', available codecs are {}", name, codecs.keySet());
+        }
+        return codec;
+    }
+
+    /**
+     * Gets the codecs, by name.
+     *
+     * @return The codecs.
+     */
+    public Map<String, ChannelMessageCodec> getCodecs() {
+        return Collections.unmodifiableMap(codecs);
+    }
+
+    private void register(ChannelMessageCodec codec) {
+        codecs.put(codec.getName().toLowerCase(), codec);
+    }
+
+    private static boolean isPresent(String className) {
+        try {
+            Class.forName(className, false, ChannelMessageCodecs.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    // The data formats are optional, so their classes are referenced only once they are known to be present.
+    private static final class Smile {
+        static ChannelMessageCodec codec(ObjectMapper objectMapper) {
+            return new JacksonChannelMessageCodec(SMILE, objectMapper.copyWith(new SmileFactory()));
+        }
+    }
+
+    private static final class Cbor {
+        static ChannelMessageCodec codec(ObjectMapper objectMapper) {
+            return new JacksonChannelMessageCodec(CBOR, objectMapper.copyWith(new CBORFactory()));
+        }
+    }
+}
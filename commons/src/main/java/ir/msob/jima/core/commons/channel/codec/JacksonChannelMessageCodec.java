@@ -0,0 +1,30 @@
+package ir.msob.jima.core.commons.channel.codec;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.io.IOException;
+
+/**
+ * A {@link ChannelMessageCodec} writing the messages with a Jackson ObjectMapper, in the format of its factory:
+ * JSON, or a binary format such as Smile or CBOR. The binary formats keep the data model of JSON, so the
+ * messages are mapped as they are in JSON, but they are smaller and faster to read and write.
+ */
+@Getter
+@RequiredArgsConstructor
+public class JacksonChannelMessageCodec implements ChannelMessageCodec {
+    private final String name;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public byte[] encode(Object message) throws IOException {
+        return objectMapper.writeValueAsBytes(message);
+    }
+
+    @Override
+    public <T> T decode(byte[] payload, TypeReference<T> type) throws IOException {
+        return objectMapper.readValue(payload, type);
+    }
+}
@@ -6,6 +6,7 @@ import ir.msob.jima.core.commons.methodstats.MethodStats;
 import ir.msob.jima.core.commons.security.BaseUser;
 import ir.msob.jima.core.commons.shared.ModelType;
 import org.jspecify.annotations.NonNull;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.util.Map;
@@ -14,6 +15,7 @@ import java.util.Map;
  * The 'BaseAsyncClient' interface provides a set of basic methods for sending messages to channels.
  * It is designed to be implemented by classes that need to send asynchronous messages.
  * The interface provides two methods for sending messages: one for sending generic channel messages and another for sending channel messages of type Map.
+ * It also provides a method sending a stream of channel messages, which implementations may pipeline.
  */
 public interface BaseAsyncClient {
 
@@ -54,4 +56,28 @@ public interface BaseAsyncClient {
     @MethodStats
     <USER extends BaseUser> Mono<@NonNull Void> send(String channel, Map<String, Object> channelMessage, USER user);
 
+    /**
+     * This method sends a stream of generic channel messages to the same channel, and completes when all of them
+     * are sent.
+     * The default implementation sends the messages one after the other; implementations may keep several of them
+     * in flight.
+     *
+     * @param <USER>          The user type
+     * @param <DATA>          The data type
+     * @param channel         The channel name
+     * @param channelMessages The channel messages
+     * @return A Mono completing when all the messages are sent, or failing with the first failed sending
+     */
+    default <USER extends BaseUser, DATA extends ModelType> Mono<@NonNull Void> sendAll(String channel, Flux<ChannelMessage<USER, DATA>> channelMessages) {
+        return channelMessages
+                .concatMap(channelMessage -> Mono.defer(() -> {
+                    try {
+                        return send(channel, channelMessage);
+                    } catch (JsonProcessingException e) {
+                        return Mono.error(e);
+                    }
+                }))
+                .then();
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,156 @@
+package ir.msob.jima.core.commons.logger;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters of an {@link AsyncLogPipeline}.
+ * <p>
+ * Counters are cumulative since the pipeline was started and are updated without locking; the queue depth
+ * is read live from the ring buffer.
+ */
+public final class AsyncLogMetrics {
+
+    private final LogRingBuffer buffer;
+    private final LongAdder published = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder latencyNanos = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder droppedDebug = new LongAdder();
+    private final LongAdder blocked = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final AtomicInteger maxQueueDepth = new AtomicInteger();
+
+    AsyncLogMetrics(LogRingBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    void published() {
+        published.increment();
+    }
+
+    void written(long latencyNanos) {
+        written.increment();
+        this.latencyNanos.add(latencyNanos);
+    }
+
+    void dropped(LogLevel level) {
+        dropped.increment();
+        if (level.compareTo(LogLevel.DEBUG) <= 0) {
+            droppedDebug.increment();
+        }
+    }
+
+    void blocked() {
+        blocked.increment();
+    }
+
+    void failed() {
+        failed.increment();
+    }
+
+    void queueDepth(int depth) {
+        if (depth > maxQueueDepth.get()) {
+            maxQueueDepth.accumulateAndGet(depth, Math::max);
+        }
+    }
+
+    /**
+     * Returns the number of events handed to the consumer thread.
+     *
+     * @return the number of published events
+     */
+    public long getPublished() {
+        return published.sum();
+    }
+
+    /**
+     * Returns the number of events written by the consumer thread.
+     *
+     * @return the number of written events
+     */
+    public long getWritten() {
+        return written.sum();
+    }
+
+    /**
+     * Returns the total time the written events waited between their statement and the end of their write.
+     *
+     * @return the total latency, in nanoseconds
+     */
+    public long getLatencyNanos() {
+        return latencyNanos.sum();
+    }
+
+    /**
+     * Returns the number of events dropped by the overflow policy.
+     *
+     * @return the number of dropped events
+     */
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * Returns the number of trace and debug events dropped by the overflow policy.
+     *
+     * @return the number of dropped trace and debug events
+     */
+    public long getDroppedDebug() {
+        return droppedDebug.sum();
+    }
+
+    /**
+     * Returns the number of statements whose thread had to wait for free space ({@code BLOCK} policy).
+     *
+     * @return the number of blocked statements
+     */
+    public long getBlocked() {
+        return blocked.sum();
+    }
+
+    /**
+     * Returns the number of events the underlying log failed to write.
+     *
+     * @return the number of failed events
+     */
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    /**
+     * Returns the number of events currently waiting in the buffer.
+     *
+     * @return the queue depth
+     */
+    public int getQueueDepth() {
+        return buffer.size();
+    }
+
+    /**
+     * Returns the largest queue depth seen by the consumer thread.
+     *
+     * @return the maximum queue depth
+     */
+    public int getMaxQueueDepth() {
+        return maxQueueDepth.get();
+    }
+
+    /**
+     * Returns the number of events the buffer holds.
+     *
+     * @return the buffer capacity
+     */
+    public int getCapacity() {
+        return buffer.capacity();
+    }
+
+    @Override
+    public String toString() {
+        return "AsyncLogMetrics{published=" + getPublished() + ", written=" + getWritten()
+                + ", latencyNanos=" + getLatencyNanos() + ", dropped=" + getDropped() + ", droppedDebug=" + getDroppedDebug()
+                + ", blocked=" + getBlocked() + ", failed=" + getFailed()
+                + ", queueDepth=" + getQueueDepth() + ", maxQueueDepth=" + getMaxQueueDepth()
+                + ", capacity=" + getCapacity() + '}';
+    }
+}
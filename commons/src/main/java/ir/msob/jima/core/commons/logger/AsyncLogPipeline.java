@@ -0,0 +1,211 @@
+package ir.msob.jima.core.commons.logger;
+
+import ir.msob.jima.core.commons.properties.LogProperties;
+import org.apache.commons.logging.Log;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The optional asynchronous mode of the {@link Logger}.
+ * <p>
+ * While a pipeline is started, an enabled log statement only captures a {@link LogEvent} (the template,
+ * a snapshot of the parameters array and a copy of the MDC) into a bounded {@link LogRingBuffer}; serializing the
+ * parameters, formatting the message and appending it happen on a dedicated consumer thread, so the
+ * calling threads (often Netty event loops) never pay for them. The parameters themselves are captured
+ * by reference: an object must not be mutated after it is logged.
+ * <p>
+ * When the buffer fills up, the {@link LogProperties.OverflowPolicy} decides between dropping events
+ * (trace and debug first, or by sampling) and blocking the calling thread. Statements logged on the
+ * consumer thread itself (by a parameter's {@code toString}) and after {@link #close()} are written
+ * synchronously. A statement racing with {@link #close()} is either written synchronously or drained by the
+ * consumer thread before it stops.
+ * <p>
+ * Loggers are usually static fields, so the pipeline is installed process-wide by {@link #start}.
+ */
+public final class AsyncLogPipeline implements AutoCloseable {
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long BLOCK_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private static volatile AsyncLogPipeline current;
+
+    private final LogRingBuffer buffer;
+    private final AsyncLogMetrics metrics;
+    private final LogProperties.OverflowPolicy overflowPolicy;
+    private final int threshold;
+    private final int sampleRate;
+    private final Duration shutdownTimeout;
+    private final AtomicLong sample = new AtomicLong();
+    // the producers between their closed check and the end of their offer
+    private final AtomicInteger publishing = new AtomicInteger();
+    private final Thread consumer;
+    private volatile boolean parked;
+    private volatile boolean closed;
+
+    private AsyncLogPipeline(LogProperties.Async properties) {
+        this.buffer = new LogRingBuffer(properties.getBufferSize());
+        this.metrics = new AsyncLogMetrics(buffer);
+        this.overflowPolicy = properties.getOverflowPolicy();
+        int percent = Math.min(100, Math.max(0, properties.getThreshold()));
+        this.threshold = (int) ((long) buffer.capacity() * percent / 100);
+        this.sampleRate = Math.max(1, properties.getSampleRate());
+        this.shutdownTimeout = properties.getShutdownTimeout();
+        this.consumer = new Thread(this::consume, "jima-log-async");
+        this.consumer.setDaemon(true);
+    }
+
+    /**
+     * Starts a pipeline and routes all the loggers to it, closing the previously started one if any.
+     *
+     * @param properties the pipeline configuration
+     * @return the started pipeline
+     */
+    public static AsyncLogPipeline start(LogProperties.Async properties) {
+        AsyncLogPipeline pipeline = new AsyncLogPipeline(properties);
+        pipeline.consumer.start();
+        AsyncLogPipeline previous;
+        synchronized (AsyncLogPipeline.class) {
+            previous = current;
+            current = pipeline;
+        }
+        if (previous != null) {
+            previous.close();
+        }
+        return pipeline;
+    }
+
+    /**
+     * Returns the started pipeline.
+     *
+     * @return the pipeline, or null when the loggers write synchronously
+     */
+    public static AsyncLogPipeline current() {
+        return current;
+    }
+
+    /**
+     * Returns the metrics of this pipeline.
+     *
+     * @return the metrics
+     */
+    public AsyncLogMetrics getMetrics() {
+        return metrics;
+    }
+
+    void publish(Log log, LogLevel level, String message, Object[] params, Throwable t) {
+        if (Thread.currentThread() == consumer) {
+            level.write(log, Logger.format(message, params), t);
+            return;
+        }
+        publishing.incrementAndGet();
+        try {
+            if (closed) {
+                level.write(log, Logger.format(message, params), t);
+                return;
+            }
+            if (!admit(level)) {
+                metrics.dropped(level);
+                return;
+            }
+            LogEvent event = LogEvent.capture(log, level, message, params, t);
+            if (!buffer.offer(event) && !overflow(event)) {
+                return;
+            }
+        } finally {
+            publishing.decrementAndGet();
+        }
+        metrics.published();
+        if (parked) {
+            LockSupport.unpark(consumer);
+        }
+    }
+
+    private boolean admit(LogLevel level) {
+        return switch (overflowPolicy) {
+            case BLOCK -> true;
+            case DROP_DEBUG_FIRST -> level.compareTo(LogLevel.DEBUG) > 0 || buffer.size() < threshold;
+            case SAMPLE -> level.compareTo(LogLevel.INFO) > 0 || buffer.size() < threshold
+                    || sample.getAndIncrement() % sampleRate == 0;
+        };
+    }
+
+    /**
+     * Handles an event that found the buffer full.
+     *
+     * @return true if the event was eventually added to the buffer
+     */
+    private boolean overflow(LogEvent event) {
+        if (overflowPolicy != LogProperties.OverflowPolicy.BLOCK) {
+            metrics.dropped(event.level());
+            return false;
+        }
+        metrics.blocked();
+        do {
+            if (closed) {
+                event.write();
+                return false;
+            }
+            LockSupport.unpark(consumer);
+            LockSupport.parkNanos(this, BLOCK_PARK_NANOS);
+        } while (!buffer.offer(event));
+        return true;
+    }
+
+    private void consume() {
+        while (true) {
+            LogEvent event = buffer.poll();
+            if (event != null) {
+                metrics.queueDepth(Math.min(buffer.size() + 1, buffer.capacity()));
+                try {
+                    event.write();
+                    metrics.written(System.nanoTime() - event.nanoTime());
+                } catch (Exception e) {
+                    metrics.failed();
+                }
+                continue;
+            }
+            if (closed) {
+                // a producer seen after its closed check will publish into the buffer, the later ones
+                // write synchronously: check the producers first
+                if (publishing.get() == 0 && buffer.isEmpty()) {
+                    return;
+                }
+                // a producer passed the closed check, or claimed a slot, but has not published its event yet
+                Thread.onSpinWait();
+                continue;
+            }
+            parked = true;
+            if (buffer.isEmpty() && !closed) {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
+            parked = false;
+        }
+    }
+
+    /**
+     * Stops routing the loggers to this pipeline and waits, up to the configured shutdown timeout, for the
+     * pending events to be written.
+     */
+    @Override
+    public synchronized void close() {
+        synchronized (AsyncLogPipeline.class) {
+            if (current == this) {
+                current = null;
+            }
+        }
+        if (closed) {
+            return;
+        }
+        closed = true;
+        LockSupport.unpark(consumer);
+        try {
+            consumer.join(Math.max(1, shutdownTimeout.toMillis()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package ir.msob.jima.core.commons.logger;
+
+import org.apache.commons.logging.Log;
+import org.slf4j.MDC;
+
+import java.util.Map;
+
+/**
+ * A log statement captured on the calling thread and written later by the {@link AsyncLogPipeline}:
+ * the template and the raw parameters, neither serialized nor formatted yet, with a copy of the MDC of the
+ * calling thread, which is restored around the write so the appenders see the caller's context.
+ *
+ * @param log       the underlying log to write to
+ * @param level     the level of the statement
+ * @param message   the message template
+ * @param params    a snapshot of the parameters array, or null
+ * @param throwable the associated exception, or null
+ * @param mdc       a copy of the MDC of the calling thread, or null when it was empty
+ * @param nanoTime  the {@link System#nanoTime()} of the statement
+ */
+record LogEvent(Log log, LogLevel level, String message, Object[] params, Throwable throwable,
+                Map<String, String> mdc, long nanoTime) {
+
+    static LogEvent capture(Log log, LogLevel level, String message, Object[] params, Throwable throwable) {
+        Map<String, String> mdc = MDC.getCopyOfContextMap();
+        return new LogEvent(log, level, message, params, throwable, mdc == null || mdc.isEmpty() ? null : mdc,
+                System.nanoTime());
+    }
+
+    void write() {
+        if (mdc == null) {
+            level.write(log, Logger.format(message, params), throwable);
+            return;
+        }
+        Map<String, String> previous = MDC.getCopyOfContextMap();
+        MDC.setContextMap(mdc);
+        try {
+            level.write(log, Logger.format(message, params), throwable);
+        } finally {
+            if (previous == null) MDC.clear();
+            else MDC.setContextMap(previous);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package ir.msob.jima.core.commons.logger;
+
+import org.apache.commons.logging.Log;
+
+/**
+ * The levels of the {@link Logger} statements, mapped onto the methods of the underlying {@link Log}.
+ */
+enum LogLevel {
+    TRACE, DEBUG, INFO, WARN, ERROR, FATAL;
+
+    void write(Log log, String message, Throwable t) {
+        switch (this) {
+            case TRACE -> {
+                if (t == null) log.trace(message);
+                else log.trace(message, t);
+            }
+            case DEBUG -> {
+                if (t == null) log.debug(message);
+                else log.debug(message, t);
+            }
+            case INFO -> {
+                if (t == null) log.info(message);
+                else log.info(message, t);
+            }
+            case WARN -> {
+                if (t == null) log.warn(message);
+                else log.warn(message, t);
+            }
+            case ERROR -> {
+                if (t == null) log.error(message);
+                else log.error(message, t);
+            }
+            case FATAL -> {
+                if (t == null) log.fatal(message);
+                else log.fatal(message, t);
+            }
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package ir.msob.jima.core.commons.logger;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A bounded, lock-free, multi-producer single-consumer ring buffer of {@link LogEvent}s.
+ * <p>
+ * Each slot carries a sequence number: a producer claims the slot of position {@code p} by moving the
+ * tail from {@code p} to {@code p + 1} when the slot sequence is {@code p}, then publishes the event by
+ * setting the sequence to {@code p + 1}; the consumer frees it by setting the sequence to
+ * {@code p + capacity}. Producers never wait for each other beyond a failed compare-and-set, and a full
+ * buffer is reported instead of waited for.
+ */
+final class LogRingBuffer {
+
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private final AtomicReferenceArray<LogEvent> slots;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    // written by the consumer only, read by the producers to compute the depth
+    private volatile long head;
+
+    LogRingBuffer(int capacity) {
+        int size = capacity >= MAX_CAPACITY
+                ? MAX_CAPACITY
+                : 1 << (32 - Integer.numberOfLeadingZeros(Math.max(2, capacity) - 1));
+        this.slots = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+        this.mask = size - 1;
+    }
+
+    /**
+     * Adds an event, from any thread.
+     *
+     * @param event the event
+     * @return false if the buffer is full
+     */
+    boolean offer(LogEvent event) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) position & mask;
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    slots.lazySet(index, event);
+                    sequences.lazySet(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                // the slot still holds the event of the previous lap
+                return false;
+            } else {
+                // another producer claimed the position
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Removes the oldest event; must only be called by the consumer.
+     *
+     * @return the event, or null if there is no published event
+     */
+    LogEvent poll() {
+        long position = head;
+        int index = (int) position & mask;
+        if (sequences.get(index) != position + 1) {
+            return null;
+        }
+        LogEvent event = slots.get(index);
+        slots.lazySet(index, null);
+        sequences.lazySet(index, position + mask + 1);
+        head = position + 1;
+        return event;
+    }
+
+    /**
+     * Returns the number of claimed slots, including the ones whose event is being published.
+     *
+     * @return the depth of the buffer
+     */
+    int size() {
+        long size = tail.get() - head;
+        return (int) Math.max(0, Math.min(size, capacity()));
+    }
+
+    boolean isEmpty() {
+        return tail.get() == head;
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+}
@@ -6,92 +6,234 @@ import org.apache.commons.logging.Log;
 
 import java.time.Instant;
 import java.util.Date;
+import java.util.function.Supplier;
 
 /**
  * The 'Logger' class provides logging functionality and wraps an underlying Log implementation.
  * It includes methods for logging debug, error, fatal, info, trace, and warning messages, with optional parameters for formatting the message and an associated exception.
  * The class also includes a constructor for creating an instance of the logger with a specified Log implementation.
+ * <p>
+ * Every method checks the level first: a disabled statement neither serializes its parameters nor builds
+ * its message. The one and two parameter overloads avoid the varargs array, and the {@link Supplier}
+ * overloads defer computing the message or the parameters, so disabled statements cost close to nothing.
+ * <p>
+ * While an {@link AsyncLogPipeline} is started, enabled statements are handed to its consumer thread,
+ * which serializes the parameters and writes the message; the suppliers are still called on the
+ * calling thread.
  *
  * @param logger The underlying Log implementation.
  */
 public record Logger(Log logger) {
 
     /**
-     * Log a debug message.
+     * Check whether trace messages are logged.
+     *
+     * @return true if the trace level is enabled.
+     */
+    public boolean isTraceEnabled() {
+        return logger.isTraceEnabled();
+    }
+
+    /**
+     * Check whether debug messages are logged.
+     *
+     * @return true if the debug level is enabled.
+     */
+    public boolean isDebugEnabled() {
+        return logger.isDebugEnabled();
+    }
+
+    /**
+     * Check whether info messages are logged.
+     *
+     * @return true if the info level is enabled.
+     */
+    public boolean isInfoEnabled() {
+        return logger.isInfoEnabled();
+    }
+
+    /**
+     * Check whether warn messages are logged.
+     *
+     * @return true if the warn level is enabled.
+     */
+    public boolean isWarnEnabled() {
+        return logger.isWarnEnabled();
+    }
+
+    /**
+     * Check whether error messages are logged.
+     *
+     * @return true if the error level is enabled.
+     */
+    public boolean isErrorEnabled() {
+        return logger.isErrorEnabled();
+    }
+
+    /**
+     * Log a trace message without parameters.
      *
      * @param message The message to logger.
-     * @param params  Optional parameters to format the message.
      */
-    public void debug(String message, Object... params) {
-        normalizeForLog(params);
-        logger.debug(MessageUtil.prepareMessage(message, params));
+    public void trace(String message) {
+        if (!logger.isTraceEnabled()) return;
+        log(LogLevel.TRACE, message, null, null);
     }
 
     /**
-     * Log a debug message with an associated exception.
+     * Log a trace message.
      *
-     * @param t       The associated exception.
      * @param message The message to logger.
      * @param params  Optional parameters to format the message.
      */
-    public void debug(Throwable t, String message, Object... params) {
-        normalizeForLog(params);
-        logger.debug(MessageUtil.prepareMessage(message, params), t);
+    public void trace(String message, Object... params) {
+        if (!logger.isTraceEnabled()) return;
+        log(LogLevel.TRACE, message, snapshot(params), null);
     }
 
     /**
-     * Log an error message.
+     * Log a trace message with one parameter. An {@code Object[]} passed as an {@code Object}, such as
+     * parameters handed through, is taken as the parameters, as the varargs overload would take it.
      *
      * @param message The message to logger.
-     * @param params  Optional parameters to format the message.
+     * @param param   The parameter to format the message.
      */
-    public void error(String message, Object... params) {
-        normalizeForLog(params);
-        logger.error(MessageUtil.prepareMessage(message, params));
+    public void trace(String message, Object param) {
+        if (!logger.isTraceEnabled()) return;
+        log(LogLevel.TRACE, message, params(param), null);
     }
 
     /**
-     * Log an error message with an associated exception.
+     * Log a trace message with two parameters.
+     *
+     * @param message The message to logger.
+     * @param param1  The first parameter to format the message.
+     * @param param2  The second parameter to format the message.
+     */
+    public void trace(String message, Object param1, Object param2) {
+        if (!logger.isTraceEnabled()) return;
+        log(LogLevel.TRACE, message, new Object[]{param1, param2}, null);
+    }
+
+    /**
+     * Log a trace message whose parameters are computed only if the level is enabled.
+     *
+     * @param message The message to logger.
+     * @param params  Suppliers of the parameters to format the message.
+     */
+    public void trace(String message, Supplier<?>... params) {
+        if (!logger.isTraceEnabled()) return;
+        log(LogLevel.TRACE, message, get(params), null);
+    }
+
+    /**
+     * Log a trace message computed only if the level is enabled.
+     *
+     * @param message The supplier of the message.
+     */
+    public void trace(Supplier<String> message) {
+        if (!logger.isTraceEnabled()) return;
+        log(LogLevel.TRACE, message.get(), null, null);
+    }
+
+    /**
+     * Log a trace message with an associated exception.
      *
      * @param t       The associated exception.
      * @param message The message to logger.
      * @param params  Optional parameters to format the message.
      */
-    public void error(Throwable t, String message, Object... params) {
-        normalizeForLog(params);
-        logger.error(MessageUtil.prepareMessage(message, params), t);
+    public void trace(Throwable t, String message, Object... params) {
+        if (!logger.isTraceEnabled()) return;
+        log(LogLevel.TRACE, message, snapshot(params), t);
     }
 
     /**
-     * Log an error exception.
+     * Log a debug message without parameters.
      *
-     * @param t The exception to logger.
+     * @param message The message to logger.
      */
-    public void error(Throwable t) {
-        logger.error(t);
+    public void debug(String message) {
+        if (!logger.isDebugEnabled()) return;
+        log(LogLevel.DEBUG, message, null, null);
     }
 
     /**
-     * Log a fatal message.
+     * Log a debug message.
      *
      * @param message The message to logger.
      * @param params  Optional parameters to format the message.
      */
-    public void fatal(String message, Object... params) {
-        normalizeForLog(params);
-        logger.fatal(MessageUtil.prepareMessage(message, params));
+    public void debug(String message, Object... params) {
+        if (!logger.isDebugEnabled()) return;
+        log(LogLevel.DEBUG, message, snapshot(params), null);
     }
 
     /**
-     * Log a fatal message with an associated exception.
+     * Log a debug message with one parameter. An {@code Object[]} passed as an {@code Object}, such as
+     * parameters handed through, is taken as the parameters, as the varargs overload would take it.
+     *
+     * @param message The message to logger.
+     * @param param   The parameter to format the message.
+     */
+    public void debug(String message, Object param) {
+        if (!logger.isDebugEnabled()) return;
+        log(LogLevel.DEBUG, message, params(param), null);
+    }
+
+    /**
+     * Log a debug message with two parameters.
+     *
+     * @param message The message to logger.
+     * @param param1  The first parameter to format the message.
+     * @param param2  The second parameter to format the message.
+     */
+    public void debug(String message, Object param1, Object param2) {
+        if (!logger.isDebugEnabled()) return;
+        log(LogLevel.DEBUG, message, new Object[]{param1, param2}, null);
+    }
+
+    /**
+     * Log a debug message whose parameters are computed only if the level is enabled.
      *
      * @param message The message to logger.
+     * @param params  Suppliers of the parameters to format the message.
+     */
+    public void debug(String message, Supplier<?>... params) {
+        if (!logger.isDebugEnabled()) return;
+        log(LogLevel.DEBUG, message, get(params), null);
+    }
+
+    /**
+     * Log a debug message computed only if the level is enabled.
+     *
+     * @param message The supplier of the message.
+     */
+    public void debug(Supplier<String> message) {
+        if (!logger.isDebugEnabled()) return;
+        log(LogLevel.DEBUG, message.get(), null, null);
+    }
+
+    /**
+     * Log a debug message with an associated exception.
+     *
      * @param t       The associated exception.
+     * @param message The message to logger.
      * @param params  Optional parameters to format the message.
      */
-    public void fatal(String message, Throwable t, Object... params) {
-        normalizeForLog(params);
-        logger.fatal(MessageUtil.prepareMessage(message, params), t);
+    public void debug(Throwable t, String message, Object... params) {
+        if (!logger.isDebugEnabled()) return;
+        log(LogLevel.DEBUG, message, snapshot(params), t);
+    }
+
+    /**
+     * Log an info message without parameters.
+     *
+     * @param message The message to logger.
+     */
+    public void info(String message) {
+        if (!logger.isInfoEnabled()) return;
+        log(LogLevel.INFO, message, null, null);
     }
 
     /**
@@ -101,8 +243,53 @@ public record Logger(Log logger) {
      * @param params  Optional parameters to format the message.
      */
     public void info(String message, Object... params) {
-        normalizeForLog(params);
-        logger.info(MessageUtil.prepareMessage(message, params));
+        if (!logger.isInfoEnabled()) return;
+        log(LogLevel.INFO, message, snapshot(params), null);
+    }
+
+    /**
+     * Log an info message with one parameter. An {@code Object[]} passed as an {@code Object}, such as
+     * parameters handed through, is taken as the parameters, as the varargs overload would take it.
+     *
+     * @param message The message to logger.
+     * @param param   The parameter to format the message.
+     */
+    public void info(String message, Object param) {
+        if (!logger.isInfoEnabled()) return;
+        log(LogLevel.INFO, message, params(param), null);
+    }
+
+    /**
+     * Log an info message with two parameters.
+     *
+     * @param message The message to logger.
+     * @param param1  The first parameter to format the message.
+     * @param param2  The second parameter to format the message.
+     */
+    public void info(String message, Object param1, Object param2) {
+        if (!logger.isInfoEnabled()) return;
+        log(LogLevel.INFO, message, new Object[]{param1, param2}, null);
+    }
+
+    /**
+     * Log an info message whose parameters are computed only if the level is enabled.
+     *
+     * @param message The message to logger.
+     * @param params  Suppliers of the parameters to format the message.
+     */
+    public void info(String message, Supplier<?>... params) {
+        if (!logger.isInfoEnabled()) return;
+        log(LogLevel.INFO, message, get(params), null);
+    }
+
+    /**
+     * Log an info message computed only if the level is enabled.
+     *
+     * @param message The supplier of the message.
+     */
+    public void info(Supplier<String> message) {
+        if (!logger.isInfoEnabled()) return;
+        log(LogLevel.INFO, message.get(), null, null);
     }
 
     /**
@@ -113,57 +300,241 @@ public record Logger(Log logger) {
      * @param params  Optional parameters to format the message.
      */
     public void info(Throwable t, String message, Object... params) {
-        normalizeForLog(params);
-        logger.info(MessageUtil.prepareMessage(message, params), t);
+        if (!logger.isInfoEnabled()) return;
+        log(LogLevel.INFO, message, snapshot(params), t);
     }
 
     /**
-     * Log a trace message.
+     * Log a warning message without parameters.
+     *
+     * @param message The message to logger.
+     */
+    public void warn(String message) {
+        if (!logger.isWarnEnabled()) return;
+        log(LogLevel.WARN, message, null, null);
+    }
+
+    /**
+     * Log a warning message.
      *
      * @param message The message to logger.
      * @param params  Optional parameters to format the message.
      */
-    public void trace(String message, Object... params) {
-        normalizeForLog(params);
-        logger.trace(MessageUtil.prepareMessage(message, params));
+    public void warn(String message, Object... params) {
+        if (!logger.isWarnEnabled()) return;
+        log(LogLevel.WARN, message, snapshot(params), null);
     }
 
     /**
-     * Log a trace message with an associated exception.
+     * Log a warning message with one parameter. An {@code Object[]} passed as an {@code Object}, such as
+     * parameters handed through, is taken as the parameters, as the varargs overload would take it.
+     *
+     * @param message The message to logger.
+     * @param param   The parameter to format the message.
+     */
+    public void warn(String message, Object param) {
+        if (!logger.isWarnEnabled()) return;
+        log(LogLevel.WARN, message, params(param), null);
+    }
+
+    /**
+     * Log a warning message with two parameters.
+     *
+     * @param message The message to logger.
+     * @param param1  The first parameter to format the message.
+     * @param param2  The second parameter to format the message.
+     */
+    public void warn(String message, Object param1, Object param2) {
+        if (!logger.isWarnEnabled()) return;
+        log(LogLevel.WARN, message, new Object[]{param1, param2}, null);
+    }
+
+    /**
+     * Log a warning message whose parameters are computed only if the level is enabled.
+     *
+     * @param message The message to logger.
+     * @param params  Suppliers of the parameters to format the message.
+     */
+    public void warn(String message, Supplier<?>... params) {
+        if (!logger.isWarnEnabled()) return;
+        log(LogLevel.WARN, message, get(params), null);
+    }
+
+    /**
+     * Log a warning message computed only if the level is enabled.
+     *
+     * @param message The supplier of the message.
+     */
+    public void warn(Supplier<String> message) {
+        if (!logger.isWarnEnabled()) return;
+        log(LogLevel.WARN, message.get(), null, null);
+    }
+
+    /**
+     * Log a warning message with an associated exception.
      *
      * @param t       The associated exception.
      * @param message The message to logger.
      * @param params  Optional parameters to format the message.
      */
-    public void trace(Throwable t, String message, Object... params) {
-        normalizeForLog(params);
-        logger.trace(MessageUtil.prepareMessage(message, params), t);
+    public void warn(Throwable t, String message, Object... params) {
+        if (!logger.isWarnEnabled()) return;
+        log(LogLevel.WARN, message, snapshot(params), t);
     }
 
     /**
-     * Log a warning message.
+     * Log an error message without parameters.
+     *
+     * @param message The message to logger.
+     */
+    public void error(String message) {
+        if (!logger.isErrorEnabled()) return;
+        log(LogLevel.ERROR, message, null, null);
+    }
+
+    /**
+     * Log an error message.
      *
      * @param message The message to logger.
      * @param params  Optional parameters to format the message.
      */
-    public void warn(String message, Object... params) {
-        normalizeForLog(params);
-        logger.warn(MessageUtil.prepareMessage(message, params));
+    public void error(String message, Object... params) {
+        if (!logger.isErrorEnabled()) return;
+        log(LogLevel.ERROR, message, snapshot(params), null);
     }
 
     /**
-     * Log a warning message with an associated exception.
+     * Log an error message with one parameter. An {@code Object[]} passed as an {@code Object}, such as
+     * parameters handed through, is taken as the parameters, as the varargs overload would take it.
+     *
+     * @param message The message to logger.
+     * @param param   The parameter to format the message.
+     */
+    public void error(String message, Object param) {
+        if (!logger.isErrorEnabled()) return;
+        log(LogLevel.ERROR, message, params(param), null);
+    }
+
+    /**
+     * Log an error message with two parameters.
+     *
+     * @param message The message to logger.
+     * @param param1  The first parameter to format the message.
+     * @param param2  The second parameter to format the message.
+     */
+    public void error(String message, Object param1, Object param2) {
+        if (!logger.isErrorEnabled()) return;
+        log(LogLevel.ERROR, message, new Object[]{param1, param2}, null);
+    }
+
+    /**
+     * Log an error message whose parameters are computed only if the level is enabled.
+     *
+     * @param message The message to logger.
+     * @param params  Suppliers of the parameters to format the message.
+     */
+    public void error(String message, Supplier<?>... params) {
+        if (!logger.isErrorEnabled()) return;
+        log(LogLevel.ERROR, message, get(params), null);
+    }
+
+    /**
+     * Log an error message computed only if the level is enabled.
+     *
+     * @param message The supplier of the message.
+     */
+    public void error(Supplier<String> message) {
+        if (!logger.isErrorEnabled()) return;
+        log(LogLevel.ERROR, message.get(), null, null);
+    }
+
+    /**
+     * Log an error message with an associated exception.
      *
      * @param t       The associated exception.
      * @param message The message to logger.
      * @param params  Optional parameters to format the message.
      */
-    public void warn(Throwable t, String message, Object... params) {
+    public void error(Throwable t, String message, Object... params) {
+        if (!logger.isErrorEnabled()) return;
+        log(LogLevel.ERROR, message, snapshot(params), t);
+    }
+
+    /**
+     * Log an error exception.
+     *
+     * @param t The exception to logger.
+     */
+    public void error(Throwable t) {
+        if (!logger.isErrorEnabled()) return;
+        logger.error(t);
+    }
+
+    /**
+     * Log a fatal message.
+     *
+     * @param message The message to logger.
+     * @param params  Optional parameters to format the message.
+     */
+    public void fatal(String message, Object... params) {
+        if (!logger.isFatalEnabled()) return;
+        log(LogLevel.FATAL, message, snapshot(params), null);
+    }
+
+    /**
+     * Log a fatal message with an associated exception.
+     *
+     * @param message The message to logger.
+     * @param t       The associated exception.
+     * @param params  Optional parameters to format the message.
+     */
+    public void fatal(String message, Throwable t, Object... params) {
+        if (!logger.isFatalEnabled()) return;
+        log(LogLevel.FATAL, message, snapshot(params), t);
+    }
+
+    private void log(LogLevel level, String message, Object[] params, Throwable t) {
+        AsyncLogPipeline pipeline = AsyncLogPipeline.current();
+        if (pipeline != null) {
+            pipeline.publish(logger, level, message, params, t);
+        } else {
+            level.write(logger, format(message, params), t);
+        }
+    }
+
+    /**
+     * Copies a caller supplied parameters array before it is handed to another thread.
+     */
+    private static Object[] snapshot(Object[] params) {
+        if (params == null || params.length == 0 || AsyncLogPipeline.current() == null) {
+            return params;
+        }
+        return params.clone();
+    }
+
+    /**
+     * Returns the parameters of a one parameter statement: the array itself when the parameter is an array of
+     * objects, the parameter wrapped otherwise.
+     */
+    private static Object[] params(Object param) {
+        return param instanceof Object[] params ? snapshot(params) : new Object[]{param};
+    }
+
+    static String format(String message, Object[] params) {
         normalizeForLog(params);
-        logger.warn(MessageUtil.prepareMessage(message, params), t);
+        return MessageUtil.prepareMessage(message, params);
+    }
+
+    private static Object[] get(Supplier<?>[] params) {
+        if (params == null) return null;
+        Object[] values = new Object[params.length];
+        for (int i = 0; i < params.length; i++) {
+            values[i] = params[i] == null ? null : params[i].get();
+        }
+        return values;
     }
 
-    private void normalizeForLog(Object... params) {
+    private static void normalizeForLog(Object... params) {
         if (params == null || params.length == 0) {
             return;
         }
@@ -188,4 +559,4 @@ public record Logger(Log logger) {
             params[i] = LogSerializer.serialize(p);
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,39 @@
+package ir.msob.jima.core.commons.logger.loggable;
+
+import java.util.function.Function;
+
+/**
+ * A per-class cache of the {@link LogSerializer}, stored in a {@link ClassValue}.
+ * <p>
+ * The entries are held by the classes themselves rather than by a static map: they never pin a class loader,
+ * they go away with their class when it is unloaded (dynamic proxies, devtools restarts, plugins), and so the
+ * cache is bounded by the classes alive. Lookups are lock-free; an entry may be computed more than once when
+ * several threads miss it at the same time, only one value being kept. The values may be null.
+ *
+ * @param <V> the type of the values
+ */
+final class ClassCache<V> {
+
+    private final ClassCacheMetrics metrics;
+    private final ClassValue<V> values;
+
+    ClassCache(String name, Function<Class<?>, V> loader) {
+        this.metrics = new ClassCacheMetrics(name);
+        this.values = new ClassValue<>() {
+            @Override
+            protected V computeValue(Class<?> type) {
+                metrics.miss(type);
+                return loader.apply(type);
+            }
+        };
+    }
+
+    V get(Class<?> type) {
+        metrics.lookup();
+        return values.get(type);
+    }
+
+    ClassCacheMetrics getMetrics() {
+        return metrics;
+    }
+}
@@ -0,0 +1,97 @@
+package ir.msob.jima.core.commons.logger.loggable;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters of a per-class cache of the {@link LogSerializer}.
+ * <p>
+ * Counters are cumulative since the class was loaded and are updated without locking. The size is the number of
+ * classes holding an entry: the classes are tracked through weak references, so the entries of unloaded classes
+ * are no longer counted once their class has been collected.
+ */
+public final class ClassCacheMetrics {
+
+    private final String name;
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final Set<Reference<Class<?>>> classes = ConcurrentHashMap.newKeySet();
+    private final ReferenceQueue<Class<?>> unloaded = new ReferenceQueue<>();
+
+    ClassCacheMetrics(String name) {
+        this.name = name;
+    }
+
+    void lookup() {
+        lookups.increment();
+    }
+
+    void miss(Class<?> type) {
+        misses.increment();
+        expunge();
+        classes.add(new WeakReference<>(type, unloaded));
+    }
+
+    private void expunge() {
+        Reference<? extends Class<?>> reference;
+        while ((reference = unloaded.poll()) != null) {
+            classes.remove(reference);
+        }
+    }
+
+    /**
+     * Returns the name of the cache.
+     *
+     * @return the name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the number of lookups.
+     *
+     * @return the number of lookups
+     */
+    public long getLookups() {
+        return lookups.sum();
+    }
+
+    /**
+     * Returns the number of lookups that computed the entry of their class.
+     *
+     * @return the number of misses
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns the number of lookups served from the cache.
+     *
+     * @return the number of hits
+     */
+    public long getHits() {
+        return Math.max(0, getLookups() - getMisses());
+    }
+
+    /**
+     * Returns the number of classes holding an entry.
+     *
+     * @return the cache size
+     */
+    public int getSize() {
+        expunge();
+        return classes.size();
+    }
+
+    @Override
+    public String toString() {
+        return "ClassCacheMetrics{name=" + name + ", lookups=" + getLookups() + ", hits=" + getHits()
+                + ", misses=" + getMisses() + ", size=" + getSize() + '}';
+    }
+}
@@ -1,24 +1,30 @@
 package ir.msob.jima.core.commons.logger.loggable;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import java.io.IOException;
+import java.io.Writer;
+
 import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
 import java.lang.reflect.Array;
 import java.lang.reflect.Field;
 import java.time.Instant;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 
 /**
  * Optimized LogSerializer
  * <p>
  * Guarantees:
  * - NO behavior change compared to original version (as far as observable outputs).
- * - Reflection metadata cached once per class
+ * - Reflection metadata cached once per class, or taken from the compile-time generated
+ * {@link LoggableSerializer} of the class when there is one (no reflection at all)
  * - Field access via MethodHandle when possible
  * - Reduced allocations in hot paths
+ * - Output is streamed: the metadata is walked once and JSON or key=value is written straight into a
+ * {@link JsonGenerator} or a reused {@link StringBuilder}, with no intermediate map/list tree
  */
 public final class LogSerializer {
 
@@ -28,17 +34,20 @@ public final class LogSerializer {
 
     private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
 
-    // Previously: Map<Class<?>, Optional<Loggable>>
-    // Now: store Loggable or null to avoid Optional allocations.
-    private static final Map<Class<?>, Loggable> LOGGABLE_CACHE = new ConcurrentHashMap<>();
+    // Per-class caches, held by the classes themselves (see ClassCache) so they never pin a class loader.
+    // The Loggable annotation of a class, or null.
+    private static final ClassCache<Loggable> LOGGABLE_CACHE = new ClassCache<>("loggable", LogSerializer::findLoggable);
 
     // Cache result of isSimple(Class) to avoid repeated expensive checks.
-    private static final Map<Class<?>, Boolean> SIMPLE_CACHE = new ConcurrentHashMap<>();
+    private static final ClassCache<Boolean> SIMPLE_CACHE = new ClassCache<>("simple", LogSerializer::computeSimple);
+
+    private static final ClassCache<ClassInfo> CLASS_INFO_CACHE = new ClassCache<>("classInfo", LogSerializer::createClassInfo);
 
-    private static final Map<Class<?>, ClassInfo> CLASS_INFO_CACHE = new ConcurrentHashMap<>();
+    private static final String CIRCULAR = "[CIRCULAR]";
+    private static final String MAX_DEPTH_REACHED = "[MAX_DEPTH_REACHED]";
+    private static final int MAX_RETAINED_CAPACITY = 8192;
 
-    private static final ThreadLocal<StringBuilder> KV_BUILDER =
-            ThreadLocal.withInitial(StringBuilder::new);
+    private static final ThreadLocal<Buffer> BUFFER = ThreadLocal.withInitial(Buffer::new);
 
     private LogSerializer() {
     }
@@ -56,20 +65,19 @@ public final class LogSerializer {
             }
 
             Class<?> cls = input.getClass();
-            Loggable lg = getCachedLoggable(cls);
-            if (lg == null) {
+            if (!isLoggable(cls)) {
                 return input;
             }
 
-            ClassInfo ci = getOrCreateClassInfo(cls);
-            ProcessContext ctx = new ProcessContext();
-
-            Object processed = processObject(input, ctx, 0, ci.depth);
-
-            if (ci.format == LogFormat.JSON) {
-                return OBJECT_MAPPER.writeValueAsString(processed);
+            Buffer buffer = BUFFER.get();
+            // a field's toString may log (and serialize) itself: use a fresh builder then
+            StringBuilder sb = buffer.inUse ? new StringBuilder(256) : buffer.acquire();
+            try {
+                writeLoggable(input, getOrCreateClassInfo(cls), sb);
+                return sb.toString();
+            } finally {
+                if (sb == buffer.builder) buffer.release();
             }
-            return renderAsKeyValue(processed);
 
         } catch (Exception e) {
             // preserve original behavior on error: return original input
@@ -77,74 +85,180 @@ public final class LogSerializer {
         }
     }
 
+    /**
+     * Appends the log form of a {@link Loggable} object (or of a collection/array of them) to the given
+     * builder, in the format {@link #serialize(Object)} would return, without building an intermediate
+     * tree or string.
+     *
+     * @param input the object to serialize
+     * @param sb    the builder to append to
+     * @return {@code false}, leaving the builder untouched, when the input is not loggable or cannot be
+     * serialized; {@code true} otherwise
+     */
+    public static boolean serializeTo(Object input, StringBuilder sb) {
+        if (input == null) return false;
+
+        int length = sb.length();
+        try {
+            if (input instanceof Collection<?> || isArray(input.getClass())) {
+                return writeCollectionOrArray(input, sb);
+            }
+
+            if (!isLoggable(input.getClass())) {
+                return false;
+            }
+            writeLoggable(input, getOrCreateClassInfo(input.getClass()), sb);
+            return true;
+
+        } catch (Exception e) {
+            sb.setLength(length);
+            return false;
+        }
+    }
+
+    /**
+     * Writes a {@link Loggable} object (or a collection/array of them) as a JSON value to the given
+     * generator, whatever its {@link LogFormat}, applying the same masking, depth and circular reference
+     * rules as {@link #serialize(Object)}. Anything else is written as its string value.
+     *
+     * @param input     the object to serialize
+     * @param generator the generator to write to
+     * @throws IOException if the generator fails
+     */
+    public static void serializeTo(Object input, JsonGenerator generator) throws IOException {
+        if (input == null) {
+            generator.writeNull();
+            return;
+        }
+
+        Sink sink = new JsonSink(generator);
+        if (input instanceof Collection<?> || isArray(input.getClass())) {
+            Object first = firstElement(input);
+            if (first == null || !isLoggable(first.getClass())) {
+                generator.writeString(String.valueOf(input));
+                return;
+            }
+            ProcessContext ctx = new ProcessContext();
+            generator.writeStartArray();
+            forEachElement(input, el -> writeElement(el, sink, ctx));
+            generator.writeEndArray();
+            return;
+        }
+
+        if (!isLoggable(input.getClass())) {
+            generator.writeString(String.valueOf(input));
+            return;
+        }
+        writeObject(input, sink, new ProcessContext(), 0, getOrCreateClassInfo(input.getClass()).depth);
+    }
+
+    /**
+     * Returns the metrics of the per-class caches: the Loggable annotations, the simple types and the class metadata.
+     *
+     * @return the metrics of the caches
+     */
+    public static List<ClassCacheMetrics> getCacheMetrics() {
+        return List.of(LOGGABLE_CACHE.getMetrics(), SIMPLE_CACHE.getMetrics(), CLASS_INFO_CACHE.getMetrics());
+    }
+
+    private static void writeLoggable(Object input, ClassInfo ci, StringBuilder sb) throws IOException {
+        ProcessContext ctx = new ProcessContext();
+        if (ci.format == LogFormat.JSON) {
+            try (JsonGenerator generator = OBJECT_MAPPER.createGenerator(new BuilderWriter(sb))) {
+                writeObject(input, new JsonSink(generator), ctx, 0, ci.depth);
+            }
+        } else {
+            writeObject(input, new KeyValueSink(sb), ctx, 0, ci.depth);
+        }
+    }
+
     // =========================
     // Collection / Array
     // =========================
 
-    private static Object serializeCollectionOrArray(Object input) throws JsonProcessingException {
+    private static Object serializeCollectionOrArray(Object input) throws IOException {
+        StringBuilder sb = new StringBuilder(256);
+        return writeCollectionOrArray(input, sb) ? sb.toString() : input;
+    }
+
+    private static boolean writeCollectionOrArray(Object input, StringBuilder sb) throws IOException {
         Object first = firstElement(input);
         if (first == null) {
-            return input;
+            return false;
         }
 
-        Loggable firstLg = getCachedLoggable(first.getClass());
-        if (firstLg == null) {
-            return input;
+        if (!isLoggable(first.getClass())) {
+            return false;
         }
 
         ClassInfo ci = getOrCreateClassInfo(first.getClass());
         ProcessContext ctx = new ProcessContext();
 
-        int initial = (input instanceof Collection<?> col) ? col.size() : Array.getLength(input);
-        List<Object> processed = new ArrayList<>(Math.max(4, initial));
-        forEachElement(input, el -> processed.add(processElementReuse(el, ctx)));
-
-        if (ci.format == LogFormat.JSON) {
-            return OBJECT_MAPPER.writeValueAsString(processed);
-        }
-
-        List<String> kv = new ArrayList<>(processed.size());
-        for (Object o : processed) {
-            kv.add(o instanceof Map<?, ?> m ? renderAsKeyValue(m) : String.valueOf(o));
+        try (JsonGenerator generator = OBJECT_MAPPER.createGenerator(new BuilderWriter(sb))) {
+            generator.writeStartArray();
+            if (ci.format == LogFormat.JSON) {
+                Sink sink = new JsonSink(generator);
+                forEachElement(input, el -> writeElement(el, sink, ctx));
+            } else {
+                // a JSON array of the elements' key=value strings
+                StringBuilder element = new StringBuilder(128);
+                forEachElement(input, el -> {
+                    element.setLength(0);
+                    writeElement(el, new KeyValueSink(element), ctx);
+                    generator.writeString(element.toString());
+                });
+            }
+            generator.writeEndArray();
         }
-        return OBJECT_MAPPER.writeValueAsString(kv);
+        return true;
     }
 
-    private static Object processElementReuse(Object el, ProcessContext ctx) {
-        if (el == null) return null;
-        Loggable lg = getCachedLoggable(el.getClass());
-        if (lg == null) return String.valueOf(el);
+    private static void writeElement(Object el, Sink sink, ProcessContext ctx) throws IOException {
+        if (el == null) {
+            sink.value(null);
+            return;
+        }
+        if (!isLoggable(el.getClass())) {
+            sink.value(String.valueOf(el));
+            return;
+        }
         ClassInfo ci = getOrCreateClassInfo(el.getClass());
-        return processObject(el, ctx, 0, ci.depth);
+        writeObject(el, sink, ctx, 0, ci.depth);
     }
 
     // =========================
     // Core object processing
     // =========================
 
-    private static Object processObject(Object obj, ProcessContext ctx, int depth, int maxDepth) {
-        if (obj == null) return null;
-        if (isSimple(obj.getClass())) return obj;
+    private static void writeObject(Object obj, Sink sink, ProcessContext ctx, int depth, int maxDepth)
+            throws IOException {
+        if (obj == null || isSimple(obj.getClass())) {
+            sink.value(obj);
+            return;
+        }
 
-        if (!ctx.enter(obj)) return "[CIRCULAR]";
+        if (!ctx.enter(obj)) {
+            sink.value(CIRCULAR);
+            return;
+        }
         try {
             if (maxDepth >= 0 && depth > maxDepth) {
-                return "[MAX_DEPTH_REACHED]";
+                sink.value(MAX_DEPTH_REACHED);
+                return;
             }
 
             ClassInfo ci = getOrCreateClassInfo(obj.getClass());
-            Map<String, Object> result = new LinkedHashMap<>();
-
+            sink.beginObject();
             for (FieldInfo fi : ci.fields) {
                 if (!shouldInclude(fi, ci.mode)) continue;
 
                 Object raw = fi.get(obj);
-                Object handled = handleFieldValue(fi, raw, ctx, depth, maxDepth);
-                if (handled != FieldAction.SKIP) {
-                    result.put(fi.alias, handled);
-                }
+                if (raw == null && !fi.logNull) continue;
+
+                sink.field(fi.alias);
+                writeFieldValue(fi, raw, sink, ctx, depth, maxDepth);
             }
-            return result;
+            sink.endObject();
         } finally {
             ctx.exit(obj);
         }
@@ -154,19 +268,22 @@ public final class LogSerializer {
     // Field handling
     // =========================
 
-    private static Object handleFieldValue(
+    private static void writeFieldValue(
             FieldInfo fi,
             Object raw,
+            Sink sink,
             ProcessContext ctx,
             int depth,
             int maxDepth
-    ) {
+    ) throws IOException {
         if (raw == null) {
-            return fi.logNull ? null : FieldAction.SKIP;
+            sink.value(null);
+            return;
         }
 
         if (fi.logSize) {
-            return sizeOf(raw);
+            sink.value(sizeOf(raw));
+            return;
         }
 
         if (fi.maxLength >= 0 && raw instanceof CharSequence cs) {
@@ -174,100 +291,239 @@ public final class LogSerializer {
         }
 
         if (fi.mask) {
-            return maskValue(raw, fi.maskVisibleChars);
+            sink.value(maskValue(raw, fi.maskVisibleChars));
+            return;
         }
 
-        if (isSimple(raw.getClass())) return raw;
+        if (isSimple(raw.getClass())) {
+            sink.value(raw);
+            return;
+        }
 
         if (raw instanceof Collection<?> || isArray(raw.getClass())) {
 
             // owner depth check
             if (maxDepth >= 0 && depth + 1 > maxDepth) {
-                return "[MAX_DEPTH_REACHED]";
+                sink.value(MAX_DEPTH_REACHED);
+                return;
             }
 
-            int initial = (raw instanceof Collection<?> ccol) ? ccol.size() : Array.getLength(raw);
-            List<Object> out = new ArrayList<>(Math.max(4, initial));
+            sink.beginArray();
             forEachElement(raw, el -> {
-                if (el == null) {
-                    out.add(null);
-                    return;
-                }
-
-                Class<?> elCls = el.getClass();
-
-                // simple type -> keep as is
-                if (isSimple(elCls)) {
-                    out.add(el);
+                // null or simple type -> keep as is
+                if (el == null || isSimple(el.getClass())) {
+                    sink.value(el);
                     return;
                 }
 
                 // nested collection/array -> recursively process elements (increase depth)
-                if (el instanceof Collection<?> || isArray(elCls)) {
-                    int innerInitial = (el instanceof Collection<?> innerCol) ? innerCol.size() : Array.getLength(el);
-                    List<Object> inner = new ArrayList<>(Math.max(4, innerInitial));
+                if (el instanceof Collection<?> || isArray(el.getClass())) {
+                    sink.beginArray();
                     forEachElement(el, e2 -> {
-                        if (e2 == null) {
-                            inner.add(null);
-                        } else if (isSimple(e2.getClass())) {
-                            inner.add(e2);
+                        if (e2 == null || isSimple(e2.getClass())) {
+                            sink.value(e2);
                         } else {
                             ClassInfo ci2 = getOrCreateClassInfo(e2.getClass());
-                            inner.add(processObject(e2, ctx, depth + 2, ci2.depth));
+                            writeObject(e2, sink, ctx, depth + 2, ci2.depth);
                         }
                     });
-                    out.add(inner);
+                    sink.endArray();
                     return;
                 }
 
                 // normal object element -> process as object (increase depth by 1)
-                ClassInfo ci = getOrCreateClassInfo(elCls);
-                out.add(processObject(el, ctx, depth + 1, ci.depth));
+                ClassInfo ci = getOrCreateClassInfo(el.getClass());
+                writeObject(el, sink, ctx, depth + 1, ci.depth);
             });
-            return out;
+            sink.endArray();
+            return;
         }
 
 
-        Loggable lg = getCachedLoggable(raw.getClass());
-        if (lg == null) {
-            return String.valueOf(raw);
+        if (!isLoggable(raw.getClass())) {
+            sink.value(String.valueOf(raw));
+            return;
         }
 
         if (maxDepth >= 0 && depth + 1 > maxDepth) {
-            return "[MAX_DEPTH_REACHED]";
+            sink.value(MAX_DEPTH_REACHED);
+            return;
         }
 
         ClassInfo childCi = getOrCreateClassInfo(raw.getClass());
-        return processObject(raw, ctx, depth + 1, childCi.depth);
+        writeObject(raw, sink, ctx, depth + 1, childCi.depth);
     }
 
     // =========================
     // Rendering
     // =========================
 
-    private static String renderAsKeyValue(Object processed) {
-        if (!(processed instanceof Map<?, ?> map)) {
-            return String.valueOf(processed);
+    /**
+     * Receives the serialized structure as it is walked.
+     */
+    private interface Sink {
+        void beginObject() throws IOException;
+
+        void field(String name) throws IOException;
+
+        void endObject() throws IOException;
+
+        void beginArray() throws IOException;
+
+        void endArray() throws IOException;
+
+        void value(Object value) throws IOException;
+    }
+
+    /**
+     * Renders {@code k=v, k2=v2}: nested objects as {@code {k=v}}, arrays as {@code [a, b]} and anything
+     * else as its string value, like the {@code toString()} of maps and lists.
+     */
+    private static final class KeyValueSink implements Sink {
+        private final StringBuilder sb;
+        private boolean[] first = new boolean[8];
+        private int level = -1;
+        private boolean afterField;
+
+        KeyValueSink(StringBuilder sb) {
+            this.sb = sb;
+        }
+
+        @Override
+        public void beginObject() {
+            separate();
+            // the outermost object is rendered without braces
+            if (level >= 0) sb.append('{');
+            push();
+        }
+
+        @Override
+        public void field(String name) {
+            if (!first[level]) sb.append(", ");
+            first[level] = false;
+            sb.append(name).append('=');
+            afterField = true;
+        }
+
+        @Override
+        public void endObject() {
+            level--;
+            if (level >= 0) sb.append('}');
+        }
+
+        @Override
+        public void beginArray() {
+            separate();
+            sb.append('[');
+            push();
+        }
+
+        @Override
+        public void endArray() {
+            level--;
+            sb.append(']');
+        }
+
+        @Override
+        public void value(Object value) {
+            separate();
+            sb.append(value);
+        }
+
+        private void separate() {
+            if (afterField) {
+                afterField = false;
+            } else if (level >= 0) {
+                if (!first[level]) sb.append(", ");
+                first[level] = false;
+            }
+        }
+
+        private void push() {
+            if (++level == first.length) first = Arrays.copyOf(first, level * 2);
+            first[level] = true;
+        }
+    }
+
+    private record JsonSink(JsonGenerator generator) implements Sink {
+
+        @Override
+        public void beginObject() throws IOException {
+            generator.writeStartObject();
+        }
+
+        @Override
+        public void field(String name) throws IOException {
+            generator.writeFieldName(name);
         }
 
-        StringBuilder sb = KV_BUILDER.get();
-        sb.setLength(0);
+        @Override
+        public void endObject() throws IOException {
+            generator.writeEndObject();
+        }
+
+        @Override
+        public void beginArray() throws IOException {
+            generator.writeStartArray();
+        }
+
+        @Override
+        public void endArray() throws IOException {
+            generator.writeEndArray();
+        }
 
-        boolean first = true;
-        for (Map.Entry<?, ?> e : map.entrySet()) {
-            if (!first) sb.append(", ");
-            first = false;
-            sb.append(e.getKey()).append("=");
-            Object v = e.getValue();
-            if (v instanceof Map<?, ?> m) {
-                sb.append("{").append(renderAsKeyValue(m)).append("}");
-            } else if (v instanceof Collection<?> c) {
-                sb.append(c);
+        @Override
+        public void value(Object value) throws IOException {
+            if (value == null) {
+                generator.writeNull();
+            } else if (value instanceof String s) {
+                generator.writeString(s);
+            } else if (value instanceof Integer i) {
+                generator.writeNumber(i);
+            } else if (value instanceof Long l) {
+                generator.writeNumber(l);
+            } else if (value instanceof Boolean b) {
+                generator.writeBoolean(b);
+            } else if (generator.getCodec() != null) {
+                generator.writeObject(value);
             } else {
-                sb.append(v);
+                OBJECT_MAPPER.writeValue(generator, value);
             }
         }
-        return sb.toString();
+    }
+
+    /**
+     * Lets a {@link JsonGenerator} write straight into a {@link StringBuilder}.
+     */
+    private static final class BuilderWriter extends Writer {
+        private final StringBuilder sb;
+
+        BuilderWriter(StringBuilder sb) {
+            this.sb = sb;
+        }
+
+        @Override
+        public void write(char[] cbuf, int off, int len) {
+            sb.append(cbuf, off, len);
+        }
+
+        @Override
+        public void write(String str, int off, int len) {
+            sb.append(str, off, off + len);
+        }
+
+        @Override
+        public void write(int c) {
+            sb.append((char) c);
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
     }
 
     // =========================
@@ -275,47 +531,75 @@ public final class LogSerializer {
     // =========================
 
     private static ClassInfo getOrCreateClassInfo(Class<?> cls) {
-        return CLASS_INFO_CACHE.computeIfAbsent(cls, c -> {
-            Loggable lg = getCachedLoggable(c);
-            List<FieldInfo> fis = new ArrayList<>();
-
-            MethodHandles.Lookup lookup = MethodHandles.lookup();
-            for (Field f : getAllFields(c)) {
-                if (f.isSynthetic()) continue;
-                try {
-                    f.setAccessible(true);
-                } catch (Exception ignored) {
-                }
+        return CLASS_INFO_CACHE.get(cls);
+    }
 
-                LogField lf = f.getAnnotation(LogField.class);
-                String alias = lf != null && !lf.name().isEmpty() ? lf.name() : f.getName();
+    private static ClassInfo createClassInfo(Class<?> c) {
+        LoggableSerializer<?> generated = LoggableSerializers.get(c);
+        if (generated != null) {
+            return generatedClassInfo(generated);
+        }
 
-                MethodHandle getter = null;
-                try {
-                    getter = lookup.unreflectGetter(f);
-                } catch (IllegalAccessException ignored) {
-                }
+        Loggable lg = getCachedLoggable(c);
+        List<FieldInfo> fis = new ArrayList<>();
 
-                fis.add(new FieldInfo(
-                        f,
-                        alias,
-                        lf != null && lf.mask(),
-                        lf != null ? lf.maskVisibleChars() : 0,
-                        lf != null && lf.logSize(),
-                        lf != null && lf.logNull(),
-                        lf != null ? lf.maxLength() : -1,
-                        getter
-                ));
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        for (Field f : getAllFields(c)) {
+            if (f.isSynthetic()) continue;
+            try {
+                f.setAccessible(true);
+            } catch (Exception ignored) {
+            }
+
+            LogField lf = f.getAnnotation(LogField.class);
+            String alias = lf != null && !lf.name().isEmpty() ? lf.name() : f.getName();
+
+            MethodHandle getter = null;
+            try {
+                getter = lookup.unreflectGetter(f);
+            } catch (IllegalAccessException ignored) {
             }
 
-            return new ClassInfo(
-                    lg,
-                    lg != null ? lg.mode() : LogMode.ALL_FIELD,
-                    lg != null ? lg.format() : LogFormat.KEY_VALUE,
-                    lg != null ? lg.depth() : -1,
-                    fis.toArray(new FieldInfo[0])
-            );
-        });
+            fis.add(new FieldInfo(
+                    f,
+                    alias,
+                    lf != null && lf.mask(),
+                    lf != null ? lf.maskVisibleChars() : 0,
+                    lf != null && lf.logSize(),
+                    lf != null && lf.logNull(),
+                    lf != null ? lf.maxLength() : -1,
+                    getter,
+                    null
+            ));
+        }
+
+        return new ClassInfo(
+                lg,
+                lg != null ? lg.mode() : LogMode.ALL_FIELD,
+                lg != null ? lg.format() : LogFormat.KEY_VALUE,
+                lg != null ? lg.depth() : -1,
+                fis.toArray(new FieldInfo[0])
+        );
+    }
+
+    /**
+     * Builds the metadata of a type from its generated serializer: the mode is already applied to its
+     * properties, which are read without reflection.
+     */
+    @SuppressWarnings("unchecked")
+    private static ClassInfo generatedClassInfo(LoggableSerializer<?> generated) {
+        List<? extends LoggableProperty<?>> properties = generated.properties();
+        FieldInfo[] fis = new FieldInfo[properties.size()];
+        for (int i = 0; i < fis.length; i++) {
+            LoggableProperty<?> p = properties.get(i);
+            fis[i] = new FieldInfo(null, p.name(), p.mask(), p.maskVisibleChars(), p.logSize(), p.logNull(),
+                    p.maxLength(), null, (Function<Object, Object>) p.accessor());
+        }
+        return new ClassInfo(null, LogMode.ALL_FIELD, generated.format(), generated.depth(), fis);
+    }
+
+    private static boolean isLoggable(Class<?> cls) {
+        return LoggableSerializers.get(cls) != null || getCachedLoggable(cls) != null;
     }
 
     /**
@@ -329,25 +613,24 @@ public final class LogSerializer {
      * but we store result directly (no Optional).
      */
     private static Loggable getCachedLoggable(Class<?> cls) {
-        return LOGGABLE_CACHE.computeIfAbsent(
-                cls,
-                c -> {
-                    try {
-                        // try to preserve original access pattern (original code used Loggable.info.getAnnotation(c))
-                        // If Loggable.info is accessible in your project, this preserves exact prior behavior.
-                        // If not, fallback to the standard annotation lookup.
-                        try {
-                            return Loggable.info.getAnnotation(c);
-                        } catch (Throwable t) {
-                            // fallback
-                            return c.getAnnotation(Loggable.class);
-                        }
-                    } catch (Throwable t) {
-                        // final fallback: null
-                        return null;
-                    }
-                }
-        );
+        return LOGGABLE_CACHE.get(cls);
+    }
+
+    private static Loggable findLoggable(Class<?> c) {
+        try {
+            // try to preserve original access pattern (original code used Loggable.info.getAnnotation(c))
+            // If Loggable.info is accessible in your project, this preserves exact prior behavior.
+            // If not, fallback to the standard annotation lookup.
+            try {
+                return Loggable.info.getAnnotation(c);
+            } catch (Throwable t) {
+                // fallback
+                return c.getAnnotation(Loggable.class);
+            }
+        } catch (Throwable t) {
+            // final fallback: null
+            return null;
+        }
     }
 
     // =========================
@@ -362,9 +645,9 @@ public final class LogSerializer {
         };
     }
 
-    private static void forEachElement(Object input, java.util.function.Consumer<Object> c) {
+    private static void forEachElement(Object input, ElementVisitor c) throws IOException {
         if (input instanceof Collection<?> col) {
-            col.forEach(c);
+            for (Object o : col) c.accept(o);
         } else if (isArray(input.getClass())) {
             int len = Array.getLength(input);
             for (int i = 0; i < len; i++) c.accept(Array.get(input, i));
@@ -390,9 +673,11 @@ public final class LogSerializer {
 
     private static boolean isSimple(Class<?> cls) {
         if (cls == null) return false;
-        Boolean cached = SIMPLE_CACHE.get(cls);
-        if (cached != null) return cached;
-        boolean result = cls.isPrimitive()
+        return SIMPLE_CACHE.get(cls);
+    }
+
+    private static boolean computeSimple(Class<?> cls) {
+        return cls.isPrimitive()
                 || Number.class.isAssignableFrom(cls)
                 || Boolean.class.isAssignableFrom(cls)
                 || CharSequence.class.isAssignableFrom(cls)
@@ -400,8 +685,6 @@ public final class LogSerializer {
                 || Instant.class.isAssignableFrom(cls)
                 || Date.class.isAssignableFrom(cls)
                 || UUID.class.isAssignableFrom(cls);
-        SIMPLE_CACHE.put(cls, result);
-        return result;
     }
 
     private static List<Field> getAllFields(Class<?> type) {
@@ -438,7 +721,29 @@ public final class LogSerializer {
     // Internal helpers
     // =========================
 
-    private enum FieldAction {SKIP}
+    @FunctionalInterface
+    private interface ElementVisitor {
+        void accept(Object element) throws IOException;
+    }
+
+    private static final class Buffer {
+        private StringBuilder builder = new StringBuilder(256);
+        private boolean inUse;
+
+        StringBuilder acquire() {
+            inUse = true;
+            builder.setLength(0);
+            return builder;
+        }
+
+        void release() {
+            inUse = false;
+            // do not retain the memory of an occasional huge object
+            if (builder.capacity() > MAX_RETAINED_CAPACITY) {
+                builder = new StringBuilder(256);
+            }
+        }
+    }
 
     private static final class ProcessContext {
         private final IdentityHashMap<Object, Boolean> visited = new IdentityHashMap<>();
@@ -462,10 +767,12 @@ public final class LogSerializer {
     }
 
     private record FieldInfo(Field field, String alias, boolean mask, int maskVisibleChars, boolean logSize,
-                             boolean logNull, int maxLength, MethodHandle getter) {
+                             boolean logNull, int maxLength, MethodHandle getter,
+                             Function<Object, Object> accessor) { // field and getter are null for generated ones
 
         Object get(Object target) {
             try {
+                if (accessor != null) return accessor.apply(target);
                 return getter != null ? getter.invoke(target) : field.get(target);
             } catch (Throwable e) {
                 return null;
@@ -0,0 +1,20 @@
+package ir.msob.jima.core.commons.logger.loggable;
+
+import java.util.function.Function;
+
+/**
+ * A logged property of a {@link LoggableSerializer}: the {@link LogField} settings of a field and its
+ * accessor.
+ *
+ * @param name             the logged name (the field name, or {@link LogField#name()})
+ * @param mask             see {@link LogField#mask()}
+ * @param maskVisibleChars see {@link LogField#maskVisibleChars()}
+ * @param logSize          see {@link LogField#logSize()}
+ * @param logNull          see {@link LogField#logNull()}
+ * @param maxLength        see {@link LogField#maxLength()}
+ * @param accessor         reads the value of the field
+ * @param <T>              the loggable type
+ */
+public record LoggableProperty<T>(String name, boolean mask, int maskVisibleChars, boolean logSize,
+                                  boolean logNull, int maxLength, Function<T, Object> accessor) {
+}
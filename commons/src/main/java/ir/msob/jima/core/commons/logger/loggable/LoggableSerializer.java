@@ -0,0 +1,45 @@
+package ir.msob.jima.core.commons.logger.loggable;
+
+import java.util.List;
+
+/**
+ * The compile-time generated, reflection-free description of how a {@link Loggable} type is logged.
+ * <p>
+ * Implementations are generated by the {@code LoggableProcessor} of the processor module, one per
+ * {@code @Loggable} class, and registered in {@code META-INF/services}. {@link LogSerializer} uses them
+ * instead of reflecting over the fields of the type: the {@link LogMode} is already applied to
+ * {@link #properties()} and every property reads its field directly (or through its getter).
+ *
+ * @param <T> the loggable type
+ */
+public interface LoggableSerializer<T> {
+
+    /**
+     * Returns the loggable type.
+     *
+     * @return the type
+     */
+    Class<T> type();
+
+    /**
+     * Returns the output format, as declared by {@link Loggable#format()}.
+     *
+     * @return the format
+     */
+    LogFormat format();
+
+    /**
+     * Returns the maximum depth, as declared by {@link Loggable#depth()}.
+     *
+     * @return the depth, -1 for unlimited
+     */
+    int depth();
+
+    /**
+     * Returns the logged properties, in the order {@link LogSerializer} would reflect them: the fields of
+     * the type, then the fields of its superclasses.
+     *
+     * @return the properties
+     */
+    List<LoggableProperty<T>> properties();
+}
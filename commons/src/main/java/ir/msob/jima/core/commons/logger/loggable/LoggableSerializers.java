@@ -0,0 +1,63 @@
+package ir.msob.jima.core.commons.logger.loggable;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The registry of the generated {@link LoggableSerializer}s, loaded once through {@link ServiceLoader}.
+ * The serializers of the types loaded later by another class loader can be {@link #register registered}.
+ */
+final class LoggableSerializers {
+
+    private static final Map<Class<?>, LoggableSerializer<?>> SERIALIZERS = new ConcurrentHashMap<>(load());
+
+    private LoggableSerializers() {
+    }
+
+    /**
+     * Returns the generated serializer of the given type.
+     *
+     * @param type the type
+     * @return the serializer, or null if none was generated for exactly this type
+     */
+    static LoggableSerializer<?> get(Class<?> type) {
+        return SERIALIZERS.get(type);
+    }
+
+    /**
+     * Registers the serializer of a type that is not visible to the service loader. It is used only if the type
+     * was not serialized yet, as the metadata of the serialized types is cached.
+     *
+     * @param serializer the serializer
+     */
+    static void register(LoggableSerializer<?> serializer) {
+        SERIALIZERS.putIfAbsent(serializer.type(), serializer);
+    }
+
+    @SuppressWarnings("rawtypes")
+    private static Map<Class<?>, LoggableSerializer<?>> load() {
+        Map<Class<?>, LoggableSerializer<?>> serializers = new HashMap<>();
+        Iterator<LoggableSerializer> iterator = ServiceLoader.load(LoggableSerializer.class).iterator();
+        while (hasNext(iterator)) {
+            try {
+                LoggableSerializer<?> serializer = iterator.next();
+                serializers.putIfAbsent(serializer.type(), serializer);
+            } catch (ServiceConfigurationError | RuntimeException e) {
+                // a stale or broken entry: its type is serialized through reflection
+            }
+        }
+        return serializers;
+    }
+
+    private static boolean hasNext(Iterator<?> iterator) {
+        try {
+            return iterator.hasNext();
+        } catch (ServiceConfigurationError e) {
+            return false;
+        }
+    }
+}
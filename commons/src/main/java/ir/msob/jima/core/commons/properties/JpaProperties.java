@@ -0,0 +1,61 @@
+package ir.msob.jima.core.commons.properties;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * This class holds the properties of the JPA repository access layer.
+ * <p>
+ * It configures the scheduler on which the blocking {@code EntityManager} calls of the reactive
+ * JPA repositories run (`scheduler`). The properties are bound from `jima.jpa` by the `JpaSchedulerConfiguration`
+ * of the JPA module, which builds the scheduler and installs it as the default of the repositories.
+ */
+@Setter
+@Getter
+@NoArgsConstructor
+@ToString
+public class JpaProperties {
+
+    /**
+     * Configuration of the scheduler that runs the blocking JPA calls.
+     */
+    private Scheduler scheduler = new Scheduler();
+
+    /**
+     * This nested class holds the configuration of the JPA scheduler.
+     */
+    @Setter
+    @Getter
+    @NoArgsConstructor
+    @ToString
+    public static class Scheduler {
+
+        /**
+         * The kind of threads that run the blocking JPA calls.
+         * <p>
+         * Defaults to {@link Mode#BOUNDED_ELASTIC}.
+         */
+        private Mode mode = Mode.BOUNDED_ELASTIC;
+
+        /**
+         * The maximum number of JPA calls running at the same time in {@link Mode#VIRTUAL_THREAD} mode.
+         * <p>
+         * It should match the size of the JDBC connection pool (Defaults to 10, the HikariCP default),
+         * so calls wait for a permit instead of holding a thread while waiting for a connection.
+         */
+        private int maxConcurrency = 10;
+    }
+
+    public enum Mode {
+        /**
+         * Run the calls on the shared Reactor bounded elastic scheduler.
+         */
+        BOUNDED_ELASTIC,
+        /**
+         * Run each call on its own virtual thread, bounded by {@link Scheduler#getMaxConcurrency()}.
+         */
+        VIRTUAL_THREAD
+    }
+}
@@ -0,0 +1,163 @@
+package ir.msob.jima.core.commons.properties;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * This class holds the properties of the Kafka channels.
+ * <p>
+ * It configures the producer of the Kafka async client (`producer`): the number of records pipelined by a batch
+ * send, the codec and the compression of the messages, and the batching of the channels that need a different
+ * linger or batch size than the application producer. It also configures the concurrent listener containers (`listener`): the number of consumers of a
+ * channel and the number of keys processed in parallel by the key-ordered listeners.
+ */
+@Setter
+@Getter
+@NoArgsConstructor
+@ToString
+public class KafkaProperties {
+
+    /**
+     * Configuration of the producer of the Kafka async client.
+     */
+    private Producer producer = new Producer();
+
+    /**
+     * Configuration of the concurrent listener containers.
+     */
+    private Listener listener = new Listener();
+
+    /**
+     * This nested class holds the configuration of the producer of the Kafka async client.
+     */
+    @Setter
+    @Getter
+    @NoArgsConstructor
+    @ToString
+    public static class Producer {
+
+        /**
+         * The maximum number of records of a batch send waiting for their acknowledgement (Defaults to 256).
+         */
+        private int maxInFlight = 256;
+
+        /**
+         * The name of the codec of the messages: `json`, `smile`, `cbor` or a registered codec (Defaults to json).
+         * The messages of the other codecs are sent as bytes, with their codec in the `jima-codec` header.
+         */
+        private String codec = "json";
+
+        /**
+         * The compression of the messages reaching the compression threshold: `none`, `gzip`, `snappy`, `lz4` or
+         * `zstd` (Defaults to none). A compressed message is sent as bytes, with its compression in the
+         * `jima-compression` header.
+         */
+        private String compression = "none";
+
+        /**
+         * The minimum size in bytes of an encoded message to compress it (Defaults to 16384).
+         */
+        private int compressionThreshold = 16384;
+
+        /**
+         * The configuration of the channels, by channel name. The channels without configuration are sent with
+         * the application producer.
+         */
+        private Map<String, ProducerChannel> channels = new HashMap<>();
+    }
+
+    /**
+     * This nested class holds the producer configuration of a channel. Its records are sent by a producer of its
+     * own when the linger or the batch size is set, shared with the channels of the same linger and batch size.
+     */
+    @Setter
+    @Getter
+    @NoArgsConstructor
+    @ToString
+    public static class ProducerChannel {
+
+        /**
+         * The time the producer waits for more records before sending a batch (`linger.ms`), or null to keep the
+         * application setting.
+         */
+        private Duration linger;
+
+        /**
+         * The maximum size of a batch in bytes (`batch.size`), or null to keep the application setting.
+         */
+        private Integer batchSize;
+
+        /**
+         * The maximum number of records of a batch send waiting for their acknowledgement, or null to use the
+         * producer setting.
+         */
+        private Integer maxInFlight;
+
+        /**
+         * The name of the codec of the messages of the channel, or null to use the producer setting.
+         */
+        private String codec;
+
+        /**
+         * The compression of the messages of the channel, or null to use the producer setting.
+         */
+        private String compression;
+
+        /**
+         * The minimum size in bytes of an encoded message of the channel to compress it, or null to use the
+         * producer setting.
+         */
+        private Integer compressionThreshold;
+    }
+
+    /**
+     * This nested class holds the configuration of the concurrent listener containers.
+     */
+    @Setter
+    @Getter
+    @NoArgsConstructor
+    @ToString
+    public static class Listener {
+
+        /**
+         * The number of consumers of a channel, each polling its share of the partitions (Defaults to 1).
+         */
+        private int concurrency = 1;
+
+        /**
+         * The number of keys a key-ordered listener processes in parallel within a poll (Defaults to 16).
+         */
+        private int parallelism = 16;
+
+        /**
+         * The configuration of the channels, by channel name.
+         */
+        private Map<String, ListenerChannel> channels = new HashMap<>();
+    }
+
+    /**
+     * This nested class holds the listener configuration of a channel.
+     */
+    @Setter
+    @Getter
+    @NoArgsConstructor
+    @ToString
+    public static class ListenerChannel {
+
+        /**
+         * The number of consumers of the channel, or null to use the listener setting.
+         */
+        private Integer concurrency;
+
+        /**
+         * The number of keys processed in parallel within a poll, or null to use the listener setting.
+         */
+        private Integer parallelism;
+    }
+}
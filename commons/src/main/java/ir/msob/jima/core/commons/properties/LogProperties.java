@@ -0,0 +1,88 @@
+package ir.msob.jima.core.commons.properties;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.time.Duration;
+
+/**
+ * This class holds the properties of the commons {@code Logger}.
+ * <p>
+ * It configures the optional asynchronous log pipeline (`async`), which moves the serialization of the
+ * log parameters and the appending of the messages off the calling threads.
+ */
+@Setter
+@Getter
+@NoArgsConstructor
+@ToString
+public class LogProperties {
+
+    /**
+     * Configuration of the asynchronous log pipeline.
+     */
+    private Async async = new Async();
+
+    /**
+     * This nested class holds the configuration of the asynchronous log pipeline.
+     */
+    @Setter
+    @Getter
+    @NoArgsConstructor
+    @ToString
+    public static class Async {
+
+        /**
+         * Whether log statements are handed to a dedicated consumer thread instead of being written on the
+         * calling thread (Defaults to false).
+         */
+        private boolean enabled = false;
+
+        /**
+         * The number of pending log events the ring buffer holds, rounded up to a power of two
+         * (Defaults to 8192).
+         */
+        private int bufferSize = 8192;
+
+        /**
+         * What happens to an event when the buffer is (nearly) full.
+         * <p>
+         * Defaults to {@link OverflowPolicy#DROP_DEBUG_FIRST}.
+         */
+        private OverflowPolicy overflowPolicy = OverflowPolicy.DROP_DEBUG_FIRST;
+
+        /**
+         * The fill level of the buffer, in percent, above which {@link OverflowPolicy#DROP_DEBUG_FIRST} and
+         * {@link OverflowPolicy#SAMPLE} start shedding events (Defaults to 75).
+         */
+        private int threshold = 75;
+
+        /**
+         * Under {@link OverflowPolicy#SAMPLE}, one out of this many info and lower events is kept while the
+         * buffer is above the threshold (Defaults to 10).
+         */
+        private int sampleRate = 10;
+
+        /**
+         * How long closing the pipeline waits for the pending events to be written (Defaults to 5 seconds).
+         */
+        private Duration shutdownTimeout = Duration.ofSeconds(5);
+    }
+
+    public enum OverflowPolicy {
+        /**
+         * Above the threshold, drop trace and debug events; drop any event only when the buffer is full.
+         */
+        DROP_DEBUG_FIRST,
+        /**
+         * Make the calling thread wait for free space; no event is ever dropped.
+         */
+        BLOCK,
+        /**
+         * Above the threshold, keep one out of {@link Async#getSampleRate()} info and lower events; drop any
+         * event only when the buffer is full.
+         */
+        SAMPLE
+    }
+}
@@ -6,8 +6,9 @@ import lombok.Setter;
 import lombok.ToString;
 
 /**
- * This class holds the properties embeddeddomain to method statistics logging.
- * It includes properties for warning time threshold, and enabling/disabling info and warning logs.
+ * This class holds the properties embeddeddomain to method statistics.
+ * It includes properties for the latency timers recorded for `@MethodStats` methods, warning time threshold,
+ * and the level of the execution time logs.
  * It is marked with the `@ToString` annotation to include all fields in the `toString` method.
  */
 @Setter
@@ -21,16 +22,69 @@ public class MethodStatsProperties {
     private long warnTime = 1000;
 
     /**
-     * A flag to enable or disable info level logging for method execution statistics.
+     * A flag to enable or disable method statistics.
      */
     private boolean enabled = false;
 
     /**
-     * A flag to enable or disable warning level logging for method execution statistics.
+     * The level of the execution time logs: {@link LogLevel#INFO} logs every execution, {@link LogLevel#WARN} only
+     * the executions exceeding the warning time threshold, and {@link LogLevel#NONE} none of them.
      */
     private LogLevel logLevel = LogLevel.WARN;
 
+    /**
+     * Configuration of the latency timers.
+     */
+    private Metrics metrics = new Metrics();
+
+    /**
+     * How the `@MethodStats` methods are instrumented (Defaults to {@link Weaving#PROXY}).
+     */
+    private Weaving weaving = Weaving.PROXY;
+
     public enum LogLevel {
-        INFO, WARN
+        INFO, WARN, NONE
+    }
+
+    public enum Weaving {
+        /**
+         * Through Spring AOP proxies; the methods must be called on Spring beans, from outside the bean.
+         */
+        PROXY,
+        /**
+         * Through the AspectJ aspect woven at build time (or load time); the Spring AOP aspect is disabled.
+         */
+        BUILD_TIME
+    }
+
+    /**
+     * This nested class holds the configuration of the latency timers, one per method and outcome, tagged with
+     * `class`, `method` and `outcome`.
+     */
+    @Setter
+    @Getter
+    @NoArgsConstructor
+    @ToString
+    public static class Metrics {
+        /**
+         * A flag to enable or disable the latency timers (Defaults to true).
+         */
+        private boolean enabled = true;
+
+        /**
+         * The name of the timers (Defaults to "jima.method.stats").
+         */
+        private String name = "jima.method.stats";
+
+        /**
+         * The percentiles computed and published by the timers (Defaults to 0.5, 0.95 and 0.99).
+         */
+        private double[] percentiles = {0.5, 0.95, 0.99};
+
+        /**
+         * Whether the timers publish a histogram, so that percentiles can be aggregated across instances by the
+         * monitoring system (Defaults to false).
+         */
+        private boolean percentileHistogram = false;
     }
-}
\ No newline at end of file
+}
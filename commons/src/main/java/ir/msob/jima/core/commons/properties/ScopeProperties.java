@@ -5,6 +5,8 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
 
+import java.time.Duration;
+
 /**
  * Configuration properties for scope settings.
  * This class holds configuration for scope-embeddeddomain settings, including the channel name and enablement status.
@@ -26,4 +28,39 @@ public class ScopeProperties {
      * Default value is false.
      */
     private boolean enabled = false;
+
+    /**
+     * Configuration of the per-scope metrics.
+     */
+    private Metrics metrics = new Metrics();
+
+    /**
+     * This nested class holds the configuration of the per-scope metrics: the request rate, latency percentiles,
+     * error rate, in-flight count and payload size of every `@Scope` operation, over a rolling window made of
+     * `slots` slots of `slotDuration` each.
+     */
+    @Setter
+    @Getter
+    @NoArgsConstructor
+    @ToString
+    public static class Metrics {
+
+        /**
+         * Indicates whether the per-scope metrics are collected.
+         * Default value is false.
+         */
+        private boolean enabled = false;
+
+        /**
+         * The number of slots of the rolling window.
+         * Default value is 12.
+         */
+        private int slots = 12;
+
+        /**
+         * The duration of a slot of the rolling window.
+         * Default value is 5 seconds, for a one-minute window.
+         */
+        private Duration slotDuration = Duration.ofSeconds(5);
+    }
 }
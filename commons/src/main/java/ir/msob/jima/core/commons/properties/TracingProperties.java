@@ -0,0 +1,29 @@
+package ir.msob.jima.core.commons.properties;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * This class holds the properties of the request tracing.
+ * <p>
+ * When enabled, spans are created around the service hooks, the repository operations and the sending and
+ * handling of channel messages, and collected in process for per-stage latency breakdowns.
+ */
+@Setter
+@Getter
+@NoArgsConstructor
+@ToString
+public class TracingProperties {
+
+    /**
+     * Whether requests are traced (Defaults to false).
+     */
+    private boolean enabled = false;
+
+    /**
+     * The number of recent spans kept by the in-process collector (Defaults to 10000).
+     */
+    private int capacity = 10000;
+}
@@ -2,9 +2,15 @@ package ir.msob.jima.core.commons.repository;
 
 import ir.msob.jima.core.commons.domain.BaseCriteria;
 import ir.msob.jima.core.commons.domain.BaseDomain;
+import ir.msob.jima.core.commons.shared.CountStrategy;
+import ir.msob.jima.core.commons.shared.PageDto;
+import ir.msob.jima.core.commons.shared.PageableDto;
 import ir.msob.jima.core.commons.util.GenericTypeUtil;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 
 import java.io.Serializable;
+import java.util.List;
 
 /**
  * The 'BaseRepository' interface defines a set of default methods for retrieving class types embeddeddomain to data access and domain objects in the context of a Spring Data repository.
@@ -15,6 +21,11 @@ import java.io.Serializable;
  */
 public interface BaseRepository<ID extends Comparable<ID> & Serializable, D extends BaseDomain<ID>, C extends BaseCriteria<ID>> {
 
+    /**
+     * The default number of entities per batch of a bulk write.
+     */
+    int DEFAULT_BULK_BATCH_SIZE = 500;
+
     /**
      * Get the class type for the identifier (usually the primary key) used in domain entities.
      * This method uses 'GenericTypeUtil' to resolve the actual type argument for the identifier.
@@ -41,6 +52,16 @@ public interface BaseRepository<ID extends Comparable<ID> & Serializable, D exte
 
     BaseQueryBuilder getQueryBuilder();
 
+    /**
+     * Get the number of entities per batch of bulk writes ({@code saveAll} / {@code bulkUpsert}).
+     * Override to tune it, e.g. to match the JDBC batch size of the data source.
+     *
+     * @return The batch size.
+     */
+    default int getBulkBatchSize() {
+        return DEFAULT_BULK_BATCH_SIZE;
+    }
+
     /**
      * Provide default criteria for a query.
      *
@@ -50,4 +71,120 @@ public interface BaseRepository<ID extends Comparable<ID> & Serializable, D exte
     default BaseQuery criteria(C criteria) {
         return getQueryBuilder().build(criteria);
     }
-}
\ No newline at end of file
+
+    /**
+     * Get the name of the id property, used as the last (tie-breaking) key of keyset pages.
+     *
+     * @return The id property name.
+     */
+    default String getKeysetIdProperty() {
+        return "id";
+    }
+
+    /**
+     * Get the sort of a keyset page: the requested sort followed by the id property.
+     *
+     * @param pageable The requested page.
+     * @return The keyset sort.
+     */
+    default Sort keysetSort(Pageable pageable) {
+        return KeysetCursor.keysetSort(pageable == null ? null : pageable.getSort(), getKeysetIdProperty());
+    }
+
+    /**
+     * Decode the keyset cursor carried by the requested page.
+     *
+     * @param pageable The requested page.
+     * @return The cursor to seek after, or null for the first page.
+     */
+    default KeysetCursor keysetCursor(Pageable pageable) {
+        if (pageable instanceof PageableDto pageableDto && pageableDto.hasCursor()) {
+            return KeysetCursor.decode(pageableDto.getCursor(), keysetSort(pageable), getDomainClass());
+        }
+        return null;
+    }
+
+    /**
+     * Build a keyset page from the rows fetched with a limit of page size + 1.
+     * The extra row only signals that a next page exists and is not returned.
+     *
+     * @param rows     The fetched rows, in keyset order.
+     * @param pageable The requested page.
+     * @return The page, with the cursor of the next page if there is one.
+     */
+    default PageDto<D> keysetPage(List<D> rows, Pageable pageable) {
+        PageableDto pageableDto = PageableDto.from(pageable);
+        int pageSize = pageable.getPageSize();
+        if (rows.size() <= pageSize) {
+            return PageDto.ofKeyset(rows, pageableDto, null);
+        }
+        List<D> content = rows.subList(0, pageSize);
+        String nextCursor = KeysetCursor.of(content.getLast(), keysetSort(pageable)).encode();
+        return PageDto.ofKeyset(content, pageableDto, nextCursor);
+    }
+
+    /**
+     * Resolve the count strategy of the requested page.
+     * An estimate only describes the whole collection, so ESTIMATED falls back to EXACT for filtered queries.
+     *
+     * @param pageable The requested page.
+     * @param filtered Whether the query has conditions.
+     * @return The count strategy to apply.
+     */
+    default CountStrategy countStrategy(Pageable pageable, boolean filtered) {
+        CountStrategy strategy = PageableDto.countStrategyOf(pageable);
+        return strategy == CountStrategy.ESTIMATED && filtered ? CountStrategy.EXACT : strategy;
+    }
+
+    /**
+     * Get the limit of a CAPPED count: the requested limit, but never less than what is needed
+     * to know whether the requested page has a next page.
+     *
+     * @param pageable The requested page.
+     * @return The maximum number of elements to count.
+     */
+    default long countCap(Pageable pageable) {
+        long limit = pageable instanceof PageableDto pageableDto ? pageableDto.getCountLimit() : PageableDto.DEFAULT_COUNT_LIMIT;
+        if (pageable == null || pageable.isUnpaged()) {
+            return limit;
+        }
+        return Math.max(limit, pageable.getOffset() + pageable.getPageSize() + 1L);
+    }
+
+    /**
+     * Build a page without a count (CountStrategy.NONE) from the rows fetched with a limit of page size + 1.
+     * The extra row only signals that a next page exists and is not returned.
+     *
+     * @param rows     The fetched rows.
+     * @param pageable The requested page.
+     * @return The page.
+     */
+    default PageDto<D> uncountedPage(List<D> rows, Pageable pageable) {
+        if (pageable == null || pageable.isUnpaged()) {
+            return PageDto.of(rows, pageable, rows.size(), CountStrategy.NONE);
+        }
+        int pageSize = pageable.getPageSize();
+        boolean hasNext = rows.size() > pageSize;
+        List<D> content = hasNext ? rows.subList(0, pageSize) : rows;
+        long seen = pageable.getOffset() + content.size() + (hasNext ? 1L : 0L);
+        return PageDto.of(content, pageable, seen, CountStrategy.NONE);
+    }
+
+    /**
+     * Get the exact total when it follows from the page content alone, so no count is needed:
+     * an unpaged result, or a page shorter than the page size (the first page, or a non-empty later page).
+     *
+     * @param content  The fetched content of the page.
+     * @param pageable The requested page.
+     * @return The exact total, or null if it cannot be derived from the content.
+     */
+    default Long totalFromContent(List<?> content, Pageable pageable) {
+        if (pageable == null || pageable.isUnpaged()) {
+            return (long) content.size();
+        }
+        if (content.size() < pageable.getPageSize() && (pageable.getOffset() == 0 || !content.isEmpty())) {
+            return pageable.getOffset() + content.size();
+        }
+        return null;
+    }
+}
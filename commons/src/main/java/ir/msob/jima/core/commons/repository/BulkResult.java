@@ -0,0 +1,38 @@
+package ir.msob.jima.core.commons.repository;
+
+/**
+ * The result of one batch of a bulk write ({@code saveAll} / {@code bulkUpsert}).
+ * <p>
+ * Bulk writes emit one {@code BulkResult} per batch, in order, so callers can report progress
+ * and detect partial failures without holding the whole input in memory.
+ *
+ * @param batch    the zero-based index of the batch in the input stream
+ * @param size     the number of entities submitted in the batch
+ * @param inserted the number of inserted entities
+ * @param matched  the number of existing entities matched by an upsert
+ * @param modified the number of existing entities actually modified
+ * @param upserted the number of entities inserted by an upsert
+ */
+public record BulkResult(long batch, int size, long inserted, long matched, long modified, long upserted) {
+
+    /**
+     * Result of a batch where every submitted entity was inserted.
+     *
+     * @param batch    the zero-based index of the batch
+     * @param size     the number of entities submitted in the batch
+     * @param inserted the number of inserted entities
+     * @return the result
+     */
+    public static BulkResult inserted(long batch, int size, long inserted) {
+        return new BulkResult(batch, size, inserted, 0L, 0L, 0L);
+    }
+
+    /**
+     * Returns the number of entities written (inserted, modified or upserted) by the batch.
+     *
+     * @return the number of written entities
+     */
+    public long written() {
+        return inserted + modified + upserted;
+    }
+}
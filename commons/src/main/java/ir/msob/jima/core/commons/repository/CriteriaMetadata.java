@@ -0,0 +1,135 @@
+package ir.msob.jima.core.commons.repository;
+
+import ir.msob.jima.core.commons.domain.BaseCriteria;
+import ir.msob.jima.core.commons.filter.Filter;
+import org.springframework.core.ResolvableType;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@code CriteriaMetadata} describes the {@link Filter} fields of a concrete {@link BaseCriteria} class.
+ * <p>
+ * The metadata of a class is computed once, on first use, and shared by every query builder of the process
+ * (Mongo, R2DBC, JPA, ...). It is stored in a {@link ClassValue}, so lookups are lock-free and the entry
+ * does not keep the criteria class (or its class loader) alive.
+ * <p>
+ * Each {@link FilterField} exposes the field name, the generic value type of the filter and a
+ * {@link MethodHandle} based accessor, so reading a filter from a criteria instance needs no reflection.
+ *
+ * @see BaseQueryBuilder
+ */
+public final class CriteriaMetadata {
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private static final ClassValue<CriteriaMetadata> METADATA = new ClassValue<>() {
+        @Override
+        protected CriteriaMetadata computeValue(Class<?> type) {
+            return scan(type);
+        }
+    };
+
+    private final Class<?> criteriaClass;
+    private final List<FilterField> filterFields;
+
+    private CriteriaMetadata(Class<?> criteriaClass, List<FilterField> filterFields) {
+        this.criteriaClass = criteriaClass;
+        this.filterFields = filterFields;
+    }
+
+    /**
+     * Returns the metadata of the given criteria class.
+     *
+     * @param criteriaClass the concrete criteria class
+     * @return the cached metadata
+     */
+    public static CriteriaMetadata of(Class<?> criteriaClass) {
+        return METADATA.get(criteriaClass);
+    }
+
+    /**
+     * Returns the metadata of the class of the given criteria.
+     *
+     * @param criteria the criteria instance
+     * @return the cached metadata
+     */
+    public static CriteriaMetadata of(BaseCriteria<?> criteria) {
+        return of(criteria.getClass());
+    }
+
+    /**
+     * Scans the class hierarchy (subclass first) and collects all non-static {@link Filter} fields.
+     */
+    private static CriteriaMetadata scan(Class<?> criteriaClass) {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        List<FilterField> fields = new ArrayList<>();
+        Class<?> type = criteriaClass;
+        while (type != null && type != Object.class) {
+            for (Field field : type.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers()) || !Filter.class.isAssignableFrom(field.getType()))
+                    continue;
+                try {
+                    field.setAccessible(true);
+                    MethodHandle getter = lookup.unreflectGetter(field).asType(GETTER_TYPE);
+                    ResolvableType valueType = ResolvableType.forField(field, criteriaClass).as(Filter.class).getGeneric(0);
+                    fields.add(new FilterField(field.getName(), field, valueType.getType(), valueType.resolve(Object.class), getter));
+                } catch (IllegalAccessException | RuntimeException ignored) {
+                    // Skip inaccessible fields
+                }
+            }
+            type = type.getSuperclass();
+        }
+        return new CriteriaMetadata(criteriaClass, List.copyOf(fields));
+    }
+
+    /**
+     * Returns the criteria class this metadata was computed for.
+     *
+     * @return the criteria class
+     */
+    public Class<?> getCriteriaClass() {
+        return criteriaClass;
+    }
+
+    /**
+     * Returns the {@link Filter} fields of the criteria class.
+     *
+     * @return an immutable list of filter fields
+     */
+    public List<FilterField> getFilterFields() {
+        return filterFields;
+    }
+
+    /**
+     * Describes a single {@link Filter} field of a criteria class.
+     *
+     * @param name       the field name
+     * @param field      the reflected field
+     * @param valueType  the generic type argument of the filter (may be a type variable if unresolvable)
+     * @param valueClass the resolved class of the filter values, {@code Object} if unresolvable
+     * @param getter     a getter of type {@code (Object)Object}
+     */
+    public record FilterField(String name, Field field, Type valueType, Class<?> valueClass, MethodHandle getter) {
+
+        /**
+         * Reads the filter of this field from the given criteria.
+         *
+         * @param criteria the criteria instance
+         * @return the filter, or {@code null} if the field is not set
+         */
+        public Filter<?> get(Object criteria) {
+            try {
+                return (Filter<?>) (Object) getter.invokeExact(criteria);
+            } catch (Throwable e) {
+                return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package ir.msob.jima.core.commons.repository;
+
+import ir.msob.jima.core.commons.exception.badrequest.BadRequestException;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.data.domain.Sort;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.time.temporal.Temporal;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * {@code KeysetCursor} is the continuation token of a keyset (seek) page.
+ * <p>
+ * A cursor holds the values of the sort properties of the last row of a page, followed by its id
+ * (which is always part of the keyset sort, see {@link #keysetSort(Sort, String)}, so rows with equal sort
+ * values are still strictly ordered). The next page is fetched with a seek predicate on these values instead
+ * of an offset, so page N costs the same as page 1.
+ * <p>
+ * The token is opaque to clients: it is the URL-safe Base64 encoding of the property names and the string form
+ * of their values. When a token is decoded, each value is converted back to the type of the matching property
+ * of the domain class.
+ * <p>
+ * Sort properties used for keyset pagination must be non-null.
+ */
+public final class KeysetCursor {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+    private static final String ENTRY_SEPARATOR = ".";
+    private static final String VALUE_SEPARATOR = ":";
+
+    private final List<String> properties;
+    private final List<Object> values;
+
+    private KeysetCursor(List<String> properties, List<Object> values) {
+        this.properties = Collections.unmodifiableList(properties);
+        this.values = Collections.unmodifiableList(values);
+    }
+
+    /**
+     * Returns the sort to use for a keyset page: the requested sort, followed by the id property
+     * (ascending) if the requested sort does not already contain it.
+     *
+     * @param sort       the requested sort, may be {@code null}
+     * @param idProperty the name of the id property
+     * @return the keyset sort
+     */
+    public static Sort keysetSort(Sort sort, String idProperty) {
+        Sort requested = sort == null ? Sort.unsorted() : sort;
+        if (requested.getOrderFor(idProperty) != null)
+            return requested;
+        return requested.and(Sort.by(Sort.Direction.ASC, idProperty));
+    }
+
+    /**
+     * Creates the cursor pointing after the given row.
+     *
+     * @param row  the last row of the current page
+     * @param sort the keyset sort (see {@link #keysetSort(Sort, String)})
+     * @return the cursor
+     * @throws IllegalStateException if a sort property of the row is {@code null}
+     */
+    public static KeysetCursor of(Object row, Sort sort) {
+        List<String> properties = new ArrayList<>();
+        List<Object> values = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            Object value = readProperty(row, order.getProperty());
+            if (value == null)
+                throw new IllegalStateException("Keyset sort property '" + order.getProperty() + "' must not be null");
+            properties.add(order.getProperty());
+            values.add(value);
+        }
+        return new KeysetCursor(properties, values);
+    }
+
+    /**
+     * Decodes a token and checks that it was created for the given keyset sort.
+     *
+     * @param token       the token returned by {@link #encode()}
+     * @param sort        the keyset sort of the requested page
+     * @param domainClass the domain class, used to restore the value types
+     * @return the cursor
+     * @throws BadRequestException if the token is malformed or does not match the sort
+     */
+    public static KeysetCursor decode(String token, Sort sort, Class<?> domainClass) {
+        List<String> properties = new ArrayList<>();
+        List<Object> values = new ArrayList<>();
+        try {
+            for (String entry : token.split("\\" + ENTRY_SEPARATOR)) {
+                int index = entry.indexOf(VALUE_SEPARATOR);
+                String property = decodePart(entry.substring(0, index));
+                String value = decodePart(entry.substring(index + 1));
+                properties.add(property);
+                values.add(convert(value, propertyType(domainClass, property)));
+            }
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Invalid keyset cursor", "cursor", token);
+        }
+        if (!properties.equals(sort.stream().map(Sort.Order::getProperty).toList()))
+            throw new BadRequestException("Keyset cursor does not match the requested sort", "cursor", token);
+        return new KeysetCursor(properties, values);
+    }
+
+    /**
+     * Encodes this cursor into an opaque, URL-safe token.
+     *
+     * @return the token
+     */
+    public String encode() {
+        StringBuilder token = new StringBuilder();
+        for (int i = 0; i < properties.size(); i++) {
+            if (i > 0)
+                token.append(ENTRY_SEPARATOR);
+            token.append(encodePart(properties.get(i)))
+                    .append(VALUE_SEPARATOR)
+                    .append(encodePart(stringValue(values.get(i))));
+        }
+        return token.toString();
+    }
+
+    /**
+     * Returns the sort property names, in keyset order.
+     *
+     * @return the property names
+     */
+    public List<String> getProperties() {
+        return properties;
+    }
+
+    /**
+     * Returns the values of the sort properties of the last row, in keyset order.
+     *
+     * @return the values
+     */
+    public List<Object> getValues() {
+        return values;
+    }
+
+    @Override
+    public String toString() {
+        return encode();
+    }
+
+    private static String encodePart(String part) {
+        return ENCODER.encodeToString(part.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decodePart(String part) {
+        return new String(DECODER.decode(part), StandardCharsets.UTF_8);
+    }
+
+    private static String stringValue(Object value) {
+        if (value instanceof Date date)
+            return String.valueOf(date.getTime());
+        return value.toString();
+    }
+
+    private static Object convert(String value, Class<?> type) {
+        if (type == null || type == String.class || type == Object.class)
+            return value;
+        if (Date.class.isAssignableFrom(type))
+            return new Date(Long.parseLong(value));
+        if (Temporal.class.isAssignableFrom(type)) {
+            Method parse = ReflectionUtils.findMethod(type, "parse", CharSequence.class);
+            if (parse != null)
+                return ReflectionUtils.invokeMethod(parse, null, value);
+        }
+        return DefaultConversionService.getSharedInstance().convert(value, type);
+    }
+
+    private static Class<?> propertyType(Class<?> type, String path) {
+        Class<?> current = type;
+        for (String name : path.split("\\.")) {
+            Field field = ReflectionUtils.findField(current, name);
+            if (field == null)
+                return null;
+            // Resolve generic fields (e.g. an inherited "ID id") against the concrete class
+            current = ResolvableType.forField(field, current).resolve(field.getType());
+        }
+        return current;
+    }
+
+    private static Object readProperty(Object row, String path) {
+        Object current = row;
+        for (String name : path.split("\\.")) {
+            if (current == null)
+                return null;
+            Field field = ReflectionUtils.findField(current.getClass(), name);
+            if (field == null)
+                throw new IllegalStateException("Keyset sort property '" + path + "' not found on " + row.getClass().getName());
+            ReflectionUtils.makeAccessible(field);
+            current = ReflectionUtils.getField(field, current);
+        }
+        return current;
+    }
+}
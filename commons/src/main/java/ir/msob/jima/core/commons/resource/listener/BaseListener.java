@@ -10,15 +10,29 @@ import ir.msob.jima.core.commons.resource.BaseResource;
 import ir.msob.jima.core.commons.security.BaseUser;
 import ir.msob.jima.core.commons.shared.ModelType;
 import ir.msob.jima.core.commons.shared.PageDto;
-import lombok.SneakyThrows;
+import ir.msob.jima.core.commons.tracing.Tracer;
+import reactor.core.publisher.Mono;
 
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 
 /**
  * The 'BaseListener' interface defines methods for creating and managing Kafka message listener containers.
  * It includes methods for getting the class type for the identifier and user, getting the ObjectMapper, UserService, and AsyncClient instances, retrieving a user based on the provided authentication token, and preparing a ChannelMessage by copying and modifying properties of another ChannelMessage.
  * Classes that implement this interface should provide concrete implementations for these methods.
+ * <p>
+ * The callback methods send the result of an operation to the callbacks of the received message. The typed
+ * {@code sendCallback*} methods send them without waiting for them; {@link #sendCallbacks} returns the sending
+ * as a Mono, so a listener can make it part of its processing, await it or time it out.
+ * <p>
+ * The handling of the received messages is traced whatever the transport: a transport hands each received
+ * message to its handler through {@link #tracedHandler}, or the messages of a batch through
+ * {@link #tracedBatchHandler}, so the handling continues the trace of the sender.
  *
  * @param <ID>   The type of ID.
  * @param <USER> The type of BaseUser.
@@ -49,6 +63,76 @@ public interface BaseListener<ID extends Comparable<ID> & Serializable, USER ext
         return getUserService().getUser(token);
     }
 
+    /**
+     * Traces the handling of a received message, as a child of the span that sent it, when tracing is enabled.
+     * The service, repository and callback spans started while handling the message join its trace.
+     *
+     * @param channel    The channel the message was received from.
+     * @param message    The received message, holding the trace context of the sender in its metadata.
+     * @param processing The handling of the message.
+     * @param <T>        The element type of the handling.
+     * @return The traced handling, or the handling itself when tracing is disabled.
+     */
+    default <T> Mono<T> traceReceive(String channel, ChannelMessage<USER, ? extends ModelType> message, Mono<T> processing) {
+        Tracer tracer = Tracer.current();
+        return tracer == null ? processing : tracer.receive("receive " + channel, message.getMetadata(), processing);
+    }
+
+    /**
+     * Traces the handling of a batch of received messages as one span, a child of the span that sent the first
+     * message and linked to the spans that sent the others, when tracing is enabled.
+     *
+     * @param channel    The channel the messages were received from.
+     * @param messages   The received messages, holding the trace contexts of their senders in their metadata.
+     * @param processing The handling of the messages.
+     * @param <T>        The element type of the handling.
+     * @return The traced handling, or the handling itself when tracing is disabled.
+     */
+    default <T> Mono<T> traceReceiveAll(String channel, List<? extends ChannelMessage<USER, ? extends ModelType>> messages, Mono<T> processing) {
+        Tracer tracer = Tracer.current();
+        if (tracer == null) {
+            return processing;
+        }
+        List<Map<String, Serializable>> metadata = new ArrayList<>(messages.size());
+        for (ChannelMessage<USER, ? extends ModelType> message : messages) {
+            metadata.add(message.getMetadata());
+        }
+        return tracer.receiveAll("receive " + channel, metadata, processing);
+    }
+
+    /**
+     * Wraps the handler of the messages of a channel, so that the handling of each message is traced by
+     * {@link #traceReceive}, as a child of the span that sent it.
+     *
+     * @param channel The channel the messages are received from.
+     * @param handler The callback to handle a message.
+     * @param <DATA>  The type of the data of the messages.
+     * @return The traced handler.
+     */
+    default <DATA extends ModelType> Function<ChannelMessage<USER, DATA>, Mono<?>> tracedHandler(String channel,
+                                                                                                 Function<ChannelMessage<USER, DATA>, Mono<?>> handler) {
+        return message -> traceReceive(channel, message, Mono.defer(() -> handler.apply(message)));
+    }
+
+    /**
+     * Wraps the handler of the batches of a channel, so that the handling of a batch is traced by
+     * {@link #traceReceiveAll} as one span.
+     *
+     * @param channel The channel the messages are received from.
+     * @param handler The callback to handle the messages of a batch.
+     * @param <DATA>  The type of the data of the messages.
+     * @return The traced handler.
+     */
+    default <DATA extends ModelType> Function<List<ChannelMessage<USER, DATA>>, Mono<?>> tracedBatchHandler(String channel,
+                                                                                                            Function<List<ChannelMessage<USER, DATA>>, Mono<?>> handler) {
+        return messages -> {
+            if (messages.isEmpty()) {
+                return handler.apply(messages);
+            }
+            return traceReceiveAll(channel, messages, Mono.defer(() -> handler.apply(messages)));
+        };
+    }
+
     /**
      * Prepares a ChannelMessage by copying and modifying properties of another ChannelMessage.
      *
@@ -70,6 +154,64 @@ public interface BaseListener<ID extends Comparable<ID> & Serializable, USER ext
                 .build();
     }
 
+    /**
+     * Gets the maximum number of callback channels sent to in parallel for a message.
+     *
+     * @return The callback concurrency (Defaults to 16).
+     */
+    default int getCallbackConcurrency() {
+        return 16;
+    }
+
+    /**
+     * Sends the result of an operation to the callbacks of a message, in a single pipeline: the callback messages
+     * are prepared with {@link #prepareChannelMessage}, sharing the data, and grouped by channel; the channels
+     * are sent to in parallel, up to {@link #getCallbackConcurrency()}, the callbacks of a channel together with
+     * {@link BaseAsyncClient#sendAll}.
+     * <p>
+     * Nothing is sent until the returned Mono is subscribed; the sending then runs in the Reactor context of the
+     * subscriber, and is stopped when it is cancelled, by a timeout for instance. A failed channel does not stop
+     * the others; the first error is reported once all of them were tried.
+     *
+     * @param message The original message.
+     * @param data    The data to send in the callbacks.
+     * @param status  The status of the operation.
+     * @param user    The user who initiated the operation.
+     * @return A Mono completing when all the callbacks are sent, or failing with the first failed sending.
+     */
+    default Mono<Void> sendCallbacks(ChannelMessage<USER, ? extends ModelType> message, ModelType data, Integer status, USER user) {
+        if (message.getCallbacks() == null || message.getCallbacks().isEmpty()) {
+            return Mono.empty();
+        }
+        return ListenerCallbacks.dispatch(getAsyncClient(), callbacks(message, data, status, user), user, getCallbackConcurrency());
+    }
+
+    /**
+     * Sends the result of an operation to the callbacks of a message as {@link #sendCallbacks} does, without
+     * waiting for it: the sending starts right away, and the failed sendings are logged.
+     *
+     * @param message The original message.
+     * @param data    The data to send in the callbacks.
+     * @param status  The status of the operation.
+     * @param user    The user who initiated the operation.
+     */
+    default void fireCallbacks(ChannelMessage<USER, ? extends ModelType> message, ModelType data, Integer status, USER user) {
+        if (message.getCallbacks() == null || message.getCallbacks().isEmpty()) {
+            return;
+        }
+        Map<String, List<ChannelMessage<USER, ModelType>>> callbacks = callbacks(message, data, status, user);
+        ListenerCallbacks.fireAndForget(ListenerCallbacks.dispatch(getAsyncClient(), callbacks, user, getCallbackConcurrency()), callbacks.keySet());
+    }
+
+    private Map<String, List<ChannelMessage<USER, ModelType>>> callbacks(ChannelMessage<USER, ? extends ModelType> message, ModelType data, Integer status, USER user) {
+        Map<String, List<ChannelMessage<USER, ModelType>>> callbacks = new LinkedHashMap<>();
+        for (ChannelMessage<USER, ? extends ModelType> callback : message.getCallbacks()) {
+            callbacks.computeIfAbsent(callback.getChannel(), channel -> new ArrayList<>())
+                    .add(prepareChannelMessage(callback, data, status, user));
+        }
+        return callbacks;
+    }
+
     /**
      * Sends a callback with a collection of DTOs.
      *
@@ -78,15 +220,10 @@ public interface BaseListener<ID extends Comparable<ID> & Serializable, USER ext
      * @param status  The status of the operation.
      * @param user    The user who initiated the operation.
      */
-    @SneakyThrows
     default <DATA extends ModelType> void sendCallbackDtos(ChannelMessage<USER, DATA> message, Collection<DTO> dtos, Integer status, USER user) {
-        if (!message.getCallbacks().isEmpty()) {
-            DtosMessage<ID, DTO> data = new DtosMessage<>();
-            data.setDtos(dtos);
-            for (ChannelMessage<USER, ? extends ModelType> callback : message.getCallbacks()) {
-                getAsyncClient().send(callback.getChannel(), prepareChannelMessage(callback, data, status, user), user).subscribe();
-            }
-        }
+        DtosMessage<ID, DTO> data = new DtosMessage<>();
+        data.setDtos(dtos);
+        fireCallbacks(message, data, status, user);
     }
 
     /**
@@ -97,15 +234,10 @@ public interface BaseListener<ID extends Comparable<ID> & Serializable, USER ext
      * @param status  The status of the operation.
      * @param user    The user who initiated the operation.
      */
-    @SneakyThrows
     default <DATA extends ModelType> void sendCallbackDto(ChannelMessage<USER, DATA> message, DTO dto, Integer status, USER user) {
-        if (!message.getCallbacks().isEmpty()) {
-            DtoMessage<ID, DTO> data = new DtoMessage<>();
-            data.setDto(dto);
-            for (ChannelMessage<USER, ? extends ModelType> callback : message.getCallbacks()) {
-                getAsyncClient().send(callback.getChannel(), prepareChannelMessage(callback, data, status, user), user).subscribe();
-            }
-        }
+        DtoMessage<ID, DTO> data = new DtoMessage<>();
+        data.setDto(dto);
+        fireCallbacks(message, data, status, user);
     }
 
     /**
@@ -116,15 +248,10 @@ public interface BaseListener<ID extends Comparable<ID> & Serializable, USER ext
      * @param status  The status of the operation.
      * @param user    The user who initiated the operation.
      */
-    @SneakyThrows
     default <DATA extends ModelType> void sendCallbackIds(ChannelMessage<USER, DATA> message, Collection<ID> ids, Integer status, USER user) {
-        if (!message.getCallbacks().isEmpty()) {
-            IdsMessage<ID> data = new IdsMessage<>();
-            data.setIds(ids);
-            for (ChannelMessage<USER, ? extends ModelType> callback : message.getCallbacks()) {
-                getAsyncClient().send(callback.getChannel(), prepareChannelMessage(callback, data, status, user), user).subscribe();
-            }
-        }
+        IdsMessage<ID> data = new IdsMessage<>();
+        data.setIds(ids);
+        fireCallbacks(message, data, status, user);
     }
 
     /**
@@ -135,15 +262,10 @@ public interface BaseListener<ID extends Comparable<ID> & Serializable, USER ext
      * @param status  The status of the operation.
      * @param user    The user who initiated the operation.
      */
-    @SneakyThrows
     default <DATA extends ModelType> void sendCallbackId(ChannelMessage<USER, DATA> message, ID id, Integer status, USER user) {
-        if (!message.getCallbacks().isEmpty()) {
-            IdMessage<ID> data = new IdMessage<>();
-            data.setId(id);
-            for (ChannelMessage<USER, ? extends ModelType> callback : message.getCallbacks()) {
-                getAsyncClient().send(callback.getChannel(), prepareChannelMessage(callback, data, status, user), user).subscribe();
-            }
-        }
+        IdMessage<ID> data = new IdMessage<>();
+        data.setId(id);
+        fireCallbacks(message, data, status, user);
     }
 
     /**
@@ -154,15 +276,10 @@ public interface BaseListener<ID extends Comparable<ID> & Serializable, USER ext
      * @param status  The status of the operation.
      * @param user    The user who initiated the operation.
      */
-    @SneakyThrows
     default void sendCallbackCountAll(ChannelMessage<USER, ModelType> message, Long count, Integer status, USER user) {
-        if (!message.getCallbacks().isEmpty()) {
-            LongMessage data = new LongMessage();
-            data.setResult(count);
-            for (ChannelMessage<USER, ? extends ModelType> callback : message.getCallbacks()) {
-                getAsyncClient().send(callback.getChannel(), prepareChannelMessage(callback, data, status, user), user).subscribe();
-            }
-        }
+        LongMessage data = new LongMessage();
+        data.setResult(count);
+        fireCallbacks(message, data, status, user);
     }
 
     /**
@@ -173,26 +290,24 @@ public interface BaseListener<ID extends Comparable<ID> & Serializable, USER ext
      * @param status  The status of the operation.
      * @param user    The user who initiated the operation.
      */
-    @SneakyThrows
     default void sendCallbackCount(ChannelMessage<USER, CriteriaMessage<ID, C>> message, Long count, Integer status, USER user) {
-        if (!message.getCallbacks().isEmpty()) {
-            LongMessage data = new LongMessage();
-            data.setResult(count);
-            for (ChannelMessage<USER, ? extends ModelType> callback : message.getCallbacks()) {
-                getAsyncClient().send(callback.getChannel(), prepareChannelMessage(callback, data, status, user), user).subscribe();
-            }
-        }
+        LongMessage data = new LongMessage();
+        data.setResult(count);
+        fireCallbacks(message, data, status, user);
     }
 
-    @SneakyThrows
+    /**
+     * Sends a callback with a boolean result.
+     *
+     * @param message The original message.
+     * @param result  The result of the operation.
+     * @param status  The status of the operation.
+     * @param user    The user who initiated the operation.
+     */
     default void sendCallbackBoolean(ChannelMessage<USER, CriteriaMessage<ID, C>> message, Boolean result, Integer status, USER user) {
-        if (!message.getCallbacks().isEmpty()) {
-            BooleanMessage data = new BooleanMessage();
-            data.setResult(result);
-            for (ChannelMessage<USER, ? extends ModelType> callback : message.getCallbacks()) {
-                getAsyncClient().send(callback.getChannel(), prepareChannelMessage(callback, data, status, user), user).subscribe();
-            }
-        }
+        BooleanMessage data = new BooleanMessage();
+        data.setResult(result);
+        fireCallbacks(message, data, status, user);
     }
 
     /**
@@ -203,14 +318,9 @@ public interface BaseListener<ID extends Comparable<ID> & Serializable, USER ext
      * @param status  The status of the operation.
      * @param user    The user who initiated the operation.
      */
-    @SneakyThrows
     default <DATA extends ModelType> void sendCallbackPage(ChannelMessage<USER, DATA> message, PageDto<DTO> page, Integer status, USER user) {
-        if (!message.getCallbacks().isEmpty()) {
-            PageMessage<ID, DTO> data = new PageMessage<>();
-            data.setPage(page);
-            for (ChannelMessage<USER, ? extends ModelType> callback : message.getCallbacks()) {
-                getAsyncClient().send(callback.getChannel(), prepareChannelMessage(callback, data, status, user), user).subscribe();
-            }
-        }
+        PageMessage<ID, DTO> data = new PageMessage<>();
+        data.setPage(page);
+        fireCallbacks(message, data, status, user);
     }
 }
\ No newline at end of file
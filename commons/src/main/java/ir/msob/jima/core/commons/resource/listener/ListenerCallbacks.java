@@ -0,0 +1,65 @@
+package ir.msob.jima.core.commons.resource.listener;
+
+import ir.msob.jima.core.commons.channel.ChannelMessage;
+import ir.msob.jima.core.commons.client.BaseAsyncClient;
+import ir.msob.jima.core.commons.logger.Logger;
+import ir.msob.jima.core.commons.logger.LoggerFactory;
+import ir.msob.jima.core.commons.security.BaseUser;
+import ir.msob.jima.core.commons.shared.ModelType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The dispatch of the callbacks of a {@link BaseListener}.
+ * <p>
+ * The dispatch is cold: the callbacks are sent when the returned Mono is subscribed, in the Reactor context of
+ * the subscriber, and it completes when they are all sent, or fails with the first error after all the channels
+ * were tried. The channels are sent to in parallel, up to the concurrency; the callbacks of a channel are sent
+ * together, with {@link BaseAsyncClient#sendAll}.
+ */
+final class ListenerCallbacks {
+
+    private static final Logger logger = LoggerFactory.getLogger(ListenerCallbacks.class);
+
+    private ListenerCallbacks() {
+        // Prevent instantiation
+    }
+
+    static <USER extends BaseUser> Mono<Void> dispatch(BaseAsyncClient asyncClient,
+                                                       Map<String, List<ChannelMessage<USER, ModelType>>> callbacks,
+                                                       USER user,
+                                                       int concurrency) {
+        return Flux.fromIterable(callbacks.entrySet())
+                .flatMapDelayError(entry -> send(asyncClient, entry.getKey(), entry.getValue(), user), Math.max(1, concurrency), 1)
+                .then();
+    }
+
+    /**
+     * Sends the callbacks without waiting for them, logging the failed sendings.
+     *
+     * @param sending  The dispatch of the callbacks.
+     * @param channels The channels of the callbacks.
+     */
+    static void fireAndForget(Mono<Void> sending, Collection<String> channels) {
+        sending.subscribe(null, error -> logger.warn(error, "Failed to send the callbacks to {}", channels));
+    }
+
+    private static <USER extends BaseUser> Mono<Void> send(BaseAsyncClient asyncClient,
+                                                           String channel,
+                                                           List<ChannelMessage<USER, ModelType>> channelMessages,
+                                                           USER user) {
+        if (channelMessages.size() == 1) {
+            return Mono.defer(() -> asyncClient.send(channel, channelMessages.getFirst(), user));
+        }
+        for (ChannelMessage<USER, ModelType> channelMessage : channelMessages) {
+            if (channelMessage.getUser() == null) {
+                channelMessage.setUser(user);
+            }
+        }
+        return Mono.defer(() -> asyncClient.sendAll(channel, Flux.fromIterable(channelMessages)));
+    }
+}
@@ -0,0 +1,29 @@
+package ir.msob.jima.core.commons.shared;
+
+/**
+ * How the total number of elements of a page is computed.
+ * <p>
+ * Requested through {@link PageableDto#getCountStrategy()} and reported back by
+ * {@link PageDto#getCountStrategy()} (the strategy that actually produced {@code totalElements}).
+ */
+public enum CountStrategy {
+    /**
+     * Exact count of the matching elements (a separate count query).
+     */
+    EXACT,
+    /**
+     * No count query. The page is fetched with one extra element to detect whether a next page exists;
+     * {@code totalElements} is the number of elements up to this page (plus one if there is a next page).
+     */
+    NONE,
+    /**
+     * Cheap estimate from the database statistics (e.g. MongoDB {@code estimatedDocumentCount},
+     * PostgreSQL {@code reltuples}). Only used for unfiltered queries, otherwise an exact count is done.
+     */
+    ESTIMATED,
+    /**
+     * Count up to {@link PageableDto#getCountLimit()} elements (never less than what is needed to detect the next page).
+     * {@code totalElements} is a lower bound when the limit is reached.
+     */
+    CAPPED
+}
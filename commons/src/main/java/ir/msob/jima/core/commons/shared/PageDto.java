@@ -21,6 +21,11 @@ import java.util.stream.Collectors;
 /**
  * A JSON-friendly, framework-agnostic implementation of org.springframework.data.domain.Page
  * Contains conversion helpers: from(Page) and toPage()
+ * <p>
+ * Keyset pages carry a {@code nextCursor}: the token to request the following page with
+ * (see {@link PageableDto#withCursor(String)}), or {@code null} on the last page.
+ * <p>
+ * {@code countStrategy} reports how {@code totalElements} was produced (see {@link CountStrategy}).
  */
 @Getter
 @Setter
@@ -31,12 +36,16 @@ public class PageDto<T> implements Page<@NonNull T>, Serializable {
     private final PageableDto pageable;
     private final long totalElements;
     private final int totalPages;
+    private final String nextCursor;
+    private final CountStrategy countStrategy;
 
     public PageDto() {
         this.content = Collections.emptyList();
         this.pageable = PageableDto.unpaged();
         this.totalElements = 0L;
         this.totalPages = 0;
+        this.nextCursor = null;
+        this.countStrategy = CountStrategy.EXACT;
     }
 
     @JsonCreator
@@ -44,8 +53,12 @@ public class PageDto<T> implements Page<@NonNull T>, Serializable {
             @JsonProperty("content") List<T> content,
             @JsonProperty("pageable") PageableDto pageable,
             @JsonProperty("totalElements") Long totalElements,
-            @JsonProperty("totalPages") Integer totalPages
+            @JsonProperty("totalPages") Integer totalPages,
+            @JsonProperty("nextCursor") String nextCursor,
+            @JsonProperty("countStrategy") CountStrategy countStrategy
     ) {
+        this.nextCursor = nextCursor;
+        this.countStrategy = countStrategy == null ? CountStrategy.EXACT : countStrategy;
         this.content = content == null ? Collections.emptyList() : List.copyOf(content);
         this.pageable = pageable == null ? PageableDto.unpaged() : pageable;
         this.totalElements = totalElements == null ? 0L : Math.max(0L, totalElements);
@@ -60,9 +73,29 @@ public class PageDto<T> implements Page<@NonNull T>, Serializable {
         }
     }
 
+    public PageDto(List<T> content, PageableDto pageable, Long totalElements, Integer totalPages) {
+        this(content, pageable, totalElements, totalPages, null, null);
+    }
+
     // Convenience constructor for server-side creation
     public PageDto(List<T> content, PageableDto pageable, long totalElements) {
-        this(content, pageable, totalElements, null);
+        this(content, pageable, totalElements, null, null, null);
+    }
+
+    /**
+     * Build a page whose total was produced by the given count strategy
+     */
+    public static <T> PageDto<T> of(List<T> content, Pageable pageable, long totalElements, CountStrategy countStrategy) {
+        return new PageDto<>(content, PageableDto.from(pageable), totalElements, null, null, countStrategy);
+    }
+
+    /**
+     * Build a keyset page. The total is not counted: {@code totalElements} is the number of rows
+     * seen so far, and {@link #hasNext()} is driven by {@code nextCursor}.
+     */
+    public static <T> PageDto<T> ofKeyset(List<T> content, PageableDto pageable, String nextCursor) {
+        long seen = pageable.getOffset() + (content == null ? 0 : content.size());
+        return new PageDto<>(content, pageable, seen, null, nextCursor, CountStrategy.NONE);
     }
 
     // ---------- Conversion helpers (inside the DTO) ----------
@@ -74,6 +107,9 @@ public class PageDto<T> implements Page<@NonNull T>, Serializable {
         if (page == null) {
             return PageDto.empty();
         }
+        if (page instanceof PageDto<T> pageDto) {
+            return pageDto;
+        }
 
         Pageable pageable = page.getPageable();
         PageableDto pageableDto = PageableDto.from(pageable);
@@ -105,7 +141,7 @@ public class PageDto<T> implements Page<@NonNull T>, Serializable {
     @Override
     public <U> @NonNull Page<@NonNull U> map(@NonNull Function<? super T, ? extends U> converter) {
         List<U> mapped = this.content.stream().map(converter).collect(Collectors.toList());
-        return new PageDto<>(mapped, this.pageable, this.totalElements, this.totalPages);
+        return new PageDto<>(mapped, this.pageable, this.totalElements, this.totalPages, this.nextCursor, this.countStrategy);
     }
 
     @Override
@@ -140,6 +176,7 @@ public class PageDto<T> implements Page<@NonNull T>, Serializable {
 
     @Override
     public boolean isLast() {
+        if (nextCursor != null) return false;
         if (pageable == null || pageable.isUnpaged()) {
             return totalPages <= 1;
         }
@@ -148,6 +185,7 @@ public class PageDto<T> implements Page<@NonNull T>, Serializable {
 
     @Override
     public boolean hasNext() {
+        if (nextCursor != null) return true;
         if (pageable == null || pageable.isUnpaged()) return false;
         return getNumber() + 1 < getTotalPages();
     }
@@ -159,6 +197,9 @@ public class PageDto<T> implements Page<@NonNull T>, Serializable {
 
     @Override
     public @NonNull Pageable nextPageable() {
+        if (nextCursor != null) {
+            return pageable.copy(pageable.getPageNumber() + 1, nextCursor);
+        }
         return pageable == null || pageable.isUnpaged() ? PageableDto.unpaged() : pageable.next();
     }
 
@@ -188,4 +229,14 @@ public class PageDto<T> implements Page<@NonNull T>, Serializable {
     public int getJsonTotalPages() {
         return totalPages;
     }
+
+    @JsonProperty("nextCursor")
+    public String getJsonNextCursor() {
+        return nextCursor;
+    }
+
+    @JsonProperty("countStrategy")
+    public CountStrategy getJsonCountStrategy() {
+        return countStrategy;
+    }
 }
@@ -17,22 +17,36 @@ import java.util.List;
 /**
  * A JSON-friendly implementation of org.springframework.data.domain.Pageable
  * Contains conversion helpers: from(Pageable) and toPageable()
+ * <p>
+ * A pageable may carry a keyset {@code cursor} (see {@link ir.msob.jima.core.commons.repository.KeysetCursor}).
+ * Repositories that support keyset pagination seek after the cursor instead of skipping {@link #getOffset()} rows.
+ * <p>
+ * The {@code countStrategy} (default {@link CountStrategy#EXACT}) tells repositories how to compute the total
+ * number of elements; {@code countLimit} is the limit used by {@link CountStrategy#CAPPED}.
  */
 @Getter
 @Setter
 @JsonIgnoreProperties(ignoreUnknown = true)
 public class PageableDto implements Pageable, Serializable {
 
+    public static final int DEFAULT_COUNT_LIMIT = 1000;
+
     private final int pageNumber;
     private final int pageSize;
     private final boolean paged;
     private final List<OrderDto> orders;
+    private final String cursor;
+    private final CountStrategy countStrategy;
+    private final int countLimit;
 
     public PageableDto() {
         this.pageNumber = 0;
         this.pageSize = 10;
         this.paged = true;
         this.orders = Collections.emptyList();
+        this.cursor = null;
+        this.countStrategy = CountStrategy.EXACT;
+        this.countLimit = DEFAULT_COUNT_LIMIT;
     }
 
     @JsonCreator
@@ -40,12 +54,26 @@ public class PageableDto implements Pageable, Serializable {
             @JsonProperty("pageNumber") Integer pageNumber,
             @JsonProperty("pageSize") Integer pageSize,
             @JsonProperty("paged") Boolean paged,
-            @JsonProperty("orders") List<OrderDto> orders
+            @JsonProperty("orders") List<OrderDto> orders,
+            @JsonProperty("cursor") String cursor,
+            @JsonProperty("countStrategy") CountStrategy countStrategy,
+            @JsonProperty("countLimit") Integer countLimit
     ) {
         this.pageNumber = pageNumber == null ? 0 : Math.max(0, pageNumber);
         this.pageSize = pageSize == null ? 20 : Math.max(0, pageSize);
         this.paged = paged == null || paged;
         this.orders = orders == null ? Collections.emptyList() : List.copyOf(orders);
+        this.cursor = cursor == null || cursor.isBlank() ? null : cursor;
+        this.countStrategy = countStrategy == null ? CountStrategy.EXACT : countStrategy;
+        this.countLimit = countLimit == null ? DEFAULT_COUNT_LIMIT : Math.max(0, countLimit);
+    }
+
+    public PageableDto(Integer pageNumber, Integer pageSize, Boolean paged, List<OrderDto> orders, String cursor) {
+        this(pageNumber, pageSize, paged, orders, cursor, null, null);
+    }
+
+    public PageableDto(Integer pageNumber, Integer pageSize, Boolean paged, List<OrderDto> orders) {
+        this(pageNumber, pageSize, paged, orders, null, null, null);
     }
 
     public static PageableDto of(int pageNumber, int pageSize, Sort sort) {
@@ -56,6 +84,13 @@ public class PageableDto implements Pageable, Serializable {
         return new PageableDto(pageNumber, pageSize, true, orders);
     }
 
+    /**
+     * Build a keyset PageableDto that continues after the given cursor ({@code null} for the first page)
+     */
+    public static PageableDto ofCursor(String cursor, int pageSize, Sort sort) {
+        return of(0, pageSize, sort).withCursor(cursor);
+    }
+
     public static PageableDto unpaged() {
         return new PageableDto(0, 0, false, Collections.emptyList());
     }
@@ -69,6 +104,9 @@ public class PageableDto implements Pageable, Serializable {
         if (pageable == null || pageable.isUnpaged()) {
             return PageableDto.unpaged();
         }
+        if (pageable instanceof PageableDto pageableDto) {
+            return pageableDto;
+        }
         return PageableDto.of(
                 pageable.getPageNumber(),
                 pageable.getPageSize(),
@@ -86,6 +124,34 @@ public class PageableDto implements Pageable, Serializable {
         return PageRequest.of(this.pageNumber, this.pageSize, this.getSort());
     }
 
+    /**
+     * Returns a copy of this pageable continuing after the given keyset cursor
+     */
+    public PageableDto withCursor(String cursor) {
+        return copy(this.pageNumber, cursor);
+    }
+
+    /**
+     * Returns a copy of this pageable with the given count strategy ({@code countLimit} is only used by CAPPED)
+     */
+    public PageableDto withCountStrategy(CountStrategy countStrategy, Integer countLimit) {
+        return new PageableDto(this.pageNumber, this.pageSize, this.paged, this.orders, this.cursor, countStrategy, countLimit);
+    }
+
+    /**
+     * Returns the count strategy of the given pageable, EXACT unless it is a PageableDto
+     */
+    public static CountStrategy countStrategyOf(Pageable pageable) {
+        return pageable instanceof PageableDto pageableDto ? pageableDto.getCountStrategy() : CountStrategy.EXACT;
+    }
+
+    /**
+     * Whether this pageable continues a keyset page sequence
+     */
+    public boolean hasCursor() {
+        return cursor != null;
+    }
+
     // ---------- Pageable methods ----------
 
     @Override
@@ -110,23 +176,23 @@ public class PageableDto implements Pageable, Serializable {
 
     @Override
     public @NonNull Pageable next() {
-        return new PageableDto(this.pageNumber + 1, this.pageSize, this.paged, this.orders);
+        return copy(this.pageNumber + 1, null);
     }
 
     @Override
     public @NonNull Pageable previousOrFirst() {
         int prev = this.pageNumber > 0 ? this.pageNumber - 1 : 0;
-        return new PageableDto(prev, this.pageSize, this.paged, this.orders);
+        return copy(prev, null);
     }
 
     @Override
     public @NonNull Pageable first() {
-        return new PageableDto(0, this.pageSize, this.paged, this.orders);
+        return copy(0, null);
     }
 
     @Override
     public @NonNull Pageable withPage(int pageNumber) {
-        return new PageableDto(pageNumber, this.pageSize, this.paged, this.orders);
+        return copy(pageNumber, null);
     }
 
     @Override
@@ -134,6 +200,13 @@ public class PageableDto implements Pageable, Serializable {
         return this.pageNumber > 0;
     }
 
+    /**
+     * Copy of this pageable at another page (keeps sort and count settings)
+     */
+    PageableDto copy(int pageNumber, String cursor) {
+        return new PageableDto(pageNumber, this.pageSize, this.paged, this.orders, cursor, this.countStrategy, this.countLimit);
+    }
+
     // JSON getters
     @JsonProperty("pageNumber")
     public int getJsonPageNumber() {
@@ -150,6 +223,21 @@ public class PageableDto implements Pageable, Serializable {
         return paged;
     }
 
+    @JsonProperty("cursor")
+    public String getJsonCursor() {
+        return cursor;
+    }
+
+    @JsonProperty("countStrategy")
+    public CountStrategy getJsonCountStrategy() {
+        return countStrategy;
+    }
+
+    @JsonProperty("countLimit")
+    public int getJsonCountLimit() {
+        return countLimit;
+    }
+
     /**
      * @param direction "ASC" | "DESC"
      */
@@ -0,0 +1,91 @@
+package ir.msob.jima.core.commons.tracing;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A {@link SpanCollector} keeping the spans in process, so the latency breakdown of a request is available
+ * without an external tracing backend.
+ * <p>
+ * It keeps the most recent spans in a bounded ring, overwriting the oldest ones, and the latency counters of
+ * every stage (span name) in {@link StageStats}.
+ */
+public class InMemorySpanCollector implements SpanCollector {
+
+    private final AtomicReferenceArray<Span> spans;
+    private final AtomicLong next = new AtomicLong();
+    private final Map<String, StageStats> stages = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a collector.
+     *
+     * @param capacity the number of recent spans kept
+     */
+    public InMemorySpanCollector(int capacity) {
+        this.spans = new AtomicReferenceArray<>(Math.max(1, capacity));
+    }
+
+    @Override
+    public void collect(Span span) {
+        spans.set((int) (next.getAndIncrement() % spans.length()), span);
+        StageStats stats = stages.get(span.getName());
+        if (stats == null) {
+            stats = stages.computeIfAbsent(span.getName(), StageStats::new);
+        }
+        stats.record(span);
+    }
+
+    /**
+     * Returns the recent spans, ordered by start time.
+     *
+     * @return the spans
+     */
+    public List<Span> getSpans() {
+        List<Span> result = new ArrayList<>(spans.length());
+        for (int i = 0; i < spans.length(); i++) {
+            Span span = spans.get(i);
+            if (span != null) {
+                result.add(span);
+            }
+        }
+        result.sort(Comparator.comparingLong(Span::getStartEpochNanos));
+        return result;
+    }
+
+    /**
+     * Returns the recent spans of a trace, ordered by start time.
+     *
+     * @param traceId the trace id
+     * @return the spans of the trace
+     */
+    public List<Span> getTrace(String traceId) {
+        List<Span> result = getSpans();
+        result.removeIf(span -> !span.getTraceId().equals(traceId));
+        return result;
+    }
+
+    /**
+     * Returns the latency counters of every stage, by span name.
+     *
+     * @return the stages, sorted by name
+     */
+    public Map<String, StageStats> getStages() {
+        return new TreeMap<>(stages);
+    }
+
+    /**
+     * Forgets the recent spans and resets the latency counters.
+     */
+    public void clear() {
+        for (int i = 0; i < spans.length(); i++) {
+            spans.set(i, null);
+        }
+        stages.clear();
+    }
+}
@@ -0,0 +1,194 @@
+package ir.msob.jima.core.commons.tracing;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A timed stage of a trace: a service hook, a repository operation, or the sending or handling of a channel
+ * message.
+ * <p>
+ * A span is started by the {@link Tracer} and handed to its {@link SpanCollector}s when it ends. It holds the
+ * same data as an OpenTelemetry span (ids, parent, links, kind, timestamps, attributes and status), so a
+ * collector can convert it for an OpenTelemetry exporter.
+ */
+public final class Span {
+
+    private final Tracer tracer;
+    private final String name;
+    private final SpanKind kind;
+    private final TraceContext context;
+    private final String parentSpanId;
+    private final long startEpochNanos;
+    private final long startNanos;
+    private final Map<String, Object> attributes = new LinkedHashMap<>();
+    private final List<TraceContext> links = new ArrayList<>();
+    private volatile long durationNanos = -1;
+    private volatile SpanStatus status = SpanStatus.UNSET;
+    private volatile String errorMessage;
+
+    Span(Tracer tracer, String name, SpanKind kind, TraceContext parent) {
+        this.tracer = tracer;
+        this.name = name;
+        this.kind = kind;
+        this.context = TraceContext.child(parent);
+        this.parentSpanId = parent != null ? parent.spanId() : null;
+        Instant now = Instant.now();
+        this.startEpochNanos = now.getEpochSecond() * 1_000_000_000L + now.getNano();
+        this.startNanos = System.nanoTime();
+    }
+
+    /**
+     * Sets an attribute of this span.
+     *
+     * @param key   the attribute key
+     * @param value the attribute value
+     * @return this span
+     */
+    public Span setAttribute(String key, Object value) {
+        synchronized (attributes) {
+            attributes.put(key, value);
+        }
+        return this;
+    }
+
+    /**
+     * Links this span to a span of another trace, or another span of its trace, that it relates to without
+     * being its child; for instance the senders of the other messages of a batch.
+     *
+     * @param link the context of the linked span
+     * @return this span
+     */
+    public Span addLink(TraceContext link) {
+        synchronized (links) {
+            links.add(link);
+        }
+        return this;
+    }
+
+    /**
+     * Ends this span successfully. Only the first call to one of the {@code end} methods has an effect.
+     */
+    public void end() {
+        end(SpanStatus.OK, null);
+    }
+
+    /**
+     * Ends this span with an error.
+     *
+     * @param error the error
+     */
+    public void end(Throwable error) {
+        end(SpanStatus.ERROR, error != null ? error.getClass().getName() + ": " + error.getMessage() : null);
+    }
+
+    /**
+     * Ends this span with the given status.
+     *
+     * @param status       the status
+     * @param errorMessage the error message, if any
+     */
+    public void end(SpanStatus status, String errorMessage) {
+        synchronized (this) {
+            if (durationNanos >= 0) {
+                return;
+            }
+            this.errorMessage = errorMessage;
+            this.status = status;
+            this.durationNanos = System.nanoTime() - startNanos;
+        }
+        tracer.finished(this);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public SpanKind getKind() {
+        return kind;
+    }
+
+    public TraceContext getContext() {
+        return context;
+    }
+
+    public String getTraceId() {
+        return context.traceId();
+    }
+
+    public String getSpanId() {
+        return context.spanId();
+    }
+
+    /**
+     * Returns the id of the parent span.
+     *
+     * @return the parent span id, or null for the root span of a trace
+     */
+    public String getParentSpanId() {
+        return parentSpanId;
+    }
+
+    public long getStartEpochNanos() {
+        return startEpochNanos;
+    }
+
+    /**
+     * Returns the end time of this span.
+     *
+     * @return the end time in nanoseconds since the epoch, or -1 while the span is running
+     */
+    public long getEndEpochNanos() {
+        long duration = durationNanos;
+        return duration < 0 ? -1 : startEpochNanos + duration;
+    }
+
+    /**
+     * Returns the duration of this span.
+     *
+     * @return the duration in nanoseconds, or -1 while the span is running
+     */
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    public SpanStatus getStatus() {
+        return status;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    /**
+     * Returns a copy of the attributes of this span.
+     *
+     * @return the attributes
+     */
+    public Map<String, Object> getAttributes() {
+        synchronized (attributes) {
+            return Collections.unmodifiableMap(new LinkedHashMap<>(attributes));
+        }
+    }
+
+    /**
+     * Returns a copy of the links of this span.
+     *
+     * @return the contexts of the linked spans
+     */
+    public List<TraceContext> getLinks() {
+        synchronized (links) {
+            return List.copyOf(links);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "Span{name=" + name + ", kind=" + kind + ", traceId=" + getTraceId() + ", spanId=" + getSpanId()
+                + ", parentSpanId=" + parentSpanId + ", durationNanos=" + durationNanos + ", status=" + status
+                + ", links=" + getLinks() + ", attributes=" + getAttributes() + '}';
+    }
+}
@@ -0,0 +1,19 @@
+package ir.msob.jima.core.commons.tracing;
+
+/**
+ * Receives the finished {@link Span}s of the {@link Tracer}.
+ * <p>
+ * It plays the role of an OpenTelemetry {@code SpanExporter}: {@link InMemorySpanCollector} keeps the spans in
+ * process, and an application can register its own collector, for instance one converting the spans for an
+ * OpenTelemetry SDK exporter. Collectors are called on the thread that ended the span and must not block.
+ */
+@FunctionalInterface
+public interface SpanCollector {
+
+    /**
+     * Collects a finished span.
+     *
+     * @param span the span
+     */
+    void collect(Span span);
+}
@@ -0,0 +1,27 @@
+package ir.msob.jima.core.commons.tracing;
+
+/**
+ * The role of a {@link Span} in a trace, named after the OpenTelemetry span kinds.
+ */
+public enum SpanKind {
+    /**
+     * An internal operation, such as a service hook.
+     */
+    INTERNAL,
+    /**
+     * The handling of a synchronous request.
+     */
+    SERVER,
+    /**
+     * A synchronous call to a remote system, such as a database.
+     */
+    CLIENT,
+    /**
+     * The sending of a message to a channel.
+     */
+    PRODUCER,
+    /**
+     * The handling of a message received from a channel.
+     */
+    CONSUMER
+}
@@ -0,0 +1,23 @@
+package ir.msob.jima.core.commons.tracing;
+
+/**
+ * The status of a finished {@link Span}, named after the OpenTelemetry status codes.
+ */
+public enum SpanStatus {
+    /**
+     * The span has not finished yet.
+     */
+    UNSET,
+    /**
+     * The operation completed successfully.
+     */
+    OK,
+    /**
+     * The operation failed.
+     */
+    ERROR,
+    /**
+     * The operation was cancelled by its subscriber before completing.
+     */
+    CANCELLED
+}
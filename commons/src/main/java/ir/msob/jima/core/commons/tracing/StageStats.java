@@ -0,0 +1,95 @@
+package ir.msob.jima.core.commons.tracing;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The latency counters of the spans of one name (one stage), kept by the {@link InMemorySpanCollector}.
+ * <p>
+ * Counters are cumulative since the collector was created or cleared and are updated without locking.
+ */
+public final class StageStats {
+
+    private final String name;
+    private final LongAdder count = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    StageStats(String name) {
+        this.name = name;
+    }
+
+    void record(Span span) {
+        long duration = span.getDurationNanos();
+        count.increment();
+        totalNanos.add(duration);
+        if (span.getStatus() == SpanStatus.ERROR) {
+            errors.increment();
+        }
+        if (duration > maxNanos.get()) {
+            maxNanos.accumulateAndGet(duration, Math::max);
+        }
+    }
+
+    /**
+     * Returns the name of the spans of this stage.
+     *
+     * @return the span name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the number of finished spans.
+     *
+     * @return the number of spans
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Returns the number of spans that ended with an error.
+     *
+     * @return the number of failed spans
+     */
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    /**
+     * Returns the total duration of the spans.
+     *
+     * @return the total duration in nanoseconds
+     */
+    public long getTotalNanos() {
+        return totalNanos.sum();
+    }
+
+    /**
+     * Returns the mean duration of the spans.
+     *
+     * @return the mean duration in nanoseconds, or 0 if there is no span
+     */
+    public long getMeanNanos() {
+        long n = getCount();
+        return n == 0 ? 0 : getTotalNanos() / n;
+    }
+
+    /**
+     * Returns the longest duration of the spans.
+     *
+     * @return the maximum duration in nanoseconds
+     */
+    public long getMaxNanos() {
+        return maxNanos.get();
+    }
+
+    @Override
+    public String toString() {
+        return "StageStats{name=" + name + ", count=" + getCount() + ", errors=" + getErrors()
+                + ", meanNanos=" + getMeanNanos() + ", maxNanos=" + getMaxNanos() + '}';
+    }
+}
@@ -0,0 +1,76 @@
+package ir.msob.jima.core.commons.tracing;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The identity of a {@link Span}: the id of its trace and its own id, in the W3C Trace Context format used by
+ * OpenTelemetry (32 and 16 lowercase hexadecimal characters).
+ * <p>
+ * A context is propagated across channels as a {@code traceparent} value in the metadata of a
+ * {@code ChannelMessage}, and within a reactive pipeline in the Reactor context.
+ *
+ * @param traceId the trace id
+ * @param spanId  the span id
+ */
+public record TraceContext(String traceId, String spanId) {
+
+    /**
+     * The metadata key of the propagated context.
+     */
+    public static final String TRACEPARENT = "traceparent";
+
+    private static final String VERSION = "00";
+    private static final String SAMPLED = "01";
+    private static final int TRACEPARENT_LENGTH = 55;
+
+    /**
+     * Creates the context of a new span, in the trace of the given parent or in a new trace.
+     *
+     * @param parent the parent context, or null to start a new trace
+     * @return the new context
+     */
+    public static TraceContext child(TraceContext parent) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String traceId = parent != null ? parent.traceId() : hex(random.nextLong() | 1L) + hex(random.nextLong());
+        return new TraceContext(traceId, hex(random.nextLong() | 1L));
+    }
+
+    /**
+     * Parses a {@code traceparent} value.
+     *
+     * @param traceparent the value, usually read from the metadata of a message
+     * @return the context, or null if the value is missing or malformed
+     */
+    public static TraceContext parse(Object traceparent) {
+        if (!(traceparent instanceof String s) || s.length() != TRACEPARENT_LENGTH
+                || s.charAt(2) != '-' || s.charAt(35) != '-' || s.charAt(52) != '-'
+                || !isHex(s, 0, 2) || !isHex(s, 3, 35) || !isHex(s, 36, 52)) {
+            return null;
+        }
+        return new TraceContext(s.substring(3, 35), s.substring(36, 52));
+    }
+
+    /**
+     * Formats this context as a {@code traceparent} value.
+     *
+     * @return the value
+     */
+    public String toTraceparent() {
+        return VERSION + '-' + traceId + '-' + spanId + '-' + SAMPLED;
+    }
+
+    private static String hex(long value) {
+        String s = Long.toHexString(value);
+        return s.length() == 16 ? s : "0".repeat(16 - s.length()) + s;
+    }
+
+    private static boolean isHex(String s, int from, int to) {
+        for (int i = from; i < to; i++) {
+            char c = s.charAt(i);
+            if ((c < '0' || c > '9') && (c < 'a' || c > 'f')) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,251 @@
+package ir.msob.jima.core.commons.tracing;
+
+import ir.msob.jima.core.commons.logger.Logger;
+import ir.msob.jima.core.commons.logger.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.context.ContextView;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Creates the {@link Span}s of the service hooks, repository operations and channel messages, and hands them to
+ * the {@link SpanCollector}s when they end.
+ * <p>
+ * Within a reactive pipeline, the current span is carried by the Reactor context: a span started by
+ * {@link #trace} is the parent of the spans started by the publishers it subscribes to. Across channels, the
+ * context is carried by the {@code traceparent} entry of the message metadata ({@link TraceContext#TRACEPARENT}),
+ * written by the sender and read by {@link #receive}.
+ * <p>
+ * The tracer is installed process-wide by {@link #start}, so that the default methods of the resource and
+ * listener interfaces can reach it.
+ */
+public final class Tracer implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(Tracer.class);
+
+    /**
+     * The Reactor context key of the current {@link TraceContext}.
+     */
+    public static final Class<TraceContext> CONTEXT_KEY = TraceContext.class;
+
+    /**
+     * The span attribute holding the number of messages of a batch, named after the OpenTelemetry convention.
+     */
+    public static final String BATCH_SIZE_ATTRIBUTE = "messaging.batch.message_count";
+
+    private static volatile Tracer current;
+
+    private final List<SpanCollector> collectors;
+
+    private Tracer(List<? extends SpanCollector> collectors) {
+        this.collectors = List.copyOf(collectors);
+    }
+
+    /**
+     * Starts a tracer and installs it, closing the previously started one if any.
+     *
+     * @param collectors the collectors of the finished spans
+     * @return the started tracer
+     */
+    public static Tracer start(List<? extends SpanCollector> collectors) {
+        Tracer tracer = new Tracer(collectors);
+        Tracer previous;
+        synchronized (Tracer.class) {
+            previous = current;
+            current = tracer;
+        }
+        if (previous != null) {
+            previous.close();
+        }
+        return tracer;
+    }
+
+    /**
+     * Returns the started tracer.
+     *
+     * @return the tracer, or null when tracing is disabled
+     */
+    public static Tracer current() {
+        return current;
+    }
+
+    /**
+     * Returns the current trace context of a reactive pipeline.
+     *
+     * @param context the Reactor context
+     * @return the context of the current span, or null if there is none
+     */
+    public static TraceContext currentContext(ContextView context) {
+        return context.getOrDefault(CONTEXT_KEY, null);
+    }
+
+    /**
+     * Starts a span. It must be ended by one of the {@code end} methods of the span.
+     *
+     * @param name   the span name, which is also the stage of the latency breakdown
+     * @param kind   the span kind
+     * @param parent the parent context, or null to start a new trace
+     * @return the started span
+     */
+    public Span startSpan(String name, SpanKind kind, TraceContext parent) {
+        return new Span(this, name, kind, parent);
+    }
+
+    /**
+     * Traces every subscription to a {@link Mono}, as a child of the current span of the subscriber.
+     *
+     * @param name the span name
+     * @param kind the span kind
+     * @param mono the traced publisher
+     * @param <T>  the element type
+     * @return the traced publisher
+     */
+    public <T> Mono<T> trace(String name, SpanKind kind, Mono<T> mono) {
+        return traceMono(name, kind, null, span -> mono);
+    }
+
+    /**
+     * Traces every subscription to a {@link Flux}, as a child of the current span of the subscriber.
+     *
+     * @param name the span name
+     * @param kind the span kind
+     * @param flux the traced publisher
+     * @param <T>  the element type
+     * @return the traced publisher
+     */
+    public <T> Flux<T> trace(String name, SpanKind kind, Flux<T> flux) {
+        return traceFlux(name, kind, null, span -> flux);
+    }
+
+    /**
+     * Traces every subscription to a {@link Mono} created by {@code body}, which receives the started span (for
+     * instance to set attributes, or to write its context into an outgoing message).
+     *
+     * @param name     the span name
+     * @param kind     the span kind
+     * @param fallback the parent context used when the subscriber has no current span, may be null
+     * @param body     creates the traced publisher
+     * @param <T>      the element type
+     * @return the traced publisher
+     */
+    public <T> Mono<T> traceMono(String name, SpanKind kind, TraceContext fallback, Function<Span, Mono<T>> body) {
+        return Mono.deferContextual(context -> {
+            Span span = startSpan(name, kind, context.getOrDefault(CONTEXT_KEY, fallback));
+            return subscribe(span, body);
+        });
+    }
+
+    /**
+     * Traces every subscription to a {@link Flux} created by {@code body}, which receives the started span.
+     *
+     * @param name     the span name
+     * @param kind     the span kind
+     * @param fallback the parent context used when the subscriber has no current span, may be null
+     * @param body     creates the traced publisher
+     * @param <T>      the element type
+     * @return the traced publisher
+     */
+    public <T> Flux<T> traceFlux(String name, SpanKind kind, TraceContext fallback, Function<Span, Flux<T>> body) {
+        return Flux.deferContextual(context -> {
+            Span span = startSpan(name, kind, context.getOrDefault(CONTEXT_KEY, fallback));
+            Flux<T> flux;
+            try {
+                flux = body.apply(span);
+            } catch (RuntimeException e) {
+                span.end(e);
+                return Flux.error(e);
+            }
+            return flux.doOnComplete(span::end)
+                    .doOnError(span::end)
+                    .doOnCancel(() -> span.end(SpanStatus.CANCELLED, null))
+                    .contextWrite(c -> c.put(CONTEXT_KEY, span.getContext()));
+        });
+    }
+
+    /**
+     * Traces the handling of a message received from a channel, as a child of the span that sent it.
+     *
+     * @param name       the span name
+     * @param metadata   the metadata of the received message, holding the context of the sender
+     * @param processing the handling of the message
+     * @param <T>        the element type
+     * @return the traced handling
+     */
+    public <T> Mono<T> receive(String name, Map<String, ? extends Serializable> metadata, Mono<T> processing) {
+        TraceContext remote = metadata != null ? TraceContext.parse(metadata.get(TraceContext.TRACEPARENT)) : null;
+        return Mono.deferContextual(context -> {
+            TraceContext parent = remote != null ? remote : context.getOrDefault(CONTEXT_KEY, null);
+            return subscribe(startSpan(name, SpanKind.CONSUMER, parent), span -> processing);
+        });
+    }
+
+    /**
+     * Traces the handling of a batch of messages received from a channel as one span, a child of the span that
+     * sent the first message, and linked to the spans that sent the others.
+     *
+     * @param name       the span name
+     * @param metadata   the metadata of the received messages, holding the contexts of their senders
+     * @param processing the handling of the messages
+     * @param <T>        the element type
+     * @return the traced handling
+     */
+    public <T> Mono<T> receiveAll(String name, List<? extends Map<String, ? extends Serializable>> metadata, Mono<T> processing) {
+        List<TraceContext> remotes = new ArrayList<>(metadata.size());
+        for (Map<String, ? extends Serializable> messageMetadata : metadata) {
+            TraceContext remote = messageMetadata != null ? TraceContext.parse(messageMetadata.get(TraceContext.TRACEPARENT)) : null;
+            if (remote != null && !remotes.contains(remote)) {
+                remotes.add(remote);
+            }
+        }
+        return Mono.deferContextual(context -> {
+            TraceContext parent = !remotes.isEmpty() ? remotes.getFirst() : context.getOrDefault(CONTEXT_KEY, null);
+            Span span = startSpan(name, SpanKind.CONSUMER, parent)
+                    .setAttribute(BATCH_SIZE_ATTRIBUTE, metadata.size());
+            for (int i = 1; i < remotes.size(); i++) {
+                span.addLink(remotes.get(i));
+            }
+            return subscribe(span, s -> processing);
+        });
+    }
+
+    private static <T> Mono<T> subscribe(Span span, Function<Span, Mono<T>> body) {
+        Mono<T> mono;
+        try {
+            mono = body.apply(span);
+        } catch (RuntimeException e) {
+            span.end(e);
+            return Mono.error(e);
+        }
+        return mono.doOnSuccess(value -> span.end())
+                .doOnError(span::end)
+                .doOnCancel(() -> span.end(SpanStatus.CANCELLED, null))
+                .contextWrite(c -> c.put(CONTEXT_KEY, span.getContext()));
+    }
+
+    void finished(Span span) {
+        for (SpanCollector collector : collectors) {
+            try {
+                collector.collect(span);
+            } catch (RuntimeException e) {
+                logger.warn("Span collector {} failed: {}", collector.getClass().getName(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Uninstalls this tracer. Spans ending afterwards are still collected.
+     */
+    @Override
+    public void close() {
+        synchronized (Tracer.class) {
+            if (current == this) {
+                current = null;
+            }
+        }
+    }
+}
@@ -1,39 +1,151 @@
 package ir.msob.jima.core.commons.util;
 
-import java.util.regex.Matcher;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Utility class for preparing messages with placeholders and parameters.
+ * <p>
+ * Messages are formatted in a single pass: each template is parsed once into its literal parts (cached,
+ * templates are usually string constants) and the parts and parameters are appended to a reused
+ * thread-local {@link StringBuilder}. Escaping follows SLF4J: {@code \{}} is a literal {@code {}} and
+ * {@code \\{}} is a literal backslash followed by a placeholder.
  */
 public final class MessageUtil {
 
+    private static final String PLACEHOLDER = "{}";
+    private static final char ESCAPE = '\\';
+    private static final int MAX_CACHED_TEMPLATES = 2048;
+    private static final int MAX_RETAINED_CAPACITY = 4096;
+
+    private static final Map<String, Template> TEMPLATES = new ConcurrentHashMap<>();
+    private static final ThreadLocal<Buffer> BUFFER = ThreadLocal.withInitial(Buffer::new);
+
     private MessageUtil() {
     }
 
     /**
      * Prepares a formatted message by replacing '{}' placeholders with the provided parameters.
+     * Placeholders without a parameter are kept as is, extra parameters are ignored.
      *
      * @param message The message template with '{}' placeholders.
      * @param params  The parameters to replace placeholders in the message.
      * @return The formatted message with replaced placeholders.
      */
     public static String prepareMessage(String message, Object... params) {
-        if (message == null || params == null) {
+        if (message == null || params == null || params.length == 0) {
             return message;
         }
+        Template template = template(message);
+        if (template.placeholders() == 0) {
+            return template.parts()[0];
+        }
+
+        Buffer buffer = BUFFER.get();
+        // a parameter's toString may format a message itself: use a fresh builder then
+        StringBuilder sb = buffer.inUse ? new StringBuilder(message.length() + 16 * params.length) : buffer.acquire();
+        try {
+            template.appendTo(sb, params);
+            return sb.toString();
+        } finally {
+            if (sb == buffer.builder) buffer.release();
+        }
+    }
+
+    /**
+     * Appends the formatted message to the given builder, without any intermediate string.
+     *
+     * @param sb      The builder to append to.
+     * @param message The message template with '{}' placeholders.
+     * @param params  The parameters to replace placeholders in the message.
+     * @return The builder.
+     */
+    public static StringBuilder appendMessage(StringBuilder sb, String message, Object... params) {
+        if (message == null || params == null || params.length == 0) {
+            return sb.append(message);
+        }
+        template(message).appendTo(sb, params);
+        return sb;
+    }
+
+    private static Template template(String message) {
+        // String caches its hash code and equals() short-circuits on identity, so lookups of constant
+        // templates cost one hash table probe
+        Template template = TEMPLATES.get(message);
+        if (template == null) {
+            template = Template.parse(message);
+            if (TEMPLATES.size() < MAX_CACHED_TEMPLATES) {
+                TEMPLATES.putIfAbsent(message, template);
+            }
+        }
+        return template;
+    }
+
+    /**
+     * A parsed template: {@code parts.length - 1} placeholders, {@code parts[i]} is the (unescaped)
+     * literal before placeholder {@code i}.
+     */
+    private record Template(String[] parts) {
+
+        static Template parse(String message) {
+            List<String> parts = new ArrayList<>();
+            StringBuilder literal = new StringBuilder();
+            int from = 0;
+            int index;
+            while ((index = message.indexOf(PLACEHOLDER, from)) >= 0) {
+                boolean escaped = index > 0 && message.charAt(index - 1) == ESCAPE;
+                boolean escapedEscape = escaped && index > 1 && message.charAt(index - 2) == ESCAPE;
+                if (escaped && !escapedEscape) {
+                    // \{} -> literal {}
+                    literal.append(message, from, index - 1).append(PLACEHOLDER);
+                } else {
+                    // \\{} -> literal \ followed by a placeholder
+                    literal.append(message, from, escapedEscape ? index - 1 : index);
+                    parts.add(literal.toString());
+                    literal.setLength(0);
+                }
+                from = index + PLACEHOLDER.length();
+            }
+            literal.append(message, from, message.length());
+            parts.add(literal.toString());
+            return new Template(parts.toArray(new String[0]));
+        }
 
-        for (Object param : params) {
-            String value = (param == null) ? "null" : String.valueOf(param);
+        int placeholders() {
+            return parts.length - 1;
+        }
 
-            // IMPORTANT:
-            // quoteReplacement prevents IllegalArgumentException
-            // when value contains '$' or '\'
-            message = message.replaceFirst(
-                    "\\{}",
-                    Matcher.quoteReplacement(value)
-            );
+        void appendTo(StringBuilder sb, Object[] params) {
+            sb.append(parts[0]);
+            for (int i = 1; i < parts.length; i++) {
+                if (i <= params.length) {
+                    sb.append(params[i - 1]);
+                } else {
+                    sb.append(PLACEHOLDER);
+                }
+                sb.append(parts[i]);
+            }
         }
+    }
+
+    private static final class Buffer {
+        private StringBuilder builder = new StringBuilder(256);
+        private boolean inUse;
 
-        return message;
+        StringBuilder acquire() {
+            inUse = true;
+            builder.setLength(0);
+            return builder;
+        }
+
+        void release() {
+            inUse = false;
+            // do not retain the memory of an occasional huge message
+            if (builder.capacity() > MAX_RETAINED_CAPACITY) {
+                builder = new StringBuilder(256);
+            }
+        }
     }
 }
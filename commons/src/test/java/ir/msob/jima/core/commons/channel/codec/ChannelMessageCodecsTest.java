@@ -0,0 +1,54 @@
+package ir.msob.jima.core.commons.channel.codec;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ir.msob.jima.core.commons.exception.runtime.CommonRuntimeException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChannelMessageCodecsTest {
+
+    private final ChannelMessageCodecs codecs = new ChannelMessageCodecs(new ObjectMapper());
+    private final Map<String, Object> message = Map.of("key", "value", "items", List.of(1, 2, 3));
+
+    @Test
+    void testBuiltInCodecsRoundTrip() throws Exception {
+        assertEquals(List.of(ChannelMessageCodecs.JSON, ChannelMessageCodecs.SMILE, ChannelMessageCodecs.CBOR), List.copyOf(codecs.getCodecs().keySet()));
+
+        for (ChannelMessageCodec codec : codecs.getCodecs().values()) {
+            byte[] payload = codec.encode(message);
+            assertEquals(message, codec.decode(payload, new TypeReference<Map<String, Object>>() {
+            }));
+        }
+    }
+
+    @Test
+    void testJsonIsTheDefaultAndTheFormatOfTheStrings() throws Exception {
+        ChannelMessageCodec json = codecs.get(null);
+
+        assertEquals(ChannelMessageCodecs.JSON, json.getName());
+        assertEquals(new ObjectMapper().writeValueAsString(message), new String(json.encode(message), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testBinaryCodecsAreSmallerThanJson() throws Exception {
+        List<Map<String, Object>> dtos = IntStream.range(0, 50)
+                .mapToObj(i -> Map.<String, Object>of("id", 1_000_000L + i, "name", "name" + i, "enabled", true))
+                .toList();
+        int json = codecs.get(ChannelMessageCodecs.JSON).encode(dtos).length;
+
+        assertTrue(codecs.get("SMILE").encode(dtos).length < json);
+        assertTrue(codecs.get(ChannelMessageCodecs.CBOR).encode(dtos).length < json);
+    }
+
+    @Test
+    void testUnknownCodec() {
+        assertThrows(CommonRuntimeException.class, () -> codecs.get("avro"));
+    }
+}
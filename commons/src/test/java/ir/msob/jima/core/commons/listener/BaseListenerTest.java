@@ -2,15 +2,21 @@ package ir.msob.jima.core.commons.listener;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import ir.msob.jima.core.commons.channel.ChannelMessage;
+import ir.msob.jima.core.commons.channel.message.IdsMessage;
 import ir.msob.jima.core.commons.client.BaseAsyncClient;
 import ir.msob.jima.core.commons.resource.listener.BaseListener;
 import ir.msob.jima.core.commons.security.BaseUser;
 import ir.msob.jima.core.commons.security.BaseUserService;
 import ir.msob.jima.core.commons.shared.ModelType;
 import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertNull;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
 
 class BaseListenerTest {
 
@@ -47,5 +53,154 @@ class BaseListenerTest {
         assertEquals(channelMessageReq.getMetadata(), preparedChannelMessage.getMetadata());
         assertEquals(status, preparedChannelMessage.getStatus());
     }
-}
 
+    private static BaseListener<String, BaseUser, ?, ?> listener(BaseAsyncClient asyncClient) {
+        return new BaseListener<>() {
+            @Override
+            public ObjectMapper getObjectMapper() {
+                return null;
+            }
+
+            @Override
+            public BaseUserService getUserService() {
+                return null;
+            }
+
+            @Override
+            public BaseAsyncClient getAsyncClient() {
+                return asyncClient;
+            }
+        };
+    }
+
+    private static ChannelMessage<BaseUser, ModelType> messageWithCallbacks(String... channels) {
+        List<ChannelMessage<BaseUser, ? extends ModelType>> callbacks = new ArrayList<>();
+        for (String channel : channels) {
+            callbacks.add(ChannelMessage.<BaseUser, ModelType>builder().channel(channel).build());
+        }
+        ChannelMessage<BaseUser, ModelType> message = ChannelMessage.<BaseUser, ModelType>builder().build();
+        message.setCallbacks(callbacks);
+        return message;
+    }
+
+    private static IdsMessage<String> ids(String... ids) {
+        IdsMessage<String> message = new IdsMessage<>();
+        message.setIds(List.of(ids));
+        return message;
+    }
+
+    /**
+     * An async client recording the messages sent, by channel, and the "tenant" of their Reactor context, failing
+     * the channel named "failing" and sending slowly to the channel named "slow".
+     */
+    private static class RecordingAsyncClient implements BaseAsyncClient {
+        private final Map<String, List<ChannelMessage<?, ?>>> sent = new ConcurrentHashMap<>();
+        private final Set<String> batched = ConcurrentHashMap.newKeySet();
+        private final List<String> tenants = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public <USER extends BaseUser, DATA extends ModelType> Mono<Void> send(String channel, ChannelMessage<USER, DATA> channelMessage, USER user) {
+            return send(channel, channelMessage);
+        }
+
+        @Override
+        public <USER extends BaseUser, DATA extends ModelType> Mono<Void> send(String channel, ChannelMessage<USER, DATA> channelMessage) {
+            if ("failing".equals(channel)) {
+                return Mono.error(new IllegalStateException("failed"));
+            }
+            return Mono.deferContextual(context -> {
+                        context.<String>getOrEmpty("tenant").ifPresent(tenants::add);
+                        return Mono.delay(Duration.ofMillis("slow".equals(channel) ? 1000 : 5));
+                    })
+                    .doOnNext(tick -> sent.computeIfAbsent(channel, k -> Collections.synchronizedList(new ArrayList<>())).add(channelMessage))
+                    .then();
+        }
+
+        @Override
+        public <USER extends BaseUser> Mono<Void> send(String channel, Map<String, Object> channelMessage, USER user) {
+            return Mono.error(new UnsupportedOperationException());
+        }
+
+        @Override
+        public <USER extends BaseUser, DATA extends ModelType> Mono<Void> sendAll(String channel, Flux<ChannelMessage<USER, DATA>> channelMessages) {
+            batched.add(channel);
+            return BaseAsyncClient.super.sendAll(channel, channelMessages);
+        }
+    }
+
+    @Test
+    void testSendCallbacksGroupsTheCallbacksOfAChannel() {
+        RecordingAsyncClient asyncClient = new RecordingAsyncClient();
+        BaseUser user = new BaseUser();
+
+        listener(asyncClient).sendCallbacks(messageWithCallbacks("a", "b", "a"), ids("1", "2"), 200, user)
+                .block(Duration.ofSeconds(5));
+
+        assertEquals(2, asyncClient.sent.get("a").size());
+        assertEquals(1, asyncClient.sent.get("b").size());
+        assertEquals(Set.of("a"), asyncClient.batched);
+        ChannelMessage<?, ?> callback = asyncClient.sent.get("a").getFirst();
+        assertSame(user, callback.getUser());
+        assertEquals(200, callback.getStatus());
+        // the data is built once and shared by the callbacks
+        assertInstanceOf(IdsMessage.class, callback.getData());
+        assertSame(callback.getData(), asyncClient.sent.get("b").getFirst().getData());
+    }
+
+    @Test
+    void testSendCallbacksIsColdAndRunsInTheContextOfTheSubscriber() throws InterruptedException {
+        RecordingAsyncClient asyncClient = new RecordingAsyncClient();
+
+        Mono<Void> sending = listener(asyncClient).sendCallbacks(messageWithCallbacks("a", "b"), ids("1"), 200, new BaseUser());
+        Thread.sleep(50);
+        assertTrue(asyncClient.sent.isEmpty());
+
+        sending.contextWrite(context -> context.put("tenant", "t1")).block(Duration.ofSeconds(5));
+        assertEquals(Set.of("a", "b"), asyncClient.sent.keySet());
+        assertEquals(List.of("t1", "t1"), asyncClient.tenants);
+    }
+
+    @Test
+    void testSendCallbacksIsCancelledByATimeout() {
+        RecordingAsyncClient asyncClient = new RecordingAsyncClient();
+
+        Mono<Void> sending = listener(asyncClient).sendCallbacks(messageWithCallbacks("slow"), ids("1"), 200, new BaseUser())
+                .timeout(Duration.ofMillis(10));
+
+        assertThrows(RuntimeException.class, () -> sending.block(Duration.ofSeconds(5)));
+        assertTrue(asyncClient.sent.isEmpty());
+    }
+
+    @Test
+    void testTypedCallbacksAreSentWithoutWaiting() {
+        RecordingAsyncClient asyncClient = new RecordingAsyncClient();
+
+        listener(asyncClient).sendCallbackIds(messageWithCallbacks("a"), List.of("1"), 200, new BaseUser());
+
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!asyncClient.sent.containsKey("a") && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+        assertTrue(asyncClient.sent.containsKey("a"));
+    }
+
+    @Test
+    void testSendCallbacksReportsTheErrorAfterTheOtherChannels() {
+        RecordingAsyncClient asyncClient = new RecordingAsyncClient();
+
+        Mono<Void> sending = listener(asyncClient).sendCallbacks(messageWithCallbacks("failing", "a", "b"), ids("1"), 500, new BaseUser());
+
+        assertThrows(IllegalStateException.class, () -> sending.block(Duration.ofSeconds(5)));
+        assertEquals(Set.of("a", "b"), asyncClient.sent.keySet());
+    }
+
+    @Test
+    void testSendCallbacksWithoutCallbacks() {
+        RecordingAsyncClient asyncClient = new RecordingAsyncClient();
+
+        listener(asyncClient).sendCallbacks(ChannelMessage.<BaseUser, ModelType>builder().build(), ids("1"), 200, new BaseUser()).block();
+        listener(asyncClient).sendCallbackIds(ChannelMessage.<BaseUser, ModelType>builder().build(), List.of("1"), 200, new BaseUser());
+
+        assertTrue(asyncClient.sent.isEmpty());
+    }
+}
@@ -0,0 +1,221 @@
+package ir.msob.jima.core.commons.logger;
+
+import ir.msob.jima.core.commons.properties.LogProperties;
+import org.apache.commons.logging.Log;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class AsyncLogPipelineTest {
+
+    private final List<String> written = new CopyOnWriteArrayList<>();
+    private final List<String> threads = new CopyOnWriteArrayList<>();
+    private CountDownLatch gate;
+    private Log log;
+    private Logger logger;
+    private AsyncLogPipeline pipeline;
+
+    @BeforeEach
+    void setUp() {
+        gate = new CountDownLatch(0);
+        log = mock(Log.class);
+        when(log.isDebugEnabled()).thenReturn(true);
+        when(log.isInfoEnabled()).thenReturn(true);
+        when(log.isWarnEnabled()).thenReturn(true);
+        when(log.isErrorEnabled()).thenReturn(true);
+        doAnswer(invocation -> {
+            gate.await(5, TimeUnit.SECONDS);
+            threads.add(Thread.currentThread().getName());
+            written.add(String.valueOf(invocation.getArgument(0, Object.class)));
+            return null;
+        }).when(log).info(any());
+        doAnswer(invocation -> written.add(String.valueOf(invocation.getArgument(0, Object.class))))
+                .when(log).debug(any());
+        doAnswer(invocation -> written.add(String.valueOf(invocation.getArgument(0, Object.class))))
+                .when(log).warn(any());
+        logger = new Logger(log);
+    }
+
+    @AfterEach
+    void tearDown() {
+        gate.countDown();
+        if (pipeline != null) {
+            pipeline.close();
+        }
+    }
+
+    @Test
+    void start_routesLoggersToConsumerThread_andCloseDrains() {
+        pipeline = AsyncLogPipeline.start(async(1024, LogProperties.OverflowPolicy.BLOCK));
+        assertSame(pipeline, AsyncLogPipeline.current());
+
+        for (int i = 0; i < 100; i++) {
+            logger.info("message {}", i);
+        }
+        pipeline.close();
+
+        assertNull(AsyncLogPipeline.current());
+        assertEquals(100, written.size());
+        assertEquals("message 0", written.get(0));
+        assertEquals("message 99", written.get(99));
+        assertTrue(threads.stream().allMatch("jima-log-async"::equals));
+        assertEquals(100, pipeline.getMetrics().getWritten());
+    }
+
+    @Test
+    void publish_snapshotsVarargsArray() {
+        gate = new CountDownLatch(1);
+        pipeline = AsyncLogPipeline.start(async(16, LogProperties.OverflowPolicy.BLOCK));
+
+        Object[] params = {"before"};
+        logger.info("value {}", params);
+        params[0] = "after";
+        gate.countDown();
+        pipeline.close();
+
+        assertEquals(List.of("value before"), written);
+    }
+
+    @Test
+    void dropDebugFirst_dropsDebugAboveThreshold_andAnyEventWhenFull() throws InterruptedException {
+        gate = new CountDownLatch(1);
+        LogProperties.Async properties = async(8, LogProperties.OverflowPolicy.DROP_DEBUG_FIRST);
+        properties.setThreshold(50);
+        pipeline = AsyncLogPipeline.start(properties);
+
+        // the consumer takes this one and waits on the gate
+        logger.info("first");
+        awaitQueueDepth(0);
+        for (int i = 0; i < 6; i++) {
+            logger.debug("debug {}", i);
+        }
+        for (int i = 0; i < 6; i++) {
+            logger.warn("warn {}", i);
+        }
+        gate.countDown();
+        pipeline.close();
+
+        AsyncLogMetrics metrics = pipeline.getMetrics();
+        assertEquals(List.of("first", "debug 0", "debug 1", "debug 2", "debug 3",
+                "warn 0", "warn 1", "warn 2", "warn 3"), written);
+        assertEquals(4, metrics.getDropped());
+        assertEquals(2, metrics.getDroppedDebug());
+        assertEquals(8, metrics.getMaxQueueDepth());
+    }
+
+    @Test
+    void sample_keepsOneOfSampleRate_andNeverSamplesWarnings() throws InterruptedException {
+        gate = new CountDownLatch(1);
+        LogProperties.Async properties = async(64, LogProperties.OverflowPolicy.SAMPLE);
+        properties.setThreshold(0);
+        properties.setSampleRate(3);
+        pipeline = AsyncLogPipeline.start(properties);
+
+        for (int i = 0; i < 9; i++) {
+            logger.info("info {}", i);
+        }
+        logger.warn("warn");
+        gate.countDown();
+        pipeline.close();
+
+        assertEquals(List.of("info 0", "info 3", "info 6", "warn"), written);
+        assertEquals(6, pipeline.getMetrics().getDropped());
+    }
+
+    @Test
+    void afterClose_loggersWriteSynchronously() {
+        pipeline = AsyncLogPipeline.start(async(16, LogProperties.OverflowPolicy.BLOCK));
+        pipeline.close();
+
+        logger.info("sync {}", 1);
+
+        assertEquals(List.of("sync 1"), written);
+        assertEquals(Thread.currentThread().getName(), threads.get(0));
+    }
+
+    @Test
+    void publish_snapshotsTheMdc_andTheConsumerRestoresIt() {
+        gate = new CountDownLatch(1);
+        List<String> contexts = new CopyOnWriteArrayList<>();
+        doAnswer(invocation -> contexts.add(MDC.get("request"))).when(log).error(any());
+        pipeline = AsyncLogPipeline.start(async(16, LogProperties.OverflowPolicy.BLOCK));
+
+        MDC.put("request", "r1");
+        try {
+            logger.error("first");
+            MDC.put("request", "r2");
+            logger.error("second");
+        } finally {
+            MDC.remove("request");
+        }
+        logger.error("third");
+        gate.countDown();
+        pipeline.close();
+
+        assertEquals(Arrays.asList("r1", "r2", null), contexts);
+    }
+
+    @Test
+    void close_writesTheStatementsRacingWithIt() throws InterruptedException {
+        pipeline = AsyncLogPipeline.start(async(64, LogProperties.OverflowPolicy.BLOCK));
+        int producers = 4;
+        int statements = 2_000;
+        CountDownLatch started = new CountDownLatch(producers);
+        List<Thread> producerThreads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            Thread thread = new Thread(() -> {
+                started.countDown();
+                for (int i = 0; i < statements; i++) {
+                    logger.debug("debug {}", i);
+                }
+            });
+            thread.start();
+            producerThreads.add(thread);
+        }
+        started.await(5, TimeUnit.SECONDS);
+        pipeline.close();
+        for (Thread thread : producerThreads) {
+            thread.join(TimeUnit.SECONDS.toMillis(10));
+        }
+
+        assertEquals(producers * statements, written.size());
+    }
+
+    @Test
+    void disabledLevel_isNotPublished() {
+        pipeline = AsyncLogPipeline.start(async(16, LogProperties.OverflowPolicy.BLOCK));
+
+        logger.trace("trace {}", 1);
+        pipeline.close();
+
+        verify(log, never()).trace(any());
+        assertEquals(0, pipeline.getMetrics().getPublished());
+    }
+
+    private void awaitQueueDepth(int depth) throws InterruptedException {
+        for (int i = 0; i < 500 && pipeline.getMetrics().getQueueDepth() != depth; i++) {
+            Thread.sleep(10);
+        }
+        // give the consumer the time to enter the underlying log
+        Thread.sleep(50);
+    }
+
+    private static LogProperties.Async async(int bufferSize, LogProperties.OverflowPolicy policy) {
+        LogProperties.Async properties = new LogProperties.Async();
+        properties.setBufferSize(bufferSize);
+        properties.setOverflowPolicy(policy);
+        return properties;
+    }
+}
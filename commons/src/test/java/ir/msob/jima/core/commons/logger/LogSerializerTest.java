@@ -1,8 +1,12 @@
 package ir.msob.jima.core.commons.logger;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import ir.msob.jima.core.commons.logger.loggable.*;
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
+import java.io.StringWriter;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
@@ -206,6 +210,67 @@ class LogSerializerTest {
                 () -> "Expected collection elements to be blocked by owner depth, got: " + out);
     }
 
+    @Test
+    void nestedLoggable_keyValue_shouldRenderChildInBraces() {
+        ParentWithSibling p = new ParentWithSibling();
+        String out = (String) LogSerializer.serialize(p);
+
+        assertEquals("child={name=child}, after=x", out);
+    }
+
+    @Test
+    void serializeTo_shouldAppendSameOutputAsSerialize() {
+        StringBuilder sb = new StringBuilder("prefix ");
+
+        assertTrue(LogSerializer.serializeTo(new FieldConfigLoggable(), sb));
+        assertEquals("prefix " + LogSerializer.serialize(new FieldConfigLoggable()), sb.toString());
+
+        sb.setLength(0);
+        assertTrue(LogSerializer.serializeTo(new JsonLoggable(), sb));
+        assertEquals("{\"name\":\"json\",\"value\":5}", sb.toString());
+    }
+
+    @Test
+    void serializeTo_nonLoggable_shouldLeaveBuilderUntouched() {
+        StringBuilder sb = new StringBuilder("x");
+
+        assertFalse(LogSerializer.serializeTo(new PlainObject(), sb));
+        assertFalse(LogSerializer.serializeTo(List.of(new PlainObject()), sb));
+        assertEquals("x", sb.toString());
+    }
+
+    @Test
+    void serializeTo_jsonGenerator_shouldWriteStructure_forKeyValueFormat() throws IOException {
+        StringWriter writer = new StringWriter();
+        try (JsonGenerator generator = new ObjectMapper().createGenerator(writer)) {
+            generator.writeStartObject();
+            generator.writeFieldName("arg");
+            LogSerializer.serializeTo(new FieldConfigLoggable(), generator);
+            generator.writeFieldName("plain");
+            LogSerializer.serializeTo(new PlainObject(), generator);
+            generator.writeEndObject();
+        }
+
+        String json = writer.toString();
+        assertTrue(json.contains("\"alias\":\"value\""), json);
+        assertTrue(json.contains("\"password\":\"****56\""), json);
+        assertTrue(json.contains("\"items\":3"), json);
+        assertTrue(json.contains("\"nullable\":null"), json);
+        assertTrue(json.contains("\"plain\":\""), json);
+    }
+
+    @Test
+    void serializeTo_jsonGenerator_shouldMarkCircular() throws IOException {
+        Circular c = new Circular();
+        c.self = c;
+        StringWriter writer = new StringWriter();
+        try (JsonGenerator generator = new ObjectMapper().createGenerator(writer)) {
+            LogSerializer.serializeTo(c, generator);
+        }
+
+        assertEquals("{\"self\":\"[CIRCULAR]\"}", writer.toString());
+    }
+
     @Test
     void mapContainingLoggableObjects_shouldProcessValues_whenFixed() {
         class WithMap {
@@ -222,6 +287,28 @@ class LogSerializerTest {
         // this test is a placeholder for when Map processing is implemented
     }
 
+    @Test
+    void cacheMetrics_shouldCountHitsMissesAndSize() {
+        @Loggable
+        class Fresh {
+            String v = "x";
+        }
+        ClassCacheMetrics classInfo = LogSerializer.getCacheMetrics().stream()
+                .filter(metrics -> metrics.getName().equals("classInfo"))
+                .findFirst()
+                .orElseThrow();
+        long misses = classInfo.getMisses();
+        long hits = classInfo.getHits();
+
+        assertEquals("v=x", LogSerializer.serialize(new Fresh()));
+        assertEquals("v=x", LogSerializer.serialize(new Fresh()));
+
+        assertEquals(misses + 1, classInfo.getMisses());
+        assertTrue(classInfo.getHits() > hits);
+        assertTrue(classInfo.getSize() >= 1);
+        assertEquals(3, LogSerializer.getCacheMetrics().size());
+    }
+
     static class PlainObject {
         String name = "plain";
     }
@@ -285,6 +372,12 @@ class LogSerializerTest {
     // NEW: complex scenarios
     // -------------------------
 
+    @Loggable
+    static class ParentWithSibling {
+        Child child = new Child();
+        String after = "x";
+    }
+
     @Loggable
     static class Circular {
         Circular self;
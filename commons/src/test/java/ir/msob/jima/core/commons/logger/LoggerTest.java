@@ -5,9 +5,13 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 
+import java.util.concurrent.atomic.AtomicBoolean;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.verify;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
 
 class LoggerTest {
 
@@ -17,6 +21,12 @@ class LoggerTest {
     @BeforeEach
     void setUp() {
         log = mock(Log.class);
+        when(log.isTraceEnabled()).thenReturn(true);
+        when(log.isDebugEnabled()).thenReturn(true);
+        when(log.isInfoEnabled()).thenReturn(true);
+        when(log.isWarnEnabled()).thenReturn(true);
+        when(log.isErrorEnabled()).thenReturn(true);
+        when(log.isFatalEnabled()).thenReturn(true);
         logger = new Logger(log);
     }
 
@@ -69,6 +79,15 @@ class LoggerTest {
         verify(log).error(exception);
     }
 
+    @Test
+    void testErrorWithThrowableWhenDisabled() {
+        when(log.isErrorEnabled()).thenReturn(false);
+
+        logger.error(new RuntimeException("Test Exception"));
+
+        verify(log, never()).error(any());
+    }
+
     @Test
     void testFatalWithoutException() {
         String message = "Fatal message without exception";
@@ -103,6 +122,25 @@ class LoggerTest {
         assertEquals("Debug message with parameters: param1 and param2", captor.getValue());
     }
 
+    @Test
+    void testOneParamOverloadsSpreadAnArrayParameter() {
+        // typed as Object, as parameters handed through are: the one parameter overloads are called
+        Object params = new Object[]{"param1", 2};
+        Object single = new Object[]{null};
+
+        logger.trace("Trace: {} and {}", params);
+        logger.info("Info: {} and {}", params);
+        logger.warn("Warn: {} and {}", params);
+        logger.error("Error: {} and {}", params);
+        logger.info("Info: {}", single);
+
+        verify(log).trace("Trace: param1 and 2");
+        verify(log).info("Info: param1 and 2");
+        verify(log).warn("Warn: param1 and 2");
+        verify(log).error("Error: param1 and 2");
+        verify(log).info("Info: null");
+    }
+
     @Test
     void testDebugWithNullParams() {
         String message = "Debug message with null parameters: {} and {}";
@@ -113,4 +151,47 @@ class LoggerTest {
         verify(log).debug(captor.capture());
         assertEquals("Debug message with null parameters: null and null", captor.getValue());
     }
+
+    @Test
+    void testDisabledLevelSkipsSerializationAndFormatting() {
+        when(log.isDebugEnabled()).thenReturn(false);
+        AtomicBoolean serialized = new AtomicBoolean();
+        LoggableObject param = () -> {
+            serialized.set(true);
+            return "param";
+        };
+
+        logger.debug("Debug message: {}", param);
+        logger.debug("Debug message: {} and {}", param, param);
+        logger.debug("Debug message: {}", new Object[]{param});
+
+        assertFalse(serialized.get());
+        verify(log, never()).debug(anyString());
+    }
+
+    @Test
+    void testSupplierParamsAreEvaluatedOnlyWhenEnabled() {
+        when(log.isTraceEnabled()).thenReturn(false);
+        AtomicBoolean evaluated = new AtomicBoolean();
+
+        logger.trace("Trace message: {}", () -> {
+            evaluated.set(true);
+            return "value";
+        });
+        logger.trace(() -> {
+            evaluated.set(true);
+            return "message";
+        });
+
+        assertFalse(evaluated.get());
+        verify(log, never()).trace(any());
+
+        logger.info("Info message: {} and {}", () -> "param1", () -> 2);
+        logger.info(() -> "Supplied message");
+
+        ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
+        verify(log, times(2)).info(captor.capture());
+        assertEquals("Info message: param1 and 2", captor.getAllValues().get(0));
+        assertEquals("Supplied message", captor.getAllValues().get(1));
+    }
 }
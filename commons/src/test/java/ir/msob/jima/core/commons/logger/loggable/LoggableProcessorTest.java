@@ -0,0 +1,145 @@
+package ir.msob.jima.core.commons.logger.loggable;
+
+import ir.msob.jima.core.processor.loggable.LoggableProcessor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.*;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compiles sample classes with the {@link LoggableProcessor} and checks that the generated serializers log what
+ * the reflective serialization of the same classes logs.
+ */
+class LoggableProcessorTest {
+
+    private static final Map<String, String> SOURCES = Map.of(
+            "Plain", """
+                    @Loggable(format = LogFormat.JSON)
+                    public class Plain {
+                        public String name = "plain";
+                        protected int count = 2;
+                        @LogField(mask = true, maskVisibleChars = 2)
+                        String token = "secret-token";
+                    }
+                    """,
+            "Trivial", """
+                    @Loggable
+                    public class Trivial {
+                        private String name = "trivial";
+                        private boolean active = true;
+                        public String getName() {
+                            return this.name;
+                        }
+                        public boolean isActive() {
+                            return active;
+                        }
+                    }
+                    """,
+            "Point", """
+                    @Loggable
+                    public record Point(int x, int y) {
+                        public Point() {
+                            this(1, 2);
+                        }
+                    }
+                    """,
+            "Computed", """
+                    @Loggable
+                    public class Computed {
+                        private String name = "computed";
+                        public String getName() {
+                            return name.toUpperCase();
+                        }
+                    }
+                    """,
+            "Overriding", """
+                    @Loggable
+                    public class Overriding extends Trivial {
+                        @Override
+                        public String getName() {
+                            return "overridden";
+                        }
+                    }
+                    """);
+
+    @TempDir
+    Path generatedOutput;
+
+    @TempDir
+    Path reflectiveOutput;
+
+    @Test
+    void generatedSerializers_logWhatTheReflectiveSerializationLogs() throws Exception {
+        compile(generatedOutput, true);
+        compile(reflectiveOutput, false);
+
+        try (URLClassLoader generated = loader(generatedOutput); URLClassLoader reflective = loader(reflectiveOutput)) {
+            for (String name : List.of("Plain", "Trivial", "Point")) {
+                LoggableSerializer<?> serializer = (LoggableSerializer<?>) generated.loadClass("sample." + name + "LoggableSerializer")
+                        .getDeclaredConstructor().newInstance();
+                LoggableSerializers.register(serializer);
+                Object expected = LogSerializer.serialize(instance(reflective, name));
+
+                assertEquals(expected, LogSerializer.serialize(instance(generated, name)), name);
+            }
+        }
+    }
+
+    @Test
+    void getterNotReturningTheField_isLeftToReflection() throws Exception {
+        compile(generatedOutput, true);
+
+        assertFalse(Files.exists(generatedOutput.resolve("sample/ComputedLoggableSerializer.class")));
+        assertFalse(Files.exists(generatedOutput.resolve("sample/OverridingLoggableSerializer.class")));
+        assertTrue(Files.exists(generatedOutput.resolve("sample/TrivialLoggableSerializer.class")));
+        try (URLClassLoader loader = loader(generatedOutput)) {
+            String out = String.valueOf(LogSerializer.serialize(instance(loader, "Computed")));
+            assertTrue(out.contains("computed"), out);
+        }
+    }
+
+    private static void compile(Path output, boolean process) throws IOException {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, null)) {
+            fileManager.setLocationFromPaths(StandardLocation.CLASS_OUTPUT, List.of(output));
+            fileManager.setLocationFromPaths(StandardLocation.SOURCE_OUTPUT, List.of(output));
+            List<JavaFileObject> sources = new ArrayList<>();
+            SOURCES.forEach((name, body) -> sources.add(source(name, body)));
+            List<String> options = new ArrayList<>(List.of("-classpath", System.getProperty("java.class.path")));
+            if (!process) {
+                options.add("-proc:none");
+            }
+            JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, null, options, null, sources);
+            task.setProcessors(List.of(new LoggableProcessor()));
+            assertTrue(task.call());
+        }
+    }
+
+    private static JavaFileObject source(String name, String body) {
+        String content = "package sample;\n\nimport " + Loggable.class.getPackageName() + ".*;\n\n" + body;
+        return new SimpleJavaFileObject(Path.of("sample", name + ".java").toUri(), JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return content;
+            }
+        };
+    }
+
+    private URLClassLoader loader(Path output) throws IOException {
+        return new URLClassLoader(new URL[]{output.toUri().toURL()}, getClass().getClassLoader());
+    }
+
+    private static Object instance(ClassLoader loader, String name) throws ReflectiveOperationException {
+        return loader.loadClass("sample." + name).getDeclaredConstructor().newInstance();
+    }
+}
@@ -0,0 +1,71 @@
+package ir.msob.jima.core.commons.logger.loggable;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoggableSerializersTest {
+
+    @Test
+    void get_returnsRegisteredSerializer() {
+        assertInstanceOf(RegisteredSerializer.class, LoggableSerializers.get(Registered.class));
+        assertNull(LoggableSerializers.get(String.class));
+    }
+
+    @Test
+    void registeredType_isSerializedThroughItsAccessors() {
+        Registered registered = new Registered("alice", "secret-password");
+
+        String out = (String) LogSerializer.serialize(registered);
+
+        assertEquals("{\"user\":\"alice\",\"password\":\"************ord\"}", out);
+    }
+
+    @Test
+    void registeredType_isLoggableWhenNested() {
+        Holder holder = new Holder();
+        holder.registered = new Registered("bob", null);
+
+        String out = (String) LogSerializer.serialize(holder);
+
+        assertEquals("registered={user=bob}", out);
+    }
+
+    /**
+     * Not annotated with {@link Loggable}: only the registered serializer makes it loggable.
+     */
+    public record Registered(String name, String password) {
+    }
+
+    @Loggable
+    static class Holder {
+        Registered registered;
+    }
+
+    public static class RegisteredSerializer implements LoggableSerializer<Registered> {
+
+        @Override
+        public Class<Registered> type() {
+            return Registered.class;
+        }
+
+        @Override
+        public LogFormat format() {
+            return LogFormat.JSON;
+        }
+
+        @Override
+        public int depth() {
+            return -1;
+        }
+
+        @Override
+        public List<LoggableProperty<Registered>> properties() {
+            return List.of(
+                    new LoggableProperty<>("user", false, 0, false, false, -1, Registered::name),
+                    new LoggableProperty<>("password", true, 3, false, false, -1, Registered::password));
+        }
+    }
+}
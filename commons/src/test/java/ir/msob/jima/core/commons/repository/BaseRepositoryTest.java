@@ -2,10 +2,17 @@ package ir.msob.jima.core.commons.repository;
 
 import ir.msob.jima.core.commons.ConcreteBaseRepository;
 import ir.msob.jima.core.commons.domain.SampleDomain;
+import ir.msob.jima.core.commons.shared.CountStrategy;
+import ir.msob.jima.core.commons.shared.PageDto;
+import ir.msob.jima.core.commons.shared.PageableDto;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 
-import static org.junit.jupiter.api.Assertions.assertNotNull;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
 
 class BaseRepositoryTest {
     private ConcreteBaseRepository repository;
@@ -32,4 +39,39 @@ class BaseRepositoryTest {
         // Assert that domainClass is not null
         assertNotNull(domainClass);
     }
+
+    @Test
+    void testCountStrategy() {
+        PageableDto estimated = PageableDto.of(0, 10, Sort.unsorted()).withCountStrategy(CountStrategy.ESTIMATED, null);
+
+        assertEquals(CountStrategy.EXACT, repository.countStrategy(PageRequest.of(0, 10), false));
+        assertEquals(CountStrategy.ESTIMATED, repository.countStrategy(estimated, false));
+        // An estimate cannot describe a filtered query
+        assertEquals(CountStrategy.EXACT, repository.countStrategy(estimated, true));
+    }
+
+    @Test
+    void testCountCap() {
+        PageableDto capped = PageableDto.of(0, 10, Sort.unsorted()).withCountStrategy(CountStrategy.CAPPED, 100);
+
+        assertEquals(100L, repository.countCap(capped));
+        // Never less than what is needed to detect the next page
+        assertEquals(101L, repository.countCap(capped.withPage(9)));
+    }
+
+    @Test
+    void testUncountedPage() {
+        List<SampleDomain<String>> rows = List.of(new SampleDomain<>(), new SampleDomain<>(), new SampleDomain<>());
+
+        PageDto<SampleDomain<String>> page = repository.uncountedPage(rows, PageRequest.of(1, 2));
+
+        assertEquals(2, page.getNumberOfElements());
+        assertEquals(CountStrategy.NONE, page.getCountStrategy());
+        assertTrue(page.hasNext());
+
+        PageDto<SampleDomain<String>> last = repository.uncountedPage(rows.subList(0, 1), PageRequest.of(1, 2));
+
+        assertEquals(3L, last.getTotalElements());
+        assertFalse(last.hasNext());
+    }
 }
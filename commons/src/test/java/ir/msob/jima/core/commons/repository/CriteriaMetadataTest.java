@@ -0,0 +1,66 @@
+package ir.msob.jima.core.commons.repository;
+
+import ir.msob.jima.core.commons.domain.BaseCriteriaAbstract;
+import ir.msob.jima.core.commons.filter.Filter;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CriteriaMetadataTest {
+
+    @Test
+    void testFilterFieldsAreCollectedFromHierarchy() {
+        CriteriaMetadata metadata = CriteriaMetadata.of(StringIdCriteria.class);
+
+        List<String> names = metadata.getFilterFields().stream().map(CriteriaMetadata.FilterField::name).toList();
+
+        // Subclass fields first, then inherited fields; non-Filter fields are skipped
+        assertEquals(List.of("name", "priority", "id"), names);
+        assertEquals(StringIdCriteria.class, metadata.getCriteriaClass());
+    }
+
+    @Test
+    void testFilterValueTypeIsResolved() {
+        CriteriaMetadata metadata = CriteriaMetadata.of(StringIdCriteria.class);
+
+        assertEquals(String.class, valueClass(metadata, "name"));
+        assertEquals(Integer.class, valueClass(metadata, "priority"));
+        assertEquals(String.class, valueClass(metadata, "id"));
+    }
+
+    @Test
+    void testFilterFieldReadsValue() {
+        StringIdCriteria criteria = new StringIdCriteria();
+        criteria.name = Filter.eq("jima");
+
+        CriteriaMetadata metadata = CriteriaMetadata.of(criteria);
+
+        assertSame(criteria.name, field(metadata, "name").get(criteria));
+        assertNull(field(metadata, "priority").get(criteria));
+    }
+
+    @Test
+    void testMetadataIsCached() {
+        assertSame(CriteriaMetadata.of(StringIdCriteria.class), CriteriaMetadata.of(new StringIdCriteria()));
+    }
+
+    private static Class<?> valueClass(CriteriaMetadata metadata, String name) {
+        return field(metadata, name).valueClass();
+    }
+
+    private static CriteriaMetadata.FilterField field(CriteriaMetadata metadata, String name) {
+        return metadata.getFilterFields().stream()
+                .filter(f -> f.name().equals(name))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    static class StringIdCriteria extends BaseCriteriaAbstract<String> {
+        private static final Filter<String> CONSTANT = Filter.eq("constant");
+        private Filter<String> name;
+        private Filter<Integer> priority;
+        private String description;
+    }
+}
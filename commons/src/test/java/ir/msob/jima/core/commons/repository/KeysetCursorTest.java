@@ -0,0 +1,78 @@
+package ir.msob.jima.core.commons.repository;
+
+import ir.msob.jima.core.commons.exception.badrequest.BadRequestException;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeysetCursorTest {
+
+    @Test
+    void testKeysetSortAppendsId() {
+        Sort sort = KeysetCursor.keysetSort(Sort.by(Sort.Direction.DESC, "createdDate"), "id");
+
+        assertEquals(Sort.by(Sort.Order.desc("createdDate"), Sort.Order.asc("id")), sort);
+    }
+
+    @Test
+    void testKeysetSortKeepsExistingId() {
+        Sort requested = Sort.by(Sort.Direction.DESC, "id");
+
+        assertEquals(requested, KeysetCursor.keysetSort(requested, "id"));
+        assertEquals(Sort.by("id"), KeysetCursor.keysetSort(null, "id"));
+    }
+
+    @Test
+    void testEncodeDecodeRestoresValueTypes() {
+        Row row = new Row("a1", Instant.parse("2024-01-02T03:04:05Z"), 42L);
+        Sort sort = KeysetCursor.keysetSort(Sort.by(Sort.Order.desc("createdDate"), Sort.Order.asc("priority")), "id");
+
+        String token = KeysetCursor.of(row, sort).encode();
+        KeysetCursor cursor = KeysetCursor.decode(token, sort, Row.class);
+
+        assertEquals(List.of("createdDate", "priority", "id"), cursor.getProperties());
+        assertEquals(List.of(row.createdDate, row.priority, row.id), cursor.getValues());
+    }
+
+    @Test
+    void testDecodeRejectsDifferentSort() {
+        Row row = new Row("a1", Instant.now(), 1L);
+        Sort sort = KeysetCursor.keysetSort(Sort.by("priority"), "id");
+        String token = KeysetCursor.of(row, sort).encode();
+
+        Sort other = KeysetCursor.keysetSort(Sort.by("createdDate"), "id");
+
+        assertThrows(BadRequestException.class, () -> KeysetCursor.decode(token, other, Row.class));
+    }
+
+    @Test
+    void testDecodeRejectsMalformedToken() {
+        Sort sort = KeysetCursor.keysetSort(Sort.unsorted(), "id");
+
+        assertThrows(BadRequestException.class, () -> KeysetCursor.decode("not-a-cursor", sort, Row.class));
+    }
+
+    @Test
+    void testNullSortValueIsRejected() {
+        Row row = new Row("a1", null, 1L);
+        Sort sort = KeysetCursor.keysetSort(Sort.by("createdDate"), "id");
+
+        assertThrows(IllegalStateException.class, () -> KeysetCursor.of(row, sort));
+    }
+
+    static class Row {
+        private final String id;
+        private final Instant createdDate;
+        private final Long priority;
+
+        Row(String id, Instant createdDate, Long priority) {
+            this.id = id;
+            this.createdDate = createdDate;
+            this.priority = priority;
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package ir.msob.jima.core.commons.tracing;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TracerTest {
+
+    private final InMemorySpanCollector collector = new InMemorySpanCollector(100);
+    private Tracer tracer;
+
+    @BeforeEach
+    void setUp() {
+        tracer = Tracer.start(List.of(collector));
+    }
+
+    @AfterEach
+    void tearDown() {
+        tracer.close();
+    }
+
+    @Test
+    void start_installsTracer_andCloseUninstallsIt() {
+        assertSame(tracer, Tracer.current());
+        tracer.close();
+        assertNull(Tracer.current());
+    }
+
+    @Test
+    void nestedPublishers_areChildrenOfTheSubscribingSpan() {
+        Mono<String> repository = tracer.trace("repository", SpanKind.CLIENT, Mono.just("row"));
+        Mono<String> service = tracer.trace("service", SpanKind.INTERNAL, repository.map(String::toUpperCase));
+
+        assertEquals("ROW", service.block());
+
+        Span serviceSpan = span("service");
+        Span repositorySpan = span("repository");
+        assertNull(serviceSpan.getParentSpanId());
+        assertEquals(serviceSpan.getSpanId(), repositorySpan.getParentSpanId());
+        assertEquals(serviceSpan.getTraceId(), repositorySpan.getTraceId());
+        assertEquals(SpanStatus.OK, serviceSpan.getStatus());
+        assertEquals(2, collector.getTrace(serviceSpan.getTraceId()).size());
+    }
+
+    @Test
+    void receive_continuesTheTraceOfTheSender() {
+        Map<String, Serializable> metadata = new HashMap<>();
+        Mono<Void> send = tracer.traceMono("send", SpanKind.PRODUCER, null, span -> {
+            metadata.put(TraceContext.TRACEPARENT, span.getContext().toTraceparent());
+            return Mono.empty();
+        });
+        send.block();
+
+        tracer.receive("receive", metadata, tracer.trace("repository", SpanKind.CLIENT, Mono.just(1))).block();
+
+        Span sendSpan = span("send");
+        Span receiveSpan = span("receive");
+        assertEquals(SpanKind.CONSUMER, receiveSpan.getKind());
+        assertEquals(sendSpan.getSpanId(), receiveSpan.getParentSpanId());
+        assertEquals(receiveSpan.getSpanId(), span("repository").getParentSpanId());
+        assertEquals(3, collector.getTrace(sendSpan.getTraceId()).size());
+    }
+
+    @Test
+    void receiveAll_continuesTheTraceOfTheFirstSender_andLinksTheOthers() {
+        TraceContext first = TraceContext.child(null);
+        TraceContext second = TraceContext.child(null);
+        Map<String, Serializable> firstMetadata = new HashMap<>(Map.of(TraceContext.TRACEPARENT, first.toTraceparent()));
+        Map<String, Serializable> secondMetadata = new HashMap<>(Map.of(TraceContext.TRACEPARENT, second.toTraceparent()));
+
+        tracer.receiveAll("receive", List.of(firstMetadata, secondMetadata, firstMetadata, new HashMap<>()), Mono.just(1)).block();
+
+        Span receiveSpan = span("receive");
+        assertEquals(SpanKind.CONSUMER, receiveSpan.getKind());
+        assertEquals(first.traceId(), receiveSpan.getTraceId());
+        assertEquals(first.spanId(), receiveSpan.getParentSpanId());
+        assertEquals(List.of(second), receiveSpan.getLinks());
+        assertEquals(4, receiveSpan.getAttributes().get(Tracer.BATCH_SIZE_ATTRIBUTE));
+    }
+
+    @Test
+    void errorsAndCancellations_areRecordedInTheStatus() {
+        assertThrows(IllegalStateException.class,
+                () -> tracer.trace("failing", SpanKind.CLIENT, Mono.error(new IllegalStateException("failed"))).block());
+        tracer.trace("cancelled", SpanKind.CLIENT, Flux.range(0, 10)).take(1).blockLast();
+
+        assertEquals(SpanStatus.ERROR, span("failing").getStatus());
+        assertEquals("java.lang.IllegalStateException: failed", span("failing").getErrorMessage());
+        assertEquals(SpanStatus.CANCELLED, span("cancelled").getStatus());
+        assertEquals(1, collector.getStages().get("failing").getErrors());
+    }
+
+    @Test
+    void everySubscription_isASpan() {
+        Mono<Integer> traced = tracer.trace("stage", SpanKind.INTERNAL, Mono.just(1));
+        traced.block();
+        traced.block();
+
+        StageStats stats = collector.getStages().get("stage");
+        assertEquals(2, stats.getCount());
+        assertTrue(stats.getMaxNanos() >= stats.getMeanNanos());
+    }
+
+    @Test
+    void traceparent_roundTrips_andMalformedValuesAreIgnored() {
+        TraceContext context = TraceContext.child(null);
+
+        assertEquals(context, TraceContext.parse(context.toTraceparent()));
+        assertEquals(32, context.traceId().length());
+        assertEquals(16, context.spanId().length());
+        assertNull(TraceContext.parse("00-not-a-context"));
+        assertNull(TraceContext.parse(null));
+        assertEquals(context.traceId(), TraceContext.child(context).traceId());
+    }
+
+    @Test
+    void collector_keepsTheMostRecentSpans() {
+        InMemorySpanCollector small = new InMemorySpanCollector(2);
+        Tracer local = Tracer.start(List.of(small));
+        try {
+            for (int i = 0; i < 3; i++) {
+                local.startSpan("span" + i, SpanKind.INTERNAL, null).end();
+            }
+        } finally {
+            local.close();
+        }
+
+        assertEquals(Set.of("span1", "span2"), small.getSpans().stream().map(Span::getName).collect(Collectors.toSet()));
+        assertEquals(3, small.getStages().size());
+    }
+
+    private Span span(String name) {
+        return collector.getSpans().stream()
+                .filter(span -> span.getName().equals(name))
+                .findFirst()
+                .orElseThrow();
+    }
+}
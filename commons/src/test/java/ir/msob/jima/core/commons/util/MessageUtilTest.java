@@ -62,4 +62,37 @@ class MessageUtilTest {
         String formattedMessage = MessageUtil.prepareMessage(message, (Object) null);
         assertEquals(expected, formattedMessage);
     }
+
+    @Test
+    void testPrepareMessageWithEscapedPlaceholderAndParameters() {
+        // \{} is a literal {}, \\{} is a literal backslash followed by a placeholder (SLF4J escaping).
+        assertEquals("Literal {} and John", MessageUtil.prepareMessage("Literal \\{} and {}", "John"));
+        assertEquals("Path C:\\John", MessageUtil.prepareMessage("Path C:\\\\{}", "John"));
+        assertEquals("Braces {John}", MessageUtil.prepareMessage("Braces {{}}", "John"));
+    }
+
+    @Test
+    void testPrepareMessageDoesNotReplaceInsideParameters() {
+        // Parameters are inserted once: placeholders and special characters in a value are kept as is.
+        assertEquals("a={} b=$1\\x", MessageUtil.prepareMessage("a={} b={}", "{}", "$1\\x"));
+    }
+
+    @Test
+    void testPrepareMessageWithNestedFormatting() {
+        // A parameter whose toString formats a message itself.
+        Object nested = new Object() {
+            @Override
+            public String toString() {
+                return MessageUtil.prepareMessage("inner {}", 1);
+            }
+        };
+        assertEquals("outer inner 1 done", MessageUtil.prepareMessage("outer {} {}", nested, "done"));
+    }
+
+    @Test
+    void testAppendMessage() {
+        StringBuilder sb = new StringBuilder("> ");
+        MessageUtil.appendMessage(sb, "Hello, {}!", "John");
+        assertEquals("> Hello, John!", sb.toString());
+    }
 }
@@ -0,0 +1,437 @@
+package ir.msob.jima.core.processor.loggable;
+
+import com.google.auto.service.AutoService;
+import com.sun.source.tree.*;
+import com.sun.source.util.Trees;
+
+import javax.annotation.processing.*;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.*;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Annotation processor that generates a reflection-free {@code LoggableSerializer} for every class annotated
+ * with {@code @Loggable}, and registers them in {@code META-INF/services} for {@code LogSerializer}.
+ * <p>
+ * The generated class lists the fields the runtime serializer would reflect (the fields of the class, then
+ * those of its superclasses, filtered by the {@code LogMode}) with their {@code @LogField} settings, and
+ * reads each of them directly: accessible fields as is, private ones through their getter when it returns the
+ * field itself (a record accessor, a getter generated by Lombok, or a declared getter whose body is only
+ * {@code return field;}, not overridden in a subclass), private constants inlined, static fields as null like
+ * the reflective serializer reads them. A getter computing its value, or whose body cannot be read (a compiled
+ * superclass), would log something else than the field, so a class with a field it cannot read this way
+ * is skipped with a note, and keeps being serialized through reflection. The commons annotations are
+ * referenced by name because this module cannot depend on commons.
+ */
+@SupportedAnnotationTypes(LoggableProcessor.LOGGABLE)
+@SupportedSourceVersion(SourceVersion.RELEASE_21)
+@AutoService(Processor.class)
+public class LoggableProcessor extends AbstractProcessor {
+
+    static final String PACKAGE = "ir.msob.jima.core.commons.logger.loggable";
+    static final String LOGGABLE = PACKAGE + ".Loggable";
+    private static final String LOG_FIELD = PACKAGE + ".LogField";
+    private static final String LOG_INCLUDE = PACKAGE + ".LogInclude";
+    private static final String LOG_EXCLUDE = PACKAGE + ".LogExclude";
+    private static final String SERIALIZER = PACKAGE + ".LoggableSerializer";
+    private static final String SERVICE_FILE = "META-INF/services/" + SERIALIZER;
+    private static final String SUFFIX = "LoggableSerializer";
+    private static final Set<String> LOMBOK_GETTERS = Set.of("lombok.Getter", "lombok.Data", "lombok.Value");
+
+    private static final Logger logger = Logger.getLogger(LoggableProcessor.class.getName());
+
+    private final Set<String> generated = new TreeSet<>();
+
+    // The source trees of the compilation, to read the bodies of the getters; null outside javac
+    private Trees trees;
+
+    @Override
+    public synchronized void init(ProcessingEnvironment processingEnv) {
+        super.init(processingEnv);
+        try {
+            trees = Trees.instance(processingEnv);
+        } catch (IllegalArgumentException e) {
+            trees = null;
+        }
+    }
+
+    /**
+     * Generates the serializers of the classes annotated with {@code @Loggable} and, in the last round,
+     * registers them.
+     *
+     * @param annotations The set of annotations found.
+     * @param roundEnv    The environment for information about the current and prior round.
+     * @return false, the annotation is left to the other processors.
+     */
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        TypeElement loggable = processingEnv.getElementUtils().getTypeElement(LOGGABLE);
+        if (loggable != null) {
+            for (Element element : roundEnv.getElementsAnnotatedWith(loggable)) {
+                if (element instanceof TypeElement type) {
+                    generate(type);
+                }
+            }
+        }
+        if (roundEnv.processingOver() && !generated.isEmpty()) {
+            writeServiceFile();
+        }
+        return false;
+    }
+
+    private void generate(TypeElement type) {
+        String unsupported = unsupported(type);
+        if (unsupported != null) {
+            note(type, unsupported);
+            return;
+        }
+
+        AnnotationMirror loggable = annotation(type, LOGGABLE);
+        String mode = value(loggable, "mode").toString();
+        String format = value(loggable, "format").toString();
+        int depth = (Integer) value(loggable, "depth");
+
+        List<String> properties = new ArrayList<>();
+        for (TypeElement owner = type; owner != null; owner = superclass(owner)) {
+            for (VariableElement field : ElementFilter.fieldsIn(owner.getEnclosedElements())) {
+                if (!included(field, mode)) {
+                    continue;
+                }
+                String accessor = accessor(type, owner, field);
+                if (accessor == null) {
+                    note(type, "field " + owner.getSimpleName() + "." + field.getSimpleName() + " is not readable");
+                    return;
+                }
+                properties.add(property(field, accessor));
+            }
+        }
+
+        String packageName = elements().getPackageOf(type).getQualifiedName().toString();
+        String className = className(type);
+        String qualifiedName = packageName.isEmpty() ? className : packageName + "." + className;
+        logger.log(Level.INFO, "Generating loggable serializer: {0}", qualifiedName);
+
+        try (Writer writer = processingEnv.getFiler().createSourceFile(qualifiedName, type).openWriter()) {
+            writer.append(content(packageName, className, type.getQualifiedName().toString(), format, depth, properties));
+            generated.add(qualifiedName);
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Error generating loggable serializer: " + e.getMessage(), type);
+        }
+    }
+
+    /**
+     * Returns why no serializer can be generated for the type, or null.
+     */
+    private String unsupported(TypeElement type) {
+        if (type.getKind() != ElementKind.CLASS && type.getKind() != ElementKind.RECORD) {
+            return "only classes and records get a generated serializer";
+        }
+        if (type.getModifiers().contains(Modifier.ABSTRACT)) {
+            return "abstract classes are never serialized themselves";
+        }
+        for (Element e = type; e instanceof TypeElement t; e = e.getEnclosingElement()) {
+            if (t.getNestingKind() == NestingKind.LOCAL || t.getNestingKind() == NestingKind.ANONYMOUS) {
+                return "local and anonymous classes cannot be referenced";
+            }
+            if (t.getModifiers().contains(Modifier.PRIVATE)) {
+                return "private classes cannot be referenced";
+            }
+        }
+        return null;
+    }
+
+    private boolean included(VariableElement field, String mode) {
+        return switch (mode) {
+            case "INCLUDE" -> annotation(field, LOG_INCLUDE) != null;
+            case "EXCLUDE" -> annotation(field, LOG_EXCLUDE) == null;
+            default -> true;
+        };
+    }
+
+    /**
+     * Returns the accessor lambda of the field, or null if it cannot be read without reflection.
+     */
+    private String accessor(TypeElement type, TypeElement owner, VariableElement field) {
+        if (field.getModifiers().contains(Modifier.STATIC)) {
+            // the reflective serializer reads static fields as null (logged only with logNull)
+            return "value -> null";
+        }
+        String name = field.getSimpleName().toString();
+        Object constant = field.getConstantValue();
+        if (constant != null && !accessible(type, owner, field)) {
+            // a private constant field always holds its initializer
+            return "value -> " + elements().getConstantExpression(constant);
+        }
+
+        // a cast reaches the field of a superclass even when a subclass hides it
+        String target = owner.equals(type) ? "value" : "((" + owner.getQualifiedName() + ") value)";
+        if (accessible(type, owner, field)) {
+            return "value -> " + target + "." + name;
+        }
+
+        String getter = getter(type, owner, field);
+        return getter == null ? null : "value -> " + target + "." + getter + "()";
+    }
+
+    /**
+     * Returns the name of the getter returning the field, as called on an instance of {@code type}, or null.
+     */
+    private String getter(TypeElement type, TypeElement owner, VariableElement field) {
+        String name = field.getSimpleName().toString();
+        String capitalized = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+        boolean primitiveBoolean = field.asType().getKind() == TypeKind.BOOLEAN;
+        String lombokName = !primitiveBoolean ? "get" + capitalized
+                : name.length() > 2 && name.startsWith("is") && Character.isUpperCase(name.charAt(2)) ? name
+                : "is" + capitalized;
+
+        Set<String> candidates = new HashSet<>(List.of("get" + capitalized, lombokName));
+        boolean record = owner.getKind() == ElementKind.RECORD;
+        if (record) {
+            candidates.add(name);
+        }
+        boolean declared = false;
+        TypeMirror fieldType = types().erasure(field.asType());
+        // the members of the serialized type, so a getter overridden by a subclass is the overriding one
+        for (ExecutableElement method : ElementFilter.methodsIn(elements().getAllMembers(type))) {
+            if (!candidates.contains(method.getSimpleName().toString())
+                    || !method.getParameters().isEmpty()
+                    || method.getModifiers().contains(Modifier.STATIC)) {
+                continue;
+            }
+            declared |= method.getSimpleName().contentEquals(lombokName);
+            if (owner.equals(method.getEnclosingElement())
+                    && types().isSameType(types().erasure(method.getReturnType()), fieldType)
+                    && accessible(type, owner, method)
+                    && returnsField(method, field, record)) {
+                return method.getSimpleName().toString();
+            }
+        }
+
+        // Lombok getters are generated in the same compilation, they may not be visible yet
+        return !declared && lombokGetter(type, owner, field) ? lombokName : null;
+    }
+
+    /**
+     * Whether the body of the getter is only {@code return field;} or {@code return this.field;}. The implicit
+     * accessors of the records, without source tree, return their field too.
+     */
+    private boolean returnsField(ExecutableElement method, VariableElement field, boolean record) {
+        Tree tree = trees != null ? trees.getTree(method) : null;
+        if (!(tree instanceof MethodTree methodTree) || methodTree.getBody() == null) {
+            return record;
+        }
+        List<? extends StatementTree> statements = methodTree.getBody().getStatements();
+        if (statements.size() != 1 || !(statements.get(0) instanceof ReturnTree returnTree)) {
+            return false;
+        }
+        ExpressionTree expression = returnTree.getExpression();
+        while (expression instanceof ParenthesizedTree parenthesized) {
+            expression = parenthesized.getExpression();
+        }
+        if (expression instanceof IdentifierTree identifier) {
+            return identifier.getName().contentEquals(field.getSimpleName());
+        }
+        return expression instanceof MemberSelectTree select
+                && select.getIdentifier().contentEquals(field.getSimpleName())
+                && select.getExpression() instanceof IdentifierTree target
+                && target.getName().contentEquals("this");
+    }
+
+    private boolean lombokGetter(TypeElement type, TypeElement owner, VariableElement field) {
+        AnnotationMirror getter = annotation(field, "lombok.Getter");
+        if (getter == null) {
+            getter = owner.getAnnotationMirrors().stream()
+                    .filter(a -> LOMBOK_GETTERS.contains(annotationName(a)))
+                    .findFirst()
+                    .orElse(null);
+        }
+        if (getter == null) {
+            return false;
+        }
+        Object level = annotationName(getter).equals("lombok.Getter") ? value(getter, "value") : null;
+        String access = level == null ? "PUBLIC" : level.toString();
+        return switch (access) {
+            case "PUBLIC" -> true;
+            case "PROTECTED", "PACKAGE", "MODULE" -> samePackage(type, owner);
+            default -> false;
+        };
+    }
+
+    /**
+     * Whether the generated class, in the package of {@code type}, can access the member of {@code owner}.
+     */
+    private boolean accessible(TypeElement type, TypeElement owner, Element member) {
+        for (Element e = owner; e instanceof TypeElement t; e = e.getEnclosingElement()) {
+            if (t.getModifiers().contains(Modifier.PRIVATE)
+                    || (!t.getModifiers().contains(Modifier.PUBLIC) && !samePackage(type, t))) {
+                return false;
+            }
+        }
+        Set<Modifier> modifiers = member.getModifiers();
+        if (modifiers.contains(Modifier.PRIVATE)) {
+            return false;
+        }
+        return modifiers.contains(Modifier.PUBLIC) || samePackage(type, owner);
+    }
+
+    private boolean samePackage(TypeElement a, TypeElement b) {
+        return elements().getPackageOf(a).equals(elements().getPackageOf(b));
+    }
+
+    private String property(VariableElement field, String accessor) {
+        AnnotationMirror logField = annotation(field, LOG_FIELD);
+        String name = field.getSimpleName().toString();
+        boolean mask = false;
+        int maskVisibleChars = 0;
+        boolean logSize = false;
+        boolean logNull = false;
+        int maxLength = -1;
+        if (logField != null) {
+            String alias = (String) value(logField, "name");
+            name = alias.isEmpty() ? name : alias;
+            mask = (Boolean) value(logField, "mask");
+            maskVisibleChars = (Integer) value(logField, "maskVisibleChars");
+            logSize = (Boolean) value(logField, "logSize");
+            logNull = (Boolean) value(logField, "logNull");
+            maxLength = (Integer) value(logField, "maxLength");
+        }
+        return elements().getConstantExpression(name) + ", " + mask + ", " + maskVisibleChars + ", " + logSize + ", "
+                + logNull + ", " + maxLength + ", " + accessor;
+    }
+
+    private String content(String packageName, String className, String typeName, String format, int depth,
+                           List<String> properties) {
+        StringBuilder content = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            content.append("package ").append(packageName).append(";\n\n");
+        }
+        content.append("import ").append(PACKAGE).append(".LogFormat;\n")
+                .append("import ").append(PACKAGE).append(".LoggableProperty;\n")
+                .append("import ").append(SERIALIZER).append(";\n")
+                .append("import java.util.List;\n")
+                .append("import javax.annotation.processing.Generated;\n\n");
+
+        String propertyType = "LoggableProperty<" + typeName + ">";
+        content.append("@Generated(\"").append(LoggableProcessor.class.getName()).append("\")\n")
+                .append("@SuppressWarnings({\"rawtypes\", \"unchecked\"})\n")
+                .append("public final class ").append(className)
+                .append(" implements LoggableSerializer<").append(typeName).append("> {\n\n")
+                .append(" private static final List<").append(propertyType).append("> PROPERTIES = List.of(");
+        for (int i = 0; i < properties.size(); i++) {
+            content.append(i == 0 ? "\n" : ",\n")
+                    .append(" new ").append(propertyType).append("(").append(properties.get(i)).append(")");
+        }
+        content.append(");\n\n")
+                .append(" @Override\n public Class<").append(typeName).append("> type() {\n")
+                .append(" return ").append(typeName).append(".class;\n }\n\n")
+                .append(" @Override\n public LogFormat format() {\n")
+                .append(" return LogFormat.").append(format).append(";\n }\n\n")
+                .append(" @Override\n public int depth() {\n")
+                .append(" return ").append(depth).append(";\n }\n\n")
+                .append(" @Override\n public List<").append(propertyType).append("> properties() {\n")
+                .append(" return PROPERTIES;\n }\n")
+                .append("}\n");
+        return content.toString();
+    }
+
+    /**
+     * Adds the generated serializers to the services file, keeping the entries of previous compilations.
+     */
+    private void writeServiceFile() {
+        Filer filer = processingEnv.getFiler();
+        Set<String> services = new TreeSet<>(generated);
+        try {
+            FileObject existing = filer.getResource(StandardLocation.CLASS_OUTPUT, "", SERVICE_FILE);
+            try (BufferedReader reader = new BufferedReader(existing.openReader(true))) {
+                reader.lines()
+                        .map(String::trim)
+                        .filter(line -> !line.isEmpty() && !line.startsWith("#"))
+                        .forEach(services::add);
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            // no services file yet
+        }
+
+        try (Writer writer = filer.createResource(StandardLocation.CLASS_OUTPUT, "", SERVICE_FILE).openWriter()) {
+            for (String service : services) {
+                writer.append(service).append('\n');
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Error registering loggable serializers: " + e.getMessage());
+        }
+    }
+
+    private String className(TypeElement type) {
+        Deque<String> names = new ArrayDeque<>();
+        for (Element e = type; e instanceof TypeElement t; e = e.getEnclosingElement()) {
+            names.addFirst(t.getSimpleName().toString());
+        }
+        return String.join("_", names) + SUFFIX;
+    }
+
+    private TypeElement superclass(TypeElement type) {
+        TypeMirror superclass = type.getSuperclass();
+        if (superclass.getKind() != TypeKind.DECLARED) {
+            return null;
+        }
+        TypeElement element = (TypeElement) ((DeclaredType) superclass).asElement();
+        return element.getQualifiedName().contentEquals("java.lang.Object") ? null : element;
+    }
+
+    private static AnnotationMirror annotation(Element element, String name) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            if (annotationName(mirror).equals(name)) {
+                return mirror;
+            }
+        }
+        return null;
+    }
+
+    private static String annotationName(AnnotationMirror mirror) {
+        return ((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().toString();
+    }
+
+    /**
+     * Returns the value of an annotation element, its default when not set; enum constants as their name.
+     */
+    private Object value(AnnotationMirror mirror, String name) {
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry
+                : elements().getElementValuesWithDefaults(mirror).entrySet()) {
+            if (entry.getKey().getSimpleName().contentEquals(name)) {
+                Object value = entry.getValue().getValue();
+                return value instanceof VariableElement constant ? constant.getSimpleName().toString() : value;
+            }
+        }
+        return null;
+    }
+
+    private void note(TypeElement type, String reason) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE,
+                "No loggable serializer generated for " + type.getQualifiedName() + ": " + reason
+                        + "; it is serialized through reflection", type);
+    }
+
+    private Elements elements() {
+        return processingEnv.getElementUtils();
+    }
+
+    private Types types() {
+        return processingEnv.getTypeUtils();
+    }
+}
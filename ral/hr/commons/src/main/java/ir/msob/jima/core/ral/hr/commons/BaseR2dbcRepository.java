@@ -4,20 +4,34 @@ import ir.msob.jima.core.commons.domain.BaseCriteria;
 import ir.msob.jima.core.commons.domain.BaseDomain;
 import ir.msob.jima.core.commons.methodstats.MethodStats;
 import ir.msob.jima.core.commons.repository.BaseRepository;
+import ir.msob.jima.core.commons.repository.BulkResult;
+import ir.msob.jima.core.commons.shared.CountStrategy;
+import ir.msob.jima.core.commons.shared.PageDto;
+import ir.msob.jima.core.ral.hr.commons.query.R2dbcBulkStatement;
 import ir.msob.jima.core.ral.hr.commons.query.R2dbcQuery;
 import ir.msob.jima.core.ral.hr.commons.query.R2dbcUpdate;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
 import org.jspecify.annotations.NonNull;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.r2dbc.dialect.DialectResolver;
+import org.springframework.data.relational.core.mapping.RelationalPersistentEntity;
 import org.springframework.data.relational.core.query.Criteria;
 import org.springframework.data.relational.core.query.Query;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
 
 import java.io.Serializable;
-import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
 /**
  * BaseR2dbcSqlRepository: default repository utilities for R2DBC using R2dbcEntityTemplate.
@@ -29,7 +43,7 @@ public interface BaseR2dbcRepository<ID extends Comparable<ID> & Serializable, D
 
     @MethodStats
     default Mono<@NonNull D> findOne(R2dbcQuery<D> r2dbcQuery) {
-        Query q = (r2dbcQuery == null) ? Query.empty() : r2dbcQuery.toQuery();
+        Query q = (r2dbcQuery == null) ? Query.empty() : project(r2dbcQuery.toQuery(), r2dbcQuery.getIncludes());
         return getR2dbcEntityTemplate().selectOne(q, getDomainClass());
     }
 
@@ -40,25 +54,127 @@ public interface BaseR2dbcRepository<ID extends Comparable<ID> & Serializable, D
 
     @MethodStats
     default Flux<@NonNull D> find(R2dbcQuery<D> r2dbcQuery) {
-        Query q = (r2dbcQuery == null) ? Query.empty() : r2dbcQuery.toQuery();
+        Query q = (r2dbcQuery == null) ? Query.empty() : project(r2dbcQuery.toQuery(), r2dbcQuery.getIncludes());
         if (r2dbcQuery != null && r2dbcQuery.getLimit() != null) q = q.limit(r2dbcQuery.getLimit());
         return getR2dbcEntityTemplate().select(q, getDomainClass());
     }
 
+    /**
+     * Page of the query. The total is computed as requested by the {@link CountStrategy} of the query
+     * pageable (EXACT by default); the returned page is a {@link PageDto} reporting the strategy that
+     * produced the total.
+     * <p>
+     * The count and the content are fetched concurrently. When the total follows from the content alone
+     * (e.g. a first page shorter than the page size), the page is emitted without waiting for the count,
+     * which is cancelled.
+     */
     @MethodStats
     default Mono<@NonNull Page<@NonNull D>> findPage(R2dbcQuery<D> r2dbcQuery) {
-        Query q = (r2dbcQuery == null) ? Query.empty() : r2dbcQuery.toQuery();
-        Query countQuery = (r2dbcQuery != null && r2dbcQuery.getCriteria() != null) ? Query.query(r2dbcQuery.getCriteria()) : Query.empty();
-
-        return getR2dbcEntityTemplate().count(countQuery, getDomainClass())
-                .flatMap(total -> {
-                    Pageable p = (r2dbcQuery != null) ? r2dbcQuery.getPageable() : Pageable.unpaged();
-                    if (total < 1) {
-                        return Mono.just(new PageImpl<>(new ArrayList<>(), p, 0L));
-                    }
-                    return getR2dbcEntityTemplate().select(q, getDomainClass()).collectList()
-                            .map(list -> (Page<@NonNull D>) new PageImpl<>(list, p, total));
-                });
+        Query base = (r2dbcQuery == null) ? Query.empty() : project(r2dbcQuery.toQuery(), r2dbcQuery.getIncludes());
+        Criteria criteria = (r2dbcQuery == null) ? null : r2dbcQuery.getCriteria();
+        Query countQuery = (criteria != null) ? Query.query(criteria) : Query.empty();
+        Pageable p = (r2dbcQuery != null && r2dbcQuery.getPageable() != null) ? r2dbcQuery.getPageable() : Pageable.unpaged();
+
+        CountStrategy strategy = countStrategy(p, criteria != null);
+        if (strategy == CountStrategy.NONE) {
+            return getR2dbcEntityTemplate().select(p.isPaged() ? base.limit(p.getPageSize() + 1) : base, getDomainClass())
+                    .collectList()
+                    .map(list -> uncountedPage(list, p));
+        }
+
+        Mono<List<D>> content = getR2dbcEntityTemplate().select(base, getDomainClass()).collectList().cache();
+        Mono<@NonNull Page<@NonNull D>> contentPage = content.flatMap(list -> {
+            Long total = totalFromContent(list, p);
+            if (total == null) {
+                return Mono.never();
+            }
+            return Mono.just(PageDto.of(list, p, total, CountStrategy.EXACT));
+        });
+        Mono<@NonNull Page<@NonNull D>> countedPage = Mono.zip(content, count(countQuery, strategy, p))
+                .map(tuple -> PageDto.of(tuple.getT1(), p, tuple.getT2().getT1(), tuple.getT2().getT2()));
+        return Mono.firstWithSignal(contentPage, countedPage);
+    }
+
+    /**
+     * Count the rows matching the query with the given strategy (not NONE).
+     * Emits the count with the strategy that actually produced it: ESTIMATED falls back to EXACT when
+     * {@link #estimatedCount()} has no estimate, and CAPPED stops counting at {@link #countCap(Pageable)}.
+     */
+    default Mono<@NonNull Tuple2<Long, CountStrategy>> count(Query countQuery, CountStrategy strategy, Pageable p) {
+        Mono<Long> exact = getR2dbcEntityTemplate().count(countQuery, getDomainClass());
+        return switch (strategy) {
+            case ESTIMATED -> estimatedCount()
+                    .map(total -> Tuples.of(total, CountStrategy.ESTIMATED))
+                    .switchIfEmpty(Mono.defer(() -> exact.map(total -> Tuples.of(total, CountStrategy.EXACT))));
+            case CAPPED -> getR2dbcEntityTemplate().select(countQuery.columns(getKeysetIdProperty()).limit((int) Math.min(Integer.MAX_VALUE, countCap(p))), getDomainClass())
+                    .count()
+                    .map(total -> Tuples.of(total, CountStrategy.CAPPED));
+            default -> exact.map(total -> Tuples.of(total, CountStrategy.EXACT));
+        };
+    }
+
+    /**
+     * Estimated row count of the domain table from the PostgreSQL statistics ({@code pg_class.reltuples}).
+     * Completes empty when no estimate is available (e.g. the table was never analyzed, or the database is
+     * not PostgreSQL), so the caller falls back to an exact count. The statistics are read on a connection of
+     * their own, outside of the caller's transaction, so a failed read, also reported as no estimate, cannot
+     * abort it. Override for other databases.
+     */
+    default Mono<@NonNull Long> estimatedCount() {
+        ConnectionFactory connectionFactory = getR2dbcEntityTemplate().getDatabaseClient().getConnectionFactory();
+        if (!"PostgreSQL".equalsIgnoreCase(connectionFactory.getMetadata().getName())) return Mono.empty();
+        String table = getR2dbcEntityTemplate().getConverter().getMappingContext()
+                .getRequiredPersistentEntity(getDomainClass()).getQualifiedTableName()
+                .toSql(DialectResolver.getDialect(connectionFactory).getIdentifierProcessing());
+        return Mono.usingWhen(connectionFactory.create(),
+                        connection -> Flux.from(connection.createStatement("SELECT reltuples::bigint AS estimate FROM pg_class WHERE oid = to_regclass($1)")
+                                        .bind(0, table)
+                                        .execute())
+                                .flatMap(result -> result.map((row, metadata) -> Optional.ofNullable(row.get("estimate", Long.class))))
+                                .next(),
+                        Connection::close)
+                .flatMap(Mono::justOrEmpty)
+                .filter(estimate -> estimate >= 0)
+                .onErrorResume(e -> Mono.empty());
+    }
+
+    /**
+     * Keyset (seek) page: selects the rows after the cursor carried by the query pageable
+     * instead of counting and skipping, so every page costs the same as the first one.
+     * The query pageable must be paged.
+     */
+    @MethodStats
+    default Mono<@NonNull PageDto<D>> findKeysetPage(R2dbcQuery<D> r2dbcQuery) {
+        Pageable p = r2dbcQuery.getPageable();
+        Sort sort = keysetSort(p);
+        Query q = r2dbcQuery.toKeysetQuery(keysetCursor(p), sort, p.getPageSize());
+        if (!r2dbcQuery.getIncludes().isEmpty()) {
+            // the next cursor is read from the sort properties of the last row
+            Set<String> properties = new LinkedHashSet<>(r2dbcQuery.getIncludes());
+            sort.forEach(order -> properties.add(order.getProperty()));
+            q = project(q, properties);
+        }
+        return getR2dbcEntityTemplate().select(q, getDomainClass()).collectList()
+                .map(list -> keysetPage(list, p));
+    }
+
+    /**
+     * Restrict the SELECT list of the query to the given (included) properties and the id, so wide columns
+     * the caller did not ask for are not transferred; the other properties of the returned entities are null.
+     * Nested paths are reduced to their top-level property and unknown properties are ignored.
+     * The query is returned unchanged when no property is given.
+     */
+    default Query project(Query query, Collection<String> properties) {
+        if (properties == null || properties.isEmpty()) return query;
+        RelationalPersistentEntity<?> entity = getR2dbcEntityTemplate().getConverter().getMappingContext()
+                .getRequiredPersistentEntity(getDomainClass());
+        Set<String> columns = new LinkedHashSet<>();
+        columns.add(entity.getRequiredIdProperty().getName());
+        for (String property : properties) {
+            String name = property.split("\\.")[0];
+            if (entity.getPersistentProperty(name) != null) columns.add(name);
+        }
+        return query.columns(columns);
     }
 
     @MethodStats
@@ -85,4 +201,41 @@ public interface BaseR2dbcRepository<ID extends Comparable<ID> & Serializable, D
         Query q = (r2dbcQuery == null) ? Query.empty() : r2dbcQuery.toQuery();
         return getR2dbcEntityTemplate().delete(q, getDomainClass()).map(i -> i > 0);
     }
+
+    @MethodStats
+    default Flux<@NonNull BulkResult> saveAll(Flux<D> domains) {
+        return saveAll(domains, getBulkBatchSize());
+    }
+
+    /**
+     * Insert a stream of entities with one batched INSERT statement per batch.
+     * The next batch is requested only when the previous one has been written (backpressure),
+     * so memory stays bounded by the batch size. Emits the result of each batch, in order.
+     */
+    @MethodStats
+    default Flux<@NonNull BulkResult> saveAll(Flux<D> domains, int batchSize) {
+        return domains.buffer(batchSize)
+                .index()
+                .concatMap(batch -> R2dbcBulkStatement.execute(getR2dbcEntityTemplate(), getDomainClass(), batch.getT2(), false)
+                        .map(count -> BulkResult.inserted(batch.getT1(), batch.getT2().size(), count)), 0);
+    }
+
+    @MethodStats
+    default Flux<@NonNull BulkResult> bulkUpsert(Flux<D> domains) {
+        return bulkUpsert(domains, getBulkBatchSize());
+    }
+
+    /**
+     * Upsert a stream of entities with one batched {@code INSERT ... ON CONFLICT (id) DO UPDATE} statement
+     * per batch (PostgreSQL syntax; override for other databases). Entities without an id are inserted.
+     * The next batch is requested only when the previous one has been written (backpressure).
+     * Emits the result of each batch, in order; the affected rows are reported as upserted.
+     */
+    @MethodStats
+    default Flux<@NonNull BulkResult> bulkUpsert(Flux<D> domains, int batchSize) {
+        return domains.buffer(batchSize)
+                .index()
+                .concatMap(batch -> R2dbcBulkStatement.execute(getR2dbcEntityTemplate(), getDomainClass(), batch.getT2(), true)
+                        .map(count -> new BulkResult(batch.getT1(), batch.getT2().size(), 0L, 0L, 0L, count)), 0);
+    }
 }
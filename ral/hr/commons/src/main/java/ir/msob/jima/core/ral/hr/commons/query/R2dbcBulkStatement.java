@@ -0,0 +1,111 @@
+package ir.msob.jima.core.ral.hr.commons.query;
+
+import io.r2dbc.spi.Result;
+import io.r2dbc.spi.Statement;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.r2dbc.dialect.DialectResolver;
+import org.springframework.data.r2dbc.dialect.R2dbcDialect;
+import org.springframework.data.r2dbc.mapping.OutboundRow;
+import org.springframework.data.relational.core.mapping.RelationalPersistentEntity;
+import org.springframework.data.relational.core.sql.IdentifierProcessing;
+import org.springframework.data.relational.core.sql.SqlIdentifier;
+import org.springframework.r2dbc.core.Parameter;
+import org.springframework.r2dbc.core.binding.BindMarkers;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * R2dbcBulkStatement: writes a batch of entities with a single batched INSERT statement
+ * (one {@link Statement#add()} binding per entity, one round trip per batch).
+ * <p>
+ * Upserts use {@code INSERT ... ON CONFLICT (id) DO UPDATE SET ...} (PostgreSQL syntax).
+ * Entities without an id are always inserted, letting the database generate it.
+ */
+public final class R2dbcBulkStatement {
+
+    private R2dbcBulkStatement() {
+    }
+
+    /**
+     * Execute the batch and emit the number of affected rows.
+     */
+    public static Mono<Long> execute(R2dbcEntityTemplate template, Class<?> domainClass, List<?> batch, boolean upsert) {
+        if (batch.isEmpty()) return Mono.just(0L);
+        RelationalPersistentEntity<?> entity = template.getConverter().getMappingContext().getRequiredPersistentEntity(domainClass);
+        SqlIdentifier idColumn = entity.getRequiredIdProperty().getColumnName();
+
+        // entities with and without id have different column lists, so they go into separate statements
+        List<OutboundRow> withId = new ArrayList<>();
+        List<OutboundRow> withoutId = new ArrayList<>();
+        for (Object domain : batch) {
+            OutboundRow row = new OutboundRow();
+            template.getConverter().write(domain, row);
+            if (entity.getIdentifierAccessor(domain).getIdentifier() == null) {
+                row.remove(idColumn);
+                withoutId.add(row);
+            } else {
+                withId.add(row);
+            }
+        }
+
+        R2dbcDialect dialect = DialectResolver.getDialect(template.getDatabaseClient().getConnectionFactory());
+        return Flux.concat(
+                        execute(template, dialect, entity.getTableName(), idColumn, withId, upsert),
+                        execute(template, dialect, entity.getTableName(), idColumn, withoutId, false))
+                .reduce(0L, Long::sum);
+    }
+
+    private static Mono<Long> execute(R2dbcEntityTemplate template, R2dbcDialect dialect, SqlIdentifier table,
+                                      SqlIdentifier idColumn, List<OutboundRow> rows, boolean upsert) {
+        if (rows.isEmpty()) return Mono.just(0L);
+        List<SqlIdentifier> columns = new ArrayList<>(rows.getFirst().keySet());
+        String sql = sql(dialect, table, idColumn, columns, upsert);
+
+        return template.getDatabaseClient().inConnectionMany(connection -> {
+            Statement statement = connection.createStatement(sql);
+            for (int i = 0; i < rows.size(); i++) {
+                if (i > 0) statement.add();
+                bind(statement, columns, rows.get(i));
+            }
+            return Flux.from(statement.execute()).flatMap(Result::getRowsUpdated);
+        }).reduce(0L, Long::sum);
+    }
+
+    private static void bind(Statement statement, List<SqlIdentifier> columns, OutboundRow row) {
+        for (int index = 0; index < columns.size(); index++) {
+            Parameter parameter = row.get(columns.get(index));
+            if (parameter == null || !parameter.hasValue()) {
+                statement.bindNull(index, parameter == null ? Object.class : parameter.getType());
+            } else {
+                statement.bind(index, parameter.getValue());
+            }
+        }
+    }
+
+    private static String sql(R2dbcDialect dialect, SqlIdentifier table, SqlIdentifier idColumn,
+                              List<SqlIdentifier> columns, boolean upsert) {
+        IdentifierProcessing processing = dialect.getIdentifierProcessing();
+        BindMarkers markers = dialect.getBindMarkersFactory().create();
+        StringJoiner names = new StringJoiner(", ");
+        StringJoiner values = new StringJoiner(", ");
+        StringJoiner updates = new StringJoiner(", ");
+        for (SqlIdentifier column : columns) {
+            String name = column.toSql(processing);
+            names.add(name);
+            values.add(markers.next().getPlaceholder());
+            if (!column.equals(idColumn)) updates.add(name + " = EXCLUDED." + name);
+        }
+
+        StringBuilder sql = new StringBuilder("INSERT INTO ").append(table.toSql(processing))
+                .append(" (").append(names).append(") VALUES (").append(values).append(')');
+        if (upsert) {
+            sql.append(" ON CONFLICT (").append(idColumn.toSql(processing)).append(") DO ");
+            sql.append(updates.length() == 0 ? "NOTHING" : "UPDATE SET " + updates);
+        }
+        return sql.toString();
+    }
+}
@@ -1,6 +1,7 @@
 package ir.msob.jima.core.ral.hr.commons.query;
 
 import ir.msob.jima.core.commons.repository.BaseQuery;
+import ir.msob.jima.core.commons.repository.KeysetCursor;
 import lombok.Getter;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
@@ -10,6 +11,7 @@ import org.springframework.data.relational.core.query.Query;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
 
 /**
@@ -90,4 +92,38 @@ public class R2dbcQuery<T> implements BaseQuery {
         }
         return q;
     }
+
+    /**
+     * Build a keyset (seek) Query: the held Criteria AND the seek condition after the cursor,
+     * ordered by the keyset sort and limited to pageSize + 1 rows (no offset).
+     */
+    public Query toKeysetQuery(KeysetCursor cursor, Sort sort, int pageSize) {
+        Criteria seek = seekCriteria(cursor, sort);
+        Criteria c = criteria == null ? seek : (seek == null ? criteria : criteria.and(seek));
+        Query q = (c != null) ? Query.query(c) : Query.empty();
+        return q.sort(sort).limit(pageSize + 1);
+    }
+
+    /**
+     * (k1 > v1) OR (k1 = v1 AND k2 > v2) OR ... ; {@code <} for descending keys.
+     */
+    private static Criteria seekCriteria(KeysetCursor cursor, Sort sort) {
+        if (cursor == null) return null;
+        List<String> properties = cursor.getProperties();
+        List<Object> values = cursor.getValues();
+        Criteria seek = null;
+        for (int i = 0; i < properties.size(); i++) {
+            Criteria branch = null;
+            for (int j = 0; j < i; j++) {
+                branch = (branch == null) ? Criteria.where(properties.get(j)).is(values.get(j))
+                        : branch.and(properties.get(j)).is(values.get(j));
+            }
+            Sort.Order order = sort.getOrderFor(properties.get(i));
+            boolean ascending = order == null || order.isAscending();
+            Criteria.CriteriaStep key = (branch == null) ? Criteria.where(properties.get(i)) : branch.and(properties.get(i));
+            branch = ascending ? key.greaterThan(values.get(i)) : key.lessThan(values.get(i));
+            seek = (seek == null) ? branch : seek.or(branch);
+        }
+        return seek;
+    }
 }
@@ -0,0 +1,167 @@
+package ir.msob.jima.core.ral.hr.commons;
+
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryMetadata;
+import ir.msob.jima.core.commons.domain.BaseCriteriaAbstract;
+import ir.msob.jima.core.commons.domain.BaseDomainAbstract;
+import ir.msob.jima.core.commons.repository.BaseQueryBuilder;
+import ir.msob.jima.core.commons.repository.BulkResult;
+import ir.msob.jima.core.ral.hr.commons.query.R2dbcBulkStatement;
+import ir.msob.jima.core.ral.hr.commons.query.R2dbcQuery;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+import org.springframework.data.r2dbc.convert.R2dbcConverter;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.relational.core.mapping.RelationalMappingContext;
+import org.springframework.data.relational.core.mapping.RelationalPersistentEntity;
+import org.springframework.data.relational.core.mapping.RelationalPersistentProperty;
+import org.springframework.data.relational.core.query.Query;
+import org.springframework.data.relational.core.sql.SqlIdentifier;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the projections, the bulk writes and the estimated count of {@link BaseR2dbcRepository}.
+ */
+class BaseR2dbcRepositoryTest {
+
+    static class TestDomain extends BaseDomainAbstract<String> {
+        TestDomain(String id) {
+            super(id);
+        }
+    }
+
+    static class TestCriteria extends BaseCriteriaAbstract<String> {
+    }
+
+    private final R2dbcEntityTemplate r2dbcEntityTemplate = Mockito.mock(R2dbcEntityTemplate.class);
+
+    private final BaseR2dbcRepository<String, TestDomain, TestCriteria> repository = new BaseR2dbcRepository<>() {
+        @Override
+        public R2dbcEntityTemplate getR2dbcEntityTemplate() {
+            return r2dbcEntityTemplate;
+        }
+
+        @Override
+        public BaseQueryBuilder getQueryBuilder() {
+            return null;
+        }
+    };
+
+    private RelationalPersistentEntity<?> mockEntity() {
+        RelationalPersistentEntity<?> entity = Mockito.mock(RelationalPersistentEntity.class);
+        RelationalMappingContext mappingContext = Mockito.mock(RelationalMappingContext.class);
+        Mockito.doReturn(entity).when(mappingContext).getRequiredPersistentEntity(TestDomain.class);
+        R2dbcConverter converter = Mockito.mock(R2dbcConverter.class);
+        Mockito.doReturn(mappingContext).when(converter).getMappingContext();
+        Mockito.when(r2dbcEntityTemplate.getConverter()).thenReturn(converter);
+        return entity;
+    }
+
+    /**
+     * Tests that a query with includes selects the id and the top-level columns of the known includes only,
+     * and that a query without includes selects all the columns.
+     */
+    @Test
+    void testFindSelectsOnlyTheIncludedColumns() {
+        RelationalPersistentEntity<?> entity = mockEntity();
+        RelationalPersistentProperty id = Mockito.mock(RelationalPersistentProperty.class);
+        Mockito.when(id.getName()).thenReturn("id");
+        Mockito.doReturn(id).when(entity).getRequiredIdProperty();
+        Mockito.doReturn(Mockito.mock(RelationalPersistentProperty.class)).when(entity).getPersistentProperty("name");
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        Mockito.when(r2dbcEntityTemplate.select(query.capture(), Mockito.eq(TestDomain.class))).thenReturn(Flux.empty());
+
+        repository.find(new R2dbcQuery<TestDomain>().include("name.first").include("unknown")).blockLast();
+        repository.find(new R2dbcQuery<>()).blockLast();
+
+        assertEquals(List.of(SqlIdentifier.unquoted("id"), SqlIdentifier.unquoted("name")), query.getAllValues().get(0).getColumns());
+        assertTrue(query.getAllValues().get(1).getColumns().isEmpty());
+    }
+
+    private static Flux<TestDomain> domains(int count) {
+        return Flux.range(1, count).map(i -> new TestDomain(String.valueOf(i)));
+    }
+
+    /**
+     * Tests that the entities are inserted with one statement per batch, and that each batch has its result.
+     */
+    @Test
+    void testSaveAllWritesOneStatementPerBatch() {
+        List<Integer> batches = new ArrayList<>();
+        try (MockedStatic<R2dbcBulkStatement> statement = Mockito.mockStatic(R2dbcBulkStatement.class)) {
+            statement.when(() -> R2dbcBulkStatement.execute(Mockito.eq(r2dbcEntityTemplate), Mockito.eq(TestDomain.class), Mockito.anyList(), Mockito.eq(false)))
+                    .thenAnswer(invocation -> {
+                        List<?> batch = invocation.getArgument(2);
+                        batches.add(batch.size());
+                        return Mono.just((long) batch.size());
+                    });
+
+            List<BulkResult> results = repository.saveAll(domains(5), 2).collectList().block();
+
+            assertEquals(List.of(2, 2, 1), batches);
+            assertEquals(List.of(BulkResult.inserted(0, 2, 2), BulkResult.inserted(1, 2, 2), BulkResult.inserted(2, 1, 1)), results);
+        }
+    }
+
+    /**
+     * Tests that the entities are upserted with one statement per batch, the affected rows reported as upserted,
+     * and that a failed batch stops the write after the results of the previous ones.
+     */
+    @Test
+    void testBulkUpsertReportsEachBatchAndStopsOnFailure() {
+        List<BulkResult> results = new ArrayList<>();
+        try (MockedStatic<R2dbcBulkStatement> statement = Mockito.mockStatic(R2dbcBulkStatement.class)) {
+            statement.when(() -> R2dbcBulkStatement.execute(Mockito.eq(r2dbcEntityTemplate), Mockito.eq(TestDomain.class), Mockito.anyList(), Mockito.eq(true)))
+                    .thenReturn(Mono.just(2L), Mono.error(new IllegalStateException("failed")));
+
+            assertThrows(IllegalStateException.class, () -> repository.bulkUpsert(domains(5), 2).doOnNext(results::add).blockLast());
+
+            assertEquals(List.of(new BulkResult(0, 2, 0, 0, 0, 2)), results);
+            statement.verify(() -> R2dbcBulkStatement.execute(Mockito.any(), Mockito.any(), Mockito.anyList(), Mockito.anyBoolean()), Mockito.times(2));
+        }
+    }
+
+    private ConnectionFactory mockConnectionFactory(String database) {
+        ConnectionFactory connectionFactory = Mockito.mock(ConnectionFactory.class);
+        ConnectionFactoryMetadata metadata = () -> database;
+        Mockito.when(connectionFactory.getMetadata()).thenReturn(metadata);
+        DatabaseClient databaseClient = Mockito.mock(DatabaseClient.class);
+        Mockito.when(databaseClient.getConnectionFactory()).thenReturn(connectionFactory);
+        Mockito.when(r2dbcEntityTemplate.getDatabaseClient()).thenReturn(databaseClient);
+        return connectionFactory;
+    }
+
+    /**
+     * Tests that there is no estimate, and no statistics read, when the database is not PostgreSQL.
+     */
+    @Test
+    void testNoEstimatedCountOutOfPostgreSql() {
+        ConnectionFactory connectionFactory = mockConnectionFactory("MySQL");
+
+        assertNull(repository.estimatedCount().block());
+        Mockito.verify(connectionFactory, Mockito.never()).create();
+    }
+
+    /**
+     * Tests that a failed read of the statistics is reported as no estimate, so the page counts the rows.
+     */
+    @Test
+    void testFailedEstimatedCountIsNoEstimate() {
+        ConnectionFactory connectionFactory = mockConnectionFactory("PostgreSQL");
+        Mockito.doReturn(Mono.error(new IllegalStateException("failed"))).when(connectionFactory).create();
+        RelationalPersistentEntity<?> entity = mockEntity();
+        Mockito.when(entity.getQualifiedTableName()).thenReturn(SqlIdentifier.unquoted("test_domain"));
+
+        assertNull(repository.estimatedCount().block());
+        Mockito.verify(connectionFactory).create();
+    }
+}
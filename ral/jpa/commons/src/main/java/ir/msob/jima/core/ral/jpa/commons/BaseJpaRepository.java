@@ -4,61 +4,104 @@ import ir.msob.jima.core.commons.domain.BaseCriteria;
 import ir.msob.jima.core.commons.domain.BaseDomain;
 import ir.msob.jima.core.commons.methodstats.MethodStats;
 import ir.msob.jima.core.commons.repository.BaseRepository;
+import ir.msob.jima.core.commons.repository.BulkResult;
+import ir.msob.jima.core.commons.repository.KeysetCursor;
+import ir.msob.jima.core.commons.shared.CountStrategy;
+import ir.msob.jima.core.commons.shared.PageDto;
+import ir.msob.jima.core.ral.jpa.commons.query.JpaCountEstimate;
+import ir.msob.jima.core.ral.jpa.commons.query.JpaProjection;
 import ir.msob.jima.core.ral.jpa.commons.query.JpaQuery;
+import ir.msob.jima.core.ral.jpa.commons.query.JpaResultStream;
 import ir.msob.jima.core.ral.jpa.commons.query.JpaUpdate;
+import ir.msob.jima.core.ral.jpa.commons.scheduler.JpaScheduler;
+import ir.msob.jima.core.ral.jpa.commons.transaction.JpaTransactions;
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
 import jakarta.persistence.TypedQuery;
 import jakarta.persistence.criteria.*;
+import jakarta.persistence.metamodel.Attribute;
 import org.jspecify.annotations.NonNull;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionOperations;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 
 /**
  * Base repository interface for JPA-backed domain objects.
- * All blocking JPA calls are wrapped in boundedElastic scheduler.
+ * All blocking JPA calls run on the {@link JpaScheduler} returned by {@link #getJpaScheduler()}.
  */
 public interface BaseJpaRepository<ID extends Comparable<ID> & Serializable, D extends BaseDomain<ID>, C extends BaseCriteria<ID>>
         extends BaseRepository<ID, D, C> {
 
+    /**
+     * The default JDBC fetch size of streamed queries.
+     */
+    int DEFAULT_STREAM_FETCH_SIZE = 500;
+
     EntityManager getEntityManager();
 
+    /**
+     * The scheduler running the blocking JPA calls. Defaults to {@link JpaScheduler#shared()}, the scheduler
+     * configured by `jima.jpa.scheduler` (e.g. virtual threads bounded by the JDBC pool size); override to
+     * give a repository a scheduler of its own.
+     *
+     * @return the JPA scheduler
+     */
+    default JpaScheduler getJpaScheduler() {
+        return JpaScheduler.shared();
+    }
+
+    /**
+     * The transactions of the batches of {@link #saveAll(Flux, int)} and {@link #bulkUpsert(Flux, int)}, opened
+     * on the thread of the scheduler running the batch. Defaults to {@link JpaTransactions#shared()}, a
+     * transaction template on the application's transaction manager.
+     *
+     * @return the transaction operations
+     */
+    default TransactionOperations getTransactionOperations() {
+        return JpaTransactions.shared();
+    }
+
+    /**
+     * The JDBC fetch size of {@link #stream(JpaQuery)}, also the number of rows between two clears
+     * of the persistence context.
+     *
+     * @return the fetch size
+     */
+    default int getStreamFetchSize() {
+        return DEFAULT_STREAM_FETCH_SIZE;
+    }
+
     @Transactional(readOnly = true)
     @MethodStats
     default Mono<@NonNull D> findOne(JpaQuery<D> jpaQuery) {
-        return Mono.fromCallable(() -> {
+        return getJpaScheduler().schedule(() -> {
             CriteriaBuilder cb = getEntityManager().getCriteriaBuilder();
-            CriteriaQuery<D> cq = cb.createQuery(getDomainClass());
-            Root<D> root = cq.from(getDomainClass());
-
-            Predicate predicate = buildPredicateFromSpecification(cb, root, cq, jpaQuery);
-            if (predicate != null) cq.where(predicate);
-
-            applySort(cb, cq, root, jpaQuery);
-
-            TypedQuery<D> typed = getEntityManager().createQuery(cq);
-            applyPagination(typed, jpaQuery);
-            typed.setMaxResults(1);
-            List<D> res = typed.getResultList();
+            List<D> res = getResultList(cb, jpaQuery, typed -> {
+                applyPagination(typed, jpaQuery);
+                typed.setMaxResults(1);
+            });
             return res.isEmpty() ? null : res.getFirst();
-        }).subscribeOn(Schedulers.boundedElastic());
+        });
     }
 
     @Transactional(readOnly = true)
     @MethodStats
     default Mono<@NonNull D> findById(ID id) {
-        return Mono.fromCallable(() -> getEntityManager().find(getDomainClass(), id))
-                .subscribeOn(Schedulers.boundedElastic());
+        return getJpaScheduler().schedule(() -> getEntityManager().find(getDomainClass(), id));
     }
 
     @Transactional
@@ -71,58 +114,133 @@ public interface BaseJpaRepository<ID extends Comparable<ID> & Serializable, D e
     @Transactional(readOnly = true)
     @MethodStats
     default Flux<@NonNull D> find(JpaQuery<D> jpaQuery) {
-        return Mono.fromCallable(() -> {
+        return getJpaScheduler().schedule(() -> {
             CriteriaBuilder cb = getEntityManager().getCriteriaBuilder();
-            CriteriaQuery<D> cq = cb.createQuery(getDomainClass());
-            Root<D> root = cq.from(getDomainClass());
-
-            Predicate predicate = buildPredicateFromSpecification(cb, root, cq, jpaQuery);
-            if (predicate != null) cq.where(predicate);
+            return getResultList(cb, jpaQuery, typed -> {
+                applyPagination(typed, jpaQuery);
+                if (jpaQuery != null && jpaQuery.getLimit() != null) typed.setMaxResults(jpaQuery.getLimit());
+            });
+        }).flatMapMany(Flux::fromIterable);
+    }
 
-            applySort(cb, cq, root, jpaQuery);
+    @MethodStats
+    default Flux<@NonNull D> stream(JpaQuery<D> jpaQuery) {
+        return stream(jpaQuery, getStreamFetchSize());
+    }
 
-            TypedQuery<D> typed = getEntityManager().createQuery(cq);
+    /**
+     * Stream the matching entities from a JDBC cursor ({@code getResultStream()}) instead of loading the
+     * whole result list. Rows are read on demand (backpressure) with the given JDBC fetch size, and the
+     * persistence context is cleared every {@code fetchSize} rows, so the emitted entities are detached.
+     * The stream holds a connection (and a {@link JpaScheduler} thread) until it completes or is cancelled.
+     *
+     * @see JpaResultStream
+     */
+    @MethodStats
+    default Flux<@NonNull D> stream(JpaQuery<D> jpaQuery, int fetchSize) {
+        return getJpaScheduler().scheduleMany(() -> JpaResultStream.flux(getEntityManager().getEntityManagerFactory(), em -> {
+            TypedQuery<D> typed = createDataQuery(em, em.getCriteriaBuilder(), jpaQuery);
             applyPagination(typed, jpaQuery);
-            if (jpaQuery != null && jpaQuery.getLimit() != null) typed.setMaxResults(jpaQuery.getLimit());
-            return typed.getResultList();
-        }).flatMapMany(Flux::fromIterable).subscribeOn(Schedulers.boundedElastic());
+            return typed;
+        }, fetchSize));
     }
 
+    /**
+     * Page of the query. The total is computed as requested by the {@link CountStrategy} of the query
+     * pageable (EXACT by default); the returned page is a {@link PageDto} reporting the strategy that
+     * produced the total.
+     */
     @Transactional(readOnly = true)
     @MethodStats
     default Mono<@NonNull Page<@NonNull D>> findPage(JpaQuery<D> jpaQuery) {
-        return Mono.fromCallable(() -> {
+        return getJpaScheduler().schedule(() -> {
+            Pageable pageable = (jpaQuery != null && jpaQuery.getPageable() != null) ? jpaQuery.getPageable() : Pageable.unpaged();
+            CountStrategy strategy = countStrategy(pageable, jpaQuery != null && jpaQuery.getSpecification() != null);
             CriteriaBuilder cb = getEntityManager().getCriteriaBuilder();
 
+            // no count: fetch one extra row to detect the next page
+            if (strategy == CountStrategy.NONE) {
+                List<D> rows = getResultList(cb, jpaQuery, typed -> {
+                    applyPagination(typed, jpaQuery);
+                    if (pageable.isPaged()) typed.setMaxResults(pageable.getPageSize() + 1);
+                });
+                return (Page<@NonNull D>) uncountedPage(rows, pageable);
+            }
+
             // count query
-            CriteriaQuery<Long> countCq = cb.createQuery(Long.class);
-            Root<D> countRoot = countCq.from(getDomainClass());
-            Predicate predicate = buildPredicateFromSpecification(cb, countRoot, countCq, jpaQuery);
-            if (predicate != null) countCq.where(predicate);
-            countCq.select(cb.count(countRoot));
-            Long count = getEntityManager().createQuery(countCq).getSingleResult();
+            Long count = null;
+            if (strategy == CountStrategy.ESTIMATED) {
+                count = estimatedCount();
+                if (count == null) strategy = CountStrategy.EXACT;
+            }
+            if (strategy == CountStrategy.CAPPED) {
+                CriteriaQuery<Object> capCq = cb.createQuery(Object.class);
+                Root<D> capRoot = capCq.from(getDomainClass());
+                Predicate predicate = buildPredicateFromSpecification(cb, capRoot, capCq, jpaQuery);
+                if (predicate != null) capCq.where(predicate);
+                capCq.select(capRoot.get(getKeysetIdProperty()));
+                count = (long) getEntityManager().createQuery(capCq)
+                        .setMaxResults((int) Math.min(Integer.MAX_VALUE, countCap(pageable)))
+                        .getResultList().size();
+            }
+            if (strategy == CountStrategy.EXACT) {
+                CriteriaQuery<Long> countCq = cb.createQuery(Long.class);
+                Root<D> countRoot = countCq.from(getDomainClass());
+                Predicate predicate = buildPredicateFromSpecification(cb, countRoot, countCq, jpaQuery);
+                if (predicate != null) countCq.where(predicate);
+                countCq.select(cb.count(countRoot));
+                count = getEntityManager().createQuery(countCq).getSingleResult();
+            }
             if (count == null || count < 1L) {
-                return new PageImpl<@NonNull D>(new ArrayList<>(), jpaQuery.getPageable(), 0L);
+                return (Page<@NonNull D>) PageDto.of(new ArrayList<D>(), pageable, 0L, strategy);
             }
 
             // data query
-            CriteriaQuery<D> dataCq = cb.createQuery(getDomainClass());
-            Root<D> dataRoot = dataCq.from(getDomainClass());
-            Predicate dataPredicate = buildPredicateFromSpecification(cb, dataRoot, dataCq, jpaQuery);
-            if (dataPredicate != null) dataCq.where(dataPredicate);
-            applySort(cb, dataCq, dataRoot, jpaQuery);
-            TypedQuery<D> typed = getEntityManager().createQuery(dataCq);
-            applyPagination(typed, jpaQuery);
+            List<D> rows = getResultList(cb, jpaQuery, typed -> applyPagination(typed, jpaQuery));
+            return (Page<@NonNull D>) PageDto.of(rows, pageable, count, strategy);
+        });
+    }
+
+    /**
+     * Keyset (seek) page: selects the rows after the cursor carried by the query pageable
+     * instead of counting and skipping, so every page costs the same as the first one.
+     * The query pageable must be paged.
+     */
+    @Transactional(readOnly = true)
+    @MethodStats
+    default Mono<@NonNull PageDto<D>> findKeysetPage(JpaQuery<D> jpaQuery) {
+        return getJpaScheduler().schedule(() -> {
+            Pageable pageable = jpaQuery.getPageable();
+            Sort sort = keysetSort(pageable);
+            KeysetCursor cursor = keysetCursor(pageable);
+
+            CriteriaBuilder cb = getEntityManager().getCriteriaBuilder();
+            CriteriaQuery<D> cq = cb.createQuery(getDomainClass());
+            Root<D> root = cq.from(getDomainClass());
 
-            List<D> list = typed.getResultList();
-            return (Page<@NonNull D>) new PageImpl<>(list, jpaQuery.getPageable(), count);
-        }).subscribeOn(Schedulers.boundedElastic());
+            List<Predicate> predicates = new ArrayList<>();
+            Predicate predicate = buildPredicateFromSpecification(cb, root, cq, jpaQuery);
+            if (predicate != null) predicates.add(predicate);
+            Predicate seek = buildSeekPredicate(cb, root, cursor, sort);
+            if (seek != null) predicates.add(seek);
+            if (!predicates.isEmpty()) cq.where(predicates.toArray(new Predicate[0]));
+
+            List<Order> orders = new ArrayList<>();
+            for (Sort.Order o : sort) {
+                orders.add(o.isAscending() ? cb.asc(root.get(o.getProperty())) : cb.desc(root.get(o.getProperty())));
+            }
+            cq.orderBy(orders);
+
+            TypedQuery<D> typed = getEntityManager().createQuery(cq);
+            typed.setMaxResults(pageable.getPageSize() + 1);
+            return keysetPage(typed.getResultList(), pageable);
+        });
     }
 
     @Transactional(readOnly = true)
     @MethodStats
     default Mono<@NonNull Boolean> exists(JpaQuery<D> jpaQuery) {
-        return Mono.fromCallable(() -> {
+        return getJpaScheduler().schedule(() -> {
             CriteriaBuilder cb = getEntityManager().getCriteriaBuilder();
             CriteriaQuery<Long> countCq = cb.createQuery(Long.class);
             Root<D> root = countCq.from(getDomainClass());
@@ -131,7 +249,7 @@ public interface BaseJpaRepository<ID extends Comparable<ID> & Serializable, D e
             countCq.select(cb.count(root));
             Long c = getEntityManager().createQuery(countCq).getSingleResult();
             return c != null && c > 0;
-        }).subscribeOn(Schedulers.boundedElastic());
+        });
     }
 
     @Transactional(readOnly = true)
@@ -143,7 +261,7 @@ public interface BaseJpaRepository<ID extends Comparable<ID> & Serializable, D e
     @Transactional
     @MethodStats
     default Mono<@NonNull Boolean> updateFirst(JpaQuery<D> jpaQuery, JpaUpdate<D> jpaUpdate) {
-        return Mono.fromCallable(() -> {
+        return getJpaScheduler().schedule(() -> {
             if (jpaUpdate == null) return false;
 
             // JPQL path
@@ -175,7 +293,7 @@ public interface BaseJpaRepository<ID extends Comparable<ID> & Serializable, D e
             }
 
             throw new UnsupportedOperationException("SqlUpdate must contain either JPQL or appliers for CriteriaUpdate");
-        }).subscribeOn(Schedulers.boundedElastic());
+        });
     }
 
     @Transactional
@@ -198,7 +316,7 @@ public interface BaseJpaRepository<ID extends Comparable<ID> & Serializable, D e
     @Transactional
     @MethodStats
     default Mono<@NonNull Boolean> delete(JpaQuery<D> jpaQuery) {
-        return Mono.fromCallable(() -> {
+        return getJpaScheduler().schedule(() -> {
             CriteriaBuilder cb = getEntityManager().getCriteriaBuilder();
             CriteriaDelete<D> delete = cb.createCriteriaDelete(getDomainClass());
             Root<D> root = delete.from(getDomainClass());
@@ -206,7 +324,7 @@ public interface BaseJpaRepository<ID extends Comparable<ID> & Serializable, D e
             if (predicate != null) delete.where(predicate);
             int deleted = getEntityManager().createQuery(delete).executeUpdate();
             return deleted > 0;
-        }).subscribeOn(Schedulers.boundedElastic());
+        });
     }
 
     @Transactional
@@ -221,8 +339,148 @@ public interface BaseJpaRepository<ID extends Comparable<ID> & Serializable, D e
         return Mono.error(new UnsupportedOperationException("findOneAndRemove not implemented by default. Override in concrete repository if needed."));
     }
 
+    @MethodStats
+    default Flux<@NonNull BulkResult> saveAll(Flux<D> domains) {
+        return saveAll(domains, getBulkBatchSize());
+    }
+
+    /**
+     * Persist a stream of entities batch by batch. Each batch is persisted, flushed and cleared from the
+     * persistence context, so memory stays bounded by the batch size; the next batch is requested only when
+     * the previous one has been written (backpressure). The batch size should match
+     * {@code hibernate.jdbc.batch_size} so each flush is sent as one JDBC batch.
+     * <p>
+     * Each batch runs in its own transaction of {@link #getTransactionOperations()}: a batch is written
+     * atomically, and a failed batch is rolled back and fails the Flux while the previous batches stay committed.
+     */
+    @MethodStats
+    default Flux<@NonNull BulkResult> saveAll(Flux<D> domains, int batchSize) {
+        return domains.buffer(batchSize)
+                .index()
+                .concatMap(batch -> getJpaScheduler().schedule(() -> getTransactionOperations().execute(status -> {
+                    EntityManager em = getEntityManager();
+                    for (D domain : batch.getT2()) {
+                        em.persist(domain);
+                    }
+                    em.flush();
+                    em.clear();
+                    return BulkResult.inserted(batch.getT1(), batch.getT2().size(), batch.getT2().size());
+                })), 0);
+    }
+
+    @MethodStats
+    default Flux<@NonNull BulkResult> bulkUpsert(Flux<D> domains) {
+        return bulkUpsert(domains, getBulkBatchSize());
+    }
+
+    /**
+     * Upsert a stream of entities batch by batch: entities without an id are persisted, the others merged.
+     * Each batch is flushed and cleared from the persistence context, in its own transaction (see
+     * {@link #saveAll(Flux, int)}).
+     */
+    @MethodStats
+    default Flux<@NonNull BulkResult> bulkUpsert(Flux<D> domains, int batchSize) {
+        return domains.buffer(batchSize)
+                .index()
+                .concatMap(batch -> getJpaScheduler().schedule(() -> getTransactionOperations().execute(status -> {
+                    EntityManager em = getEntityManager();
+                    long inserted = 0;
+                    long merged = 0;
+                    for (D domain : batch.getT2()) {
+                        if (domain.getId() == null) {
+                            em.persist(domain);
+                            inserted++;
+                        } else {
+                            em.merge(domain);
+                            merged++;
+                        }
+                    }
+                    em.flush();
+                    em.clear();
+                    return new BulkResult(batch.getT1(), batch.getT2().size(), inserted, 0L, 0L, merged);
+                })), 0);
+    }
+
     /* ------------------ helper methods ------------------ */
 
+    /**
+     * Estimated row count of the domain table from the PostgreSQL statistics ({@code pg_class.reltuples}),
+     * or null when no estimate is available (e.g. the table was never analyzed), so the page falls back to an
+     * exact count. The table is the physical table of the Hibernate entity persister; with another database
+     * or JPA provider there is no estimate (see {@link JpaCountEstimate}). Override for other databases.
+     */
+    default Long estimatedCount() {
+        return JpaCountEstimate.estimatedCount(getEntityManager().getEntityManagerFactory(), getDomainClass());
+    }
+
+    /**
+     * Run the data query of {@code jpaQuery}, after {@code limits} set its pagination. When the query has
+     * includes (see {@link #projection(JpaQuery)}), only the included attributes are selected with a tuple
+     * query and the returned domains are unmanaged objects with the other attributes left null.
+     */
+    default List<D> getResultList(CriteriaBuilder cb, JpaQuery<D> jpaQuery, Consumer<TypedQuery<?>> limits) {
+        List<String> projection = projection(jpaQuery);
+        if (projection.isEmpty()) {
+            TypedQuery<D> typed = createDataQuery(cb, jpaQuery);
+            limits.accept(typed);
+            return typed.getResultList();
+        }
+        TypedQuery<Tuple> typed = createProjectionQuery(cb, jpaQuery, projection);
+        limits.accept(typed);
+        return JpaProjection.toDomains(typed.getResultList(), getDomainClass(), projection);
+    }
+
+    /**
+     * The attributes to select for the includes of the query: the id followed by the top-level attribute of
+     * each include (unknown attributes are ignored). Empty when the query has no includes or an include is a
+     * collection attribute, which cannot be selected as one column; the whole entity is selected then.
+     */
+    default List<String> projection(JpaQuery<D> jpaQuery) {
+        if (jpaQuery == null || jpaQuery.getIncludes().isEmpty()) return List.of();
+        Map<String, Attribute<? super D, ?>> attributes = new HashMap<>();
+        for (Attribute<? super D, ?> attribute : getEntityManager().getMetamodel().entity(getDomainClass()).getAttributes()) {
+            attributes.put(attribute.getName(), attribute);
+        }
+        Set<String> projection = new LinkedHashSet<>();
+        projection.add(getKeysetIdProperty());
+        for (String include : jpaQuery.getIncludes()) {
+            Attribute<? super D, ?> attribute = attributes.get(include.split("\\.")[0]);
+            if (attribute == null) continue;
+            if (attribute.isCollection()) return List.of();
+            projection.add(attribute.getName());
+        }
+        return new ArrayList<>(projection);
+    }
+
+    default TypedQuery<Tuple> createProjectionQuery(CriteriaBuilder cb, JpaQuery<D> jpaQuery, List<String> projection) {
+        CriteriaQuery<Tuple> cq = cb.createTupleQuery();
+        Root<D> root = fromQuery(cb, cq, jpaQuery);
+        cq.multiselect(projection.stream().<Selection<?>>map(root::get).toList());
+        return getEntityManager().createQuery(cq);
+    }
+
+    default TypedQuery<D> createDataQuery(CriteriaBuilder cb, JpaQuery<D> jpaQuery) {
+        return createDataQuery(getEntityManager(), cb, jpaQuery);
+    }
+
+    default TypedQuery<D> createDataQuery(EntityManager entityManager, CriteriaBuilder cb, JpaQuery<D> jpaQuery) {
+        CriteriaQuery<D> dataCq = cb.createQuery(getDomainClass());
+        fromQuery(cb, dataCq, jpaQuery);
+        return entityManager.createQuery(dataCq);
+    }
+
+    /**
+     * The root of the domain in {@code cq}, with the specification and the sort of the query applied:
+     * the part shared by the data and the projection queries, which only differ by their selection.
+     */
+    default Root<D> fromQuery(CriteriaBuilder cb, CriteriaQuery<?> cq, JpaQuery<D> jpaQuery) {
+        Root<D> root = cq.from(getDomainClass());
+        Predicate predicate = buildPredicateFromSpecification(cb, root, cq, jpaQuery);
+        if (predicate != null) cq.where(predicate);
+        applySort(cb, cq, root, jpaQuery);
+        return root;
+    }
+
     default <T> Predicate buildPredicateFromSpecification(CriteriaBuilder cb, Root<T> root, CriteriaQuery<?> cq, JpaQuery<T> jpaQuery) {
         if (jpaQuery == null) return null;
         Specification<@NonNull T> spec = jpaQuery.getSpecification();
@@ -230,7 +488,7 @@ public interface BaseJpaRepository<ID extends Comparable<ID> & Serializable, D e
         return spec.toPredicate(root, cq, cb);
     }
 
-    default <T> void applySort(CriteriaBuilder cb, CriteriaQuery<T> cq, Root<T> root, JpaQuery<T> jpaQuery) {
+    default <T> void applySort(CriteriaBuilder cb, CriteriaQuery<?> cq, Root<T> root, JpaQuery<T> jpaQuery) {
         if (jpaQuery == null) return;
         if (jpaQuery.getSort() != null) {
             List<Order> orders = new ArrayList<>();
@@ -241,6 +499,29 @@ public interface BaseJpaRepository<ID extends Comparable<ID> & Serializable, D e
         }
     }
 
+    /**
+     * (k1 > v1) OR (k1 = v1 AND k2 > v2) OR ... ; {@code <} for descending keys.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    default <T> Predicate buildSeekPredicate(CriteriaBuilder cb, Root<T> root, KeysetCursor cursor, Sort sort) {
+        if (cursor == null) return null;
+        List<String> properties = cursor.getProperties();
+        List<Object> values = cursor.getValues();
+        List<Predicate> branches = new ArrayList<>();
+        for (int i = 0; i < properties.size(); i++) {
+            List<Predicate> conditions = new ArrayList<>();
+            for (int j = 0; j < i; j++) {
+                conditions.add(cb.equal(root.get(properties.get(j)), values.get(j)));
+            }
+            Sort.Order order = sort.getOrderFor(properties.get(i));
+            Expression key = root.get(properties.get(i));
+            Comparable value = (Comparable) values.get(i);
+            conditions.add(order == null || order.isAscending() ? cb.greaterThan(key, value) : cb.lessThan(key, value));
+            branches.add(cb.and(conditions.toArray(new Predicate[0])));
+        }
+        return cb.or(branches.toArray(new Predicate[0]));
+    }
+
     default void applyPagination(TypedQuery<?> typed, JpaQuery<?> jpaQuery) {
         if (jpaQuery == null) return;
         if (jpaQuery.getPageable() != null) {
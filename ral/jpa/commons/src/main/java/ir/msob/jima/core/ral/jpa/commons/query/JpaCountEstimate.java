@@ -0,0 +1,71 @@
+package ir.msob.jima.core.ral.jpa.commons.query;
+
+import ir.msob.jima.core.commons.logger.Logger;
+import ir.msob.jima.core.commons.logger.LoggerFactory;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceException;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.util.ClassUtils;
+
+import java.util.List;
+
+/**
+ * JpaCountEstimate: reads the estimated row count of the table of an entity from the PostgreSQL statistics
+ * ({@code pg_class.reltuples}) instead of counting its rows.
+ * <p>
+ * The database and the physical table of the entity are resolved from the Hibernate session factory: with
+ * another database or JPA provider there is no estimate. The statistics are read with an entity manager of
+ * their own, outside of the caller's transaction, so a failed read, reported as no estimate, cannot abort it.
+ */
+public final class JpaCountEstimate {
+
+    private static final Logger logger = LoggerFactory.getLogger(JpaCountEstimate.class);
+    private static final boolean HIBERNATE_PRESENT = ClassUtils.isPresent("org.hibernate.engine.spi.SessionFactoryImplementor",
+            JpaCountEstimate.class.getClassLoader());
+
+    private JpaCountEstimate() {
+    }
+
+    /**
+     * Returns the estimated row count of the table of the entity.
+     *
+     * @param entityManagerFactory the entity manager factory of the entity
+     * @param domainClass          the entity class
+     * @return the estimate, or null when there is none (another database, a table never analyzed, a failed read)
+     */
+    public static Long estimatedCount(EntityManagerFactory entityManagerFactory, Class<?> domainClass) {
+        String table = HIBERNATE_PRESENT ? HibernateTables.postgreSqlTable(entityManagerFactory, domainClass) : null;
+        if (table == null) return null;
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            List<?> result = entityManager
+                    .createNativeQuery("SELECT CAST(reltuples AS bigint) FROM pg_class WHERE oid = to_regclass(?1)")
+                    .setParameter(1, table)
+                    .getResultList();
+            if (result.isEmpty() || !(result.getFirst() instanceof Number estimate) || estimate.longValue() < 0) return null;
+            return estimate.longValue();
+        } catch (PersistenceException e) {
+            logger.warn(e, "Cannot read the estimated row count of table '{}', counting its rows", table);
+            return null;
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    // Loaded only when Hibernate is on the classpath
+    private static final class HibernateTables {
+
+        private static String postgreSqlTable(EntityManagerFactory entityManagerFactory, Class<?> domainClass) {
+            SessionFactoryImplementor sessionFactory;
+            try {
+                sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+            } catch (PersistenceException e) {
+                return null;
+            }
+            if (!(sessionFactory.getJdbcServices().getDialect() instanceof PostgreSQLDialect)) return null;
+            return sessionFactory.getMappingMetamodel().getEntityDescriptor(domainClass).getMappedTableDetails().getTableName();
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package ir.msob.jima.core.ral.jpa.commons.query;
+
+import jakarta.persistence.Tuple;
+import org.springframework.beans.BeanUtils;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JpaProjection: turns the rows of a tuple query (one selection per projected attribute, in order)
+ * back into domain objects.
+ * <p>
+ * The objects are created with the no-arg constructor and only the projected fields are set; they are
+ * not managed by the persistence context.
+ */
+public final class JpaProjection {
+
+    private JpaProjection() {
+    }
+
+    /**
+     * Create one domain object per tuple.
+     *
+     * @param tuples      the rows of the tuple query
+     * @param domainClass the domain class
+     * @param attributes  the projected attributes, in selection order
+     * @param <D>         the domain type
+     * @return the domain objects
+     */
+    public static <D> List<D> toDomains(List<Tuple> tuples, Class<D> domainClass, List<String> attributes) {
+        Field[] fields = new Field[attributes.size()];
+        for (int i = 0; i < fields.length; i++) {
+            Field field = ReflectionUtils.findField(domainClass, attributes.get(i));
+            if (field == null)
+                throw new IllegalStateException("Projected attribute '" + attributes.get(i) + "' not found on " + domainClass.getName());
+            ReflectionUtils.makeAccessible(field);
+            fields[i] = field;
+        }
+        List<D> domains = new ArrayList<>(tuples.size());
+        for (Tuple tuple : tuples) {
+            D domain = BeanUtils.instantiateClass(domainClass);
+            for (int i = 0; i < fields.length; i++) {
+                ReflectionUtils.setField(fields[i], domain, tuple.get(i));
+            }
+            domains.add(domain);
+        }
+        return domains;
+    }
+}
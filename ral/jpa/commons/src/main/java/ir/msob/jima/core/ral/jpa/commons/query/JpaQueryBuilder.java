@@ -4,15 +4,15 @@ import ir.msob.jima.core.commons.domain.BaseCriteria;
 import ir.msob.jima.core.commons.filter.Filter;
 import ir.msob.jima.core.commons.repository.BaseQuery;
 import ir.msob.jima.core.commons.repository.BaseQueryBuilder;
+import ir.msob.jima.core.commons.repository.CriteriaMetadata;
+import ir.msob.jima.core.commons.repository.CriteriaMetadata.FilterField;
 import org.jspecify.annotations.NonNull;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Component;
 
 import java.io.Serializable;
-import java.lang.reflect.Field;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 
@@ -37,18 +37,11 @@ public class JpaQueryBuilder implements BaseQueryBuilder {
         JpaQuery<Object> jpaQuery = new JpaQuery<>();
         if (criteria == null) return (Q) jpaQuery;
 
-        Collection<Field> fields = getFields(criteria);
-        for (Field field : fields) {
-            field.setAccessible(true);
-            if (field.getType() == Filter.class) {
-                try {
-                    var filter = (Filter<?>) field.get(criteria);
-                    if (filter != null) {
-                        Specification<@NonNull Object> spec = toSpecification(field.getName(), filter);
-                        if (spec != null) jpaQuery.where(spec);
-                    }
-                } catch (IllegalAccessException ignored) {
-                }
+        for (FilterField field : CriteriaMetadata.of(criteria).getFilterFields()) {
+            var filter = field.get(criteria);
+            if (filter != null) {
+                Specification<@NonNull Object> spec = toSpecification(field.name(), filter);
+                if (spec != null) jpaQuery.where(spec);
             }
         }
 
@@ -163,17 +156,4 @@ public class JpaQueryBuilder implements BaseQueryBuilder {
         return (root, cq, cb) -> cb.lessThanOrEqualTo(root.get(field), (Comparable) value);
     }
 
-    /* ------------------- reflection helpers ------------------- */
-
-    private <ID extends Comparable<ID> & Serializable, C extends BaseCriteria<ID>> Collection<Field> getFields(C criteria) {
-        List<Field> fields = new ArrayList<>();
-        if (criteria != null) {
-            Class<?> type = criteria.getClass();
-            while (type != null && type != BaseCriteria.class) {
-                fields.addAll(Arrays.asList(type.getDeclaredFields()));
-                type = type.getSuperclass();
-            }
-        }
-        return fields;
-    }
 }
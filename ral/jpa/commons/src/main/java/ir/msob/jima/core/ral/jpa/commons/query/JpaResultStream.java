@@ -0,0 +1,118 @@
+package ir.msob.jima.core.ral.jpa.commons.query;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityTransaction;
+import jakarta.persistence.TypedQuery;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.SynchronousSink;
+
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * JpaResultStream: emits the rows of a JPA query as they are read from a JDBC cursor, instead of
+ * materializing {@code getResultList()}.
+ * <p>
+ * Each stream uses its own {@link EntityManager} and read-only resource-local transaction (PostgreSQL only
+ * uses a cursor inside a transaction), so it does not depend on the thread the rows are requested on.
+ * A JTA entity manager has no resource-local transaction, and a JTA transaction is bound to the thread that
+ * began it, which may not be the one closing the stream: its rows are read without transaction, from a cursor
+ * when the JDBC driver keeps one open outside of a transaction (PostgreSQL reads the whole result then).
+ * Rows are read only on demand (backpressure), and the persistence context is cleared every
+ * {@code fetchSize} rows so the heap stays flat regardless of the result size: emitted entities are
+ * detached and must not rely on lazy loading.
+ */
+public final class JpaResultStream<T> implements AutoCloseable {
+
+    /**
+     * Hibernate hint for the JDBC fetch size ({@code org.hibernate.jpa.HibernateHints#HINT_FETCH_SIZE}).
+     */
+    public static final String HINT_FETCH_SIZE = "org.hibernate.fetchSize";
+    /**
+     * Hibernate hint to load entities without dirty-checking snapshots ({@code HibernateHints#HINT_READ_ONLY}).
+     */
+    public static final String HINT_READ_ONLY = "org.hibernate.readOnly";
+
+    private final EntityManager entityManager;
+    private EntityTransaction transaction;
+    private final int fetchSize;
+    private Stream<T> stream;
+    private Iterator<T> iterator;
+    private long count;
+
+    private JpaResultStream(EntityManager entityManager, int fetchSize) {
+        this.entityManager = entityManager;
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Returns a Flux streaming the result of the query created by {@code query}.
+     * The Flux is blocking: subscribe to it on a scheduler that allows blocking calls.
+     *
+     * @param entityManagerFactory the factory of the stream's entity manager
+     * @param query                creates the query on the stream's entity manager
+     * @param fetchSize            the JDBC fetch size, also the number of rows between two clears
+     * @param <T>                  the row type
+     * @return the rows
+     */
+    public static <T> Flux<T> flux(EntityManagerFactory entityManagerFactory,
+                                   Function<EntityManager, TypedQuery<T>> query, int fetchSize) {
+        if (fetchSize < 1)
+            throw new IllegalArgumentException("fetchSize must be positive: " + fetchSize);
+        return Flux.using(() -> open(entityManagerFactory, query, fetchSize),
+                resultStream -> Flux.generate(resultStream::next),
+                JpaResultStream::close);
+    }
+
+    private static <T> JpaResultStream<T> open(EntityManagerFactory entityManagerFactory,
+                                               Function<EntityManager, TypedQuery<T>> query, int fetchSize) {
+        JpaResultStream<T> resultStream = new JpaResultStream<>(entityManagerFactory.createEntityManager(), fetchSize);
+        try {
+            resultStream.transaction = resourceLocalTransaction(resultStream.entityManager);
+            if (resultStream.transaction != null) resultStream.transaction.begin();
+            TypedQuery<T> typed = query.apply(resultStream.entityManager)
+                    .setHint(HINT_FETCH_SIZE, fetchSize)
+                    .setHint(HINT_READ_ONLY, true);
+            resultStream.stream = typed.getResultStream();
+            resultStream.iterator = resultStream.stream.iterator();
+            return resultStream;
+        } catch (RuntimeException e) {
+            resultStream.close();
+            throw e;
+        }
+    }
+
+    private static EntityTransaction resourceLocalTransaction(EntityManager entityManager) {
+        try {
+            return entityManager.getTransaction();
+        } catch (IllegalStateException e) {
+            // a JTA entity manager
+            return null;
+        }
+    }
+
+    private void next(SynchronousSink<T> sink) {
+        if (!iterator.hasNext()) {
+            sink.complete();
+            return;
+        }
+        sink.next(iterator.next());
+        if (++count % fetchSize == 0)
+            entityManager.clear();
+    }
+
+    @Override
+    public void close() {
+        try {
+            if (stream != null) stream.close();
+        } finally {
+            try {
+                if (transaction != null && transaction.isActive()) transaction.rollback();
+            } finally {
+                entityManager.close();
+            }
+        }
+    }
+}
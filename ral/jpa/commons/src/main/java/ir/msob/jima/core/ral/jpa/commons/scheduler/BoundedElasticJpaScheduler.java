@@ -0,0 +1,47 @@
+package ir.msob.jima.core.ral.jpa.commons.scheduler;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.Callable;
+import java.util.function.Supplier;
+
+/**
+ * {@link JpaScheduler} running the calls on Reactor's shared bounded elastic scheduler.
+ * <p>
+ * The queue wait is the time a call spends queued in the bounded elastic scheduler
+ * once all its threads are busy.
+ */
+final class BoundedElasticJpaScheduler implements JpaScheduler {
+
+    static final BoundedElasticJpaScheduler INSTANCE = new BoundedElasticJpaScheduler();
+
+    private final JpaSchedulerMetrics metrics = new JpaSchedulerMetrics();
+
+    private BoundedElasticJpaScheduler() {
+    }
+
+    @Override
+    public <T> Mono<T> schedule(Callable<T> call) {
+        return Mono.defer(() -> {
+            long submitted = System.nanoTime();
+            return Mono.fromCallable(() -> metrics.run(submitted, call))
+                    .subscribeOn(Schedulers.boundedElastic());
+        });
+    }
+
+    @Override
+    public <T> Flux<T> scheduleMany(Supplier<? extends Flux<T>> flux) {
+        return Flux.defer(() -> {
+            long submitted = System.nanoTime();
+            return Flux.using(() -> metrics.start(submitted), started -> Flux.defer(flux), metrics::end)
+                    .subscribeOn(Schedulers.boundedElastic());
+        });
+    }
+
+    @Override
+    public JpaSchedulerMetrics getMetrics() {
+        return metrics;
+    }
+}
@@ -0,0 +1,88 @@
+package ir.msob.jima.core.ral.jpa.commons.scheduler;
+
+import ir.msob.jima.core.commons.properties.JpaProperties;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.Callable;
+import java.util.function.Supplier;
+
+/**
+ * Runs the blocking {@code EntityManager} calls of the reactive JPA repositories off the event loop.
+ * <p>
+ * Every scheduled call records how long it waited for a thread (and a permit) before running, and how long
+ * it ran, in {@link #getMetrics()}; so latency spent in the database can be told apart from latency spent
+ * waiting for a thread.
+ */
+public interface JpaScheduler {
+
+    /**
+     * Returns the shared scheduler running the calls on Reactor's bounded elastic scheduler.
+     *
+     * @return the bounded elastic scheduler
+     */
+    static JpaScheduler boundedElastic() {
+        return BoundedElasticJpaScheduler.INSTANCE;
+    }
+
+    /**
+     * Returns the scheduler used by default by the JPA repositories: the one built from the
+     * `jima.jpa.scheduler` properties by {@link JpaSchedulerConfiguration}, or the shared bounded elastic
+     * scheduler when it is not installed.
+     *
+     * @return the default scheduler
+     */
+    static JpaScheduler shared() {
+        return SharedJpaScheduler.get();
+    }
+
+    /**
+     * Creates a scheduler running each call on its own virtual thread, with at most
+     * {@code maxConcurrency} calls running at the same time.
+     *
+     * @param maxConcurrency the maximum number of concurrent calls, usually the JDBC pool size
+     * @return the virtual thread scheduler
+     */
+    static JpaScheduler virtualThreads(int maxConcurrency) {
+        return new VirtualThreadJpaScheduler(maxConcurrency);
+    }
+
+    /**
+     * Creates the scheduler described by the given properties.
+     *
+     * @param properties the scheduler properties
+     * @return the scheduler
+     */
+    static JpaScheduler of(JpaProperties.Scheduler properties) {
+        return switch (properties.getMode()) {
+            case BOUNDED_ELASTIC -> boundedElastic();
+            case VIRTUAL_THREAD -> virtualThreads(properties.getMaxConcurrency());
+        };
+    }
+
+    /**
+     * Returns a Mono that runs the blocking call on this scheduler when subscribed.
+     *
+     * @param call the blocking call
+     * @param <T>  the result type
+     * @return a Mono emitting the result of the call, or completing empty if it returns null
+     */
+    <T> Mono<T> schedule(Callable<T> call);
+
+    /**
+     * Returns a Flux that subscribes to the given blocking stream on this scheduler. The stream holds its
+     * thread (and permit) until it terminates or is cancelled; downstream requests are also served on it.
+     *
+     * @param flux the supplier of the blocking stream
+     * @param <T>  the element type
+     * @return a Flux emitting the elements of the stream
+     */
+    <T> Flux<T> scheduleMany(Supplier<? extends Flux<T>> flux);
+
+    /**
+     * Returns the queue wait and execution metrics of the calls run by this scheduler.
+     *
+     * @return the metrics
+     */
+    JpaSchedulerMetrics getMetrics();
+}
@@ -0,0 +1,73 @@
+package ir.msob.jima.core.ral.jpa.commons.scheduler;
+
+import ir.msob.jima.core.commons.logger.Logger;
+import ir.msob.jima.core.commons.logger.LoggerFactory;
+import ir.msob.jima.core.commons.properties.JpaProperties;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * Configuration of the {@link JpaScheduler} of the JPA repositories.
+ * <p>
+ * It builds the scheduler described by the `jima.jpa.scheduler` properties, unless the application defines a
+ * JpaScheduler bean, and installs it as {@link JpaScheduler#shared()}, the default scheduler of the repositories.
+ * The properties are bound from the environment, as this module does not depend on the Jima beans.
+ */
+@Configuration
+public class JpaSchedulerConfiguration {
+
+    private static final Logger logger = LoggerFactory.getLogger(JpaSchedulerConfiguration.class);
+
+    /**
+     * Creates the scheduler described by the `jima.jpa.scheduler` properties.
+     *
+     * @param environment The environment holding the properties.
+     * @return The JPA scheduler.
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public JpaScheduler jpaScheduler(Environment environment) {
+        JpaProperties.Scheduler properties = Binder.get(environment)
+                .bind("jima.jpa.scheduler", JpaProperties.Scheduler.class)
+                .orElseGet(JpaProperties.Scheduler::new);
+        logger.info("Running the JPA calls on a {} scheduler", properties.getMode());
+        return JpaScheduler.of(properties);
+    }
+
+    /**
+     * Installs the JPA scheduler bean as the default scheduler of the repositories.
+     *
+     * @param jpaScheduler The JPA scheduler.
+     * @return The installer, uninstalling the scheduler when the context closes.
+     */
+    @Bean
+    public Installer jpaSchedulerInstaller(JpaScheduler jpaScheduler) {
+        return new Installer(jpaScheduler);
+    }
+
+    /**
+     * Installs a scheduler as {@link JpaScheduler#shared()} for the lifetime of the application context.
+     */
+    public static final class Installer implements InitializingBean, DisposableBean {
+        private final JpaScheduler jpaScheduler;
+
+        Installer(JpaScheduler jpaScheduler) {
+            this.jpaScheduler = jpaScheduler;
+        }
+
+        @Override
+        public void afterPropertiesSet() {
+            SharedJpaScheduler.install(jpaScheduler);
+        }
+
+        @Override
+        public void destroy() {
+            SharedJpaScheduler.uninstall(jpaScheduler);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package ir.msob.jima.core.ral.jpa.commons.scheduler;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Queue wait and execution metrics of a {@link JpaScheduler}.
+ * <p>
+ * The queue wait of a call is the time between its subscription and the start of the blocking call;
+ * the execution time is the duration of the blocking call itself (mostly time spent in the database),
+ * or of the whole stream for {@link JpaScheduler#scheduleMany}.
+ * Counters are cumulative since the scheduler was created and are updated without locking.
+ */
+public final class JpaSchedulerMetrics {
+
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder queueWaitNanos = new LongAdder();
+    private final AtomicLong maxQueueWaitNanos = new AtomicLong();
+    private final LongAdder executionNanos = new LongAdder();
+    private final AtomicLong active = new AtomicLong();
+    private final AtomicLong waiting = new AtomicLong();
+
+    JpaSchedulerMetrics() {
+    }
+
+    <T> T run(long submitted, Callable<T> call) throws Exception {
+        long started = start(submitted);
+        try {
+            return call.call();
+        } finally {
+            end(started);
+        }
+    }
+
+    long start(long submitted) {
+        long started = System.nanoTime();
+        long wait = started - submitted;
+        queueWaitNanos.add(wait);
+        maxQueueWaitNanos.accumulateAndGet(wait, Math::max);
+        active.incrementAndGet();
+        return started;
+    }
+
+    void end(long started) {
+        active.decrementAndGet();
+        executionNanos.add(System.nanoTime() - started);
+        calls.increment();
+    }
+
+    void waiting(int delta) {
+        waiting.addAndGet(delta);
+    }
+
+    /**
+     * Returns the number of completed calls.
+     *
+     * @return the number of calls
+     */
+    public long getCalls() {
+        return calls.sum();
+    }
+
+    /**
+     * Returns the number of calls currently running.
+     *
+     * @return the number of active calls
+     */
+    public long getActive() {
+        return active.get();
+    }
+
+    /**
+     * Returns the number of calls currently waiting for a permit (virtual thread mode only).
+     *
+     * @return the number of waiting calls
+     */
+    public long getWaiting() {
+        return waiting.get();
+    }
+
+    /**
+     * Returns the total time calls waited before running.
+     *
+     * @return the total queue wait
+     */
+    public Duration getTotalQueueWait() {
+        return Duration.ofNanos(queueWaitNanos.sum());
+    }
+
+    /**
+     * Returns the average time calls waited before running.
+     *
+     * @return the average queue wait
+     */
+    public Duration getAverageQueueWait() {
+        long count = calls.sum();
+        return count == 0 ? Duration.ZERO : Duration.ofNanos(queueWaitNanos.sum() / count);
+    }
+
+    /**
+     * Returns the longest time a call waited before running.
+     *
+     * @return the maximum queue wait
+     */
+    public Duration getMaxQueueWait() {
+        return Duration.ofNanos(maxQueueWaitNanos.get());
+    }
+
+    /**
+     * Returns the total time spent running calls.
+     *
+     * @return the total execution time
+     */
+    public Duration getTotalExecutionTime() {
+        return Duration.ofNanos(executionNanos.sum());
+    }
+
+    /**
+     * Returns the average time spent running a call.
+     *
+     * @return the average execution time
+     */
+    public Duration getAverageExecutionTime() {
+        long count = calls.sum();
+        return count == 0 ? Duration.ZERO : Duration.ofNanos(executionNanos.sum() / count);
+    }
+
+    @Override
+    public String toString() {
+        return "JpaSchedulerMetrics{calls=" + getCalls() + ", active=" + getActive() + ", waiting=" + getWaiting()
+                + ", averageQueueWait=" + getAverageQueueWait() + ", maxQueueWait=" + getMaxQueueWait()
+                + ", averageExecutionTime=" + getAverageExecutionTime() + '}';
+    }
+}
@@ -0,0 +1,28 @@
+package ir.msob.jima.core.ral.jpa.commons.scheduler;
+
+/**
+ * Holder of the scheduler returned by {@link JpaScheduler#shared()}, installed by
+ * {@link JpaSchedulerConfiguration}.
+ */
+final class SharedJpaScheduler {
+
+    private static volatile JpaScheduler current;
+
+    private SharedJpaScheduler() {
+    }
+
+    static JpaScheduler get() {
+        JpaScheduler scheduler = current;
+        return scheduler != null ? scheduler : JpaScheduler.boundedElastic();
+    }
+
+    static synchronized void install(JpaScheduler scheduler) {
+        current = scheduler;
+    }
+
+    static synchronized void uninstall(JpaScheduler scheduler) {
+        if (current == scheduler) {
+            current = null;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package ir.msob.jima.core.ral.jpa.commons.scheduler;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+/**
+ * {@link JpaScheduler} running each call on its own virtual thread.
+ * <p>
+ * A fair semaphore bounds the number of calls running at the same time. It should be sized to the
+ * JDBC connection pool: calls beyond it park their (cheap) virtual thread on the semaphore instead of
+ * holding a platform thread while waiting for a connection. The queue wait is the time spent waiting
+ * for a permit.
+ */
+final class VirtualThreadJpaScheduler implements JpaScheduler, AutoCloseable {
+
+    private final Semaphore permits;
+    private final Scheduler scheduler;
+    private final JpaSchedulerMetrics metrics = new JpaSchedulerMetrics();
+
+    VirtualThreadJpaScheduler(int maxConcurrency) {
+        if (maxConcurrency < 1)
+            throw new IllegalArgumentException("maxConcurrency must be positive: " + maxConcurrency);
+        this.permits = new Semaphore(maxConcurrency, true);
+        this.scheduler = Schedulers.fromExecutorService(
+                Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("jima-jpa-", 0).factory()), "jima-jpa");
+    }
+
+    @Override
+    public <T> Mono<T> schedule(Callable<T> call) {
+        return Mono.defer(() -> {
+            long submitted = System.nanoTime();
+            return Mono.fromCallable(() -> {
+                acquire();
+                try {
+                    return metrics.run(submitted, call);
+                } finally {
+                    permits.release();
+                }
+            }).subscribeOn(scheduler);
+        });
+    }
+
+    @Override
+    public <T> Flux<T> scheduleMany(Supplier<? extends Flux<T>> flux) {
+        return Flux.defer(() -> {
+            long submitted = System.nanoTime();
+            return Flux.using(() -> {
+                acquire();
+                return metrics.start(submitted);
+            }, started -> Flux.defer(flux), started -> {
+                metrics.end(started);
+                permits.release();
+            }).subscribeOn(scheduler);
+        });
+    }
+
+    @Override
+    public JpaSchedulerMetrics getMetrics() {
+        return metrics;
+    }
+
+    private void acquire() throws InterruptedException {
+        metrics.waiting(1);
+        try {
+            permits.acquire();
+        } finally {
+            metrics.waiting(-1);
+        }
+    }
+
+    @Override
+    public void close() {
+        scheduler.dispose();
+    }
+}
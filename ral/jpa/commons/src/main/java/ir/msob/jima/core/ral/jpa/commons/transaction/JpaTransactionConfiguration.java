@@ -0,0 +1,67 @@
+package ir.msob.jima.core.ral.jpa.commons.transaction;
+
+import ir.msob.jima.core.commons.logger.Logger;
+import ir.msob.jima.core.commons.logger.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Configuration of the transactions run by the JPA repositories on their scheduler.
+ * <p>
+ * It installs a {@link TransactionTemplate} on the application's {@link PlatformTransactionManager}, a JPA or a
+ * JTA one, as {@link JpaTransactions#shared()}. Nothing is installed when the application has no unique
+ * transaction manager.
+ */
+@Configuration
+public class JpaTransactionConfiguration {
+
+    private static final Logger logger = LoggerFactory.getLogger(JpaTransactionConfiguration.class);
+
+    /**
+     * Installs the transaction template of the transaction manager as the transactions of the repositories.
+     *
+     * @param transactionManager The transaction manager of the application.
+     * @return The installer, uninstalling the transactions when the context closes.
+     */
+    @Bean
+    public Installer jpaTransactionsInstaller(ObjectProvider<PlatformTransactionManager> transactionManager) {
+        PlatformTransactionManager manager = transactionManager.getIfUnique();
+        if (manager == null) {
+            logger.warn("No unique transaction manager: the JPA bulk writes run without transaction");
+            return new Installer(null);
+        }
+        return new Installer(new TransactionTemplate(manager));
+    }
+
+    /**
+     * Installs transaction operations as {@link JpaTransactions#shared()} for the lifetime of the application
+     * context.
+     */
+    public static final class Installer implements InitializingBean, DisposableBean {
+        private final TransactionOperations operations;
+
+        Installer(TransactionOperations operations) {
+            this.operations = operations;
+        }
+
+        @Override
+        public void afterPropertiesSet() {
+            if (operations != null) {
+                JpaTransactions.install(operations);
+            }
+        }
+
+        @Override
+        public void destroy() {
+            if (operations != null) {
+                JpaTransactions.uninstall(operations);
+            }
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package ir.msob.jima.core.ral.jpa.commons.transaction;
+
+import org.springframework.transaction.support.TransactionOperations;
+
+/**
+ * Holder of the transactions run by the JPA repositories on their scheduler, installed by
+ * {@link JpaTransactionConfiguration}.
+ * <p>
+ * A {@code @Transactional} method returning a Mono or a Flux only wraps its assembly: the blocking calls run
+ * later, on a thread of the {@code JpaScheduler}, outside of the transaction. The repositories open their
+ * transactions on that thread instead, through the operations returned by {@link #shared()}.
+ */
+public final class JpaTransactions {
+
+    private static volatile TransactionOperations current;
+
+    private JpaTransactions() {
+    }
+
+    /**
+     * Returns the transaction operations of the application's transaction manager, or operations running the
+     * callbacks without transaction when none is installed.
+     *
+     * @return the transaction operations
+     */
+    public static TransactionOperations shared() {
+        TransactionOperations operations = current;
+        return operations != null ? operations : TransactionOperations.withoutTransaction();
+    }
+
+    static synchronized void install(TransactionOperations operations) {
+        current = operations;
+    }
+
+    static synchronized void uninstall(TransactionOperations operations) {
+        if (current == operations) {
+            current = null;
+        }
+    }
+}
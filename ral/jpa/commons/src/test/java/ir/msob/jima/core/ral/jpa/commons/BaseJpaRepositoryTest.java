@@ -0,0 +1,346 @@
+package ir.msob.jima.core.ral.jpa.commons;
+
+import ir.msob.jima.core.commons.domain.BaseCriteriaAbstract;
+import ir.msob.jima.core.commons.domain.BaseDomainAbstract;
+import ir.msob.jima.core.commons.repository.BaseQueryBuilder;
+import ir.msob.jima.core.commons.repository.BulkResult;
+import ir.msob.jima.core.commons.shared.CountStrategy;
+import ir.msob.jima.core.commons.shared.PageDto;
+import ir.msob.jima.core.commons.shared.PageableDto;
+import ir.msob.jima.core.ral.jpa.commons.query.JpaQuery;
+import ir.msob.jima.core.ral.jpa.commons.query.JpaResultStream;
+import ir.msob.jima.core.ral.jpa.commons.scheduler.JpaScheduler;
+import ir.msob.jima.core.ral.jpa.commons.scheduler.JpaSchedulerMetrics;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityTransaction;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.EntityType;
+import jakarta.persistence.metamodel.Metamodel;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+import org.reactivestreams.Subscription;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionOperations;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the paging, the projections, the streaming and the bulk writes of {@link BaseJpaRepository}.
+ */
+class BaseJpaRepositoryTest {
+
+    static class TestDomain extends BaseDomainAbstract<String> {
+        private String name;
+        private String description;
+
+        TestDomain() {
+        }
+
+        TestDomain(String id) {
+            super(id);
+        }
+    }
+
+    static class TestCriteria extends BaseCriteriaAbstract<String> {
+    }
+
+    @SuppressWarnings("unchecked")
+    private final TypedQuery<TestDomain> typedQuery = Mockito.mock(TypedQuery.class);
+    private final EntityManager entityManager = Mockito.mock(EntityManager.class);
+    private final AtomicInteger transactions = new AtomicInteger();
+    private final EntityManagerFactory entityManagerFactory = Mockito.mock(EntityManagerFactory.class);
+    private final EntityManager streamEntityManager = Mockito.mock(EntityManager.class);
+    private final EntityTransaction streamTransaction = Mockito.mock(EntityTransaction.class);
+
+    // runs the calls on the calling thread, so the stream is read as it is requested
+    private final JpaScheduler callingThread = new JpaScheduler() {
+        @Override
+        public <T> Mono<T> schedule(Callable<T> call) {
+            return Mono.fromCallable(call);
+        }
+
+        @Override
+        public <T> Flux<T> scheduleMany(Supplier<? extends Flux<T>> flux) {
+            return Flux.defer(flux);
+        }
+
+        @Override
+        public JpaSchedulerMetrics getMetrics() {
+            return null;
+        }
+    };
+
+    private final BaseJpaRepository<String, TestDomain, TestCriteria> repository = new BaseJpaRepository<>() {
+        @Override
+        public EntityManager getEntityManager() {
+            return entityManager;
+        }
+
+        @Override
+        public BaseQueryBuilder getQueryBuilder() {
+            return null;
+        }
+
+        @Override
+        public JpaScheduler getJpaScheduler() {
+            return callingThread;
+        }
+
+        @Override
+        public TransactionOperations getTransactionOperations() {
+            return new TransactionOperations() {
+                @Override
+                public <T> T execute(TransactionCallback<T> action) {
+                    transactions.incrementAndGet();
+                    return action.doInTransaction(new SimpleTransactionStatus());
+                }
+            };
+        }
+
+        @Override
+        public TypedQuery<TestDomain> createDataQuery(CriteriaBuilder cb, JpaQuery<TestDomain> jpaQuery) {
+            return typedQuery;
+        }
+
+        @Override
+        public TypedQuery<TestDomain> createDataQuery(EntityManager entityManager, CriteriaBuilder cb, JpaQuery<TestDomain> jpaQuery) {
+            assertSame(streamEntityManager, entityManager);
+            return typedQuery;
+        }
+    };
+
+    /**
+     * Tests that an uncounted page after the first one reads its own window, with one extra row for the next page.
+     */
+    @Test
+    void testFindPageWithoutCountReadsTheWindowOfThePage() {
+        List<TestDomain> rows = IntStream.range(10, 21).mapToObj(i -> new TestDomain(String.valueOf(i))).toList();
+        Mockito.when(typedQuery.getResultList()).thenReturn(rows);
+        PageableDto pageable = PageableDto.of(1, 10, Sort.unsorted()).withCountStrategy(CountStrategy.NONE, null);
+
+        Page<TestDomain> page = repository.findPage(new JpaQuery<TestDomain>().with(pageable)).block();
+
+        InOrder inOrder = Mockito.inOrder(typedQuery);
+        inOrder.verify(typedQuery).setFirstResult(10);
+        inOrder.verify(typedQuery).setMaxResults(11);
+        assertNotNull(page);
+        assertEquals(10, page.getContent().size());
+        assertEquals("10", page.getContent().getFirst().getId());
+        assertTrue(page.hasNext());
+        assertEquals(CountStrategy.NONE, ((PageDto<TestDomain>) page).getCountStrategy());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Attribute<? super TestDomain, ?> attribute(String name) {
+        Attribute<TestDomain, Object> attribute = Mockito.mock(Attribute.class);
+        Mockito.when(attribute.getName()).thenReturn(name);
+        return attribute;
+    }
+
+    /**
+     * Tests that a query with includes selects the id and the known included attributes only, and that the
+     * returned domains have only these fields set.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void testFindWithIncludesSelectsAndFillsOnlyTheIncludedAttributes() {
+        Metamodel metamodel = Mockito.mock(Metamodel.class);
+        EntityType<TestDomain> entityType = Mockito.mock(EntityType.class);
+        Set<Attribute<? super TestDomain, ?>> attributes = Set.of(attribute("id"), attribute("name"), attribute("description"));
+        Mockito.when(entityManager.getMetamodel()).thenReturn(metamodel);
+        Mockito.when(metamodel.entity(TestDomain.class)).thenReturn(entityType);
+        Mockito.when(entityType.getAttributes()).thenReturn(attributes);
+        CriteriaBuilder cb = Mockito.mock(CriteriaBuilder.class);
+        CriteriaQuery<Tuple> cq = Mockito.mock(CriteriaQuery.class);
+        Root<TestDomain> root = Mockito.mock(Root.class);
+        Path<Object> idPath = Mockito.mock(Path.class);
+        Path<Object> namePath = Mockito.mock(Path.class);
+        TypedQuery<Tuple> tupleQuery = Mockito.mock(TypedQuery.class);
+        Tuple tuple = Mockito.mock(Tuple.class);
+        Mockito.when(entityManager.getCriteriaBuilder()).thenReturn(cb);
+        Mockito.when(cb.createTupleQuery()).thenReturn(cq);
+        Mockito.when(cq.from(TestDomain.class)).thenReturn(root);
+        Mockito.when(root.<Object>get("id")).thenReturn(idPath);
+        Mockito.when(root.<Object>get("name")).thenReturn(namePath);
+        Mockito.when(entityManager.createQuery(cq)).thenReturn(tupleQuery);
+        Mockito.when(tupleQuery.getResultList()).thenReturn(List.of(tuple));
+        Mockito.when(tuple.get(0)).thenReturn("1");
+        Mockito.when(tuple.get(1)).thenReturn("first");
+
+        List<TestDomain> domains = repository.find(new JpaQuery<TestDomain>().include("name.first").include("unknown"))
+                .collectList().block();
+
+        Mockito.verify(cq).multiselect(List.<Selection<?>>of(idPath, namePath));
+        Mockito.verify(root, Mockito.never()).get("description");
+        assertNotNull(domains);
+        assertEquals(1, domains.size());
+        assertEquals("1", domains.getFirst().getId());
+        assertEquals("first", domains.getFirst().name);
+        assertNull(domains.getFirst().description);
+    }
+
+    private static Flux<TestDomain> domains(String... ids) {
+        return Flux.fromArray(ids).map(TestDomain::new);
+    }
+
+    /**
+     * Tests that the entities are persisted batch by batch, each batch flushed and cleared in its own transaction.
+     */
+    @Test
+    void testSaveAllWritesEachBatchInItsOwnTransaction() {
+        List<BulkResult> results = repository.saveAll(domains("1", "2", "3", "4", "5"), 2).collectList().block();
+
+        assertEquals(List.of(BulkResult.inserted(0, 2, 2), BulkResult.inserted(1, 2, 2), BulkResult.inserted(2, 1, 1)), results);
+        Mockito.verify(entityManager, Mockito.times(5)).persist(Mockito.any(TestDomain.class));
+        Mockito.verify(entityManager, Mockito.times(3)).flush();
+        Mockito.verify(entityManager, Mockito.times(3)).clear();
+        assertEquals(3, transactions.get());
+    }
+
+    /**
+     * Tests that the entities without id are persisted and the others merged, and that the results count them.
+     */
+    @Test
+    void testBulkUpsertPersistsNewEntitiesAndMergesTheOthers() {
+        List<BulkResult> results = repository.bulkUpsert(Flux.just(new TestDomain("1"), new TestDomain(null), new TestDomain("3")), 2).collectList().block();
+
+        assertEquals(List.of(new BulkResult(0, 2, 1, 0, 0, 1), new BulkResult(1, 1, 0, 0, 0, 1)), results);
+        Mockito.verify(entityManager).persist(Mockito.<TestDomain>argThat(domain -> domain.getId() == null));
+        Mockito.verify(entityManager, Mockito.times(2)).merge(Mockito.any(TestDomain.class));
+        assertEquals(2, transactions.get());
+    }
+
+    /**
+     * Tests that a failed batch fails the stream after the results of the previous batches, and stops it.
+     */
+    @Test
+    void testFailedBatchStopsTheBulkWrite() {
+        Mockito.doThrow(new IllegalStateException("failed")).when(entityManager).persist(Mockito.<TestDomain>argThat(domain -> "3".equals(domain.getId())));
+        List<BulkResult> results = new ArrayList<>();
+
+        assertThrows(IllegalStateException.class, () -> repository.saveAll(domains("1", "2", "3", "4", "5"), 2).doOnNext(results::add).blockLast());
+
+        assertEquals(List.of(BulkResult.inserted(0, 2, 2)), results);
+        assertEquals(2, transactions.get());
+        Mockito.verify(entityManager, Mockito.times(1)).flush();
+    }
+
+    private final AtomicInteger read = new AtomicInteger();
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    private void mockStream(int rows) {
+        Mockito.when(entityManager.getEntityManagerFactory()).thenReturn(entityManagerFactory);
+        Mockito.when(entityManagerFactory.createEntityManager()).thenReturn(streamEntityManager);
+        Mockito.when(streamEntityManager.getTransaction()).thenReturn(streamTransaction);
+        Mockito.when(streamTransaction.isActive()).thenReturn(true);
+        Mockito.when(typedQuery.setHint(Mockito.anyString(), Mockito.any())).thenReturn(typedQuery);
+        Mockito.when(typedQuery.getResultStream()).thenAnswer(invocation -> IntStream.range(0, rows)
+                .mapToObj(i -> new TestDomain(String.valueOf(i)))
+                .peek(row -> read.incrementAndGet())
+                .onClose(() -> closed.set(true)));
+    }
+
+    /**
+     * Tests that the rows are read as they are requested, and that the persistence context is cleared every
+     * fetch size rows.
+     */
+    @Test
+    void testStreamReadsTheRowsOnDemandAndClearsEveryFetchSize() {
+        mockStream(10);
+        List<TestDomain> received = new ArrayList<>();
+        BaseSubscriber<TestDomain> subscriber = new BaseSubscriber<>() {
+            @Override
+            protected void hookOnSubscribe(Subscription subscription) {
+                request(2);
+            }
+
+            @Override
+            protected void hookOnNext(TestDomain value) {
+                received.add(value);
+            }
+        };
+
+        repository.stream(new JpaQuery<>(), 3).subscribe(subscriber);
+        assertEquals(2, received.size());
+        assertEquals(2, read.get());
+        Mockito.verify(streamEntityManager, Mockito.never()).clear();
+
+        subscriber.request(5);
+        assertEquals(7, received.size());
+        assertEquals(7, read.get());
+        Mockito.verify(streamEntityManager, Mockito.times(2)).clear();
+        Mockito.verify(typedQuery).setHint(JpaResultStream.HINT_FETCH_SIZE, 3);
+        Mockito.verify(streamTransaction).begin();
+    }
+
+    /**
+     * Tests that a cancelled stream closes its cursor, rolls back its read-only transaction and closes its entity
+     * manager.
+     */
+    @Test
+    void testCancelledStreamIsClosed() {
+        mockStream(10);
+
+        List<TestDomain> received = repository.stream(new JpaQuery<>(), 3).take(4).collectList().block();
+
+        assertNotNull(received);
+        assertEquals(4, received.size());
+        assertTrue(closed.get());
+        Mockito.verify(streamTransaction).rollback();
+        Mockito.verify(streamEntityManager).close();
+    }
+
+    /**
+     * Tests that the stream reads the window of the page of the query, or its limit.
+     */
+    @Test
+    void testStreamAppliesThePaginationAndTheLimit() {
+        mockStream(5);
+        PageableDto pageable = PageableDto.of(2, 5, Sort.unsorted());
+
+        assertEquals(5L, repository.stream(new JpaQuery<TestDomain>().with(pageable), 3).count().block());
+        Mockito.verify(typedQuery).setFirstResult(10);
+        Mockito.verify(typedQuery).setMaxResults(5);
+
+        assertEquals(5L, repository.stream(new JpaQuery<TestDomain>().limit(4), 3).count().block());
+        Mockito.verify(typedQuery).setMaxResults(4);
+    }
+
+    /**
+     * Tests that a JTA entity manager, which has no resource-local transaction, streams its rows without one.
+     */
+    @Test
+    void testStreamWithAJtaEntityManager() {
+        mockStream(4);
+        Mockito.when(streamEntityManager.getTransaction()).thenThrow(new IllegalStateException("JTA"));
+
+        assertEquals(4L, repository.stream(new JpaQuery<>(), 3).count().block());
+        assertTrue(closed.get());
+        Mockito.verifyNoInteractions(streamTransaction);
+        Mockito.verify(streamEntityManager).close();
+    }
+}
@@ -0,0 +1,77 @@
+package ir.msob.jima.core.ral.jpa.commons.query;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceException;
+import jakarta.persistence.Query;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link JpaCountEstimate}.
+ */
+class JpaCountEstimateTest {
+
+    static class TestDomain {
+    }
+
+    private final EntityManagerFactory entityManagerFactory = Mockito.mock(EntityManagerFactory.class);
+    private final SessionFactoryImplementor sessionFactory = Mockito.mock(SessionFactoryImplementor.class, Mockito.RETURNS_DEEP_STUBS);
+    private final EntityManager entityManager = Mockito.mock(EntityManager.class);
+    private final Query query = Mockito.mock(Query.class);
+
+    private void mockHibernate(Dialect dialect) {
+        Mockito.when(entityManagerFactory.unwrap(SessionFactoryImplementor.class)).thenReturn(sessionFactory);
+        Mockito.when(sessionFactory.getJdbcServices().getDialect()).thenReturn(dialect);
+        Mockito.when(sessionFactory.getMappingMetamodel().getEntityDescriptor(TestDomain.class).getMappedTableDetails().getTableName())
+                .thenReturn("app.test_domain");
+        Mockito.when(entityManagerFactory.createEntityManager()).thenReturn(entityManager);
+        Mockito.when(entityManager.createNativeQuery(Mockito.anyString())).thenReturn(query);
+        Mockito.when(query.setParameter(Mockito.anyInt(), Mockito.any())).thenReturn(query);
+    }
+
+    /**
+     * Tests that the estimate is read from the statistics of the physical table of the entity.
+     */
+    @Test
+    void testEstimateOfThePhysicalTable() {
+        mockHibernate(Mockito.mock(PostgreSQLDialect.class));
+        Mockito.when(query.getResultList()).thenReturn(List.of(42L));
+
+        assertEquals(42L, JpaCountEstimate.estimatedCount(entityManagerFactory, TestDomain.class));
+        Mockito.verify(query).setParameter(1, "app.test_domain");
+        Mockito.verify(entityManager).close();
+    }
+
+    /**
+     * Tests that there is no estimate, and no statistics read, out of PostgreSQL or Hibernate.
+     */
+    @Test
+    void testNoEstimateOutOfPostgreSql() {
+        mockHibernate(Mockito.mock(Dialect.class));
+        assertNull(JpaCountEstimate.estimatedCount(entityManagerFactory, TestDomain.class));
+
+        Mockito.when(entityManagerFactory.unwrap(SessionFactoryImplementor.class)).thenThrow(new PersistenceException("not Hibernate"));
+        assertNull(JpaCountEstimate.estimatedCount(entityManagerFactory, TestDomain.class));
+        Mockito.verify(entityManagerFactory, Mockito.never()).createEntityManager();
+    }
+
+    /**
+     * Tests that a failed read of the statistics is reported as no estimate, on an entity manager of its own.
+     */
+    @Test
+    void testFailedReadIsNoEstimate() {
+        mockHibernate(Mockito.mock(PostgreSQLDialect.class));
+        Mockito.when(query.getResultList()).thenThrow(new PersistenceException("failed"));
+
+        assertNull(JpaCountEstimate.estimatedCount(entityManagerFactory, TestDomain.class));
+        Mockito.verify(entityManager).close();
+    }
+}
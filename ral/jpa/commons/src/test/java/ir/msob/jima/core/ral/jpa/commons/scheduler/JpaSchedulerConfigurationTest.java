@@ -0,0 +1,52 @@
+package ir.msob.jima.core.ral.jpa.commons.scheduler;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link JpaSchedulerConfiguration}.
+ */
+class JpaSchedulerConfigurationTest {
+
+    private static StandardEnvironment environment(Map<String, Object> properties) {
+        StandardEnvironment environment = new StandardEnvironment();
+        environment.getPropertySources().addFirst(new MapPropertySource("test", properties));
+        return environment;
+    }
+
+    /**
+     * Tests that the scheduler follows the properties, and is the default of the repositories while installed.
+     */
+    @Test
+    void testSchedulerFollowsThePropertiesAndIsInstalled() throws Exception {
+        JpaSchedulerConfiguration configuration = new JpaSchedulerConfiguration();
+        JpaScheduler scheduler = configuration.jpaScheduler(environment(Map.of(
+                "jima.jpa.scheduler.mode", "VIRTUAL_THREAD",
+                "jima.jpa.scheduler.max-concurrency", "4")));
+        assertInstanceOf(VirtualThreadJpaScheduler.class, scheduler);
+
+        JpaSchedulerConfiguration.Installer installer = configuration.jpaSchedulerInstaller(scheduler);
+        installer.afterPropertiesSet();
+        try {
+            assertSame(scheduler, JpaScheduler.shared());
+            assertTrue(scheduler.schedule(() -> Thread.currentThread().isVirtual()).block());
+        } finally {
+            installer.destroy();
+            ((VirtualThreadJpaScheduler) scheduler).close();
+        }
+        assertSame(JpaScheduler.boundedElastic(), JpaScheduler.shared());
+    }
+
+    /**
+     * Tests that the bounded elastic scheduler is used without properties.
+     */
+    @Test
+    void testDefaultScheduler() {
+        assertSame(JpaScheduler.boundedElastic(), new JpaSchedulerConfiguration().jpaScheduler(environment(Map.of())));
+    }
+}
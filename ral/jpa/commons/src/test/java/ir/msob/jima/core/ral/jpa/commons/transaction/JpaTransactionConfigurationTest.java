@@ -0,0 +1,53 @@
+package ir.msob.jima.core.ral.jpa.commons.transaction;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link JpaTransactionConfiguration}.
+ */
+class JpaTransactionConfigurationTest {
+
+    /**
+     * Tests that the transactions of the repositories run on the transaction manager while installed.
+     */
+    @Test
+    void testTransactionsRunOnTheTransactionManager() throws Exception {
+        PlatformTransactionManager transactionManager = Mockito.mock(PlatformTransactionManager.class);
+        TransactionStatus status = new SimpleTransactionStatus();
+        Mockito.when(transactionManager.getTransaction(Mockito.any())).thenReturn(status);
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory(Map.of("transactionManager", transactionManager));
+
+        JpaTransactionConfiguration.Installer installer = new JpaTransactionConfiguration()
+                .jpaTransactionsInstaller(beanFactory.getBeanProvider(PlatformTransactionManager.class));
+        installer.afterPropertiesSet();
+        try {
+            assertEquals("done", JpaTransactions.shared().execute(transactionStatus -> "done"));
+            Mockito.verify(transactionManager).commit(status);
+        } finally {
+            installer.destroy();
+        }
+        assertSame(TransactionOperations.withoutTransaction(), JpaTransactions.shared());
+    }
+
+    /**
+     * Tests that nothing is installed without transaction manager.
+     */
+    @Test
+    void testNoTransactionManager() throws Exception {
+        JpaTransactionConfiguration.Installer installer = new JpaTransactionConfiguration()
+                .jpaTransactionsInstaller(new StaticListableBeanFactory().getBeanProvider(PlatformTransactionManager.class));
+        installer.afterPropertiesSet();
+        assertSame(TransactionOperations.withoutTransaction(), JpaTransactions.shared());
+        installer.destroy();
+    }
+}
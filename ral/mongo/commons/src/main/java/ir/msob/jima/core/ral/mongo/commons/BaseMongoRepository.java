@@ -4,19 +4,28 @@ import ir.msob.jima.core.commons.domain.BaseCriteria;
 import ir.msob.jima.core.commons.domain.BaseDomain;
 import ir.msob.jima.core.commons.methodstats.MethodStats;
 import ir.msob.jima.core.commons.repository.BaseRepository;
+import ir.msob.jima.core.commons.repository.BulkResult;
+import ir.msob.jima.core.commons.shared.CountStrategy;
+import ir.msob.jima.core.commons.shared.PageDto;
 import ir.msob.jima.core.ral.mongo.commons.operator.QueryUtil;
 import ir.msob.jima.core.ral.mongo.commons.query.MongoQuery;
 import ir.msob.jima.core.ral.mongo.commons.query.MongoUpdate;
 import org.jspecify.annotations.NonNull;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
 import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.ReactiveBulkOperations;
 import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.io.Serializable;
-import java.util.ArrayList;
+import java.util.List;
 
 /**
  * A base repository interface for MongoDB, providing common CRUD operations for domain entities.
@@ -103,15 +112,100 @@ public interface BaseMongoRepository<ID extends Comparable<ID> & Serializable, D
     @MethodStats
     default Mono<@NonNull Page<@NonNull D>> findPage(C criteria) {
         MongoQuery mongoQuery = this.getQueryBuilder().build(criteria);
-        return getReactiveMongoTemplate().count(mongoQuery.getQuery(), getDomainClass()).flatMap(count -> {
-            if (count < 1L) {
-                return Mono.just(new PageImpl<>(new ArrayList<>(), mongoQuery.getPageable(), 0L));
-            } else {
-                mongoQuery.getQuery().with(mongoQuery.getPageable());
-                return getReactiveMongoTemplate().find(mongoQuery.getQuery(), getDomainClass()).collectList()
-                        .flatMap(list -> Mono.just(new PageImpl<>(list, mongoQuery.getPageable(), count)));
+        return findPage(mongoQuery);
+    }
+
+    /**
+     * Find entities and return them as a pageable result.
+     *
+     * @param criteria The criteria containing the search criteria.
+     * @param pageable The requested page, optionally carrying a {@link CountStrategy}.
+     * @return A Mono that emits a Page of found entities.
+     */
+    @MethodStats
+    default Mono<@NonNull Page<@NonNull D>> findPage(C criteria, Pageable pageable) {
+        MongoQuery mongoQuery = this.getQueryBuilder().build(criteria, pageable);
+        return findPage(mongoQuery);
+    }
+
+    /**
+     * Find entities and return them as a pageable result.
+     * <p>
+     * The total is computed as requested by the {@link CountStrategy} of the pageable (EXACT by default).
+     * With {@link CountStrategy#NONE} no count is run: the page is fetched with one extra document to detect
+     * the next page. The returned page is a {@link PageDto} reporting the strategy that produced the total.
+     * <p>
+     * Otherwise the count and the content are fetched concurrently. When the total follows from the content
+     * alone (e.g. a first page shorter than the page size), the page is emitted without waiting for the count,
+     * which is cancelled.
+     *
+     * @param mongoQuery The query containing the search criteria and paging information.
+     * @return A Mono that emits a Page of found entities.
+     */
+    @MethodStats
+    default Mono<@NonNull Page<@NonNull D>> findPage(MongoQuery mongoQuery) {
+        Pageable pageable = mongoQuery.getPageable() == null ? Pageable.unpaged() : mongoQuery.getPageable();
+        Query query = mongoQuery.getQuery();
+        CountStrategy strategy = countStrategy(pageable, !query.getQueryObject().isEmpty());
+        if (strategy == CountStrategy.NONE) {
+            query.with(pageable);
+            if (pageable.isPaged()) query.limit(pageable.getPageSize() + 1);
+            return getReactiveMongoTemplate().find(query, getDomainClass()).collectList()
+                    .map(list -> uncountedPage(list, pageable));
+        }
+
+        Query dataQuery = Query.of(query).with(pageable);
+        Mono<List<D>> content = getReactiveMongoTemplate().find(dataQuery, getDomainClass()).collectList().cache();
+        Mono<@NonNull Page<@NonNull D>> contentPage = content.flatMap(list -> {
+            Long total = totalFromContent(list, pageable);
+            if (total == null) {
+                return Mono.never();
             }
+            return Mono.just(PageDto.of(list, pageable, total, CountStrategy.EXACT));
         });
+        Mono<@NonNull Page<@NonNull D>> countedPage = Mono.zip(content, count(query, strategy, pageable))
+                .map(tuple -> PageDto.of(tuple.getT1(), pageable, tuple.getT2(), strategy));
+        return Mono.firstWithSignal(contentPage, countedPage);
+    }
+
+    /**
+     * Count the entities matching the query with the given strategy.
+     * ESTIMATED uses the collection metadata ({@code estimatedDocumentCount}) and CAPPED stops counting at
+     * {@link #countCap(Pageable)}.
+     *
+     * @param query    The query containing the search criteria (without paging).
+     * @param strategy The count strategy (not NONE).
+     * @param pageable The requested page.
+     * @return A Mono that emits the count.
+     */
+    default Mono<@NonNull Long> count(Query query, CountStrategy strategy, Pageable pageable) {
+        return switch (strategy) {
+            case ESTIMATED -> getReactiveMongoTemplate().estimatedCount(getDomainClass());
+            case CAPPED -> getReactiveMongoTemplate().count(Query.of(query).limit((int) Math.min(Integer.MAX_VALUE, countCap(pageable))), getDomainClass());
+            default -> getReactiveMongoTemplate().count(query, getDomainClass());
+        };
+    }
+
+    /**
+     * Find a keyset (seek) page of entities.
+     * <p>
+     * Instead of counting and skipping, the page is selected with a seek condition after the cursor
+     * carried by the pageable (see {@link ir.msob.jima.core.commons.shared.PageableDto#withCursor(String)}),
+     * sorted by the requested sort plus the id, so every page costs the same as the first one.
+     *
+     * @param criteria The criteria containing the search criteria.
+     * @param pageable The requested (paged) page, optionally carrying the cursor of the previous page.
+     * @return A Mono that emits the page, with the cursor of the next page if there is one.
+     */
+    @MethodStats
+    default Mono<@NonNull PageDto<D>> findKeysetPage(C criteria, Pageable pageable) {
+        MongoQuery mongoQuery = this.getQueryBuilder().build(criteria);
+        Sort sort = keysetSort(pageable);
+        mongoQuery.seek(keysetCursor(pageable), sort)
+                .withSort(sort)
+                .limit(pageable.getPageSize() + 1);
+        return getReactiveMongoTemplate().find(mongoQuery.getQuery(), getDomainClass()).collectList()
+                .map(list -> keysetPage(list, pageable));
     }
 
     /**
@@ -213,4 +307,79 @@ public interface BaseMongoRepository<ID extends Comparable<ID> & Serializable, D
         MongoQuery mongoQuery = this.getQueryBuilder().build(criteria);
         return getReactiveMongoTemplate().findAndRemove(mongoQuery.getQuery(), getDomainClass());
     }
+
+    /**
+     * Insert a stream of entities in unordered bulk writes of {@link #getBulkBatchSize()} entities.
+     *
+     * @param domains The entities to insert.
+     * @return A Flux that emits the result of each batch, in order.
+     */
+    @MethodStats
+    default Flux<@NonNull BulkResult> saveAll(Flux<D> domains) {
+        return saveAll(domains, getBulkBatchSize());
+    }
+
+    /**
+     * Insert a stream of entities in unordered bulk writes ({@link BulkOperations.BulkMode#UNORDERED}).
+     * <p>
+     * The stream is consumed one batch at a time: the next batch is requested only when the previous
+     * bulk write has completed, so memory stays bounded by the batch size.
+     *
+     * @param domains   The entities to insert.
+     * @param batchSize The number of entities per bulk write.
+     * @return A Flux that emits the result of each batch, in order.
+     */
+    @MethodStats
+    default Flux<@NonNull BulkResult> saveAll(Flux<D> domains, int batchSize) {
+        return domains.buffer(batchSize)
+                .index()
+                .concatMap(batch -> {
+                    ReactiveBulkOperations bulkOperations = getReactiveMongoTemplate().bulkOps(BulkOperations.BulkMode.UNORDERED, getDomainClass());
+                    bulkOperations.insert(batch.getT2());
+                    return bulkOperations.execute()
+                            .map(result -> QueryUtil.bulkResult(batch.getT1(), batch.getT2().size(), result));
+                }, 0);
+    }
+
+    /**
+     * Upsert a stream of entities in unordered bulk writes of {@link #getBulkBatchSize()} entities.
+     *
+     * @param domains The entities to upsert.
+     * @return A Flux that emits the result of each batch, in order.
+     */
+    @MethodStats
+    default Flux<@NonNull BulkResult> bulkUpsert(Flux<D> domains) {
+        return bulkUpsert(domains, getBulkBatchSize());
+    }
+
+    /**
+     * Upsert a stream of entities in unordered bulk writes ({@link BulkOperations.BulkMode#UNORDERED}).
+     * Entities with an id replace the document with the same id (inserting it if missing); entities
+     * without an id are inserted.
+     * <p>
+     * The stream is consumed one batch at a time: the next batch is requested only when the previous
+     * bulk write has completed, so memory stays bounded by the batch size.
+     *
+     * @param domains   The entities to upsert.
+     * @param batchSize The number of entities per bulk write.
+     * @return A Flux that emits the result of each batch, in order.
+     */
+    @MethodStats
+    default Flux<@NonNull BulkResult> bulkUpsert(Flux<D> domains, int batchSize) {
+        return domains.buffer(batchSize)
+                .index()
+                .concatMap(batch -> {
+                    ReactiveBulkOperations bulkOperations = getReactiveMongoTemplate().bulkOps(BulkOperations.BulkMode.UNORDERED, getDomainClass());
+                    for (D domain : batch.getT2()) {
+                        if (domain.getId() == null) {
+                            bulkOperations.insert(domain);
+                        } else {
+                            bulkOperations.replaceOne(Query.query(Criteria.where("_id").is(domain.getId())), domain,
+                                    FindAndReplaceOptions.options().upsert());
+                        }
+                    }
+                    return bulkOperations.execute()
+                            .map(result -> QueryUtil.bulkResult(batch.getT1(), batch.getT2().size(), result));
+                }, 0);
+    }
 }
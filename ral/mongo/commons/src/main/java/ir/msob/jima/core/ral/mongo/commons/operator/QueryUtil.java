@@ -1,7 +1,9 @@
 package ir.msob.jima.core.ral.mongo.commons.operator;
 
+import com.mongodb.bulk.BulkWriteResult;
 import com.mongodb.client.result.DeleteResult;
 import com.mongodb.client.result.UpdateResult;
+import ir.msob.jima.core.commons.repository.BulkResult;
 
 /**
  * Utility class for working with MongoDB Query results.
@@ -37,4 +39,19 @@ public class QueryUtil {
             return false;
         return deleteResult.getDeletedCount() > 0;
     }
+
+    /**
+     * Converts a BulkWriteResult to the BulkResult of a batch.
+     *
+     * @param batch  The zero-based index of the batch.
+     * @param size   The number of entities submitted in the batch.
+     * @param result The BulkWriteResult of the batch.
+     * @return The BulkResult of the batch.
+     */
+    public static BulkResult bulkResult(long batch, int size, BulkWriteResult result) {
+        if (result == null || !result.wasAcknowledged())
+            return new BulkResult(batch, size, 0L, 0L, 0L, 0L);
+        return new BulkResult(batch, size, result.getInsertedCount(), result.getMatchedCount(),
+                result.getModifiedCount(), result.getUpserts().size());
+    }
 }
@@ -0,0 +1,119 @@
+package ir.msob.jima.core.ral.mongo.commons.query;
+
+import ir.msob.jima.core.commons.domain.BaseCriteria;
+import ir.msob.jima.core.commons.filter.BaseFilterQuery;
+import ir.msob.jima.core.commons.filter.Filter;
+import ir.msob.jima.core.commons.repository.CriteriaMetadata;
+import ir.msob.jima.core.commons.repository.CriteriaMetadata.FilterField;
+import ir.msob.jima.core.ral.mongo.commons.criteria.MongoCriteria;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+import java.util.Collection;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * {@code MongoCriteriaPlan} is a precompiled description of how a concrete {@link BaseCriteria} class
+ * is translated into MongoDB {@link Criteria}.
+ * <p>
+ * A plan is created once per criteria class and cached in a {@link ClassValue}. It holds the
+ * {@link Filter} fields (with their {@code MethodHandle} accessors) described by the shared
+ * {@link CriteriaMetadata}, so building a query at steady state performs no reflection, no
+ * {@code setAccessible} calls and no field scanning.
+ * Operator dispatch is resolved through the ordered {@link Operator} table instead of an if/else ladder.
+ */
+final class MongoCriteriaPlan {
+
+    private static final ClassValue<MongoCriteriaPlan> PLANS = new ClassValue<>() {
+        @Override
+        protected MongoCriteriaPlan computeValue(Class<?> type) {
+            return compile(type);
+        }
+    };
+
+    private static final Operator[] OPERATORS = Operator.values();
+
+    private final FilterField[] fields;
+
+    private MongoCriteriaPlan(FilterField[] fields) {
+        this.fields = fields;
+    }
+
+    /**
+     * Returns the cached plan of the given criteria class, compiling it on first use.
+     *
+     * @param criteriaClass the concrete criteria class
+     * @return the compiled plan
+     */
+    static MongoCriteriaPlan of(Class<?> criteriaClass) {
+        return PLANS.get(criteriaClass);
+    }
+
+    /**
+     * Takes the {@link Filter} fields of the criteria class from the shared {@link CriteriaMetadata}.
+     */
+    private static MongoCriteriaPlan compile(Class<?> criteriaClass) {
+        return new MongoCriteriaPlan(CriteriaMetadata.of(criteriaClass).getFilterFields().toArray(new FilterField[0]));
+    }
+
+    /**
+     * Applies the conditions of every non-null {@link Filter} of the criteria to the query.
+     * OR conditions are collected into {@code orOperatorList} and combined by the caller.
+     *
+     * @param criteria       the criteria instance (of the class this plan was compiled for)
+     * @param mongoQuery     the target query
+     * @param orOperatorList the collection receiving OR conditions
+     */
+    void apply(Object criteria, MongoQuery mongoQuery, Collection<Criteria> orOperatorList) {
+        for (FilterField field : fields) {
+            Filter<?> fieldFilter = field.get(criteria);
+            if (fieldFilter == null)
+                continue;
+
+            Criteria criterion = toCriteria(field.name(), fieldFilter);
+            if (criterion != null) {
+                mongoQuery.getQuery().addCriteria(criterion);
+            } else if (fieldFilter.getOr() != null) {
+                Criteria orCriterion = toCriteria(field.name(), fieldFilter.getOr());
+                if (orCriterion != null)
+                    orOperatorList.add(orCriterion);
+            }
+        }
+    }
+
+    /**
+     * Returns the condition of the first operator set on the filter, or {@code null} if none is set.
+     */
+    private static Criteria toCriteria(String fieldName, BaseFilterQuery<?> filter) {
+        for (Operator operator : OPERATORS) {
+            Object value = operator.value.apply(filter);
+            if (value != null)
+                return operator.criteria.apply(fieldName, value);
+        }
+        return null;
+    }
+
+    /**
+     * Supported filter operators in their precedence order.
+     */
+    private enum Operator {
+        EQ(BaseFilterQuery::getEq, MongoCriteria::is),
+        EXISTS(BaseFilterQuery::getExists, (f, v) -> MongoCriteria.exists(f, (Boolean) v)),
+        GT(BaseFilterQuery::getGt, MongoCriteria::gt),
+        GTE(BaseFilterQuery::getGte, MongoCriteria::gte),
+        LT(BaseFilterQuery::getLt, MongoCriteria::lt),
+        LTE(BaseFilterQuery::getLte, MongoCriteria::lte),
+        NE(BaseFilterQuery::getNe, MongoCriteria::ne),
+        REGEX(BaseFilterQuery::getRegex, MongoCriteria::regex),
+        IN(BaseFilterQuery::getIn, (f, v) -> MongoCriteria.in(f, (Collection<?>) v)),
+        NIN(BaseFilterQuery::getNin, (f, v) -> MongoCriteria.nin(f, (Collection<?>) v));
+
+        private final Function<BaseFilterQuery<?>, Object> value;
+        private final BiFunction<String, Object, Criteria> criteria;
+
+        Operator(Function<BaseFilterQuery<?>, Object> value, BiFunction<String, Object, Criteria> criteria) {
+            this.value = value;
+            this.criteria = criteria;
+        }
+    }
+}
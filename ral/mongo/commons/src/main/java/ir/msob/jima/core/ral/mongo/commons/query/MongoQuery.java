@@ -1,14 +1,17 @@
 package ir.msob.jima.core.ral.mongo.commons.query;
 
 import ir.msob.jima.core.commons.repository.BaseQuery;
+import ir.msob.jima.core.commons.repository.KeysetCursor;
 import lombok.*;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -271,4 +274,36 @@ public class MongoQuery implements BaseQuery {
         query.addCriteria(criteria);
         return this;
     }
+
+    /**
+     * Adds the keyset (seek) condition that selects the rows after the given cursor.
+     * <p>
+     * For a keyset sort {@code (k1, ..., kn)} the condition is
+     * {@code (k1 > v1) OR (k1 = v1 AND k2 > v2) OR ...}, with {@code <} for descending keys.
+     * It is wrapped in an {@code $and} so it never collides with existing conditions on the same fields.
+     *
+     * @param cursor the cursor to seek after, {@code null} for the first page
+     * @param sort   the keyset sort the cursor was created for
+     * @return this {@code MongoQuery} instance
+     */
+    public MongoQuery seek(KeysetCursor cursor, Sort sort) {
+        if (cursor == null)
+            return this;
+        List<String> properties = cursor.getProperties();
+        List<Object> values = cursor.getValues();
+        Criteria[] branches = new Criteria[properties.size()];
+        for (int i = 0; i < properties.size(); i++) {
+            List<Criteria> conditions = new ArrayList<>(i + 1);
+            for (int j = 0; j < i; j++) {
+                conditions.add(Criteria.where(properties.get(j)).is(values.get(j)));
+            }
+            Sort.Order order = sort.getOrderFor(properties.get(i));
+            Criteria key = Criteria.where(properties.get(i));
+            conditions.add(order == null || order.isAscending() ? key.gt(values.get(i)) : key.lt(values.get(i)));
+            branches[i] = conditions.size() == 1 ? conditions.getFirst() : new Criteria().andOperator(conditions);
+        }
+        Criteria seek = branches.length == 1 ? branches[0] : new Criteria().orOperator(branches);
+        query.addCriteria(new Criteria().andOperator(seek));
+        return this;
+    }
 }
@@ -4,15 +4,12 @@ import ir.msob.jima.core.commons.domain.BaseCriteria;
 import ir.msob.jima.core.commons.filter.Filter;
 import ir.msob.jima.core.commons.repository.BaseQuery;
 import ir.msob.jima.core.commons.repository.BaseQueryBuilder;
-import ir.msob.jima.core.ral.mongo.commons.criteria.MongoCriteria;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.stereotype.Component;
 
 import java.io.Serializable;
-import java.lang.reflect.Field;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 
@@ -20,9 +17,10 @@ import java.util.List;
  * {@code MongoQueryBuilder} is a concrete implementation of {@link BaseQueryBuilder}
  * that builds MongoDB-specific query objects based on {@link BaseCriteria}.
  * <p>
- * It dynamically constructs {@link MongoQuery} instances by reflecting over the provided
- * criteria fields and translating {@link Filter} definitions into {@link Criteria}
- * compatible with MongoDB query semantics.
+ * It constructs {@link MongoQuery} instances by translating the {@link Filter} fields of the provided
+ * criteria into {@link Criteria} compatible with MongoDB query semantics. Field access and operator
+ * dispatch are precompiled once per criteria class (see {@link MongoCriteriaPlan}), so no reflection
+ * happens while building a query at steady state.
  * <p>
  * Supports:
  * <ul>
@@ -47,38 +45,6 @@ public class MongoQueryBuilder implements BaseQueryBuilder {
         }
     }
 
-    /**
-     * Adds OR-based conditions for a given field, using the specified {@link Filter}.
-     *
-     * @param orOperatorList collection of OR conditions
-     * @param field          the field to apply filters on
-     * @param fieldFilter    the filter defining the OR conditions
-     */
-    private static void setOrConditions(Collection<Criteria> orOperatorList, Field field, Filter<?> fieldFilter) {
-        if (fieldFilter.getOr() == null) return;
-
-        if (fieldFilter.getOr().getEq() != null)
-            orOperatorList.add(MongoCriteria.is(field.getName(), fieldFilter.getOr().getEq()));
-        else if (fieldFilter.getOr().getExists() != null)
-            orOperatorList.add(MongoCriteria.exists(field.getName(), fieldFilter.getOr().getExists()));
-        else if (fieldFilter.getOr().getGt() != null)
-            orOperatorList.add(MongoCriteria.gt(field.getName(), fieldFilter.getOr().getGt()));
-        else if (fieldFilter.getOr().getGte() != null)
-            orOperatorList.add(MongoCriteria.gte(field.getName(), fieldFilter.getOr().getGte()));
-        else if (fieldFilter.getOr().getLt() != null)
-            orOperatorList.add(MongoCriteria.lt(field.getName(), fieldFilter.getOr().getLt()));
-        else if (fieldFilter.getOr().getLte() != null)
-            orOperatorList.add(MongoCriteria.lte(field.getName(), fieldFilter.getOr().getLte()));
-        else if (fieldFilter.getOr().getNe() != null)
-            orOperatorList.add(MongoCriteria.ne(field.getName(), fieldFilter.getOr().getNe()));
-        else if (fieldFilter.getOr().getRegex() != null)
-            orOperatorList.add(MongoCriteria.regex(field.getName(), fieldFilter.getOr().getRegex()));
-        else if (fieldFilter.getOr().getIn() != null)
-            orOperatorList.add(MongoCriteria.in(field.getName(), fieldFilter.getOr().getIn()));
-        else if (fieldFilter.getOr().getNin() != null)
-            orOperatorList.add(MongoCriteria.nin(field.getName(), fieldFilter.getOr().getNin()));
-    }
-
     /**
      * Builds a {@link MongoQuery} based on the given criteria.
      *
@@ -103,8 +69,7 @@ public class MongoQueryBuilder implements BaseQueryBuilder {
         MongoQuery mongoQuery = new MongoQuery();
         List<Criteria> orOperatorList = new ArrayList<>();
 
-        Collection<Field> fields = getFields(criteria);
-        setFieldsCondition(criteria, mongoQuery, orOperatorList, fields);
+        setFieldsCondition(criteria, mongoQuery, orOperatorList);
         prepareOrOperation(mongoQuery, orOperatorList);
         prepareIncludes(criteria, mongoQuery);
         preparePagination(pageable, mongoQuery);
@@ -113,25 +78,14 @@ public class MongoQueryBuilder implements BaseQueryBuilder {
     }
 
     /**
-     * Iterates over all {@link Filter} fields within the provided criteria and applies
-     * corresponding MongoDB conditions to the query.
+     * Applies the MongoDB conditions of all {@link Filter} fields within the provided criteria,
+     * using the cached {@link MongoCriteriaPlan} of the criteria class.
      */
     private <ID extends Comparable<ID> & Serializable, C extends BaseCriteria<ID>> void setFieldsCondition(
-            C criteria, MongoQuery mongoQuery, Collection<Criteria> orOperatorList, Collection<Field> fields) {
-
-        for (Field field : fields) {
-            field.setAccessible(true);
-            if (field.getType() == Filter.class) {
-                try {
-                    Filter<?> fieldFilter = (Filter<?>) field.get(criteria);
-                    if (fieldFilter != null) {
-                        setConditions(mongoQuery, orOperatorList, field, fieldFilter);
-                    }
-                } catch (IllegalAccessException ignored) {
-                    // Skip inaccessible fields
-                }
-            }
-        }
+            C criteria, MongoQuery mongoQuery, Collection<Criteria> orOperatorList) {
+        if (criteria == null)
+            return;
+        MongoCriteriaPlan.of(criteria.getClass()).apply(criteria, mongoQuery, orOperatorList);
     }
 
     /**
@@ -164,48 +118,4 @@ public class MongoQueryBuilder implements BaseQueryBuilder {
             mongoQuery.add(pageable);
         }
     }
-
-    /**
-     * Retrieves all declared fields (including inherited ones up to {@link BaseCriteria})
-     * from the provided criteria class.
-     */
-    private <ID extends Comparable<ID> & Serializable, C extends BaseCriteria<ID>> Collection<Field> getFields(C criteria) {
-        List<Field> fields = new ArrayList<>();
-        if (criteria != null) {
-            Class<?> type = criteria.getClass();
-            while (type != null && type != BaseCriteria.class) {
-                fields.addAll(Arrays.asList(type.getDeclaredFields()));
-                type = type.getSuperclass();
-            }
-        }
-        return fields;
-    }
-
-    /**
-     * Translates a single {@link Filter} into the corresponding MongoDB {@link Criteria} condition.
-     */
-    private void setConditions(MongoQuery mongoQuery, Collection<Criteria> orOperatorList, Field field, Filter<?> fieldFilter) {
-        if (fieldFilter.getEq() != null)
-            mongoQuery.is(field.getName(), fieldFilter.getEq());
-        else if (fieldFilter.getExists() != null)
-            mongoQuery.exists(field.getName(), fieldFilter.getExists());
-        else if (fieldFilter.getGt() != null)
-            mongoQuery.gt(field.getName(), fieldFilter.getGt());
-        else if (fieldFilter.getGte() != null)
-            mongoQuery.gte(field.getName(), fieldFilter.getGte());
-        else if (fieldFilter.getLt() != null)
-            mongoQuery.lt(field.getName(), fieldFilter.getLt());
-        else if (fieldFilter.getLte() != null)
-            mongoQuery.lte(field.getName(), fieldFilter.getLte());
-        else if (fieldFilter.getNe() != null)
-            mongoQuery.ne(field.getName(), fieldFilter.getNe());
-        else if (fieldFilter.getRegex() != null)
-            mongoQuery.regex(field.getName(), fieldFilter.getRegex());
-        else if (fieldFilter.getIn() != null)
-            mongoQuery.in(field.getName(), fieldFilter.getIn());
-        else if (fieldFilter.getNin() != null)
-            mongoQuery.nin(field.getName(), fieldFilter.getNin());
-        else if (fieldFilter.getOr() != null)
-            setOrConditions(orOperatorList, field, fieldFilter);
-    }
 }
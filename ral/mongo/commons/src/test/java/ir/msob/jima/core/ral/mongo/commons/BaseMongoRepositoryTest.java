@@ -0,0 +1,102 @@
+package ir.msob.jima.core.ral.mongo.commons;
+
+import com.mongodb.bulk.BulkWriteResult;
+import ir.msob.jima.core.commons.domain.BaseCriteriaAbstract;
+import ir.msob.jima.core.commons.domain.BaseDomainAbstract;
+import ir.msob.jima.core.commons.repository.BaseQueryBuilder;
+import ir.msob.jima.core.commons.repository.BulkResult;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.ReactiveBulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the bulk writes of {@link BaseMongoRepository}.
+ */
+class BaseMongoRepositoryTest {
+
+    static class TestDomain extends BaseDomainAbstract<String> {
+        TestDomain(String id) {
+            super(id);
+        }
+    }
+
+    static class TestCriteria extends BaseCriteriaAbstract<String> {
+    }
+
+    private final ReactiveMongoTemplate reactiveMongoTemplate = Mockito.mock(ReactiveMongoTemplate.class);
+    private final ReactiveBulkOperations bulkOperations = Mockito.mock(ReactiveBulkOperations.class);
+
+    private final BaseMongoRepository<String, TestDomain, TestCriteria> repository = new BaseMongoRepository<>() {
+        @Override
+        public ReactiveMongoTemplate getReactiveMongoTemplate() {
+            return reactiveMongoTemplate;
+        }
+
+        @Override
+        public BaseQueryBuilder getQueryBuilder() {
+            return null;
+        }
+    };
+
+    private void mockBulkWrites(int inserted, int matched, int modified) {
+        BulkWriteResult result = Mockito.mock(BulkWriteResult.class);
+        Mockito.when(result.wasAcknowledged()).thenReturn(true);
+        Mockito.when(result.getInsertedCount()).thenReturn(inserted);
+        Mockito.when(result.getMatchedCount()).thenReturn(matched);
+        Mockito.when(result.getModifiedCount()).thenReturn(modified);
+        Mockito.when(result.getUpserts()).thenReturn(List.of());
+        Mockito.when(reactiveMongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, TestDomain.class)).thenReturn(bulkOperations);
+        Mockito.when(bulkOperations.execute()).thenReturn(Mono.just(result));
+    }
+
+    /**
+     * Tests that the entities are inserted with one bulk write per batch, and that each batch has its result.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void testSaveAllWritesOneBulkPerBatch() {
+        mockBulkWrites(2, 0, 0);
+
+        List<BulkResult> results = repository.saveAll(Flux.just(new TestDomain("1"), new TestDomain("2"), new TestDomain("3"),
+                new TestDomain("4"), new TestDomain("5")), 2).collectList().block();
+
+        ArgumentCaptor<List<TestDomain>> batches = ArgumentCaptor.forClass(List.class);
+        Mockito.verify(bulkOperations, Mockito.times(3)).insert(batches.capture());
+        assertEquals(List.of(2, 2, 1), batches.getAllValues().stream().map(List::size).toList());
+        assertNotNull(results);
+        assertEquals(List.of(0L, 1L, 2L), results.stream().map(BulkResult::batch).toList());
+        assertEquals(List.of(2, 2, 1), results.stream().map(BulkResult::size).toList());
+        Mockito.verify(bulkOperations, Mockito.times(3)).execute();
+    }
+
+    /**
+     * Tests that the entities with an id replace the document of their `_id`, and the others are inserted.
+     */
+    @Test
+    void testBulkUpsertReplacesByIdAndInsertsTheNewEntities() {
+        mockBulkWrites(1, 1, 1);
+        TestDomain created = new TestDomain(null);
+
+        List<BulkResult> results = repository.bulkUpsert(Flux.just(new TestDomain("1"), created, new TestDomain("3")), 2)
+                .collectList().block();
+
+        ArgumentCaptor<Query> queries = ArgumentCaptor.forClass(Query.class);
+        Mockito.verify(bulkOperations, Mockito.times(2)).replaceOne(queries.capture(), Mockito.any(TestDomain.class), Mockito.any(FindAndReplaceOptions.class));
+        assertEquals(List.of(new Document("_id", "1"), new Document("_id", "3")),
+                queries.getAllValues().stream().map(Query::getQueryObject).toList());
+        Mockito.verify(bulkOperations).insert(created);
+        assertEquals(List.of(new BulkResult(0, 2, 1, 1, 1, 0), new BulkResult(1, 1, 1, 1, 1, 0)), results);
+    }
+}
@@ -4,14 +4,14 @@ import ir.msob.jima.core.commons.domain.BaseCriteria;
 import ir.msob.jima.core.commons.filter.Filter;
 import ir.msob.jima.core.commons.repository.BaseQuery;
 import ir.msob.jima.core.commons.repository.BaseQueryBuilder;
+import ir.msob.jima.core.commons.repository.CriteriaMetadata;
+import ir.msob.jima.core.commons.repository.CriteriaMetadata.FilterField;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.relational.core.query.Criteria;
 import org.springframework.stereotype.Component;
 
 import java.io.Serializable;
-import java.lang.reflect.Field;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 
@@ -33,18 +33,11 @@ class R2dbcQueryBuilder implements BaseQueryBuilder {
         R2dbcQuery<Object> r2dbcQuery = new R2dbcQuery<>();
         if (criteria == null) return (Q) r2dbcQuery;
 
-        Collection<Field> fields = getFields(criteria);
-        for (Field field : fields) {
-            field.setAccessible(true);
-            if (Filter.class.isAssignableFrom(field.getType())) {
-                try {
-                    var filter = (Filter<?>) field.get(criteria);
-                    if (filter != null) {
-                        Criteria c = toCriteria(field.getName(), filter);
-                        if (c != null) r2dbcQuery.where(c);
-                    }
-                } catch (IllegalAccessException ignored) {
-                }
+        for (FilterField field : CriteriaMetadata.of(criteria).getFilterFields()) {
+            var filter = field.get(criteria);
+            if (filter != null) {
+                Criteria c = toCriteria(field.name(), filter);
+                if (c != null) r2dbcQuery.where(c);
             }
         }
 
@@ -148,16 +141,4 @@ class R2dbcQueryBuilder implements BaseQueryBuilder {
     private Criteria lteCriteria(String field, Object value) {
         return Criteria.where(field).lessThanOrEquals(value);
     }
-
-    private <ID extends Comparable<ID> & Serializable, C extends BaseCriteria<ID>> Collection<Field> getFields(C criteria) {
-        List<Field> fields = new ArrayList<>();
-        if (criteria != null) {
-            Class<?> type = criteria.getClass();
-            while (type != null && type != BaseCriteria.class) {
-                fields.addAll(Arrays.asList(type.getDeclaredFields()));
-                type = type.getSuperclass();
-            }
-        }
-        return fields;
-    }
 }